@@ -8,6 +8,15 @@ import javafx.scene.control.Alert;
 import javafx.stage.Stage;
 import org.example.config.AppConfig;
 import org.example.repository.Neo4jConnection;
+import org.example.service.AuditLogWriter;
+import org.example.service.CategoryAnalyticsService;
+import org.example.service.NotificationManager;
+import org.example.service.RefreshScheduler;
+import org.example.service.SLAEngine;
+import org.example.service.SLATimerService;
+import org.example.service.TicketCounterStore;
+import org.example.service.TicketLatencyService;
+import org.example.service.TicketRollupService;
 
 public class MainApp extends Application {
 
@@ -35,6 +44,16 @@ public class MainApp extends Application {
         }
 
 
+        AuditLogWriter.getInstance().start();
+
+        // Seed in-memory analytics counters, trend rollups, latency histograms, SLA index and SLA timers
+        TicketCounterStore.getInstance().start();
+        TicketRollupService.getInstance().start();
+        TicketLatencyService.getInstance().start();
+        CategoryAnalyticsService.getInstance().start();
+        SLAEngine.getInstance().start();
+        SLATimerService.getInstance().start();
+
         // Load main window
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/MainWindow.fxml"));
         Parent root = loader.load();
@@ -49,6 +68,19 @@ public class MainApp extends Application {
         System.out.println("✅ Application started successfully!");
     }
 
+    @Override
+    public void stop() {
+        RefreshScheduler.getInstance().shutdown();
+        TicketCounterStore.getInstance().shutdown();
+        TicketRollupService.getInstance().shutdown();
+        TicketLatencyService.getInstance().shutdown();
+        CategoryAnalyticsService.getInstance().shutdown();
+        SLATimerService.getInstance().shutdown();
+        SLAEngine.getInstance().shutdown();
+        NotificationManager.getInstance().shutdown();
+        AuditLogWriter.getInstance().shutdown();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -1,5 +1,7 @@
 package org.example.controller;
 
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -7,21 +9,29 @@ import javafx.fxml.Initializable;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
+import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.util.Duration;
 
 import org.example.model.AuditLog;
 import org.example.repository.AuditRepository;
 import org.example.util.DateUtils;
 import org.example.service.ExportService;
+import org.example.service.RefreshScheduler;
 
 import java.net.URL;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.ResourceBundle;
-import java.util.stream.Collectors;
 
 /**
- * Activity Log Controller - System-wide activity monitoring and audit trail
+ * Activity Log Controller - System-wide activity monitoring and audit trail.
+ * Filters run in the database and the table pages through the whole history
+ * by keyset as it is scrolled, so nothing is filtered or queried on the FX
+ * thread.
  */
 public class ActivityLogController implements Initializable {
 
@@ -41,25 +51,55 @@ public class ActivityLogController implements Initializable {
     @FXML private Label totalLogsLabel;
     @FXML private Label filteredLogsLabel;
 
+    private static final int PAGE_SIZE = 200;
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(300);
+
     private AuditRepository auditRepository;
-    private ObservableList<AuditLog> allLogs;
     private ObservableList<AuditLog> filteredLogs;
     private ExportService exportService;
+    private RefreshScheduler.Subscription<AuditPage> refreshSubscription;
+    private RefreshScheduler.Subscription<NextPage> nextPageSubscription;
+    private final PauseTransition searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
+
+    // Written on the FX thread, read by the loaders
+    private volatile View view = new View(0, new AuditRepository.Filter());
+    private volatile PageRequest pageRequest;
+    // FX thread only
+    private int shownGeneration = -1;
+    private boolean hasMore;
+    private boolean loadingMore;
+    private int pageEpoch;
+    private long pageRequests;
+    private long totalLogs;
 
     public ActivityLogController() {
         this.auditRepository = new AuditRepository();
         this.exportService = new ExportService();
+        this.filteredLogs = FXCollections.observableArrayList();
     }
 
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         setupTable();
         setupFilters();
-        loadActivityLogs();
         setupAutoRefresh();
+        loadActivityLogs();
     }
 
     private void setupTable() {
+        // Fetch the next page when the table is scrolled near its end
+        activityTable.skinProperty().addListener((obs, oldSkin, skin) -> {
+            for (Node node : activityTable.lookupAll(".scroll-bar")) {
+                if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                    bar.valueProperty().addListener((o, oldValue, value) -> {
+                        if (value.doubleValue() >= bar.getMax() * 0.9) {
+                            loadNextPage();
+                        }
+                    });
+                }
+            }
+        });
+
         colTimestamp.setCellValueFactory(cellData ->
                 new javafx.beans.property.SimpleStringProperty(
                         DateUtils.formatDateTime(cellData.getValue().getTimestamp())
@@ -157,92 +197,172 @@ public class ActivityLogController implements Initializable {
         endDatePicker.setValue(java.time.LocalDate.now());
         endDatePicker.setOnAction(e -> applyFilters());
 
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> applyFilters());
+        // Query once typing pauses rather than on every keystroke
+        searchDebounce.setOnFinished(e -> applyFilters());
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> searchDebounce.playFromStart());
     }
 
     private void loadActivityLogs() {
-        try {
-            List<AuditLog> logs = auditRepository.findRecent(1000);
-            allLogs = FXCollections.observableArrayList(logs);
-            filteredLogs = FXCollections.observableArrayList(logs);
-            activityTable.setItems(filteredLogs);
-            updateStatistics();
-            System.out.println("✅ Loaded " + logs.size() + " activity logs");
-        } catch (Exception e) {
-            System.err.println("❌ Error loading activity logs: " + e.getMessage());
-            allLogs = FXCollections.observableArrayList();
-            filteredLogs = FXCollections.observableArrayList();
-        }
+        refreshSubscription.refreshNow();
     }
 
+    /**
+     * Start over from the first page with the filter currently shown
+     */
     private void applyFilters() {
-        List<AuditLog> filtered = allLogs.stream()
-                .filter(this::matchesActionFilter)
-                .filter(this::matchesUserFilter)
-                .filter(this::matchesDateFilter)
-                .filter(this::matchesSearchFilter)
-                .collect(Collectors.toList());
-
-        filteredLogs.setAll(filtered);
-        updateStatistics();
+        searchDebounce.stop();
+        view = new View(view.generation + 1, buildFilter());
+        loadActivityLogs();
     }
 
-    private boolean matchesActionFilter(AuditLog log) {
-        String filter = actionFilterCombo.getValue();
-        if ("All Actions".equals(filter)) return true;
-        return log.getAction() != null && log.getAction().toUpperCase().contains(filter);
+    private AuditRepository.Filter buildFilter() {
+        AuditRepository.Filter filter = new AuditRepository.Filter();
+
+        String action = actionFilterCombo.getValue();
+        if (action != null && !"All Actions".equals(action)) {
+            filter.setAction(action);
+        }
+        String user = userFilterCombo.getValue();
+        if (user != null && !"All Users".equals(user)) {
+            filter.setUsername(user);
+        }
+        LocalDate start = startDatePicker.getValue();
+        if (start != null) {
+            filter.setFrom(start.atStartOfDay());
+        }
+        LocalDate end = endDatePicker.getValue();
+        if (end != null) {
+            filter.setTo(end.plusDays(1).atStartOfDay());
+        }
+        String search = searchField.getText();
+        if (search != null && !search.trim().isEmpty()) {
+            filter.setSearchText(search.trim());
+        }
+        return filter;
     }
 
-    private boolean matchesUserFilter(AuditLog log) {
-        String filter = userFilterCombo.getValue();
-        if ("All Users".equals(filter)) return true;
-        return log.getUsername() != null && log.getUsername().contains(filter);
+    /**
+     * Refresh loader, run off the FX thread. Always fetches the first page:
+     * entries can be written late with an older timestamp than the newest
+     * shown, so loading only what is newer would miss them.
+     */
+    private AuditPage loadPage() {
+        View current = view;
+        long total = auditRepository.count();
+        List<AuditLog> first = auditRepository.findPage(current.filter, null, PAGE_SIZE);
+        return new AuditPage(current.generation, first, total);
     }
 
-    private boolean matchesDateFilter(AuditLog log) {
-        if (log.getTimestamp() == null) return true;
+    /**
+     * Show a freshly loaded first page. For a new filter it replaces the
+     * table; otherwise it replaces the rows the page covers and keeps the
+     * older pages already scrolled in.
+     */
+    private void applyPage(AuditPage page) {
+        if (page.generation != view.generation) {
+            // Loaded for a filter that has since changed
+            return;
+        }
+        if (page.generation != shownGeneration || page.logs.size() < PAGE_SIZE) {
+            // The page is the whole result, or the start of a new one
+            pageEpoch++;
+            loadingMore = false;
+            filteredLogs.setAll(page.logs);
+            hasMore = page.logs.size() == PAGE_SIZE;
+            if (page.generation != shownGeneration) {
+                activityTable.scrollTo(0);
+            }
+            shownGeneration = page.generation;
+        } else {
+            AuditLog boundary = page.logs.get(page.logs.size() - 1);
+            int covered = 0;
+            while (covered < filteredLogs.size() && !isOlder(filteredLogs.get(covered), boundary)) {
+                covered++;
+            }
+            filteredLogs.remove(0, covered);
+            filteredLogs.addAll(0, page.logs);
+        }
+        totalLogs = page.total;
+        updateStatistics();
+    }
 
-        LocalDateTime start = startDatePicker.getValue().atStartOfDay();
-        LocalDateTime end = endDatePicker.getValue().atTime(23, 59, 59);
+    /**
+     * True if a sorts after b in page order: newest first, ties by id descending
+     */
+    private static boolean isOlder(AuditLog a, AuditLog b) {
+        int byTime = a.getTimestamp().compareTo(b.getTimestamp());
+        if (byTime != 0) {
+            return byTime < 0;
+        }
+        return a.getId() != null && b.getId() != null && a.getId().compareTo(b.getId()) < 0;
+    }
 
-        return !log.getTimestamp().isBefore(start) && !log.getTimestamp().isAfter(end);
+    /**
+     * Ask the refresh pipeline for the page after the last row shown
+     */
+    private void loadNextPage() {
+        if (loadingMore || !hasMore || filteredLogs.isEmpty()) {
+            return;
+        }
+        loadingMore = true;
+        pageRequest = new PageRequest(++pageRequests, pageEpoch, view.filter,
+                filteredLogs.get(filteredLogs.size() - 1));
+        nextPageSubscription.requestRefresh();
     }
 
-    private boolean matchesSearchFilter(AuditLog log) {
-        String search = searchField.getText();
-        if (search == null || search.trim().isEmpty()) return true;
+    /**
+     * Next-page loader, run off the FX thread on the refresh pipeline
+     */
+    private NextPage fetchNextPage() {
+        PageRequest request = pageRequest;
+        if (request == null) {
+            return new NextPage(null, List.of());
+        }
+        return new NextPage(request, auditRepository.findPage(request.filter, request.after, PAGE_SIZE));
+    }
 
-        String searchLower = search.toLowerCase();
-        return (log.getAction() != null && log.getAction().toLowerCase().contains(searchLower)) ||
-                (log.getUsername() != null && log.getUsername().toLowerCase().contains(searchLower)) ||
-                (log.getEntityType() != null && log.getEntityType().toLowerCase().contains(searchLower)) ||
-                (log.getEntityId() != null && log.getEntityId().toLowerCase().contains(searchLower));
+    private void applyNextPage(NextPage page) {
+        if (page.request == null || page.request.epoch != pageEpoch) {
+            // Nothing requested yet, or the table was reloaded since
+            return;
+        }
+        loadingMore = false;
+        filteredLogs.addAll(page.logs);
+        hasMore = page.logs.size() == PAGE_SIZE;
+        updateStatistics();
     }
 
     private void updateStatistics() {
-        totalLogsLabel.setText(String.valueOf(allLogs.size()));
-        filteredLogsLabel.setText(String.valueOf(filteredLogs.size()));
+        totalLogsLabel.setText(String.valueOf(totalLogs));
+        filteredLogsLabel.setText(filteredLogs.size() + (hasMore ? "+" : ""));
     }
 
     private void setupAutoRefresh() {
-        javafx.animation.Timeline timeline = new javafx.animation.Timeline(
-                new javafx.animation.KeyFrame(
-                        javafx.util.Duration.minutes(2),
-                        e -> {
-                            System.out.println("🔄 Auto-refreshing activity logs...");
-                            loadActivityLogs();
-                        }
-                )
-        );
-        timeline.setCycleCount(javafx.animation.Timeline.INDEFINITE);
-        timeline.play();
+        activityTable.setItems(filteredLogs);
+        view = new View(0, buildFilter());
+        // Reloads only when an audit entry was written or purged since the last load
+        refreshSubscription = RefreshScheduler.getInstance().subscribe("activity-log",
+                AuditRepository::getChangeVersion,
+                this::loadPage,
+                this::applyPage);
+        refreshSubscription.bindTo(activityTable);
+
+        // Versioned by request, so the periodic pass never fetches a page nobody asked for
+        nextPageSubscription = RefreshScheduler.getInstance().subscribe("activity-log-next-page",
+                () -> {
+                    PageRequest request = pageRequest;
+                    return request == null ? 0 : request.sequence;
+                },
+                this::fetchNextPage,
+                this::applyNextPage);
+        nextPageSubscription.onError(e -> loadingMore = false);
+        nextPageSubscription.bindTo(activityTable);
     }
 
     @FXML
     private void handleRefresh() {
         System.out.println("🔄 Refreshing activity logs...");
         loadActivityLogs();
-        applyFilters();
     }
 
     @FXML
@@ -342,14 +462,19 @@ public class ActivityLogController implements Initializable {
 
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    LocalDateTime cutoff = LocalDateTime.now().minusDays(90);
-                    auditRepository.deleteOlderThan(cutoff);
-                    loadActivityLogs();
-                    showAlert("Success", "Old logs deleted successfully", Alert.AlertType.INFORMATION);
-                } catch (Exception e) {
-                    showAlert("Error", "Failed to delete logs: " + e.getMessage(), Alert.AlertType.ERROR);
-                }
+                LocalDateTime cutoff = LocalDateTime.now().minusDays(90);
+                new Thread(() -> {
+                    try {
+                        long deleted = auditRepository.deleteOlderThan(cutoff);
+                        Platform.runLater(() -> {
+                            applyFilters();
+                            showAlert("Success", deleted + " old logs deleted successfully", Alert.AlertType.INFORMATION);
+                        });
+                    } catch (Exception e) {
+                        Platform.runLater(() ->
+                                showAlert("Error", "Failed to delete logs: " + e.getMessage(), Alert.AlertType.ERROR));
+                    }
+                }).start();
             }
         });
     }
@@ -361,4 +486,54 @@ public class ActivityLogController implements Initializable {
         alert.setContentText(content);
         alert.showAndWait();
     }
+
+    /** Filter shown in the view, numbered so loads for an older filter are discarded */
+    private static final class View {
+        private final int generation;
+        private final AuditRepository.Filter filter;
+
+        private View(int generation, AuditRepository.Filter filter) {
+            this.generation = generation;
+            this.filter = filter;
+        }
+    }
+
+    /** A next-page fetch: the row to continue after, for the table epoch it was asked in */
+    private static final class PageRequest {
+        private final long sequence;
+        private final int epoch;
+        private final AuditRepository.Filter filter;
+        private final AuditLog after;
+
+        private PageRequest(long sequence, int epoch, AuditRepository.Filter filter, AuditLog after) {
+            this.sequence = sequence;
+            this.epoch = epoch;
+            this.filter = filter;
+            this.after = after;
+        }
+    }
+
+    /** Rows fetched for a PageRequest */
+    private static final class NextPage {
+        private final PageRequest request;
+        private final List<AuditLog> logs;
+
+        private NextPage(PageRequest request, List<AuditLog> logs) {
+            this.request = request;
+            this.logs = Collections.unmodifiableList(logs);
+        }
+    }
+
+    /** Result of a refresh: the first page for the filter of a generation */
+    private static final class AuditPage {
+        private final int generation;
+        private final List<AuditLog> logs;
+        private final long total;
+
+        private AuditPage(int generation, List<AuditLog> logs, long total) {
+            this.generation = generation;
+            this.logs = Collections.unmodifiableList(logs);
+            this.total = total;
+        }
+    }
 }
\ No newline at end of file
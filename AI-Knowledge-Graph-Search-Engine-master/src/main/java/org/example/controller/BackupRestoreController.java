@@ -5,6 +5,7 @@ import javafx.fxml.Initializable;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.collections.FXCollections;
+import org.example.model.BackupVerification;
 import org.example.service.BackupService;
 import java.util.prefs.Preferences;
 
@@ -113,7 +114,20 @@ public class BackupRestoreController implements Initializable {
 
     @FXML
     private void handleCreateBackup() {
-        statusLabel.setText("Creating backup...");
+        runBackup(false);
+    }
+
+    /**
+     * Back up only what changed since the latest backup in the location;
+     * the service takes a full backup when there is nothing to build on
+     */
+    @FXML
+    private void handleCreateIncrementalBackup() {
+        runBackup(true);
+    }
+
+    private void runBackup(boolean incremental) {
+        statusLabel.setText(incremental ? "Creating incremental backup..." : "Creating backup...");
         backupProgress.setProgress(0);
 
         new Thread(() -> {
@@ -125,13 +139,11 @@ public class BackupRestoreController implements Initializable {
                 options.put("comments", includeCommentsToggle.isSelected());
                 options.put("logs", includeLogsToggle.isSelected());
 
-                String backupFile = backupService.createBackup(
-                        backupLocationField.getText(),
-                        options,
-                        progress -> javafx.application.Platform.runLater(() ->
-                                backupProgress.setProgress(progress)
-                        )
-                );
+                java.util.function.Consumer<Double> progressCallback = progress ->
+                        javafx.application.Platform.runLater(() -> backupProgress.setProgress(progress));
+                String backupFile = incremental
+                        ? backupService.createIncrementalBackup(backupLocationField.getText(), options, progressCallback)
+                        : backupService.createBackup(backupLocationField.getText(), options, progressCallback);
 
                 javafx.application.Platform.runLater(() -> {
                     statusLabel.setText("✅ Backup completed: " + backupFile);
@@ -248,22 +260,28 @@ public class BackupRestoreController implements Initializable {
 
         new Thread(() -> {
             try {
-                boolean valid = backupService.verifyBackup(
+                BackupVerification report = backupService.verifyBackupChecksums(
                         backupLocationField.getText() + "/" + selected
                 );
 
                 javafx.application.Platform.runLater(() -> {
-                    if (valid) {
+                    String speed = String.format("%d entries, %.0f MB/s",
+                            report.getEntriesChecked(), report.getMegabytesPerSecond());
+                    if (report.isValid()) {
                         statusLabel.setText("✅ Backup is valid");
-                        log("Backup verification successful: " + selected);
+                        log("Backup verification successful: " + selected + " (" + speed + ")");
                         showAlert("Verification Success",
-                                "Backup is valid and can be restored",
+                                "Backup is valid and can be restored\n\n" + speed,
                                 Alert.AlertType.INFORMATION);
                     } else {
                         statusLabel.setText("❌ Backup is corrupted");
-                        log("Backup verification failed: " + selected);
+                        log("Backup verification failed: " + selected + " (" + speed + ")");
+                        report.getFailures().forEach(failure -> log("  " + failure));
+                        List<String> failures = report.getFailures();
                         showAlert("Verification Failed",
-                                "Backup may be corrupted or incomplete",
+                                failures.size() + " corrupted or missing entries:\n"
+                                        + String.join("\n", failures.subList(0, Math.min(10, failures.size())))
+                                        + (failures.size() > 10 ? "\n..." : ""),
                                 Alert.AlertType.ERROR);
                     }
                 });
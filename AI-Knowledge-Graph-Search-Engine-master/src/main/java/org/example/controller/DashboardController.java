@@ -1,12 +1,22 @@
 package org.example.controller;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.chart.*;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ChoiceDialog;
 import javafx.scene.control.Label;
+import javafx.stage.DirectoryChooser;
+import org.example.model.DashboardSnapshot;
+import org.example.model.enums.Priority;
 import org.example.service.AnalyticsService;
+import org.example.service.ExportService;
+import org.example.service.RefreshScheduler;
+import org.example.service.SLAEngine;
 import org.example.repository.TicketRepository;
 
+import java.io.File;
 import java.net.URL;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -28,6 +38,7 @@ public class DashboardController implements Initializable {
 
     private final AnalyticsService analyticsService;
     private final TicketRepository ticketRepository;
+    private RefreshScheduler.Subscription<DashboardData> refreshSubscription;
 
     public DashboardController() {
         this.analyticsService = new AnalyticsService();
@@ -36,15 +47,33 @@ public class DashboardController implements Initializable {
 
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        loadDashboardMetrics();
         setupCharts();
-        loadChartData();
+        refreshSubscription = RefreshScheduler.getInstance().subscribe("dashboard",
+                () -> RefreshScheduler.version(TicketRepository.getChangeVersion(),
+                        SLAEngine.getInstance().getPolicyVersion(), LocalDate.now().toEpochDay()),
+                this::loadDashboardData, this::applyDashboardData);
+        refreshSubscription.bindTo(totalTicketsLabel);
+        refreshSubscription.refreshNow();
     }
 
-    private void loadDashboardMetrics() {
-        try {
-            Map<String, Object> metrics = analyticsService.getDashboardMetrics();
+    /**
+     * Runs on a refresh worker; everything the view shows is read here
+     */
+    private DashboardData loadDashboardData() {
+        DashboardSnapshot snapshot = analyticsService.getDashboardSnapshot();
+        return new DashboardData(snapshot,
+                analyticsService.toDashboardMetrics(snapshot),
+                analyticsService.getTicketTrend(7),
+                analyticsService.getTicketsByCategory());
+    }
+
+    private void applyDashboardData(DashboardData data) {
+        loadDashboardMetrics(data.snapshot, data.metrics);
+        loadChartData(data);
+    }
 
+    private void loadDashboardMetrics(DashboardSnapshot snapshot, Map<String, Object> metrics) {
+        try {
             totalTicketsLabel.setText(String.valueOf(metrics.get("totalTickets")));
             openTicketsLabel.setText(String.valueOf(metrics.get("openTickets")));
             resolvedTicketsLabel.setText(String.valueOf(metrics.get("resolvedTickets")));
@@ -55,9 +84,7 @@ public class DashboardController implements Initializable {
             double slaCompliance = (Double) metrics.getOrDefault("slaComplianceRate", 0.0);
             slaComplianceLabel.setText(String.format("%.1f%%", slaCompliance));
 
-            long criticalCount = ticketRepository.countByPriority(
-                    org.example.model.enums.Priority.CRITICAL
-            );
+            long criticalCount = snapshot.getPriorityCount(Priority.CRITICAL.name());
             criticalTicketsLabel.setText(String.valueOf(criticalCount));
 
             System.out.println("✅ Dashboard metrics loaded successfully");
@@ -90,18 +117,18 @@ public class DashboardController implements Initializable {
         }
     }
 
-    private void loadChartData() {
-        loadStatusChart();
-        loadPriorityChart();
-        loadTrendChart();
-        loadCategoryChart();
+    private void loadChartData(DashboardData data) {
+        loadStatusChart(data.snapshot);
+        loadPriorityChart(data.snapshot);
+        loadTrendChart(data.trend);
+        loadCategoryChart(data.categoryCounts);
     }
 
-    private void loadStatusChart() {
+    private void loadStatusChart(DashboardSnapshot snapshot) {
         if (statusPieChart == null) return;
 
         try {
-            Map<String, Long> statusCounts = analyticsService.getTicketsByStatus();
+            Map<String, Long> statusCounts = snapshot.getStatusCounts();
             statusPieChart.getData().clear();
 
             statusCounts.forEach((status, count) -> {
@@ -139,11 +166,11 @@ public class DashboardController implements Initializable {
         });
     }
 
-    private void loadPriorityChart() {
+    private void loadPriorityChart(DashboardSnapshot snapshot) {
         if (priorityBarChart == null) return;
 
         try {
-            Map<String, Long> priorityCounts = analyticsService.getTicketsByPriority();
+            Map<String, Long> priorityCounts = snapshot.getPriorityCounts();
 
             XYChart.Series<String, Number> series = new XYChart.Series<>();
             series.setName("Tickets");
@@ -183,11 +210,10 @@ public class DashboardController implements Initializable {
         );
     }
 
-    private void loadTrendChart() {
+    private void loadTrendChart(List<Map<String, Object>> trendData) {
         if (trendLineChart == null) return;
 
         try {
-            List<Map<String, Object>> trendData = analyticsService.getTicketTrend(7);
 
             XYChart.Series<String, Number> createdSeries = new XYChart.Series<>();
             createdSeries.setName("Created");
@@ -197,16 +223,11 @@ public class DashboardController implements Initializable {
 
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd");
 
-            for (int i = 6; i >= 0; i--) {
-                LocalDate date = LocalDate.now().minusDays(i);
-                String dateStr = date.format(formatter);
-
-                // Simulated data - replace with actual data from trendData
-                int created = (int)(Math.random() * 10) + 5;
-                int resolved = (int)(Math.random() * 8) + 3;
+            for (Map<String, Object> day : trendData) {
+                String dateStr = LocalDate.parse((String) day.get("date")).format(formatter);
 
-                createdSeries.getData().add(new XYChart.Data<>(dateStr, created));
-                resolvedSeries.getData().add(new XYChart.Data<>(dateStr, resolved));
+                createdSeries.getData().add(new XYChart.Data<>(dateStr, (Number) day.get("created")));
+                resolvedSeries.getData().add(new XYChart.Data<>(dateStr, (Number) day.get("resolved")));
             }
 
             trendLineChart.getData().clear();
@@ -217,11 +238,10 @@ public class DashboardController implements Initializable {
         }
     }
 
-    private void loadCategoryChart() {
+    private void loadCategoryChart(Map<String, Long> categoryCounts) {
         if (categoryBarChart == null) return;
 
         try {
-            Map<String, Long> categoryCounts = analyticsService.getTicketsByCategory();
 
             XYChart.Series<String, Number> series = new XYChart.Series<>();
             series.setName("Tickets");
@@ -244,15 +264,52 @@ public class DashboardController implements Initializable {
 
     @FXML
     private void handleRefresh() {
-        loadDashboardMetrics();
-        loadChartData();
-        System.out.println("✅ Dashboard refreshed");
+        refreshSubscription.refreshNow();
+        System.out.println("🔄 Dashboard refresh requested");
     }
 
+    /**
+     * Export every ticket in the chosen format; runs off the FX thread
+     */
     @FXML
     private void handleExport() {
-        System.out.println("📊 Exporting dashboard data...");
-        // Implement export functionality
+        ChoiceDialog<String> formatDialog = new ChoiceDialog<>("CSV", "CSV", "JSON", "Columnar snapshot");
+        formatDialog.setTitle("Export Tickets");
+        formatDialog.setHeaderText(null);
+        formatDialog.setContentText("Format:");
+        Optional<String> format = formatDialog.showAndWait();
+        if (format.isEmpty()) {
+            return;
+        }
+
+        DirectoryChooser dirChooser = new DirectoryChooser();
+        dirChooser.setTitle("Select Export Directory");
+        File selectedDir = dirChooser.showDialog(totalTicketsLabel.getScene().getWindow());
+        if (selectedDir == null) {
+            return;
+        }
+
+        System.out.println("📊 Exporting tickets as " + format.get() + "...");
+        ExportService exportService = new ExportService();
+        ExportService.ExportProgress[] last = new ExportService.ExportProgress[1];
+        ExportService.ExportProgressListener listener = progress -> last[0] = progress;
+        new Thread(() -> {
+            try {
+                String directory = selectedDir.getAbsolutePath();
+                String filename = switch (format.get()) {
+                    case "JSON" -> exportService.exportAllToJSONParallel(directory, listener);
+                    case "Columnar snapshot" -> exportService.exportAllToColumnar(directory, listener);
+                    default -> exportService.exportAllToCSVParallel(directory, listener);
+                };
+                String summary = last[0] != null ? "\n" + last[0] : "";
+                Platform.runLater(() -> showAlert("Export Complete",
+                        "Tickets exported to: " + filename + summary, Alert.AlertType.INFORMATION));
+            } catch (Exception e) {
+                System.err.println("❌ Dashboard export failed: " + e.getMessage());
+                Platform.runLater(() -> showAlert("Error",
+                        "Failed to export: " + e.getMessage(), Alert.AlertType.ERROR));
+            }
+        }, "dashboard-export").start();
     }
 
     @FXML
@@ -266,4 +323,30 @@ public class DashboardController implements Initializable {
         System.out.println("📧 Emailing dashboard report...");
         // Implement email functionality
     }
-}
\ No newline at end of file
+
+    private void showAlert(String title, String content, Alert.AlertType type) {
+        Alert alert = new Alert(type);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(content);
+        alert.showAndWait();
+    }
+
+    /**
+     * Immutable result of one dashboard load
+     */
+    private static final class DashboardData {
+        private final DashboardSnapshot snapshot;
+        private final Map<String, Object> metrics;
+        private final List<Map<String, Object>> trend;
+        private final Map<String, Long> categoryCounts;
+
+        DashboardData(DashboardSnapshot snapshot, Map<String, Object> metrics,
+                      List<Map<String, Object>> trend, Map<String, Long> categoryCounts) {
+            this.snapshot = snapshot;
+            this.metrics = Collections.unmodifiableMap(new HashMap<>(metrics));
+            this.trend = Collections.unmodifiableList(new ArrayList<>(trend));
+            this.categoryCounts = Collections.unmodifiableMap(new HashMap<>(categoryCounts));
+        }
+    }
+}
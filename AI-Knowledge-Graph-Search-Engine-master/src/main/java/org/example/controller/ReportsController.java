@@ -2,18 +2,32 @@ package org.example.controller;
 
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.Node;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.PieChart;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.stage.Window;
+import org.example.service.AnalyticsService;
 import org.example.service.ReportService;
 import org.example.service.ExportService;
+import org.example.model.DashboardSnapshot;
 import org.example.model.Report;
+import org.example.util.DateUtils;
 
 import java.net.URL;
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 /**
- * Reports Controller - Generate comprehensive system reports
+ * Reports Controller - Generate comprehensive system reports. Also drives
+ * the overview layout in ReportsView.fxml (KPI cards, charts and a CSV
+ * export); each layout declares only its own nodes, so the others are null.
  */
 public class ReportsController implements Initializable {
 
@@ -31,21 +45,94 @@ public class ReportsController implements Initializable {
     @FXML private Button exportButton;
     @FXML private ListView<String> savedReportsList;
 
+    // Overview layout
+    @FXML private Label lblTotalTickets;
+    @FXML private Label lblAvgResolutionTime;
+    @FXML private Label lblHighPriority;
+    @FXML private Label lblCompletionRate;
+    @FXML private PieChart pieChartCategory;
+    @FXML private PieChart pieChartStatus;
+    @FXML private BarChart<String, Number> barChartTrend;
+
     private ReportService reportService;
     private ExportService exportService;
+    private AnalyticsService analyticsService;
     private Report currentReport;
+    private ReportService.ReportJob currentJob;
+    private long jobGeneration;
+    private String generateButtonText;
 
     public ReportsController() {
         this.reportService = new ReportService();
         this.exportService = new ExportService();
+        this.analyticsService = new AnalyticsService();
     }
 
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        setupComboBoxes();
-        setupDatePickers();
-        loadSavedReports();
-        setupListeners();
+        if (reportTypeCombo != null) {
+            setupComboBoxes();
+            setupDatePickers();
+            loadSavedReports();
+            setupListeners();
+        }
+        if (lblTotalTickets != null) {
+            handleRefresh();
+        }
+    }
+
+    /**
+     * Reload the overview KPIs and charts in the background
+     */
+    @FXML
+    private void handleRefresh() {
+        new Thread(() -> {
+            try {
+                DashboardSnapshot snapshot = analyticsService.getDashboardSnapshot();
+                Map<String, Long> categories = analyticsService.getTicketsByCategory();
+                List<Map<String, Object>> trend = analyticsService.getTicketTrend(30);
+                Platform.runLater(() -> applyOverview(snapshot, categories, trend));
+            } catch (Exception e) {
+                System.err.println("❌ Error loading report overview: " + e.getMessage());
+            }
+        }, "reports-overview").start();
+    }
+
+    private void applyOverview(DashboardSnapshot snapshot, Map<String, Long> categories,
+                               List<Map<String, Object>> trend) {
+        long total = snapshot.getTotalTickets();
+        long completed = snapshot.getStatusCount("RESOLVED") + snapshot.getStatusCount("CLOSED");
+        long openHighPriority = 0;
+        for (String priority : List.of("HIGH", "CRITICAL")) {
+            openHighPriority += snapshot.getPriorityCount(priority)
+                    - snapshot.getCount("RESOLVED", priority) - snapshot.getCount("CLOSED", priority);
+        }
+
+        lblTotalTickets.setText(String.valueOf(total));
+        lblAvgResolutionTime.setText(String.format("%.1fh", snapshot.getAverageResolutionMinutes() / 60));
+        lblHighPriority.setText(String.valueOf(openHighPriority));
+        lblCompletionRate.setText(total > 0 ? String.format("%.0f%%", completed * 100.0 / total) : "0%");
+
+        pieChartCategory.getData().clear();
+        categories.forEach((category, count) -> {
+            if (count > 0) {
+                pieChartCategory.getData().add(new PieChart.Data(category + " (" + count + ")", count));
+            }
+        });
+        pieChartStatus.getData().clear();
+        snapshot.getStatusCounts().forEach((status, count) -> {
+            if (count > 0) {
+                pieChartStatus.getData().add(new PieChart.Data(status + " (" + count + ")", count));
+            }
+        });
+
+        XYChart.Series<String, Number> created = new XYChart.Series<>();
+        for (Map<String, Object> day : trend) {
+            created.getData().add(new XYChart.Data<>(
+                    LocalDate.parse((String) day.get("date")).format(DateTimeFormatter.ofPattern("MM/dd")),
+                    (Number) day.get("created")));
+        }
+        barChartTrend.getData().setAll(Collections.singletonList(created));
     }
 
     private void setupComboBoxes() {
@@ -85,6 +172,12 @@ public class ReportsController implements Initializable {
 
     @FXML
     private void handleGenerateReport() {
+        // While a job runs the generate button doubles as its cancel button
+        if (currentJob != null) {
+            currentJob.cancel();
+            return;
+        }
+
         String reportType = reportTypeCombo.getValue();
         LocalDate startDate = startDatePicker.getValue();
         LocalDate endDate = endDatePicker.getValue();
@@ -94,44 +187,63 @@ public class ReportsController implements Initializable {
             return;
         }
 
-        generateButton.setDisable(true);
-        statusLabel.setText("Generating report...");
-        progressBar.setProgress(0);
-
-        new Thread(() -> {
-            try {
-                for (int i = 0; i <= 100; i += 10) {
-                    final int progress = i;
-                    javafx.application.Platform.runLater(() -> progressBar.setProgress(progress / 100.0));
-                    Thread.sleep(200);
-                }
+        runJob(listener -> reportService.generateReportAsync(
+                reportType,
+                startDate.atStartOfDay(),
+                endDate.atTime(23, 59, 59),
+                includeChartsToggle.isSelected(),
+                includeSummaryToggle.isSelected(),
+                includeDetailsToggle.isSelected(),
+                listener
+        ), "Generating report...", report -> "✅ Report generated successfully!");
+    }
 
-                currentReport = reportService.generateReport(
-                        reportType,
-                        startDate.atStartOfDay(),
-                        endDate.atTime(23, 59, 59),
-                        includeChartsToggle.isSelected(),
-                        includeSummaryToggle.isSelected(),
-                        includeDetailsToggle.isSelected()
-                );
+    /**
+     * Run a report job with live progress; the generate button becomes its cancel button
+     */
+    private void runJob(Function<ReportService.ReportProgressListener, ReportService.ReportJob> starter,
+                        String runningText, Function<Report, String> successText) {
+        long generation = ++jobGeneration;
+        generateButtonText = generateButton.getText();
+        generateButton.setText("✖ Cancel");
+        exportButton.setDisable(true);
+        statusLabel.setText(runningText);
+        progressBar.setProgress(0);
 
-                javafx.application.Platform.runLater(() -> {
-                    reportPreview.setText(currentReport.getPreviewText());
-                    statusLabel.setText("✅ Report generated successfully!");
-                    progressBar.setProgress(1.0);
-                    generateButton.setDisable(false);
-                    exportButton.setDisable(false);
-                });
+        ReportService.ReportJob job = starter.apply((progress, stage) -> Platform.runLater(() -> {
+            if (generation == jobGeneration) {
+                progressBar.setProgress(progress);
+                statusLabel.setText(runningText + " " + stage);
+            }
+        }));
+        currentJob = job;
 
-            } catch (Exception e) {
-                javafx.application.Platform.runLater(() -> {
-                    statusLabel.setText("❌ Error: " + e.getMessage());
-                    progressBar.setProgress(0);
-                    generateButton.setDisable(false);
-                });
-                e.printStackTrace();
+        job.getResult().whenComplete((report, error) -> Platform.runLater(() -> {
+            if (generation != jobGeneration) {
+                return;
+            }
+            currentJob = null;
+            generateButton.setText(generateButtonText);
+
+            if (job.isCancelled()) {
+                statusLabel.setText("Report generation cancelled");
+                progressBar.setProgress(0);
+                exportButton.setDisable(currentReport == null);
+            } else if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                statusLabel.setText("❌ Error: " + cause.getMessage());
+                progressBar.setProgress(0);
+                exportButton.setDisable(currentReport == null);
+                cause.printStackTrace();
+            } else {
+                currentReport = report;
+                reportPreview.setText(report.getPreviewText());
+                statusLabel.setText(successText.apply(report));
+                progressBar.setProgress(1.0);
+                exportButton.setDisable(false);
             }
-        }).start();
+        }));
     }
 
     @FXML
@@ -144,7 +256,7 @@ public class ReportsController implements Initializable {
         javafx.stage.DirectoryChooser dirChooser = new javafx.stage.DirectoryChooser();
         dirChooser.setTitle("Select Export Directory");
 
-        java.io.File selectedDir = dirChooser.showDialog(generateButton.getScene().getWindow());
+        java.io.File selectedDir = dirChooser.showDialog(window());
         if (selectedDir != null) {
             try {
                 String format = formatCombo.getValue();
@@ -161,6 +273,38 @@ public class ReportsController implements Initializable {
         }
     }
 
+    /**
+     * Export every ticket in the database to CSV, streaming progress into the status bar
+     */
+    @FXML
+    private void handleExport() {
+        javafx.stage.DirectoryChooser dirChooser = new javafx.stage.DirectoryChooser();
+        dirChooser.setTitle("Select Export Directory");
+
+        java.io.File selectedDir = dirChooser.showDialog(window());
+        if (selectedDir == null) {
+            return;
+        }
+
+        showStatus("Exporting tickets...", ProgressBar.INDETERMINATE_PROGRESS);
+        new Thread(() -> {
+            try {
+                String filename = exportService.exportAllToCSVParallel(selectedDir.getAbsolutePath(),
+                        progress -> Platform.runLater(() -> showStatus("Exporting tickets... " + progress,
+                                ProgressBar.INDETERMINATE_PROGRESS)));
+                Platform.runLater(() -> {
+                    showStatus("✅ Tickets exported", 1.0);
+                    showAlert("Success", "Tickets exported to: " + filename, Alert.AlertType.INFORMATION);
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    showStatus("❌ Export failed: " + e.getMessage(), 0);
+                    showAlert("Error", "Failed to export: " + e.getMessage(), Alert.AlertType.ERROR);
+                });
+            }
+        }, "ticket-export").start();
+    }
+
     @FXML
     private void handleSaveReport() {
         if (currentReport == null) {
@@ -174,12 +318,11 @@ public class ReportsController implements Initializable {
         dialog.setContentText("Report Name:");
 
         dialog.showAndWait().ifPresent(name -> {
-            try {
-                reportService.saveReport(currentReport, name);
+            if (reportService.saveReport(currentReport, name)) {
                 loadSavedReports();
                 showAlert("Success", "Report saved successfully!", Alert.AlertType.INFORMATION);
-            } catch (Exception e) {
-                showAlert("Error", "Failed to save: " + e.getMessage(), Alert.AlertType.ERROR);
+            } else {
+                showAlert("Error", "Failed to save report " + name, Alert.AlertType.ERROR);
             }
         });
     }
@@ -188,14 +331,40 @@ public class ReportsController implements Initializable {
     private void handleLoadSavedReport() {
         String selectedReport = savedReportsList.getSelectionModel().getSelectedItem();
         if (selectedReport != null) {
-            try {
-                currentReport = reportService.loadReport(selectedReport);
-                reportPreview.setText(currentReport.getPreviewText());
-                statusLabel.setText("✅ Report loaded: " + selectedReport);
-            } catch (Exception e) {
-                showAlert("Error", "Failed to load report: " + e.getMessage(), Alert.AlertType.ERROR);
+            Report snapshot = reportService.loadReport(selectedReport);
+            if (snapshot == null) {
+                showAlert("Error", "Failed to load report: " + selectedReport, Alert.AlertType.ERROR);
+                return;
             }
+            currentReport = snapshot;
+            reportPreview.setText(snapshot.getPreviewText());
+            exportButton.setDisable(false);
+            statusLabel.setText("✅ Report loaded: " + selectedReport + " (snapshot from "
+                    + DateUtils.formatDateTime(snapshot.getGeneratedAt()) + ")");
+        }
+    }
+
+    @FXML
+    private void handleRefreshSavedReport() {
+        if (currentJob != null) {
+            return;
+        }
+        String selectedReport = savedReportsList.getSelectionModel().getSelectedItem();
+        if (selectedReport == null) {
+            showAlert("No Report", "Please select a saved report first", Alert.AlertType.WARNING);
+            return;
         }
+        Report saved = currentReport != null && selectedReport.equals(currentReport.getName())
+                ? currentReport : reportService.loadReport(selectedReport);
+        if (saved == null) {
+            showAlert("Error", "Failed to load report: " + selectedReport, Alert.AlertType.ERROR);
+            return;
+        }
+
+        runJob(listener -> reportService.refreshReportAsync(saved, listener), "Refreshing report...",
+                report -> report == saved
+                        ? "✅ " + selectedReport + " is up to date"
+                        : "✅ " + selectedReport + " refreshed");
     }
 
     @FXML
@@ -209,12 +378,11 @@ public class ReportsController implements Initializable {
 
             confirm.showAndWait().ifPresent(response -> {
                 if (response == ButtonType.OK) {
-                    try {
-                        reportService.deleteReport(selectedReport);
+                    if (reportService.deleteReport(selectedReport)) {
                         loadSavedReports();
                         showAlert("Success", "Report deleted", Alert.AlertType.INFORMATION);
-                    } catch (Exception e) {
-                        showAlert("Error", "Failed to delete: " + e.getMessage(), Alert.AlertType.ERROR);
+                    } else {
+                        showAlert("Error", "Failed to delete report " + selectedReport, Alert.AlertType.ERROR);
                     }
                 }
             });
@@ -247,6 +415,23 @@ public class ReportsController implements Initializable {
                 "Click 'Generate Report' to create the full report.");
     }
 
+    private Window window() {
+        Node anchor = generateButton != null ? generateButton : lblTotalTickets;
+        return anchor.getScene().getWindow();
+    }
+
+    /**
+     * Status and progress for background work; the overview layout has neither
+     */
+    private void showStatus(String text, double progress) {
+        if (statusLabel != null) {
+            statusLabel.setText(text);
+        }
+        if (progressBar != null) {
+            progressBar.setProgress(progress);
+        }
+    }
+
     private void showAlert(String title, String content, Alert.AlertType type) {
         Alert alert = new Alert(type);
         alert.setTitle(title);
@@ -0,0 +1,51 @@
+package org.example.model;
+
+/**
+ * Agent Performance - Assigned/resolved counts and resolution time
+ * statistics for one agent, computed by a single grouped query
+ */
+public class AgentPerformance {
+
+    private final String agent;
+    private final long assigned;
+    private final long resolved;
+    private final double averageResolutionMinutes;
+    private final double minResolutionMinutes;
+    private final double maxResolutionMinutes;
+
+    public AgentPerformance(String agent, long assigned, long resolved, double averageResolutionMinutes,
+                            double minResolutionMinutes, double maxResolutionMinutes) {
+        this.agent = agent;
+        this.assigned = assigned;
+        this.resolved = resolved;
+        this.averageResolutionMinutes = averageResolutionMinutes;
+        this.minResolutionMinutes = minResolutionMinutes;
+        this.maxResolutionMinutes = maxResolutionMinutes;
+    }
+
+    public String getAgent() { return agent; }
+
+    public long getAssigned() { return assigned; }
+
+    public long getResolved() { return resolved; }
+
+    /** Assigned tickets not yet resolved or closed */
+    public long getOpen() { return assigned - resolved; }
+
+    /** Resolved share of assigned tickets, 0-100 */
+    public double getResolutionRate() {
+        return assigned > 0 ? (double) resolved / assigned * 100.0 : 0.0;
+    }
+
+    public double getAverageResolutionMinutes() { return averageResolutionMinutes; }
+
+    public double getMinResolutionMinutes() { return minResolutionMinutes; }
+
+    public double getMaxResolutionMinutes() { return maxResolutionMinutes; }
+
+    @Override
+    public String toString() {
+        return String.format("AgentPerformance{%s, assigned=%d, resolved=%d, avgResolution=%.1fmin}",
+                agent, assigned, resolved, averageResolutionMinutes);
+    }
+}
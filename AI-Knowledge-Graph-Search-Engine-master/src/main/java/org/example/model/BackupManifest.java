@@ -0,0 +1,282 @@
+package org.example.model;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Backup Manifest - Contents of a streamed graph backup: one entry per node
+ * label and relationship type with its row and part counts, plus the
+ * options the backup was taken with. Stored as manifest.properties, written
+ * after every data part so a readable manifest means a complete archive.
+ * An incremental backup also names its parent and the window it covers;
+ * its watermark is the starting point of the next incremental. A chunked
+ * backup stores, per entry, the list of chunks in the shared chunk store
+ * that make up its JSON lines instead of the gzip parts themselves. Since
+ * 2.1 every stored zip entry has a CRC32C in the manifest, so an archive
+ * can be checked without decoding it.
+ */
+public class BackupManifest {
+
+    public static final String FILE_NAME = "manifest.properties";
+    public static final String FORMAT = "graph-jsonl";
+    public static final String VERSION = "2.1";
+
+    public enum Type {
+        FULL,
+        INCREMENTAL
+    }
+
+    public enum Kind {
+        NODES("nodes"),
+        RELATIONSHIPS("relationships"),
+        TOMBSTONES("tombstones");
+
+        private final String directory;
+
+        Kind(String directory) {
+            this.directory = directory;
+        }
+
+        public String getDirectory() { return directory; }
+    }
+
+    private final LocalDateTime backupDate;
+    private final Map<String, Boolean> options = new LinkedHashMap<>();
+    private final List<Entry> entries = new ArrayList<>();
+    private Type type = Type.FULL;
+    private ZonedDateTime watermark;
+    private ZonedDateTime since;
+    private String parent;
+    private boolean chunked;
+
+    public BackupManifest(LocalDateTime backupDate) {
+        this.backupDate = backupDate;
+    }
+
+    public LocalDateTime getBackupDate() { return backupDate; }
+
+    public Type getType() { return type; }
+
+    /** Database time the dump started at; changes after it belong to the next backup */
+    public ZonedDateTime getWatermark() { return watermark; }
+
+    public void setWatermark(ZonedDateTime watermark) { this.watermark = watermark; }
+
+    /** Start of the change window of an incremental backup; null for full backups */
+    public ZonedDateTime getSince() { return since; }
+
+    /** File name of the backup an incremental builds on; null for full backups */
+    public String getParent() { return parent; }
+
+    public boolean isIncremental() { return type == Type.INCREMENTAL; }
+
+    /**
+     * Mark this as an incremental backup of the changes since the given time
+     */
+    public void setIncremental(String parent, ZonedDateTime since) {
+        this.type = Type.INCREMENTAL;
+        this.parent = parent;
+        this.since = since;
+    }
+
+    /** True if the data lives in the chunk store next to the archive */
+    public boolean isChunked() { return chunked; }
+
+    public void setChunked(boolean chunked) { this.chunked = chunked; }
+
+    public Map<String, Boolean> getOptions() { return options; }
+
+    public List<Entry> getEntries() { return Collections.unmodifiableList(entries); }
+
+    public List<Entry> getEntries(Kind kind) {
+        List<Entry> result = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.kind == kind) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    public void addEntry(Entry entry) {
+        entries.add(entry);
+    }
+
+    public long getTotalRows() {
+        long total = 0;
+        for (Entry entry : entries) {
+            total += entry.rows;
+        }
+        return total;
+    }
+
+    /**
+     * True for archives written by the streaming engine
+     */
+    public static boolean isGraphBackup(Properties properties) {
+        return FORMAT.equals(properties.getProperty("format"));
+    }
+
+    public Properties toProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("format", FORMAT);
+        properties.setProperty("version", VERSION);
+        properties.setProperty("backupDate", backupDate.toString());
+        properties.setProperty("type", type.name());
+        properties.setProperty("store", chunked ? "chunks" : "parts");
+        if (watermark != null) {
+            properties.setProperty("watermark", watermark.format(DateTimeFormatter.ISO_ZONED_DATE_TIME));
+        }
+        if (since != null) {
+            properties.setProperty("since", since.format(DateTimeFormatter.ISO_ZONED_DATE_TIME));
+            properties.setProperty("parent", parent);
+        }
+        options.forEach((key, value) -> properties.setProperty(key, value.toString()));
+
+        for (Kind kind : Kind.values()) {
+            List<String> names = new ArrayList<>();
+            for (Entry entry : getEntries(kind)) {
+                String key = kind.directory + "." + encode(entry.name);
+                names.add(encode(entry.name));
+                properties.setProperty(key + ".rows", Long.toString(entry.rows));
+                properties.setProperty(key + ".parts", Integer.toString(entry.parts));
+                if (!entry.checksums.isEmpty()) {
+                    List<String> checksums = new ArrayList<>();
+                    for (Long checksum : entry.checksums) {
+                        checksums.add(String.format("%08x", checksum));
+                    }
+                    properties.setProperty(key + ".crc32c", String.join(",", checksums));
+                }
+            }
+            properties.setProperty(kind.directory, String.join(",", names));
+        }
+        return properties;
+    }
+
+    public static BackupManifest fromProperties(Properties properties) {
+        BackupManifest manifest = new BackupManifest(LocalDateTime.parse(properties.getProperty("backupDate")));
+        manifest.chunked = "chunks".equals(properties.getProperty("store"));
+        String watermark = properties.getProperty("watermark");
+        if (watermark != null) {
+            manifest.watermark = ZonedDateTime.parse(watermark, DateTimeFormatter.ISO_ZONED_DATE_TIME);
+        }
+        if (Type.INCREMENTAL.name().equals(properties.getProperty("type"))) {
+            manifest.setIncremental(properties.getProperty("parent"),
+                    ZonedDateTime.parse(properties.getProperty("since"), DateTimeFormatter.ISO_ZONED_DATE_TIME));
+        }
+        for (Kind kind : Kind.values()) {
+            String names = properties.getProperty(kind.directory, "");
+            if (names.isEmpty()) {
+                continue;
+            }
+            for (String encoded : names.split(",")) {
+                String key = kind.directory + "." + encoded;
+                List<Long> checksums = new ArrayList<>();
+                String crc32c = properties.getProperty(key + ".crc32c", "");
+                if (!crc32c.isEmpty()) {
+                    for (String checksum : crc32c.split(",")) {
+                        checksums.add(Long.parseLong(checksum, 16));
+                    }
+                }
+                manifest.addEntry(new Entry(kind, decode(encoded),
+                        Long.parseLong(properties.getProperty(key + ".rows", "0")),
+                        Integer.parseInt(properties.getProperty(key + ".parts", "0")), checksums));
+            }
+        }
+        for (String option : new String[]{"tickets", "users", "categories", "comments", "logs"}) {
+            String value = properties.getProperty(option);
+            if (value != null) {
+                manifest.options.put(option, Boolean.parseBoolean(value));
+            }
+        }
+        return manifest;
+    }
+
+    private static String encode(String name) {
+        return URLEncoder.encode(name, StandardCharsets.UTF_8);
+    }
+
+    private static String decode(String name) {
+        return URLDecoder.decode(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * One label or relationship type, stored as numbered gzip parts or,
+     * in a chunked backup, as a single chunk list
+     */
+    public static class Entry {
+        private final Kind kind;
+        private final String name;
+        private final long rows;
+        private final int parts;
+        private final List<Long> checksums;
+
+        public Entry(Kind kind, String name, long rows, int parts) {
+            this(kind, name, rows, parts, List.of());
+        }
+
+        public Entry(Kind kind, String name, long rows, int parts, List<Long> checksums) {
+            this.kind = kind;
+            this.name = name;
+            this.rows = rows;
+            this.parts = parts;
+            this.checksums = List.copyOf(checksums);
+        }
+
+        public Kind getKind() { return kind; }
+
+        public String getName() { return name; }
+
+        public long getRows() { return rows; }
+
+        public int getParts() { return parts; }
+
+        /** CRC32C of each stored zip entry, in part order; empty before version 2.1 */
+        public List<Long> getChecksums() { return checksums; }
+
+        /**
+         * Zip entry names holding this entry's data: its parts, or its chunk list
+         */
+        public List<String> getZipEntryNames(boolean chunked) {
+            List<String> names = new ArrayList<>();
+            if (chunked) {
+                if (parts > 0) {
+                    names.add(getChunkListName());
+                }
+            } else {
+                for (int part = 0; part < parts; part++) {
+                    names.add(getPartName(part));
+                }
+            }
+            return names;
+        }
+
+        /** Zip entry name of the given part, e.g. nodes/Ticket/part-00000.jsonl.gz */
+        public String getPartName(int part) {
+            return partName(kind, name, part);
+        }
+
+        public static String partName(Kind kind, String name, int part) {
+            return String.format("%s/%s/part-%05d.jsonl.gz", kind.directory, encode(name), part);
+        }
+
+        /** Zip entry name of the chunk list, one "hash length" line per chunk */
+        public String getChunkListName() {
+            return chunkListName(kind, name);
+        }
+
+        public static String chunkListName(Kind kind, String name) {
+            return String.format("%s/%s/chunks.txt", kind.directory, encode(name));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Backup Verification - Outcome of checking a backup archive against the
+ * checksums in its manifest: what was read, how fast, and exactly which
+ * entries or chunks failed and why
+ */
+public class BackupVerification {
+
+    private final String backupFile;
+    private final int entriesChecked;
+    private final long bytesChecked;
+    private final long elapsedNanos;
+    private final List<String> failures;
+
+    public BackupVerification(String backupFile, int entriesChecked, long bytesChecked,
+                              long elapsedNanos, List<String> failures) {
+        this.backupFile = backupFile;
+        this.entriesChecked = entriesChecked;
+        this.bytesChecked = bytesChecked;
+        this.elapsedNanos = elapsedNanos;
+        this.failures = Collections.unmodifiableList(failures);
+    }
+
+    public String getBackupFile() { return backupFile; }
+
+    public boolean isValid() { return failures.isEmpty(); }
+
+    public int getEntriesChecked() { return entriesChecked; }
+
+    public long getBytesChecked() { return bytesChecked; }
+
+    public double getElapsedSeconds() { return elapsedNanos / 1e9; }
+
+    public double getMegabytesPerSecond() {
+        return elapsedNanos > 0 ? bytesChecked / (1024.0 * 1024.0) / (elapsedNanos / 1e9) : 0.0;
+    }
+
+    /** One line per failed entry or chunk: "name: reason" */
+    public List<String> getFailures() { return failures; }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d entries, %.1f MB in %.2f s (%.0f MB/s), %d failed",
+                backupFile, entriesChecked, bytesChecked / (1024.0 * 1024.0), getElapsedSeconds(),
+                getMegabytesPerSecond(), failures.size());
+    }
+}
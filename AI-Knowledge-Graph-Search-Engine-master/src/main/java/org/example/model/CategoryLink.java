@@ -0,0 +1,29 @@
+package org.example.model;
+
+/**
+ * Category Link - One ticket's BELONGS_TO relationship to a category
+ */
+public class CategoryLink {
+
+    private final String categoryId;
+    private final boolean autoClassified;
+    private final Double confidence;
+
+    public CategoryLink(String categoryId, boolean autoClassified, Double confidence) {
+        this.categoryId = categoryId;
+        this.autoClassified = autoClassified;
+        this.confidence = confidence;
+    }
+
+    public String getCategoryId() { return categoryId; }
+
+    public boolean isAutoClassified() { return autoClassified; }
+
+    /** ML confidence, null for links without one */
+    public Double getConfidence() { return confidence; }
+
+    @Override
+    public String toString() {
+        return "CategoryLink{" + categoryId + (autoClassified ? ", auto " + confidence : ", manual") + '}';
+    }
+}
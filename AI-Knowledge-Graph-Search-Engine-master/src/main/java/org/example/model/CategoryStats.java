@@ -0,0 +1,43 @@
+package org.example.model;
+
+/**
+ * Category Stats - Ticket counts and classification confidence for one category
+ */
+public class CategoryStats {
+
+    private final String categoryId;
+    private final long totalTickets;
+    private final long autoClassified;
+    private final long manual;
+    private final double averageConfidence;
+
+    public CategoryStats(String categoryId, long totalTickets, long autoClassified, long manual,
+                         double averageConfidence) {
+        this.categoryId = categoryId;
+        this.totalTickets = totalTickets;
+        this.autoClassified = autoClassified;
+        this.manual = manual;
+        this.averageConfidence = averageConfidence;
+    }
+
+    public static CategoryStats empty(String categoryId) {
+        return new CategoryStats(categoryId, 0, 0, 0, 0.0);
+    }
+
+    public String getCategoryId() { return categoryId; }
+
+    public long getTotalTickets() { return totalTickets; }
+
+    public long getAutoClassified() { return autoClassified; }
+
+    public long getManual() { return manual; }
+
+    /** Mean ML confidence over auto-classified links, 0 if there are none */
+    public double getAverageConfidence() { return averageConfidence; }
+
+    @Override
+    public String toString() {
+        return String.format("CategoryStats{%s, total=%d, auto=%d, manual=%d, confidence=%.2f}",
+                categoryId, totalTickets, autoClassified, manual, averageConfidence);
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.model;
+
+import org.example.model.enums.Priority;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Daily Rollup - Created/resolved ticket counts for one day with hourly,
+ * priority and category breakdowns. Persisted as a :DailyRollup node.
+ */
+public class DailyRollup {
+
+    private LocalDate date;
+    private long created;
+    private long resolved;
+    private long[] createdByHour;
+    private long[] resolvedByHour;
+    private long[] createdByPriority;
+    private long[] resolvedByPriority;
+    private Map<String, Long> createdByCategory;
+    private Map<String, Long> resolvedByCategory;
+
+    public DailyRollup(LocalDate date) {
+        this.date = date;
+        this.createdByHour = new long[24];
+        this.resolvedByHour = new long[24];
+        this.createdByPriority = new long[Priority.values().length];
+        this.resolvedByPriority = new long[Priority.values().length];
+        this.createdByCategory = new HashMap<>();
+        this.resolvedByCategory = new HashMap<>();
+    }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public long getCreated() { return created; }
+    public void setCreated(long created) { this.created = created; }
+
+    public long getResolved() { return resolved; }
+    public void setResolved(long resolved) { this.resolved = resolved; }
+
+    /** Null when the hourly breakdown is not known for this day */
+    public long[] getCreatedByHour() { return createdByHour; }
+    public void setCreatedByHour(long[] createdByHour) { this.createdByHour = createdByHour; }
+
+    /** Null when the hourly breakdown is not known for this day */
+    public long[] getResolvedByHour() { return resolvedByHour; }
+    public void setResolvedByHour(long[] resolvedByHour) { this.resolvedByHour = resolvedByHour; }
+
+    /** Indexed by Priority ordinal */
+    public long[] getCreatedByPriority() { return createdByPriority; }
+    public void setCreatedByPriority(long[] createdByPriority) { this.createdByPriority = createdByPriority; }
+
+    /** Indexed by Priority ordinal */
+    public long[] getResolvedByPriority() { return resolvedByPriority; }
+    public void setResolvedByPriority(long[] resolvedByPriority) { this.resolvedByPriority = resolvedByPriority; }
+
+    public Map<String, Long> getCreatedByCategory() { return createdByCategory; }
+    public void setCreatedByCategory(Map<String, Long> createdByCategory) { this.createdByCategory = createdByCategory; }
+
+    public Map<String, Long> getResolvedByCategory() { return resolvedByCategory; }
+    public void setResolvedByCategory(Map<String, Long> resolvedByCategory) { this.resolvedByCategory = resolvedByCategory; }
+
+    @Override
+    public String toString() {
+        return "DailyRollup{" + date + ", created=" + created + ", resolved=" + resolved + '}';
+    }
+}
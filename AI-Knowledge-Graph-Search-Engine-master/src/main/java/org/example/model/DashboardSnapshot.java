@@ -0,0 +1,92 @@
+package org.example.model;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dashboard Snapshot - Ticket counts and resolution statistics
+ * captured by a single aggregation query
+ */
+public class DashboardSnapshot {
+
+    private final Map<String, Map<String, Long>> statusPriorityCounts;
+    private final Map<String, Long> statusCounts;
+    private final Map<String, Long> priorityCounts;
+    private final long totalTickets;
+    private final long resolvedSamples;
+    private final double averageResolutionMinutes;
+    private final double minResolutionMinutes;
+    private final double maxResolutionMinutes;
+    private final LocalDateTime capturedAt;
+
+    public DashboardSnapshot(Map<String, Map<String, Long>> statusPriorityCounts,
+                             long resolvedSamples, double averageResolutionMinutes,
+                             double minResolutionMinutes, double maxResolutionMinutes) {
+        Map<String, Map<String, Long>> matrix = new HashMap<>();
+        Map<String, Long> byStatus = new HashMap<>();
+        Map<String, Long> byPriority = new HashMap<>();
+        long total = 0;
+
+        for (Map.Entry<String, Map<String, Long>> row : statusPriorityCounts.entrySet()) {
+            matrix.put(row.getKey(), Collections.unmodifiableMap(new HashMap<>(row.getValue())));
+            for (Map.Entry<String, Long> cell : row.getValue().entrySet()) {
+                byStatus.merge(row.getKey(), cell.getValue(), Long::sum);
+                byPriority.merge(cell.getKey(), cell.getValue(), Long::sum);
+                total += cell.getValue();
+            }
+        }
+
+        this.statusPriorityCounts = Collections.unmodifiableMap(matrix);
+        this.statusCounts = Collections.unmodifiableMap(byStatus);
+        this.priorityCounts = Collections.unmodifiableMap(byPriority);
+        this.totalTickets = total;
+        this.resolvedSamples = resolvedSamples;
+        this.averageResolutionMinutes = averageResolutionMinutes;
+        this.minResolutionMinutes = minResolutionMinutes;
+        this.maxResolutionMinutes = maxResolutionMinutes;
+        this.capturedAt = LocalDateTime.now();
+    }
+
+    public static DashboardSnapshot empty() {
+        return new DashboardSnapshot(Collections.emptyMap(), 0, 0.0, 0.0, 0.0);
+    }
+
+    public long getTotalTickets() { return totalTickets; }
+
+    public long getStatusCount(String status) {
+        return statusCounts.getOrDefault(status, 0L);
+    }
+
+    public long getPriorityCount(String priority) {
+        return priorityCounts.getOrDefault(priority, 0L);
+    }
+
+    public long getCount(String status, String priority) {
+        return statusPriorityCounts.getOrDefault(status, Collections.emptyMap())
+                .getOrDefault(priority, 0L);
+    }
+
+    public Map<String, Long> getStatusCounts() { return statusCounts; }
+
+    public Map<String, Long> getPriorityCounts() { return priorityCounts; }
+
+    public Map<String, Map<String, Long>> getStatusPriorityCounts() { return statusPriorityCounts; }
+
+    public long getResolvedSamples() { return resolvedSamples; }
+
+    public double getAverageResolutionMinutes() { return averageResolutionMinutes; }
+
+    public double getMinResolutionMinutes() { return minResolutionMinutes; }
+
+    public double getMaxResolutionMinutes() { return maxResolutionMinutes; }
+
+    public LocalDateTime getCapturedAt() { return capturedAt; }
+
+    @Override
+    public String toString() {
+        return String.format("DashboardSnapshot{total=%d, byStatus=%s, avgResolution=%.1fmin}",
+                totalTickets, statusCounts, averageResolutionMinutes);
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.model;
+
+/**
+ * Listener Stats - Delivery counters and lag for one notification listener
+ */
+public class ListenerStats {
+
+    private final String listener;
+    private final long delivered;
+    private final long dropped;
+    private final int pending;
+    private final long lastLagNanos;
+    private final long maxLagNanos;
+    private final long oldestPendingNanos;
+
+    public ListenerStats(String listener, long delivered, long dropped, int pending,
+                         long lastLagNanos, long maxLagNanos, long oldestPendingNanos) {
+        this.listener = listener;
+        this.delivered = delivered;
+        this.dropped = dropped;
+        this.pending = pending;
+        this.lastLagNanos = lastLagNanos;
+        this.maxLagNanos = maxLagNanos;
+        this.oldestPendingNanos = oldestPendingNanos;
+    }
+
+    public String getListener() { return listener; }
+
+    public long getDelivered() { return delivered; }
+
+    /** Notifications discarded because the listener's queue was full */
+    public long getDropped() { return dropped; }
+
+    public int getPending() { return pending; }
+
+    /** Time from enqueue to the end of the most recent delivery */
+    public double getLastLagMillis() { return lastLagNanos / 1e6; }
+
+    public double getMaxLagMillis() { return maxLagNanos / 1e6; }
+
+    /** How long the oldest undelivered notification has been waiting, 0 if none */
+    public double getOldestPendingMillis() { return oldestPendingNanos / 1e6; }
+
+    @Override
+    public String toString() {
+        return String.format("ListenerStats{%s, delivered=%d, dropped=%d, pending=%d, lag=%.1fms, max=%.1fms, oldest=%.1fms}",
+                listener, delivered, dropped, pending, getLastLagMillis(), getMaxLagMillis(),
+                getOldestPendingMillis());
+    }
+}
@@ -20,6 +20,7 @@ public class Report {
     private boolean includeCharts;
     private boolean includeSummary;
     private boolean includeDetails;
+    private String sourceFingerprint;
 
     // Constructors
     public Report() {
@@ -85,6 +86,12 @@ public class Report {
         this.includeDetails = includeDetails;
     }
 
+    /** Ticket-set fingerprint the data was computed against */
+    public String getSourceFingerprint() { return sourceFingerprint; }
+    public void setSourceFingerprint(String sourceFingerprint) {
+        this.sourceFingerprint = sourceFingerprint;
+    }
+
     @Override
     public String toString() {
         return String.format("%s (%s) - Generated: %s",
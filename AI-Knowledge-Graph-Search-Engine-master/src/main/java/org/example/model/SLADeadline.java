@@ -0,0 +1,60 @@
+package org.example.model;
+
+import org.example.model.enums.Priority;
+
+import java.time.LocalDateTime;
+
+/**
+ * SLA Deadline - Response and resolution deadlines of one open ticket,
+ * as held in the SLA engine's deadline index
+ */
+public class SLADeadline {
+
+    private final String ticketId;
+    private final Priority priority;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime responseDeadline;
+    private final LocalDateTime resolutionDeadline;
+    private final boolean responded;
+
+    public SLADeadline(String ticketId, Priority priority, LocalDateTime createdAt,
+                       LocalDateTime responseDeadline, LocalDateTime resolutionDeadline, boolean responded) {
+        this.ticketId = ticketId;
+        this.priority = priority;
+        this.createdAt = createdAt;
+        this.responseDeadline = responseDeadline;
+        this.resolutionDeadline = resolutionDeadline;
+        this.responded = responded;
+    }
+
+    public String getTicketId() { return ticketId; }
+
+    public Priority getPriority() { return priority; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public LocalDateTime getResponseDeadline() { return responseDeadline; }
+
+    public LocalDateTime getResolutionDeadline() { return resolutionDeadline; }
+
+    /** True once the ticket has been assigned or moved off OPEN */
+    public boolean isResponded() { return responded; }
+
+    public SLADeadline withResponded() {
+        return responded ? this
+                : new SLADeadline(ticketId, priority, createdAt, responseDeadline, resolutionDeadline, true);
+    }
+
+    public boolean isResponseOverdue(LocalDateTime now) {
+        return !responded && now.isAfter(responseDeadline);
+    }
+
+    public boolean isResolutionOverdue(LocalDateTime now) {
+        return now.isAfter(resolutionDeadline);
+    }
+
+    @Override
+    public String toString() {
+        return "SLADeadline{" + ticketId + ", " + priority + ", resolveBy=" + resolutionDeadline + '}';
+    }
+}
@@ -148,6 +148,32 @@ public class Ticket {
         this.resolvedAt = resolvedAt;
     }
 
+    /**
+     * Status in canonical enum form ("In Progress" -> "IN_PROGRESS"), defaulting to OPEN
+     */
+    public String getStatusKey() {
+        return status == null || status.isBlank() ? "OPEN" : status.trim().toUpperCase().replace(' ', '_');
+    }
+
+    /**
+     * Priority in canonical enum form ("High" -> "HIGH"), defaulting to MEDIUM
+     */
+    public String getPriorityKey() {
+        return priority == null || priority.isBlank() ? "MEDIUM" : priority.trim().toUpperCase();
+    }
+
+    /**
+     * Category name, defaulting to General
+     */
+    public String getCategoryKey() {
+        return category == null || category.isBlank() ? "General" : category;
+    }
+
+    public boolean isResolved() {
+        String key = getStatusKey();
+        return "RESOLVED".equals(key) || "CLOSED".equals(key);
+    }
+
     public String getCreatedAtFormatted() {
         if (createdAt == null)
             return "";
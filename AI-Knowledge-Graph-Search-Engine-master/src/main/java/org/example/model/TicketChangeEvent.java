@@ -0,0 +1,84 @@
+package org.example.model;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Ticket Change Event - Published by TicketRepository after a ticket is
+ * created, updated or deleted
+ */
+public class TicketChangeEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Ticket previous;
+    private final Ticket current;
+    private final LocalDateTime occurredAt;
+
+    public TicketChangeEvent(Type type, Ticket previous, Ticket current) {
+        this.type = type;
+        this.previous = previous;
+        this.current = current;
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    public static TicketChangeEvent created(Ticket ticket) {
+        return new TicketChangeEvent(Type.CREATED, null, ticket);
+    }
+
+    public static TicketChangeEvent updated(Ticket previous, Ticket current) {
+        return new TicketChangeEvent(Type.UPDATED, previous, current);
+    }
+
+    public static TicketChangeEvent deleted(Ticket previous) {
+        return new TicketChangeEvent(Type.DELETED, previous, null);
+    }
+
+    public Type getType() { return type; }
+
+    /** State before the change; null for CREATED */
+    public Ticket getPrevious() { return previous; }
+
+    /** State after the change; null for DELETED */
+    public Ticket getCurrent() { return current; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+
+    public String getTicketId() {
+        return current != null ? current.getId() : previous.getId();
+    }
+
+    public boolean isStatusChanged() {
+        return previous == null || current == null
+                || !previous.getStatusKey().equals(current.getStatusKey());
+    }
+
+    public boolean isPriorityChanged() {
+        return previous == null || current == null
+                || !previous.getPriorityKey().equals(current.getPriorityKey());
+    }
+
+    public boolean isCategoryChanged() {
+        return previous == null || current == null
+                || !previous.getCategoryKey().equals(current.getCategoryKey());
+    }
+
+    public boolean isAssigneeChanged() {
+        return previous == null || current == null
+                || !Objects.equals(blankToNull(previous.getAssignedTo()), blankToNull(current.getAssignedTo()));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    @Override
+    public String toString() {
+        return "TicketChangeEvent{" + type + ", ticket=" + getTicketId() + '}';
+    }
+}
@@ -5,16 +5,24 @@ import org.neo4j.driver.*;
 import org.neo4j.driver.Record;
 
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.neo4j.driver.Values.parameters;
 
 /**
- * Audit Repository - Audit log data access
+ * Audit Repository - Audit log data access. Each entry carries its time as a
+ * native local datetime (at), covered by range indexes, and is linked to a
+ * per-day AuditDay partition so retention can drop whole days at once.
  */
 public class AuditRepository {
 
+    private static final AtomicLong changeVersion = new AtomicLong();
+
+    private static final int DELETE_BATCH_ROWS = 10000;
+
     private final Driver driver;
 
     public AuditRepository() {
@@ -25,29 +33,41 @@ public class AuditRepository {
      * Save audit log entry
      */
     public void save(AuditLog log) {
+        saveAll(Collections.singletonList(log));
+    }
+
+    /**
+     * Save a batch of entries in one transaction. Exceptions propagate so
+     * the caller can retry the batch; entries are merged on id, so saving
+     * the same entry again is harmless.
+     */
+    public void saveAll(List<AuditLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> rows = new ArrayList<>(logs.size());
+        for (AuditLog log : logs) {
+            rows.add(toParameters(log));
+        }
+
+        String query = "UNWIND $rows AS row " +
+                "MERGE (a:AuditLog {id: row.id}) " +
+                "ON CREATE SET a = row " +
+                "WITH a, row WHERE NOT EXISTS { (a)-[:LOGGED_ON]->() } " +
+                "MERGE (d:AuditDay {date: date(row.at)}) " +
+                "CREATE (a)-[:LOGGED_ON]->(d)";
+
         try (Session session = driver.session()) {
-            String query = "CREATE (a:AuditLog {" +
-                    "id: $id, action: $action, userId: $userId, username: $username, " +
-                    "entityType: $entityType, entityId: $entityId, " +
-                    "oldValue: $oldValue, newValue: $newValue, result: $result, " +
-                    "ipAddress: $ipAddress, userAgent: $userAgent, timestamp: $timestamp" +
-                    "})";
-
-            session.run(query, parameters(
-                    "id", log.getId(),
-                    "action", log.getAction(),
-                    "userId", log.getUserId(),
-                    "username", log.getUsername(),
-                    "entityType", log.getEntityType(),
-                    "entityId", log.getEntityId(),
-                    "oldValue", log.getOldValue(),
-                    "newValue", log.getNewValue(),
-                    "result", log.getResult(),
-                    "ipAddress", log.getIpAddress(),
-                    "userAgent", log.getUserAgent(),
-                    "timestamp", log.getTimestamp().toString()
-            ));
+            session.executeWrite(tx -> tx.run(query, parameters("rows", rows)).consume());
         }
+        changeVersion.incrementAndGet();
+    }
+
+    /**
+     * Counter bumped after every write; lets views skip reloads when nothing changed
+     */
+    public static long getChangeVersion() {
+        return changeVersion.get();
     }
 
     /**
@@ -55,8 +75,9 @@ public class AuditRepository {
      */
     public List<AuditLog> findRecent(int limit) {
         try (Session session = driver.session()) {
-            String query = "MATCH (a:AuditLog) " +
-                    "RETURN a ORDER BY a.timestamp DESC LIMIT $limit";
+            // The IS NOT NULL predicate lets the planner walk audit_at backwards instead of sorting
+            String query = "MATCH (a:AuditLog) WHERE a.at IS NOT NULL " +
+                    "RETURN a ORDER BY a.at DESC LIMIT $limit";
 
             Result result = session.run(query, parameters("limit", limit));
             List<AuditLog> logs = new ArrayList<>();
@@ -73,13 +94,74 @@ public class AuditRepository {
         }
     }
 
+    /**
+     * One page of logs matching the filter, newest first. Pass the last entry
+     * of the previous page as after to continue from it; the page is found by
+     * seeking the audit_at index from that point rather than skipping rows.
+     */
+    public List<AuditLog> findPage(Filter filter, AuditLog after, int limit) {
+        StringBuilder query = new StringBuilder("MATCH (a:AuditLog) WHERE a.at IS NOT NULL");
+        Map<String, Object> params = new HashMap<>();
+
+        if (filter.getFrom() != null) {
+            query.append(" AND a.at >= $from");
+            params.put("from", filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            query.append(" AND a.at < $to");
+            params.put("to", filter.getTo());
+        }
+        if (after != null) {
+            // Ties on at are broken by id, matching the ORDER BY below
+            query.append(" AND a.at <= $afterAt AND (a.at < $afterAt OR a.id < $afterId)");
+            params.put("afterAt", after.getTimestamp());
+            params.put("afterId", after.getId() != null ? after.getId() : "");
+        }
+        if (filter.getAction() != null) {
+            query.append(" AND toUpper(a.action) CONTAINS $action");
+            params.put("action", filter.getAction().toUpperCase());
+        }
+        if (filter.getUsername() != null) {
+            query.append(" AND toLower(a.username) CONTAINS $username");
+            params.put("username", filter.getUsername().toLowerCase());
+        }
+        if (filter.getSearchText() != null) {
+            query.append(" AND (toLower(a.action) CONTAINS $text OR toLower(a.username) CONTAINS $text")
+                    .append(" OR toLower(a.entityType) CONTAINS $text OR toLower(a.entityId) CONTAINS $text)");
+            params.put("text", filter.getSearchText().toLowerCase());
+        }
+        query.append(" RETURN a ORDER BY a.at DESC, a.id DESC LIMIT $limit");
+        params.put("limit", limit);
+
+        try (Session session = driver.session()) {
+            Result result = session.run(query.toString(), params);
+            List<AuditLog> logs = new ArrayList<>();
+
+            while (result.hasNext()) {
+                Record record = result.next();
+                logs.add(mapToAuditLog(record.get("a").asMap()));
+            }
+
+            return logs;
+        }
+    }
+
+    /**
+     * Total number of audit logs, read from the count store
+     */
+    public long count() {
+        try (Session session = driver.session()) {
+            return session.run("MATCH (a:AuditLog) RETURN count(a) AS count").single().get("count").asLong();
+        }
+    }
+
     /**
      * Find logs by user
      */
     public List<AuditLog> findByUserId(String userId) {
         try (Session session = driver.session()) {
-            String query = "MATCH (a:AuditLog {userId: $userId}) " +
-                    "RETURN a ORDER BY a.timestamp DESC";
+            String query = "MATCH (a:AuditLog) WHERE a.userId = $userId AND a.at IS NOT NULL " +
+                    "RETURN a ORDER BY a.at DESC";
 
             Result result = session.run(query, parameters("userId", userId));
             List<AuditLog> logs = new ArrayList<>();
@@ -98,8 +180,8 @@ public class AuditRepository {
      */
     public List<AuditLog> findByAction(String action) {
         try (Session session = driver.session()) {
-            String query = "MATCH (a:AuditLog {action: $action}) " +
-                    "RETURN a ORDER BY a.timestamp DESC";
+            String query = "MATCH (a:AuditLog) WHERE a.action = $action AND a.at IS NOT NULL " +
+                    "RETURN a ORDER BY a.at DESC";
 
             Result result = session.run(query, parameters("action", action));
             List<AuditLog> logs = new ArrayList<>();
@@ -114,15 +196,63 @@ public class AuditRepository {
     }
 
     /**
-     * Delete logs older than specified date
+     * Delete logs older than specified date. Days entirely before the cutoff
+     * are dropped partition by partition; only the cutoff day itself is
+     * trimmed entry by entry through the audit_at index. Returns the number
+     * of entries deleted.
      */
-    public void deleteOlderThan(LocalDateTime cutoffDate) {
+    public long deleteOlderThan(LocalDateTime cutoffDate) {
+        long deleted = 0;
         try (Session session = driver.session()) {
-            String query = "MATCH (a:AuditLog) " +
-                    "WHERE a.timestamp < $cutoff " +
-                    "DELETE a";
+            Result days = session.run("MATCH (d:AuditDay) WHERE d.date < $day RETURN d.date AS date ORDER BY date",
+                    parameters("day", cutoffDate.toLocalDate()));
+            List<LocalDate> expired = new ArrayList<>();
+            while (days.hasNext()) {
+                expired.add(days.next().get("date").asLocalDate());
+            }
+
+            for (LocalDate day : expired) {
+                deleted += deletePartition(session, day);
+            }
 
-            session.run(query, parameters("cutoff", cutoffDate.toString()));
+            String trim = "MATCH (a:AuditLog) WHERE a.at >= $dayStart AND a.at < $cutoff " +
+                    "CALL { WITH a DETACH DELETE a } IN TRANSACTIONS OF " + DELETE_BATCH_ROWS + " ROWS";
+            deleted += session.run(trim, parameters("dayStart", cutoffDate.toLocalDate().atStartOfDay(),
+                    "cutoff", cutoffDate)).consume().counters().nodesDeleted();
+        } finally {
+            changeVersion.incrementAndGet();
+        }
+        return deleted;
+    }
+
+    /**
+     * Delete one day's entries in batched transactions, then the day itself
+     */
+    private long deletePartition(Session session, LocalDate day) {
+        String query = "MATCH (:AuditDay {date: $day})<-[:LOGGED_ON]-(a:AuditLog) " +
+                "CALL { WITH a DETACH DELETE a } IN TRANSACTIONS OF " + DELETE_BATCH_ROWS + " ROWS";
+        long deleted = session.run(query, parameters("day", day)).consume().counters().nodesDeleted();
+        session.run("MATCH (d:AuditDay {date: $day}) DETACH DELETE d", parameters("day", day)).consume();
+        return deleted;
+    }
+
+    /**
+     * Give entries written before partitioning their at property and day
+     * partition. Returns the number of entries migrated.
+     */
+    public long partitionLegacyLogs() {
+        String query = "MATCH (a:AuditLog) WHERE a.at IS NULL AND a.timestamp IS NOT NULL " +
+                "CALL { WITH a " +
+                "  SET a.at = localdatetime(a.timestamp) " +
+                "  MERGE (d:AuditDay {date: date(a.at)}) " +
+                "  CREATE (a)-[:LOGGED_ON]->(d) " +
+                "} IN TRANSACTIONS OF " + DELETE_BATCH_ROWS + " ROWS";
+        try (Session session = driver.session()) {
+            long migrated = session.run(query).consume().counters().relationshipsCreated();
+            if (migrated > 0) {
+                changeVersion.incrementAndGet();
+            }
+            return migrated;
         }
     }
 
@@ -149,6 +279,24 @@ public class AuditRepository {
         }
     }
 
+    private Map<String, Object> toParameters(AuditLog log) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", log.getId() != null ? log.getId() : UUID.randomUUID().toString());
+        row.put("action", log.getAction());
+        row.put("userId", log.getUserId());
+        row.put("username", log.getUsername());
+        row.put("entityType", log.getEntityType());
+        row.put("entityId", log.getEntityId());
+        row.put("oldValue", log.getOldValue());
+        row.put("newValue", log.getNewValue());
+        row.put("result", log.getResult());
+        row.put("ipAddress", log.getIpAddress());
+        row.put("userAgent", log.getUserAgent());
+        row.put("timestamp", log.getTimestamp().toString());
+        row.put("at", log.getTimestamp());
+        return row;
+    }
+
     private AuditLog mapToAuditLog(Map<String, Object> map) {
         AuditLog log = new AuditLog();
         log.setId((String) map.get("id"));
@@ -169,4 +317,30 @@ public class AuditRepository {
 
         return log;
     }
+
+    // Inner class for audit filters; null fields match everything
+    public static class Filter {
+        private String action;
+        private String username;
+        private String searchText;
+        private LocalDateTime from;
+        private LocalDateTime to;
+
+        public String getAction() { return action; }
+        public void setAction(String action) { this.action = action; }
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+
+        public String getSearchText() { return searchText; }
+        public void setSearchText(String searchText) { this.searchText = searchText; }
+
+        /** Inclusive lower bound */
+        public LocalDateTime getFrom() { return from; }
+        public void setFrom(LocalDateTime from) { this.from = from; }
+
+        /** Exclusive upper bound */
+        public LocalDateTime getTo() { return to; }
+        public void setTo(LocalDateTime to) { this.to = to; }
+    }
 }
\ No newline at end of file
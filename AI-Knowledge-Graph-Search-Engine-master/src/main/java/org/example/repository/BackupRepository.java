@@ -0,0 +1,364 @@
+package org.example.repository;
+
+import org.neo4j.driver.*;
+import org.neo4j.driver.Record;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Graph-wide streaming reads for backups. Nodes and relationships are
+ * handed to a visitor one record at a time as the driver pulls them, so a
+ * dump never holds more than the current record. Nodes are keyed by
+ * elementId so relationships can be re-attached on restore. Exceptions
+ * propagate: a backup must fail rather than silently miss data.
+ *
+ * Incremental dumps select nodes whose updatedAt is after a given time;
+ * deletes leave a Tombstone node behind so they can be replayed.
+ * Relationships have no tombstones: a relationship delete reaches an
+ * incremental only when it also moves an endpoint's updatedAt, as ticket
+ * updates do, since the changed node's relationships are then rewritten
+ * as a whole. GraphUtils.deleteRelationship does not, so its deletes
+ * survive a restore from incrementals until the next full backup. Times are
+ * compared as local wall-clock values, the way the application writes them.
+ * Restores tag nodes with their backup elementId under a temporary label so
+ * later backups in a chain can find them again.
+ */
+public class BackupRepository {
+    public static final String TOMBSTONE_LABEL = "Tombstone";
+    /** Manifest entry name for nodes without labels; not a label a node can carry in this schema */
+    public static final String UNLABELLED = "__Unlabelled";
+    private static final String RESTORE_LABEL = "__Restore";
+
+    /** Relationship timestamp used to spot relationships changed on unchanged nodes */
+    private static final String RELATIONSHIP_TIME =
+            "coalesce(r.updatedAt, r.createdAt, r.linkedAt, r.assignedAt, r.appliedAt)";
+
+    private static final String CHANGED_SINCE =
+            "($since IS NULL OR n.updatedAt IS NULL OR localdatetime(n.updatedAt) > $since)";
+    private static final String NODE_RETURN =
+            "RETURN elementId(n) AS eid, labels(n) AS labels, properties(n) AS props, "
+                    + "$since IS NOT NULL AND n.updatedAt IS NOT NULL AS complete";
+
+    private final Neo4jConnection connection;
+
+    public BackupRepository() {
+        this.connection = Neo4jConnection.getInstance();
+    }
+
+    public List<String> findLabels() {
+        return readStrings("CALL db.labels() YIELD label RETURN label ORDER BY label");
+    }
+
+    public List<String> findRelationshipTypes() {
+        return readStrings("CALL db.relationshipTypes() YIELD relationshipType AS type RETURN type ORDER BY type");
+    }
+
+    /**
+     * Node count for a label, answered from the count store
+     */
+    public long countNodes(String label) {
+        return readCount("MATCH (n:" + quote(label) + ") RETURN count(n) AS count");
+    }
+
+    public long countRelationships(String type) {
+        return readCount("MATCH ()-[r:" + quote(type) + "]->() RETURN count(r) AS count");
+    }
+
+    /**
+     * Database clock, used as the watermark of a backup
+     */
+    public ZonedDateTime currentTime() {
+        try (Session session = connection.getSession()) {
+            return session.run("RETURN datetime() AS now").single().get("now").asZonedDateTime();
+        }
+    }
+
+    /**
+     * Stream the nodes owned by a label. Nodes carrying an excluded label
+     * belong to no backup, matching the relationship filter and the labels
+     * a restore keeps; any other node is owned by the alphabetically first
+     * of its labels, so each node is dumped exactly once.
+     */
+    public long streamNodes(String label, Collection<String> excludedLabels, NodeVisitor visitor) throws IOException {
+        return streamNodes(label, excludedLabels, null, visitor);
+    }
+
+    /**
+     * Stream the nodes owned by a label that changed after since, or all of
+     * them when since is null. Nodes without updatedAt cannot be tracked and
+     * are always included. A changed node is reported as complete: every
+     * relationship touching it is part of the same dump.
+     */
+    public long streamNodes(String label, Collection<String> excludedLabels, LocalDateTime since,
+                            NodeVisitor visitor) throws IOException {
+        String query = "MATCH (n:" + quote(label) + ") "
+                + "WHERE none(l IN labels(n) WHERE l IN $excluded OR l < $label) "
+                + "AND " + CHANGED_SINCE + " "
+                + NODE_RETURN;
+        return streamNodes(query, Values.parameters(
+                "label", label, "excluded", new ArrayList<>(excludedLabels), "since", since), visitor);
+    }
+
+    /**
+     * Stream the nodes without any label, which no label pass reaches. There
+     * is no index to find them, so this scans every node.
+     */
+    public long streamUnlabelledNodes(LocalDateTime since, NodeVisitor visitor) throws IOException {
+        String query = "MATCH (n) WHERE size(labels(n)) = 0 AND " + CHANGED_SINCE + " " + NODE_RETURN;
+        return streamNodes(query, Values.parameters("since", since), visitor);
+    }
+
+    private long streamNodes(String query, Value parameters, NodeVisitor visitor) throws IOException {
+        long rows = 0;
+        try (Session session = connection.getSession()) {
+            Result result = session.run(query, parameters);
+            while (result.hasNext()) {
+                Record record = result.next();
+                visitor.visit(record.get("eid").asString(),
+                        record.get("labels").asList(Value::asString),
+                        record.get("props").asMap(),
+                        record.get("complete").asBoolean());
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Stream relationships of a type whose endpoints carry none of the excluded labels
+     */
+    public long streamRelationships(String type, Collection<String> excludedLabels,
+                                    RelationshipVisitor visitor) throws IOException {
+        return streamRelationships(type, excludedLabels, null, visitor);
+    }
+
+    /**
+     * Stream relationships of a type, limited when since is set to those
+     * touching a changed node, changed themselves, or between two untracked nodes
+     */
+    public long streamRelationships(String type, Collection<String> excludedLabels, LocalDateTime since,
+                                    RelationshipVisitor visitor) throws IOException {
+        String query = "MATCH (a)-[r:" + quote(type) + "]->(b) "
+                + "WHERE none(l IN labels(a) + labels(b) WHERE l IN $excluded) "
+                + "AND ($since IS NULL "
+                + "OR localdatetime(a.updatedAt) > $since OR localdatetime(b.updatedAt) > $since "
+                + "OR localdatetime(" + RELATIONSHIP_TIME + ") > $since "
+                + "OR (a.updatedAt IS NULL AND b.updatedAt IS NULL)) "
+                + "RETURN elementId(r) AS eid, elementId(a) AS start, elementId(b) AS end, "
+                + "properties(r) AS props";
+
+        long rows = 0;
+        try (Session session = connection.getSession()) {
+            Result result = session.run(query, Values.parameters(
+                    "excluded", new ArrayList<>(excludedLabels), "since", since));
+            while (result.hasNext()) {
+                Record record = result.next();
+                visitor.visit(record.get("eid").asString(), type,
+                        record.get("start").asString(), record.get("end").asString(),
+                        record.get("props").asMap());
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Stream deletes recorded after since, skipping nodes with an excluded
+     * label. The deleted node's id, when it had one, is the only property.
+     */
+    public long streamTombstones(ZonedDateTime since, Collection<String> excludedLabels,
+                                 NodeVisitor visitor) throws IOException {
+        String query = "MATCH (t:" + TOMBSTONE_LABEL + ") "
+                + "WHERE t.deletedAt > $since AND none(l IN t.labels WHERE l IN $excluded) "
+                + "RETURN t.eid AS eid, t.labels AS labels, t.id AS id";
+
+        long rows = 0;
+        try (Session session = connection.getSession()) {
+            Result result = session.run(query, Values.parameters(
+                    "since", since, "excluded", new ArrayList<>(excludedLabels)));
+            while (result.hasNext()) {
+                Record record = result.next();
+                Value id = record.get("id");
+                visitor.visit(record.get("eid").asString(),
+                        record.get("labels").asList(Value::asString),
+                        id.isNull() ? Map.of() : Map.of("id", id.asObject()), false);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Drop tombstones no future incremental backup can need
+     */
+    public long deleteTombstonesBefore(ZonedDateTime before) {
+        String query = "MATCH (t:" + TOMBSTONE_LABEL + ") WHERE t.deletedAt < $before "
+                + "CALL { WITH t DELETE t } IN TRANSACTIONS OF 10000 ROWS";
+        try (Session session = connection.getSession()) {
+            return session.run(query, Values.parameters("before", before))
+                    .consume().counters().nodesDeleted();
+        }
+    }
+
+    /**
+     * Delete query for the node bound by match, with its relationships,
+     * leaving a tombstone for incremental backups
+     */
+    public static String deleteWithTombstone(String match, String variable) {
+        return deleteWithTombstone(match, variable, true);
+    }
+
+    /**
+     * Delete query for the node bound by match, leaving a tombstone for
+     * incremental backups. The tombstone records the node's id property,
+     * which unlike its elementId is never handed to a later node. Variables
+     * named in carried stay in scope after the delete, for a RETURN.
+     */
+    public static String deleteWithTombstone(String match, String variable, boolean detach, String... carried) {
+        StringBuilder with = new StringBuilder(variable);
+        for (String name : carried) {
+            with.append(", ").append(name);
+        }
+        return match + " WITH " + with + ", elementId(" + variable + ") AS deletedEid, " + variable
+                + ".id AS deletedId, labels(" + variable + ") AS deletedLabels "
+                + (detach ? "DETACH DELETE " : "DELETE ") + variable + " "
+                + "CREATE (:" + TOMBSTONE_LABEL + " {eid: deletedEid, id: deletedId, labels: deletedLabels, "
+                + "deletedAt: datetime()})";
+    }
+
+    // Restore writes
+
+    /**
+     * Delete every node except those carrying one of the kept labels
+     */
+    public long deleteAllNodes(Collection<String> keptLabels) {
+        String query = "MATCH (n) WHERE none(l IN labels(n) WHERE l IN $kept) "
+                + "CALL { WITH n DETACH DELETE n } IN TRANSACTIONS OF 10000 ROWS";
+        try (Session session = connection.getSession()) {
+            return session.run(query, Values.parameters("kept", new ArrayList<>(keptLabels)))
+                    .consume().counters().nodesDeleted();
+        }
+    }
+
+    public void prepareRestore() {
+        try (Session session = connection.getSession()) {
+            session.run("CREATE INDEX restore_eid IF NOT EXISTS FOR (n:" + RESTORE_LABEL + ") ON (n.__eid)");
+            session.run("CALL db.awaitIndexes(300)");
+        }
+    }
+
+    /**
+     * Write one batch of nodes sharing a label set. Rows are maps of eid and
+     * props; with merge, nodes restored by an earlier backup are updated.
+     */
+    public void writeNodes(List<String> labels, List<Map<String, Object>> rows, boolean merge) {
+        StringBuilder labelClause = new StringBuilder();
+        for (String label : labels) {
+            labelClause.append(':').append(quote(label));
+        }
+        String query = merge
+                ? "UNWIND $rows AS row MERGE (n:" + RESTORE_LABEL + " {__eid: row.eid}) "
+                        + "SET n = row.props, n.__eid = row.eid" + (labels.isEmpty() ? "" : ", n" + labelClause)
+                : "UNWIND $rows AS row CREATE (n:" + RESTORE_LABEL + labelClause + ") "
+                        + "SET n = row.props, n.__eid = row.eid";
+        write(query, Values.parameters("rows", rows));
+    }
+
+    /**
+     * Delete restored nodes, with their relationships, by backup elementId
+     */
+    public void deleteNodes(List<String> eids) {
+        write("UNWIND $eids AS eid MATCH (n:" + RESTORE_LABEL + " {__eid: eid}) DETACH DELETE n",
+                Values.parameters("eids", eids));
+    }
+
+    /**
+     * Delete restored nodes, with their relationships, by label and id
+     */
+    public void deleteNodesById(String label, List<Object> ids) {
+        write("UNWIND $ids AS id MATCH (n:" + RESTORE_LABEL + ":" + quote(label) + " {id: id}) DETACH DELETE n",
+                Values.parameters("ids", ids));
+    }
+
+    /**
+     * Drop the relationships of restored nodes whose relationships are about to be rewritten
+     */
+    public void deleteRelationships(List<String> eids) {
+        write("UNWIND $eids AS eid MATCH (n:" + RESTORE_LABEL + " {__eid: eid})-[r]-() DELETE r",
+                Values.parameters("eids", eids));
+    }
+
+    /**
+     * Write one batch of relationships of a type between restored nodes.
+     * Rows are maps of eid, start, end and props.
+     */
+    public void writeRelationships(String type, List<Map<String, Object>> rows, boolean merge) {
+        String query = "UNWIND $rows AS row "
+                + "MATCH (a:" + RESTORE_LABEL + " {__eid: row.start}) "
+                + "MATCH (b:" + RESTORE_LABEL + " {__eid: row.end}) "
+                + (merge ? "MERGE (a)-[r:" + quote(type) + " {__eid: row.eid}]->(b) "
+                         : "CREATE (a)-[r:" + quote(type) + "]->(b) ")
+                + "SET r = row.props, r.__eid = row.eid";
+        write(query, Values.parameters("rows", rows));
+    }
+
+    /**
+     * Remove the restore bookkeeping from every node and relationship
+     */
+    public void finishRestore() {
+        try (Session session = connection.getSession()) {
+            session.run("MATCH ()-[r]->() WHERE r.__eid IS NOT NULL "
+                    + "CALL { WITH r REMOVE r.__eid } IN TRANSACTIONS OF 10000 ROWS").consume();
+            session.run("MATCH (n:" + RESTORE_LABEL + ") "
+                    + "CALL { WITH n REMOVE n:" + RESTORE_LABEL + ", n.__eid } IN TRANSACTIONS OF 10000 ROWS").consume();
+            session.run("DROP INDEX restore_eid IF EXISTS").consume();
+        }
+    }
+
+    /**
+     * Backtick-quote a label or type name for use in a query
+     */
+    static String quote(String name) {
+        return "`" + name.replace("`", "``") + "`";
+    }
+
+    private void write(String query, Value parameters) {
+        try (Session session = connection.getSession()) {
+            session.executeWrite(tx -> tx.run(query, parameters).consume());
+        }
+    }
+
+    private List<String> readStrings(String query) {
+        List<String> values = new ArrayList<>();
+        try (Session session = connection.getSession()) {
+            Result result = session.run(query);
+            while (result.hasNext()) {
+                values.add(result.next().get(0).asString());
+            }
+        }
+        return values;
+    }
+
+    private long readCount(String query) {
+        try (Session session = connection.getSession()) {
+            return session.run(query).single().get("count").asLong();
+        }
+    }
+
+    // Visitor Interfaces
+    public interface NodeVisitor {
+        void visit(String elementId, List<String> labels, Map<String, Object> properties,
+                   boolean complete) throws IOException;
+    }
+
+    public interface RelationshipVisitor {
+        void visit(String elementId, String type, String startId, String endId,
+                   Map<String, Object> properties) throws IOException;
+    }
+}
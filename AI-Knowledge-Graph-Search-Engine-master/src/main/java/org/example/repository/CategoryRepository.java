@@ -1,7 +1,9 @@
 package org.example.repository;
 
 import org.example.model.Category;
+import org.example.model.CategoryLink;
 import org.neo4j.driver.*;
+import org.neo4j.driver.Record;
 import java.time.LocalDateTime;
 import java.util.*;
 import static org.neo4j.driver.Values.parameters;
@@ -85,10 +87,57 @@ public class CategoryRepository {
 
     public void delete(String id) {
         try (Session session = driver.session()) {
-            session.run("MATCH (c:Category {id: $id}) DETACH DELETE c", parameters("id", id));
+            session.run(BackupRepository.deleteWithTombstone("MATCH (c:Category {id: $id})", "c"), parameters("id", id));
         }
     }
 
+    /**
+     * Every ticket's BELONGS_TO links in one pass, keyed by ticket id
+     */
+    public Map<String, List<CategoryLink>> findAllCategoryLinks() {
+        try (Session session = driver.session()) {
+            String query = "MATCH (t:Ticket)-[r:BELONGS_TO]->(c:Category) " +
+                    "RETURN t.id AS ticketId, " +
+                    "collect({categoryId: c.id, auto: coalesce(r.autoClassified, false), " +
+                    "confidence: r.confidence}) AS links";
+            return mapLinks(session.run(query));
+        }
+    }
+
+    /**
+     * Current BELONGS_TO links of the given tickets; tickets without links
+     * (or that no longer exist) are absent from the result
+     */
+    public Map<String, List<CategoryLink>> findCategoryLinks(Collection<String> ticketIds) {
+        try (Session session = driver.session()) {
+            String query = "UNWIND $ids AS id " +
+                    "MATCH (t:Ticket {id: id})-[r:BELONGS_TO]->(c:Category) " +
+                    "RETURN t.id AS ticketId, " +
+                    "collect({categoryId: c.id, auto: coalesce(r.autoClassified, false), " +
+                    "confidence: r.confidence}) AS links";
+            return mapLinks(session.run(query, parameters("ids", new ArrayList<>(ticketIds))));
+        }
+    }
+
+    private Map<String, List<CategoryLink>> mapLinks(Result result) {
+        Map<String, List<CategoryLink>> linksByTicket = new HashMap<>();
+        while (result.hasNext()) {
+            Record record = result.next();
+            List<CategoryLink> links = new ArrayList<>();
+            for (Value link : record.get("links").values()) {
+                if (link.get("categoryId").isNull()) {
+                    continue;
+                }
+                links.add(new CategoryLink(
+                        link.get("categoryId").asString(),
+                        link.get("auto").asBoolean(false),
+                        link.get("confidence").isNull() ? null : link.get("confidence").asDouble()));
+            }
+            linksByTicket.put(record.get("ticketId").asString(), links);
+        }
+        return linksByTicket;
+    }
+
     private Category mapToCategory(Map<String, Object> map) {
         Category category = new Category();
         category.setId((String) map.get("id"));
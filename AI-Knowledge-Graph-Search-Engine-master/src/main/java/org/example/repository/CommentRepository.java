@@ -112,7 +112,7 @@ public class CommentRepository {
      */
     public void delete(String id) {
         try (Session session = driver.session()) {
-            String query = "MATCH (c:Comment {id: $id}) DETACH DELETE c";
+            String query = BackupRepository.deleteWithTombstone("MATCH (c:Comment {id: $id})", "c");
             session.run(query, parameters("id", id));
             System.out.println("✅ Comment deleted: " + id);
         } catch (Exception e) {
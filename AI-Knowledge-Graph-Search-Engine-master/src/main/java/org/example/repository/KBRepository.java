@@ -182,7 +182,7 @@ public class KBRepository {
      */
     public void delete(String id) {
         try (Session session = driver.session()) {
-            String query = "MATCH (kb:KnowledgeBase {id: $id}) DELETE kb";
+            String query = BackupRepository.deleteWithTombstone("MATCH (kb:KnowledgeBase {id: $id})", "kb", false);
             session.run(query, parameters("id", id));
             System.out.println("✅ KB article deleted: " + id);
         } catch (Exception e) {
@@ -0,0 +1,122 @@
+package org.example.repository;
+
+import org.example.util.LatencyHistogram;
+import org.neo4j.driver.*;
+import org.neo4j.driver.Record;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistence for :LatencyHistogram nodes. Each node holds one serialized
+ * histogram identified by metric, dimension and dimension value.
+ */
+public class LatencyRepository {
+    private final Neo4jConnection connection;
+
+    public LatencyRepository() {
+        this.connection = Neo4jConnection.getInstance();
+    }
+
+    /**
+     * Load every persisted histogram keyed by its id
+     */
+    public Map<String, LatencyHistogram> findAll() {
+        String query = "MATCH (h:LatencyHistogram) RETURN h.id AS id, h.data AS data";
+        Map<String, LatencyHistogram> histograms = new HashMap<>();
+
+        try (Session session = connection.getSession()) {
+            Result result = session.run(query);
+            while (result.hasNext()) {
+                Record record = result.next();
+                try {
+                    histograms.put(record.get("id").asString(),
+                            LatencyHistogram.fromBase64(record.get("data").asString()));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("⚠️ Skipping unreadable histogram " + record.get("id").asString());
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error loading latency histograms: " + e.getMessage());
+            return null;
+        }
+        return histograms;
+    }
+
+    /**
+     * Upsert histograms in one round trip. Ids have the form metric|dimension|value.
+     */
+    public boolean saveAll(Map<String, LatencyHistogram> histograms) {
+        if (histograms.isEmpty()) {
+            return true;
+        }
+        String query = """
+                UNWIND $rows AS row
+                MERGE (h:LatencyHistogram {id: row.id})
+                SET h.metric = row.metric,
+                    h.dimension = row.dimension,
+                    h.value = row.value,
+                    h.data = row.data,
+                    h.count = row.count,
+                    h.updatedAt = datetime()
+                """;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        histograms.forEach((id, histogram) -> {
+            String[] parts = id.split("\\|", 3);
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", id);
+            row.put("metric", parts[0]);
+            row.put("dimension", parts.length > 1 ? parts[1] : "all");
+            row.put("value", parts.length > 2 ? parts[2] : "all");
+            row.put("data", histogram.toBase64());
+            row.put("count", histogram.getTotalCount());
+            rows.add(row);
+        });
+
+        try (Session session = connection.getSession()) {
+            session.run(query, Values.parameters("rows", rows)).consume();
+            return true;
+        } catch (Exception e) {
+            System.err.println("❌ Error saving latency histograms: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Resolution latency of every resolved ticket, used once to backfill
+     * histograms when none have been persisted yet
+     */
+    public List<Map<String, Object>> findResolutionSamples() {
+        String query = """
+                MATCH (t:Ticket)
+                WHERE toUpper(replace(coalesce(t.status, ''), ' ', '_')) IN ['RESOLVED', 'CLOSED']
+                  AND t.createdAt IS NOT NULL
+                WITH t, coalesce(t.resolvedAt, t.updatedAt) AS resolvedAt
+                WHERE resolvedAt IS NOT NULL
+                RETURN toUpper(coalesce(t.priority, 'MEDIUM')) AS priority,
+                       coalesce(t.category, 'General') AS category,
+                       coalesce(t.assignedTo, '') AS agent,
+                       duration.inSeconds(t.createdAt, resolvedAt).seconds AS seconds
+                """;
+        List<Map<String, Object>> samples = new ArrayList<>();
+
+        try (Session session = connection.getSession()) {
+            Result result = session.run(query);
+            while (result.hasNext()) {
+                Record record = result.next();
+                Map<String, Object> sample = new HashMap<>();
+                sample.put("priority", record.get("priority").asString());
+                sample.put("category", record.get("category").asString());
+                sample.put("agent", record.get("agent").asString());
+                sample.put("seconds", record.get("seconds").asLong());
+                samples.add(sample);
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error reading resolution samples: " + e.getMessage());
+            return null;
+        }
+        return samples;
+    }
+}
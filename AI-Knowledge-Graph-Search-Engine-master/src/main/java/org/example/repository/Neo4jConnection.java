@@ -29,10 +29,21 @@ public class Neo4jConnection {
             session.run("CREATE CONSTRAINT ticket_id IF NOT EXISTS FOR (t:Ticket) REQUIRE t.id IS UNIQUE");
             session.run("CREATE CONSTRAINT user_username IF NOT EXISTS FOR (u:User) REQUIRE u.username IS UNIQUE");
             session.run("CREATE CONSTRAINT category_name IF NOT EXISTS FOR (c:Category) REQUIRE c.name IS UNIQUE");
+            session.run("CREATE CONSTRAINT daily_rollup_date IF NOT EXISTS FOR (r:DailyRollup) REQUIRE r.date IS UNIQUE");
+            session.run("CREATE CONSTRAINT latency_histogram_id IF NOT EXISTS FOR (h:LatencyHistogram) REQUIRE h.id IS UNIQUE");
+            session.run("CREATE CONSTRAINT saved_report_name IF NOT EXISTS FOR (r:SavedReport) REQUIRE r.name IS UNIQUE");
+            session.run("CREATE CONSTRAINT audit_day_date IF NOT EXISTS FOR (d:AuditDay) REQUIRE d.date IS UNIQUE");
 
             // 2. Indexes for performance
             session.run("CREATE INDEX ticket_status IF NOT EXISTS FOR (t:Ticket) ON (t.status)");
             session.run("CREATE INDEX ticket_priority IF NOT EXISTS FOR (t:Ticket) ON (t.priority)");
+            session.run("CREATE INDEX ticket_created_at IF NOT EXISTS FOR (t:Ticket) ON (t.createdAt)");
+            session.run("CREATE INDEX ticket_updated_at IF NOT EXISTS FOR (t:Ticket) ON (t.updatedAt)");
+            session.run("CREATE INDEX tombstone_deleted_at IF NOT EXISTS FOR (t:Tombstone) ON (t.deletedAt)");
+            session.run("CREATE INDEX audit_id IF NOT EXISTS FOR (a:AuditLog) ON (a.id)");
+            session.run("CREATE INDEX audit_at IF NOT EXISTS FOR (a:AuditLog) ON (a.at)");
+            session.run("CREATE INDEX audit_user_at IF NOT EXISTS FOR (a:AuditLog) ON (a.userId, a.at)");
+            session.run("CREATE INDEX audit_action_at IF NOT EXISTS FOR (a:AuditLog) ON (a.action, a.at)");
 
             System.out.println("✅ Database schema initialized (constraints and indexes)");
         } catch (Exception e) {
@@ -0,0 +1,139 @@
+package org.example.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.model.Report;
+import org.neo4j.driver.*;
+import org.neo4j.driver.Record;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistence for :SavedReport nodes. Each node holds the report definition
+ * (type, range, options) plus a JSON snapshot of the computed data, so a
+ * saved report can be shown again without recomputing it.
+ */
+public class ReportRepository {
+    private final Neo4jConnection connection;
+    private final ObjectMapper objectMapper;
+
+    public ReportRepository() {
+        this.connection = Neo4jConnection.getInstance();
+        this.objectMapper = new ObjectMapper();
+    }
+
+    /**
+     * Create or replace the saved report with the report's name
+     */
+    public boolean save(Report report) {
+        String query = """
+                MERGE (r:SavedReport {name: $name})
+                SET r.id = $id,
+                    r.type = $type,
+                    r.startDate = localdatetime($startDate),
+                    r.endDate = localdatetime($endDate),
+                    r.includeCharts = $includeCharts,
+                    r.includeSummary = $includeSummary,
+                    r.includeDetails = $includeDetails,
+                    r.generatedBy = $generatedBy,
+                    r.generatedAt = localdatetime($generatedAt),
+                    r.sourceFingerprint = $sourceFingerprint,
+                    r.data = $data,
+                    r.previewText = $previewText,
+                    r.savedAt = datetime()
+                """;
+
+        try (Session session = connection.getSession()) {
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("name", report.getName());
+            parameters.put("id", report.getId());
+            parameters.put("type", report.getType());
+            parameters.put("startDate", report.getStartDate().toString());
+            parameters.put("endDate", report.getEndDate().toString());
+            parameters.put("includeCharts", report.isIncludeCharts());
+            parameters.put("includeSummary", report.isIncludeSummary());
+            parameters.put("includeDetails", report.isIncludeDetails());
+            parameters.put("generatedBy", report.getGeneratedBy());
+            parameters.put("generatedAt", report.getGeneratedAt().toString());
+            parameters.put("sourceFingerprint", report.getSourceFingerprint());
+            parameters.put("data", objectMapper.writeValueAsString(report.getData()));
+            parameters.put("previewText", report.getPreviewText());
+
+            session.run(query, parameters).consume();
+            return true;
+        } catch (Exception e) {
+            System.err.println("❌ Error saving report " + report.getName() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Load a saved report with its data snapshot, or null if not found
+     */
+    public Report findByName(String name) {
+        String query = "MATCH (r:SavedReport {name: $name}) RETURN r";
+
+        try (Session session = connection.getSession()) {
+            Result result = session.run(query, Values.parameters("name", name));
+            if (result.hasNext()) {
+                return mapToReport(result.next().get("r"));
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error loading report " + name + ": " + e.getMessage());
+        }
+
+        return null;
+    }
+
+    /**
+     * Names of all saved reports, without loading their snapshots
+     */
+    public List<String> findAllNames() {
+        String query = "MATCH (r:SavedReport) RETURN r.name AS name ORDER BY name";
+        List<String> names = new ArrayList<>();
+
+        try (Session session = connection.getSession()) {
+            Result result = session.run(query);
+            while (result.hasNext()) {
+                Record record = result.next();
+                names.add(record.get("name").asString());
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error listing saved reports: " + e.getMessage());
+        }
+
+        return names;
+    }
+
+    public boolean delete(String name) {
+        String query = BackupRepository.deleteWithTombstone("MATCH (r:SavedReport {name: $name})", "r", false);
+
+        try (Session session = connection.getSession()) {
+            session.run(query, Values.parameters("name", name)).consume();
+            return true;
+        } catch (Exception e) {
+            System.err.println("❌ Error deleting report " + name + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private Report mapToReport(Value node) throws Exception {
+        Report report = new Report(node.get("name").asString(), node.get("type").asString());
+        report.setId(node.get("id").asString(null));
+        report.setStartDate(node.get("startDate").asLocalDateTime());
+        report.setEndDate(node.get("endDate").asLocalDateTime());
+        report.setIncludeCharts(node.get("includeCharts").asBoolean(true));
+        report.setIncludeSummary(node.get("includeSummary").asBoolean(true));
+        report.setIncludeDetails(node.get("includeDetails").asBoolean(true));
+        report.setGeneratedBy(node.get("generatedBy").asString(null));
+        report.setGeneratedAt(node.get("generatedAt").asLocalDateTime());
+        report.setSourceFingerprint(node.get("sourceFingerprint").asString(null));
+        report.setData(objectMapper.readValue(node.get("data").asString("{}"),
+                new TypeReference<Map<String, Object>>() { }));
+        report.setPreviewText(node.get("previewText").asString(""));
+        return report;
+    }
+}
@@ -0,0 +1,221 @@
+package org.example.repository;
+
+import org.example.model.DailyRollup;
+import org.example.model.enums.Priority;
+import org.neo4j.driver.*;
+import org.neo4j.driver.Record;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Persistence for :DailyRollup nodes (pre-aggregated ticket trend buckets)
+ */
+public class RollupRepository {
+    private final Neo4jConnection connection;
+
+    public RollupRepository() {
+        this.connection = Neo4jConnection.getInstance();
+    }
+
+    /**
+     * Load every persisted rollup on or after the given day, oldest first
+     */
+    public List<DailyRollup> findSince(LocalDate since) {
+        String query = """
+                MATCH (r:DailyRollup)
+                WHERE r.date >= date($since)
+                RETURN r
+                ORDER BY r.date
+                """;
+        List<DailyRollup> rollups = new ArrayList<>();
+
+        try (Session session = connection.getSession()) {
+            Result result = session.run(query, Values.parameters("since", since.toString()));
+            while (result.hasNext()) {
+                rollups.add(mapToRollup(result.next().get("r")));
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error loading daily rollups: " + e.getMessage());
+        }
+        return rollups;
+    }
+
+    /**
+     * Upsert rollups in one round trip. Hourly arrays left null keep
+     * whatever the node already holds.
+     */
+    public boolean saveAll(List<DailyRollup> rollups) {
+        if (rollups.isEmpty()) {
+            return true;
+        }
+        String query = """
+                UNWIND $rows AS row
+                MERGE (r:DailyRollup {date: date(row.date)})
+                SET r.id = row.date,
+                    r.created = row.created,
+                    r.resolved = row.resolved,
+                    r.createdByPriority = row.createdByPriority,
+                    r.resolvedByPriority = row.resolvedByPriority,
+                    r.categories = row.categories,
+                    r.createdByCategory = row.createdByCategory,
+                    r.resolvedByCategory = row.resolvedByCategory,
+                    r.createdByHour = coalesce(row.createdByHour, r.createdByHour),
+                    r.resolvedByHour = coalesce(row.resolvedByHour, r.resolvedByHour),
+                    r.updatedAt = datetime()
+                """;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (DailyRollup rollup : rollups) {
+            rows.add(toRow(rollup));
+        }
+
+        try (Session session = connection.getSession()) {
+            session.run(query, Values.parameters("rows", rows)).consume();
+            return true;
+        } catch (Exception e) {
+            System.err.println("❌ Error saving daily rollups: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Rebuild rollups from the tickets themselves, grouped in the database.
+     * Used once to backfill when no rollups have been persisted yet.
+     */
+    public List<DailyRollup> aggregateFromTickets(LocalDate since) {
+        String query = """
+                MATCH (t:Ticket)
+                WHERE t.createdAt >= datetime($since)
+                RETURN 'created' AS kind, toString(date(t.createdAt)) AS day, t.createdAt.hour AS hour,
+                       toUpper(coalesce(t.priority, 'MEDIUM')) AS priority,
+                       coalesce(t.category, 'General') AS category,
+                       count(*) AS count
+                UNION ALL
+                MATCH (t:Ticket)
+                WHERE toUpper(replace(coalesce(t.status, ''), ' ', '_')) IN ['RESOLVED', 'CLOSED']
+                WITH t, coalesce(t.resolvedAt, t.updatedAt) AS at
+                WHERE at >= datetime($since)
+                RETURN 'resolved' AS kind, toString(date(at)) AS day, at.hour AS hour,
+                       toUpper(coalesce(t.priority, 'MEDIUM')) AS priority,
+                       coalesce(t.category, 'General') AS category,
+                       count(*) AS count
+                """;
+        Map<String, DailyRollup> byDay = new TreeMap<>();
+
+        try (Session session = connection.getSession()) {
+            Result result = session.run(query, Values.parameters("since", since.atStartOfDay().toString()));
+            while (result.hasNext()) {
+                Record record = result.next();
+                String day = record.get("day").asString();
+                DailyRollup rollup = byDay.computeIfAbsent(day, d -> new DailyRollup(LocalDate.parse(d)));
+                boolean created = "created".equals(record.get("kind").asString());
+                int hour = record.get("hour").asInt(0);
+                int priority = priorityIndex(record.get("priority").asString());
+                String category = record.get("category").asString();
+                long count = record.get("count").asLong();
+
+                if (created) {
+                    rollup.setCreated(rollup.getCreated() + count);
+                    rollup.getCreatedByHour()[hour] += count;
+                    rollup.getCreatedByPriority()[priority] += count;
+                    rollup.getCreatedByCategory().merge(category, count, Long::sum);
+                } else {
+                    rollup.setResolved(rollup.getResolved() + count);
+                    rollup.getResolvedByHour()[hour] += count;
+                    rollup.getResolvedByPriority()[priority] += count;
+                    rollup.getResolvedByCategory().merge(category, count, Long::sum);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error aggregating ticket rollups: " + e.getMessage());
+            return null;
+        }
+        return new ArrayList<>(byDay.values());
+    }
+
+    public static int priorityIndex(String priority) {
+        try {
+            return Priority.valueOf(priority).ordinal();
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return Priority.MEDIUM.ordinal();
+        }
+    }
+
+    private Map<String, Object> toRow(DailyRollup rollup) {
+        List<String> categories = new ArrayList<>(rollup.getCreatedByCategory().keySet());
+        for (String category : rollup.getResolvedByCategory().keySet()) {
+            if (!categories.contains(category)) {
+                categories.add(category);
+            }
+        }
+        List<Long> createdByCategory = new ArrayList<>();
+        List<Long> resolvedByCategory = new ArrayList<>();
+        for (String category : categories) {
+            createdByCategory.add(rollup.getCreatedByCategory().getOrDefault(category, 0L));
+            resolvedByCategory.add(rollup.getResolvedByCategory().getOrDefault(category, 0L));
+        }
+
+        Map<String, Object> row = new HashMap<>();
+        row.put("date", rollup.getDate().toString());
+        row.put("created", rollup.getCreated());
+        row.put("resolved", rollup.getResolved());
+        row.put("createdByPriority", toList(rollup.getCreatedByPriority()));
+        row.put("resolvedByPriority", toList(rollup.getResolvedByPriority()));
+        row.put("categories", categories);
+        row.put("createdByCategory", createdByCategory);
+        row.put("resolvedByCategory", resolvedByCategory);
+        row.put("createdByHour", toList(rollup.getCreatedByHour()));
+        row.put("resolvedByHour", toList(rollup.getResolvedByHour()));
+        return row;
+    }
+
+    private DailyRollup mapToRollup(Value node) {
+        DailyRollup rollup = new DailyRollup(node.get("date").asLocalDate());
+        rollup.setCreated(node.get("created").asLong(0));
+        rollup.setResolved(node.get("resolved").asLong(0));
+        copyInto(node.get("createdByHour"), rollup.getCreatedByHour());
+        copyInto(node.get("resolvedByHour"), rollup.getResolvedByHour());
+        copyInto(node.get("createdByPriority"), rollup.getCreatedByPriority());
+        copyInto(node.get("resolvedByPriority"), rollup.getResolvedByPriority());
+
+        if (!node.get("categories").isNull()) {
+            List<String> categories = node.get("categories").asList(Value::asString);
+            List<Long> created = node.get("createdByCategory").asList(Value::asLong);
+            List<Long> resolved = node.get("resolvedByCategory").asList(Value::asLong);
+            for (int i = 0; i < categories.size(); i++) {
+                if (i < created.size() && created.get(i) > 0) {
+                    rollup.getCreatedByCategory().put(categories.get(i), created.get(i));
+                }
+                if (i < resolved.size() && resolved.get(i) > 0) {
+                    rollup.getResolvedByCategory().put(categories.get(i), resolved.get(i));
+                }
+            }
+        }
+        return rollup;
+    }
+
+    private static void copyInto(Value list, long[] target) {
+        if (list.isNull()) {
+            return;
+        }
+        List<Long> values = list.asList(Value::asLong);
+        for (int i = 0; i < Math.min(values.size(), target.length); i++) {
+            target[i] = values.get(i);
+        }
+    }
+
+    private static List<Long> toList(long[] values) {
+        if (values == null) {
+            return null;
+        }
+        List<Long> list = new ArrayList<>(values.length);
+        for (long value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
@@ -3,6 +3,7 @@ package org.example.repository;
 import org.example.model.SLA;
 import org.example.model.enums.Priority;
 import org.neo4j.driver.*;
+import org.neo4j.driver.Record;
 import java.time.LocalDateTime;
 import java.util.*;
 import static org.neo4j.driver.Values.parameters;
@@ -70,9 +71,47 @@ public class SLARepository {
         }
     }
 
+    /**
+     * Count resolved tickets that met or breached their resolution SLA.
+     * Limits are resolution minutes keyed by priority name. Returns {met, breached}.
+     */
+    public long[] countResolvedOutcomes(Map<String, Object> resolutionMinutes, long defaultMinutes) {
+        return countResolvedOutcomes("", resolutionMinutes, defaultMinutes, null, null);
+    }
+
+    /**
+     * Resolved SLA outcomes for tickets created within [start, end]
+     */
+    public long[] countResolvedOutcomes(Map<String, Object> resolutionMinutes, long defaultMinutes,
+                                        LocalDateTime start, LocalDateTime end) {
+        return countResolvedOutcomes("AND t.createdAt >= datetime($start) AND t.createdAt <= datetime($end) ",
+                resolutionMinutes, defaultMinutes, start, end);
+    }
+
+    private long[] countResolvedOutcomes(String filter, Map<String, Object> resolutionMinutes, long defaultMinutes,
+                                         LocalDateTime start, LocalDateTime end) {
+        try (Session session = driver.session()) {
+            String query = "MATCH (t:Ticket) " +
+                    "WHERE toUpper(replace(coalesce(t.status, ''), ' ', '_')) IN ['RESOLVED', 'CLOSED'] " +
+                    "AND t.createdAt IS NOT NULL " + filter +
+                    "WITH t, coalesce(t.resolvedAt, t.updatedAt) AS resolvedAt, " +
+                    "coalesce($limits[toUpper(coalesce(t.priority, 'MEDIUM'))], $defaultMinutes) AS limit " +
+                    "WHERE resolvedAt IS NOT NULL " +
+                    "WITH resolvedAt <= t.createdAt + duration({minutes: limit}) AS met " +
+                    "RETURN sum(CASE WHEN met THEN 1 ELSE 0 END) AS met, " +
+                    "sum(CASE WHEN met THEN 0 ELSE 1 END) AS breached";
+            Record record = session.run(query, parameters(
+                    "limits", resolutionMinutes,
+                    "defaultMinutes", defaultMinutes,
+                    "start", start != null ? start.toString() : null,
+                    "end", end != null ? end.toString() : null)).single();
+            return new long[] { record.get("met").asLong(0), record.get("breached").asLong(0) };
+        }
+    }
+
     public void delete(String id) {
         try (Session session = driver.session()) {
-            session.run("MATCH (s:SLA {id: $id}) DETACH DELETE s", parameters("id", id));
+            session.run(BackupRepository.deleteWithTombstone("MATCH (s:SLA {id: $id})", "s"), parameters("id", id));
         }
     }
 
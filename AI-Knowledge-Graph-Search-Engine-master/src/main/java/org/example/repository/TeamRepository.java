@@ -59,7 +59,7 @@ public class TeamRepository {
 
     public void delete(String id) {
         try (Session session = driver.session()) {
-            session.run("MATCH (t:Team {id: $id}) DETACH DELETE t", parameters("id", id));
+            session.run(BackupRepository.deleteWithTombstone("MATCH (t:Team {id: $id})", "t"), parameters("id", id));
         }
     }
 
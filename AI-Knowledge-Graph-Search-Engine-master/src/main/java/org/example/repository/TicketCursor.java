@@ -0,0 +1,63 @@
+package org.example.repository;
+
+import org.example.model.Ticket;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Ticket Cursor - Forward-only iterator over a streamed ticket query. Records
+ * are pulled from the driver as they are consumed, so memory stays flat no
+ * matter how many tickets match. Holds its session open until closed.
+ */
+public class TicketCursor implements Iterator<Ticket>, AutoCloseable {
+
+    private final Session session;
+    private final Result result;
+    private final Function<Record, Ticket> mapper;
+    private Ticket next;
+    private long skipped;
+
+    TicketCursor(Session session, Result result, Function<Record, Ticket> mapper) {
+        this.session = session;
+        this.result = result;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && result.hasNext()) {
+            try {
+                next = mapper.apply(result.next());
+            } catch (Exception e) {
+                skipped++;
+                System.err.println("⚠️ Skipping invalid ticket record: " + e.getMessage());
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Ticket next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Ticket ticket = next;
+        next = null;
+        return ticket;
+    }
+
+    /** Records that could not be mapped and were left out */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    @Override
+    public void close() {
+        session.close();
+    }
+}
@@ -1,17 +1,30 @@
 package org.example.repository;
 
+import org.example.model.AgentPerformance;
+import org.example.model.DashboardSnapshot;
 import org.example.model.Ticket;
+import org.example.model.TicketChangeEvent;
 import org.neo4j.driver.*;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import org.neo4j.driver.Record;
+import org.neo4j.driver.types.MapAccessor;
 
 public class TicketRepository {
+    private static final List<TicketChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private static final AtomicLong changeVersion = new AtomicLong();
+
+    /** createdAt window predicate, backed by the ticket_created_at range index */
+    private static final String CREATED_WITHIN = "t.createdAt >= datetime($start) AND t.createdAt <= datetime($end)";
+
     private final Neo4jConnection connection;
 
     public TicketRepository() {
@@ -60,6 +73,7 @@ public class TicketRepository {
             createTicketRelationships(ticket);
 
             System.out.println("✅ Ticket created with relationships: " + ticket.getId());
+            publishChange(TicketChangeEvent.created(ticket));
             return ticket;
         } catch (Exception e) {
             System.err.println("❌ Error creating ticket: " + e.getMessage());
@@ -169,21 +183,28 @@ public class TicketRepository {
      */
     public Ticket update(Ticket ticket) {
         ticket.setUpdatedAt(LocalDateTime.now());
+        if (!ticket.isResolved()) {
+            ticket.setResolvedAt(null);
+        } else if (ticket.getResolvedAt() == null) {
+            ticket.setResolvedAt(ticket.getUpdatedAt());
+        }
 
         String query = """
                 MATCH (t:Ticket {id: $id})
+                WITH t, properties(t) AS previous
                 SET t.title = $title,
                     t.description = $description,
                     t.status = $status,
                     t.priority = $priority,
                     t.category = $category,
                     t.assignedTo = $assignedTo,
-                    t.updatedAt = datetime($updatedAt)
-                RETURN t
+                    t.updatedAt = datetime($updatedAt),
+                    t.resolvedAt = datetime($resolvedAt)
+                RETURN previous
                 """;
 
         try (Session session = connection.getSession()) {
-            session.run(query, Values.parameters(
+            Result result = session.run(query, Values.parameters(
                     "id", ticket.getId(),
                     "title", ticket.getTitle(),
                     "description", ticket.getDescription(),
@@ -191,13 +212,18 @@ public class TicketRepository {
                     "priority", ticket.getPriority(),
                     "category", ticket.getCategory(),
                     "assignedTo", ticket.getAssignedTo(),
-                    "updatedAt", ticket.getUpdatedAt().toString()));
+                    "updatedAt", ticket.getUpdatedAt().toString(),
+                    "resolvedAt", ticket.getResolvedAt() != null ? ticket.getResolvedAt().toString() : null));
+            Ticket previous = result.hasNext() ? mapToTicket(result.next().get("previous")) : null;
 
             // Delete old relationships and recreate
             deleteTicketRelationships(ticket.getId());
             createTicketRelationships(ticket);
 
             System.out.println("✅ Ticket updated: " + ticket.getId());
+            if (previous != null) {
+                publishChange(TicketChangeEvent.updated(previous, ticket));
+            }
             return ticket;
         } catch (Exception e) {
             System.err.println("❌ Error updating ticket: " + e.getMessage());
@@ -247,6 +273,54 @@ public class TicketRepository {
         return tickets;
     }
 
+    /**
+     * Stream every ticket in id order without loading them all; the caller
+     * must close the cursor
+     */
+    public TicketCursor openCursor() {
+        Session session = connection.getSession();
+        try {
+            Result result = session.run("MATCH (t:Ticket) WHERE t.id IS NOT NULL RETURN t AS t ORDER BY t.id");
+            return new TicketCursor(session, result, this::mapToTicket);
+        } catch (RuntimeException e) {
+            session.close();
+            throw e;
+        }
+    }
+
+    /**
+     * One keyset page in id order: up to limit records with id greater than
+     * afterId (null for the first page). Records that cannot be mapped are
+     * skipped and logged, as by TicketCursor, but still advance the page.
+     * Query exceptions propagate so a failed page is never mistaken for the
+     * end of the data.
+     */
+    public TicketPage findPageAfter(String afterId, int limit) {
+        String query = """
+                MATCH (t:Ticket)
+                WHERE t.id IS NOT NULL AND ($after IS NULL OR t.id > $after)
+                RETURN t AS t, t.id AS id ORDER BY t.id LIMIT $limit
+                """;
+        List<Ticket> tickets = new ArrayList<>(limit);
+        String lastId = afterId;
+        int rows = 0;
+
+        try (Session session = connection.getSession()) {
+            Result result = session.run(query, Values.parameters("after", afterId, "limit", limit));
+            while (result.hasNext()) {
+                Record record = result.next();
+                rows++;
+                lastId = record.get("id").asString();
+                try {
+                    tickets.add(mapToTicket(record));
+                } catch (Exception e) {
+                    System.err.println("⚠️ Skipping invalid ticket record: " + e.getMessage());
+                }
+            }
+        }
+        return new TicketPage(tickets, lastId, rows);
+    }
+
     /**
      * Find ticket by ID with relationships
      */
@@ -275,11 +349,17 @@ public class TicketRepository {
      * Delete ticket and all its relationships
      */
     public boolean delete(String id) {
-        String query = "MATCH (t:Ticket {id: $id}) DETACH DELETE t";
+        String query = BackupRepository.deleteWithTombstone(
+                "MATCH (t:Ticket {id: $id}) WITH t, properties(t) AS previous", "t", true, "previous")
+                + " RETURN previous";
 
         try (Session session = connection.getSession()) {
-            session.run(query, Values.parameters("id", id));
+            Result result = session.run(query, Values.parameters("id", id));
+            Ticket previous = result.hasNext() ? mapToTicket(result.next().get("previous")) : null;
             System.out.println("✅ Ticket deleted: " + id);
+            if (previous != null) {
+                publishChange(TicketChangeEvent.deleted(previous));
+            }
             return true;
         } catch (Exception e) {
             System.err.println("❌ Error deleting ticket: " + e.getMessage());
@@ -317,6 +397,29 @@ public class TicketRepository {
         return tickets;
     }
 
+    /**
+     * Find every ticket that is not RESOLVED or CLOSED, whatever the status casing
+     */
+    public List<Ticket> findUnresolved() {
+        String query = """
+                MATCH (t:Ticket)
+                WHERE NOT toUpper(replace(coalesce(t.status, 'OPEN'), ' ', '_')) IN ['RESOLVED', 'CLOSED']
+                RETURN t
+                """;
+        List<Ticket> tickets = new ArrayList<>();
+
+        try (Session session = connection.getSession()) {
+            Result result = session.run(query);
+            while (result.hasNext()) {
+                tickets.add(mapToTicket(result.next()));
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error finding unresolved tickets: " + e.getMessage());
+        }
+
+        return tickets;
+    }
+
     /**
      * Find tickets by priority
      */
@@ -377,6 +480,37 @@ public class TicketRepository {
         return 0;
     }
 
+    /**
+     * Fingerprint of the ticket set: total count plus the latest updatedAt.
+     * Any create, update or delete changes it, so stored report snapshots can
+     * tell whether they are stale. Returns null if the query fails.
+     */
+    public String getChangeFingerprint() {
+        // ORDER BY ... LIMIT 1 lets the planner read the ticket_updated_at index backwards
+        String query = """
+                MATCH (t:Ticket)
+                WITH count(t) AS total
+                OPTIONAL MATCH (u:Ticket) WHERE u.updatedAt IS NOT NULL
+                WITH total, u.updatedAt AS updatedAt
+                ORDER BY updatedAt DESC
+                LIMIT 1
+                RETURN total, toString(updatedAt) AS latest
+                """;
+
+        try (Session session = connection.getSession()) {
+            Result result = session.run(query);
+            if (result.hasNext()) {
+                Record record = result.next();
+                String latest = record.get("latest").isNull() ? "none" : record.get("latest").asString();
+                return record.get("total").asLong() + "@" + latest;
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error reading ticket fingerprint: " + e.getMessage());
+        }
+
+        return null;
+    }
+
     /**
      * Get ticket count by status (enum version)
      */
@@ -461,8 +595,13 @@ public class TicketRepository {
      * Map Neo4j record to Ticket object
      */
     private Ticket mapToTicket(Record record) {
-        var node = record.get("t").asNode();
+        return mapToTicket(record.get("t").asNode());
+    }
 
+    /**
+     * Map a node (or a properties map) to Ticket object
+     */
+    private Ticket mapToTicket(MapAccessor node) {
         Ticket ticket = new Ticket();
         // Safely map fields with defaults if necessary
         ticket.setId(node.get("id").asString("UNKNOWN_ID"));
@@ -474,47 +613,49 @@ public class TicketRepository {
         ticket.setAssignedTo(node.get("assignedTo").asString(""));
         ticket.setCreatedBy(node.get("createdBy").asString(""));
 
-        // Robust date handling
-        if (!node.get("createdAt").isNull()) {
+        LocalDateTime createdAt = readDateTime(node.get("createdAt"), ticket.getId(), "createdAt");
+        ticket.setCreatedAt(createdAt != null ? createdAt : LocalDateTime.now());
+
+        LocalDateTime updatedAt = readDateTime(node.get("updatedAt"), ticket.getId(), "updatedAt");
+        if (updatedAt != null) {
+            ticket.setUpdatedAt(updatedAt);
+        }
+        ticket.setResolvedAt(readDateTime(node.get("resolvedAt"), ticket.getId(), "resolvedAt"));
+
+        return ticket;
+    }
+
+    /**
+     * Robust date handling for datetime(), localdatetime() and string values
+     */
+    private LocalDateTime readDateTime(Value value, String ticketId, String field) {
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        try {
+            // 1. Try native ZonedDateTime (best for Neo4j datetime())
+            return value.asZonedDateTime().toLocalDateTime();
+        } catch (Exception e1) {
             try {
-                // 1. Try native ZonedDateTime (best for Neo4j datetime())
-                ticket.setCreatedAt(node.get("createdAt").asZonedDateTime().toLocalDateTime());
-            } catch (Exception e1) {
+                // 2. Try LocalDateTime (if stored as localdatetime())
+                return value.asLocalDateTime();
+            } catch (Exception e2) {
                 try {
-                    // 2. Try LocalDateTime (if stored as localdatetime())
-                    ticket.setCreatedAt(node.get("createdAt").asLocalDateTime());
-                } catch (Exception e2) {
-                    try {
-                        // 3. Try parsing string representation
-                        String dateStr = node.get("createdAt").asString();
-                        // Remove quotes if present
-                        dateStr = dateStr.replace("\"", "");
-                        // Handle Z suffix manually if LocalDateTime.parse fails
-                        if (dateStr.endsWith("Z")) {
-                            ticket.setCreatedAt(java.time.ZonedDateTime.parse(dateStr).toLocalDateTime());
-                        } else {
-                            ticket.setCreatedAt(LocalDateTime.parse(dateStr));
-                        }
-                    } catch (Exception e3) {
-                        System.err.println("⚠️ Could not parse createdAt for ticket " + ticket.getId() + ": "
-                                + node.get("createdAt"));
-                        ticket.setCreatedAt(LocalDateTime.now());
+                    // 3. Try parsing string representation
+                    String dateStr = value.asString();
+                    // Remove quotes if present
+                    dateStr = dateStr.replace("\"", "");
+                    // Handle Z suffix manually if LocalDateTime.parse fails
+                    if (dateStr.endsWith("Z")) {
+                        return java.time.ZonedDateTime.parse(dateStr).toLocalDateTime();
                     }
+                    return LocalDateTime.parse(dateStr);
+                } catch (Exception e3) {
+                    System.err.println("⚠️ Could not parse " + field + " for ticket " + ticketId + ": " + value);
+                    return null;
                 }
             }
-        } else {
-            ticket.setCreatedAt(LocalDateTime.now());
-        }
-
-        if (!node.get("updatedAt").isNull()) {
-            try {
-                ticket.setUpdatedAt(node.get("updatedAt").asLocalDateTime());
-            } catch (Exception e) {
-                ticket.setUpdatedAt(LocalDateTime.now());
-            }
         }
-
-        return ticket;
     }
 
     /**
@@ -647,10 +788,274 @@ public class TicketRepository {
         return stats;
     }
 
+    /**
+     * Get ticket counts keyed by dimension ("status", "priority", "category") in one round trip
+     */
+    public Map<String, Map<String, Long>> getDistributionCounts() {
+        return getDistributionCounts("", Values.parameters());
+    }
+
+    /**
+     * Distribution counts for tickets created within [start, end]
+     */
+    public Map<String, Map<String, Long>> getDistributionCounts(LocalDateTime start, LocalDateTime end) {
+        return getDistributionCounts("WHERE " + CREATED_WITHIN, rangeParameters(start, end));
+    }
+
+    private Map<String, Map<String, Long>> getDistributionCounts(String filter, Value parameters) {
+        String query = """
+                MATCH (t:Ticket)
+                %s
+                RETURN toUpper(replace(coalesce(t.status, 'OPEN'), ' ', '_')) AS status,
+                       toUpper(coalesce(t.priority, 'MEDIUM')) AS priority,
+                       coalesce(t.category, 'General') AS category,
+                       count(*) AS count
+                """.formatted(filter);
+        Map<String, Map<String, Long>> distribution = new HashMap<>();
+        distribution.put("status", new HashMap<>());
+        distribution.put("priority", new HashMap<>());
+        distribution.put("category", new HashMap<>());
+
+        try (Session session = connection.getSession()) {
+            Result result = session.run(query, parameters);
+            while (result.hasNext()) {
+                Record record = result.next();
+                long count = record.get("count").asLong();
+                distribution.get("status").merge(record.get("status").asString(), count, Long::sum);
+                distribution.get("priority").merge(record.get("priority").asString(), count, Long::sum);
+                distribution.get("category").merge(record.get("category").asString(), count, Long::sum);
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error fetching distribution counts: " + e.getMessage());
+            return null;
+        }
+        return distribution;
+    }
+
+    /**
+     * Get status x priority counts and resolution-time statistics in one round trip
+     */
+    public DashboardSnapshot getDashboardSnapshot() {
+        String query = """
+                MATCH (t:Ticket)
+                WITH toUpper(replace(coalesce(t.status, 'OPEN'), ' ', '_')) AS status,
+                     toUpper(coalesce(t.priority, 'MEDIUM')) AS priority,
+                     t.createdAt AS createdAt, coalesce(t.resolvedAt, t.updatedAt) AS resolvedAt
+                WITH status, priority,
+                     CASE WHEN status IN ['RESOLVED', 'CLOSED'] AND createdAt IS NOT NULL AND resolvedAt IS NOT NULL
+                          THEN duration.inSeconds(createdAt, resolvedAt).seconds / 60.0
+                     END AS resolutionMinutes
+                RETURN status, priority, count(*) AS count,
+                       count(resolutionMinutes) AS resolvedSamples,
+                       sum(resolutionMinutes) AS resolutionSum,
+                       min(resolutionMinutes) AS resolutionMin,
+                       max(resolutionMinutes) AS resolutionMax
+                """;
+
+        Map<String, Map<String, Long>> matrix = new HashMap<>();
+        long samples = 0;
+        double sum = 0.0;
+        double min = Double.MAX_VALUE;
+        double max = 0.0;
+
+        try (Session session = connection.getSession()) {
+            Result result = session.run(query);
+            while (result.hasNext()) {
+                Record record = result.next();
+                matrix.computeIfAbsent(record.get("status").asString(), k -> new HashMap<>())
+                        .put(record.get("priority").asString(), record.get("count").asLong());
+
+                long cellSamples = record.get("resolvedSamples").asLong();
+                if (cellSamples > 0) {
+                    samples += cellSamples;
+                    sum += record.get("resolutionSum").asDouble(0.0);
+                    min = Math.min(min, record.get("resolutionMin").asDouble(0.0));
+                    max = Math.max(max, record.get("resolutionMax").asDouble(0.0));
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error fetching dashboard snapshot: " + e.getMessage());
+            return DashboardSnapshot.empty();
+        }
+
+        return new DashboardSnapshot(matrix, samples,
+                samples > 0 ? sum / samples : 0.0,
+                samples > 0 ? min : 0.0,
+                max);
+    }
+
+    /**
+     * Assigned/resolved counts and resolution time statistics for every agent in one grouped query
+     */
+    public List<AgentPerformance> getAgentPerformance() {
+        return getAgentPerformance("", Values.parameters());
+    }
+
+    /**
+     * Agent performance over tickets created within [start, end]
+     */
+    public List<AgentPerformance> getAgentPerformance(LocalDateTime start, LocalDateTime end) {
+        return getAgentPerformance(" AND " + CREATED_WITHIN, rangeParameters(start, end));
+    }
+
+    private List<AgentPerformance> getAgentPerformance(String filter, Value parameters) {
+        String query = """
+                MATCH (t:Ticket)
+                WHERE t.assignedTo IS NOT NULL AND trim(t.assignedTo) <> ''%s
+                WITH t, toUpper(replace(coalesce(t.status, 'OPEN'), ' ', '_')) IN ['RESOLVED', 'CLOSED'] AS resolved
+                WITH t.assignedTo AS agent, resolved,
+                     CASE WHEN resolved AND t.createdAt IS NOT NULL
+                          THEN duration.inSeconds(t.createdAt, coalesce(t.resolvedAt, t.updatedAt)).seconds / 60.0
+                     END AS resolutionMinutes
+                RETURN agent, count(*) AS assigned,
+                       sum(CASE WHEN resolved THEN 1 ELSE 0 END) AS resolved,
+                       avg(resolutionMinutes) AS resolutionAvg,
+                       min(resolutionMinutes) AS resolutionMin,
+                       max(resolutionMinutes) AS resolutionMax
+                ORDER BY assigned DESC, agent
+                """.formatted(filter);
+        List<AgentPerformance> performance = new ArrayList<>();
+
+        try (Session session = connection.getSession()) {
+            Result result = session.run(query, parameters);
+            while (result.hasNext()) {
+                Record record = result.next();
+                performance.add(new AgentPerformance(
+                        record.get("agent").asString(),
+                        record.get("assigned").asLong(),
+                        record.get("resolved").asLong(),
+                        record.get("resolutionAvg").asDouble(0.0),
+                        record.get("resolutionMin").asDouble(0.0),
+                        record.get("resolutionMax").asDouble(0.0)));
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error fetching agent performance: " + e.getMessage());
+        }
+        return performance;
+    }
+
+    /**
+     * Resolution time statistics in minutes (count, mean, p50, p90, p99, min, max)
+     * for resolved tickets created within [start, end], keyed by priority plus "ALL"
+     */
+    public Map<String, Map<String, Double>> getResolutionStats(LocalDateTime start, LocalDateTime end) {
+        return getResolutionStats("toUpper(coalesce(t.priority, 'MEDIUM'))", start, end);
+    }
+
+    /**
+     * The same statistics keyed by category plus "ALL"
+     */
+    public Map<String, Map<String, Double>> getResolutionStatsByCategory(LocalDateTime start, LocalDateTime end) {
+        return getResolutionStats("coalesce(t.category, 'General')", start, end);
+    }
+
+    private Map<String, Map<String, Double>> getResolutionStats(String groupBy, LocalDateTime start, LocalDateTime end) {
+        String query = """
+                MATCH (t:Ticket)
+                WHERE %1$s
+                  AND toUpper(replace(coalesce(t.status, ''), ' ', '_')) IN ['RESOLVED', 'CLOSED']
+                WITH 'ALL' AS grp,
+                     duration.inSeconds(t.createdAt, coalesce(t.resolvedAt, t.updatedAt)).seconds / 60.0 AS minutes
+                WHERE minutes IS NOT NULL
+                RETURN grp, count(*) AS count, avg(minutes) AS mean, min(minutes) AS min, max(minutes) AS max,
+                       percentileCont(minutes, 0.5) AS p50, percentileCont(minutes, 0.9) AS p90,
+                       percentileCont(minutes, 0.99) AS p99
+                UNION ALL
+                MATCH (t:Ticket)
+                WHERE %1$s
+                  AND toUpper(replace(coalesce(t.status, ''), ' ', '_')) IN ['RESOLVED', 'CLOSED']
+                WITH %2$s AS grp,
+                     duration.inSeconds(t.createdAt, coalesce(t.resolvedAt, t.updatedAt)).seconds / 60.0 AS minutes
+                WHERE minutes IS NOT NULL
+                RETURN grp, count(*) AS count, avg(minutes) AS mean, min(minutes) AS min, max(minutes) AS max,
+                       percentileCont(minutes, 0.5) AS p50, percentileCont(minutes, 0.9) AS p90,
+                       percentileCont(minutes, 0.99) AS p99
+                """.formatted(CREATED_WITHIN, groupBy);
+        Map<String, Map<String, Double>> stats = new HashMap<>();
+
+        try (Session session = connection.getSession()) {
+            Result result = session.run(query, rangeParameters(start, end));
+            while (result.hasNext()) {
+                Record record = result.next();
+                if (record.get("count").asLong() == 0) {
+                    continue;
+                }
+                Map<String, Double> row = new LinkedHashMap<>();
+                row.put("count", (double) record.get("count").asLong());
+                for (String key : new String[] {"mean", "p50", "p90", "p99", "min", "max"}) {
+                    row.put(key, record.get(key).asDouble(0.0));
+                }
+                stats.put(record.get("grp").asString(), row);
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error fetching resolution stats: " + e.getMessage());
+        }
+        return stats;
+    }
+
+    private static Value rangeParameters(LocalDateTime start, LocalDateTime end) {
+        return Values.parameters("start", start.toString(), "end", end.toString());
+    }
+
+    /**
+     * Register a listener notified after every create, update and delete
+     */
+    public static void addChangeListener(TicketChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public static void removeChangeListener(TicketChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Monotonic counter bumped on every ticket change; lets caches detect stale results
+     */
+    public static long getChangeVersion() {
+        return changeVersion.get();
+    }
+
+    private void publishChange(TicketChangeEvent event) {
+        changeVersion.incrementAndGet();
+        for (TicketChangeListener listener : changeListeners) {
+            try {
+                listener.onTicketChanged(event);
+            } catch (Exception e) {
+                System.err.println("⚠️ Ticket change listener failed: " + e.getMessage());
+            }
+        }
+    }
+
     /**
      * Generate unique ticket ID
      */
     private String generateTicketId() {
         return "TKT-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
-}
\ No newline at end of file
+
+    // Listener Interface
+    public interface TicketChangeListener {
+        void onTicketChanged(TicketChangeEvent event);
+    }
+
+    // Inner class for keyset pages
+    public static class TicketPage {
+        private final List<Ticket> tickets;
+        private final String lastId;
+        private final int rowsRead;
+
+        TicketPage(List<Ticket> tickets, String lastId, int rowsRead) {
+            this.tickets = tickets;
+            this.lastId = lastId;
+            this.rowsRead = rowsRead;
+        }
+
+        /** Mapped tickets; fewer than rowsRead when records were skipped */
+        public List<Ticket> getTickets() { return tickets; }
+
+        /** Id to continue after, including skipped records */
+        public String getLastId() { return lastId; }
+
+        public int getRowsRead() { return rowsRead; }
+    }
+}
@@ -143,7 +143,7 @@ public class UserRepository {
      */
     public void delete(String id) {
         try (Session session = driver.session()) {
-            String query = "MATCH (u:User {id: $id}) DETACH DELETE u";
+            String query = BackupRepository.deleteWithTombstone("MATCH (u:User {id: $id})", "u");
             session.run(query, parameters("id", id));
             System.out.println("✅ User deleted: " + id);
         }
@@ -84,7 +84,7 @@ public class WorkflowRepository {
 
     public void delete(String id) {
         try (Session session = driver.session()) {
-            session.run("MATCH (w:Workflow {id: $id}) DETACH DELETE w", parameters("id", id));
+            session.run(BackupRepository.deleteWithTombstone("MATCH (w:Workflow {id: $id})", "w"), parameters("id", id));
         }
     }
 
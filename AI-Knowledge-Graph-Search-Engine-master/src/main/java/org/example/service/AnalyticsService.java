@@ -1,5 +1,7 @@
 package org.example.service;
 
+import org.example.model.AgentPerformance;
+import org.example.model.DashboardSnapshot;
 import org.example.model.Ticket;
 import org.example.model.Metric;
 import org.example.model.enums.TicketStatus;
@@ -13,38 +15,53 @@ import org.neo4j.driver.Result;
 import org.neo4j.driver.Session;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 public class AnalyticsService {
     private final TicketRepository ticketRepository;
     private final MetricRepository metricRepository;
+    private final TicketCounterStore counterStore;
+    private final TicketRollupService rollupService;
+    private final TicketLatencyService latencyService;
 
     public AnalyticsService() {
         this.ticketRepository = new TicketRepository();
         this.metricRepository = new MetricRepository();
+        this.counterStore = TicketCounterStore.getInstance();
+        this.rollupService = TicketRollupService.getInstance();
+        this.latencyService = TicketLatencyService.getInstance();
+    }
+
+    /**
+     * Status x priority counts and resolution statistics in a single query
+     */
+    public DashboardSnapshot getDashboardSnapshot() {
+        return ticketRepository.getDashboardSnapshot();
     }
 
     public Map<String, Object> getDashboardMetrics() {
+        return toDashboardMetrics(getDashboardSnapshot());
+    }
+
+    public Map<String, Object> toDashboardMetrics(DashboardSnapshot snapshot) {
         Map<String, Object> metrics = new HashMap<>();
 
         // Ticket counts
-        metrics.put("totalTickets", ticketRepository.count());
-        metrics.put("openTickets", ticketRepository.countByStatus("OPEN"));
-        metrics.put("inProgressTickets", ticketRepository.countByStatus("IN_PROGRESS"));
-        metrics.put("resolvedTickets", ticketRepository.countByStatus("RESOLVED"));
-        metrics.put("closedTickets", ticketRepository.countByStatus("CLOSED"));
+        metrics.put("totalTickets", snapshot.getTotalTickets());
+        metrics.put("openTickets", snapshot.getStatusCount("OPEN"));
+        metrics.put("inProgressTickets", snapshot.getStatusCount("IN_PROGRESS"));
+        metrics.put("resolvedTickets", snapshot.getStatusCount("RESOLVED"));
+        metrics.put("closedTickets", snapshot.getStatusCount("CLOSED"));
 
         // Priority distribution
         Map<String, Long> priorityDistribution = new HashMap<>();
-        priorityDistribution.put("CRITICAL", ticketRepository.countByPriority(Priority.CRITICAL));
-        priorityDistribution.put("HIGH", ticketRepository.countByPriority(Priority.HIGH));
-        priorityDistribution.put("MEDIUM", ticketRepository.countByPriority(Priority.MEDIUM));
-        priorityDistribution.put("LOW", ticketRepository.countByPriority(Priority.LOW));
+        for (Priority priority : Priority.values()) {
+            priorityDistribution.put(priority.name(), snapshot.getPriorityCount(priority.name()));
+        }
         metrics.put("priorityDistribution", priorityDistribution);
 
         // Performance metrics
-        metrics.put("averageResolutionTime", calculateAverageResolutionTime());
+        metrics.put("averageResolutionTime", snapshot.getAverageResolutionMinutes());
         metrics.put("averageResponseTime", calculateAverageResponseTime());
         metrics.put("slaComplianceRate", calculateSLAComplianceRate());
 
@@ -52,6 +69,9 @@ public class AnalyticsService {
     }
 
     public Map<String, Long> getTicketsByStatus() {
+        if (counterStore.isSeeded()) {
+            return counterStore.getStatusCounts();
+        }
         Map<String, Long> statusCounts = new HashMap<>();
         statusCounts.put("OPEN", ticketRepository.countByStatus("OPEN"));
         statusCounts.put("IN_PROGRESS", ticketRepository.countByStatus("IN_PROGRESS"));
@@ -62,6 +82,9 @@ public class AnalyticsService {
     }
 
     public Map<String, Long> getTicketsByPriority() {
+        if (counterStore.isSeeded()) {
+            return counterStore.getPriorityCounts();
+        }
         Map<String, Long> priorityCounts = new HashMap<>();
         priorityCounts.put("CRITICAL", ticketRepository.countByPriority(Priority.CRITICAL));
         priorityCounts.put("HIGH", ticketRepository.countByPriority(Priority.HIGH));
@@ -71,6 +94,9 @@ public class AnalyticsService {
     }
 
     public Map<String, Long> getTicketsByCategory() {
+        if (counterStore.isSeeded()) {
+            return counterStore.getCategoryCounts();
+        }
         try (Session session = Neo4jConnection.getInstance().getDriver().session()) {
             String query = "MATCH (t:Ticket) RETURN t.category as category, count(t) as count";
             Result result = session.run(query);
@@ -86,66 +112,72 @@ public class AnalyticsService {
         }
     }
 
+    /**
+     * Daily created/resolved counts for the last n days, read from the rollup buckets
+     */
     public List<Map<String, Object>> getTicketTrend(int days) {
-        List<Map<String, Object>> trend = new ArrayList<>();
-        LocalDateTime endDate = LocalDateTime.now();
-        LocalDateTime startDate = endDate.minusDays(days);
+        return rollupService.getDailyTrend(days);
+    }
 
-        // Generate daily counts
-        for (int i = 0; i < days; i++) {
-            LocalDateTime date = startDate.plusDays(i);
-            Map<String, Object> dayData = new HashMap<>();
-            dayData.put("date", date.toLocalDate().toString());
-            dayData.put("created", 0); // Would need date-based query
-            dayData.put("resolved", 0);
-            trend.add(dayData);
-        }
+    public double calculateAverageResolutionTime() {
+        return getDashboardSnapshot().getAverageResolutionMinutes();
+    }
 
-        return trend;
+    /**
+     * Mean first-response time in minutes
+     */
+    public double calculateAverageResponseTime() {
+        return latencyService.getOverall(TicketLatencyService.RESPONSE).getMean() / 60.0;
     }
 
-    public double calculateAverageResolutionTime() {
-        List<Ticket> resolvedTickets = ticketRepository.findByStatus(TicketStatus.RESOLVED);
-        if (resolvedTickets.isEmpty())
-            return 0.0;
-
-        long totalMinutes = 0;
-        int count = 0;
-
-        for (Ticket ticket : resolvedTickets) {
-            if (ticket.getCreatedAt() != null && ticket.getUpdatedAt() != null) {
-                long minutes = ChronoUnit.MINUTES.between(ticket.getCreatedAt(), ticket.getUpdatedAt());
-                totalMinutes += minutes;
-                count++;
-            }
-        }
+    /**
+     * First-response p50/p90/p99 (plus mean, min, max) in minutes
+     */
+    public Map<String, Double> getResponseTimePercentiles() {
+        return TicketLatencyService.percentilesInMinutes(
+                latencyService.getOverall(TicketLatencyService.RESPONSE));
+    }
 
-        return count > 0 ? (double) totalMinutes / count : 0.0;
+    /**
+     * Resolution p50/p90/p99 (plus mean, min, max) in minutes
+     */
+    public Map<String, Double> getResolutionTimePercentiles() {
+        return TicketLatencyService.percentilesInMinutes(
+                latencyService.getOverall(TicketLatencyService.RESOLUTION));
     }
 
-    public double calculateAverageResponseTime() {
-        // Placeholder - would need first response time tracking
-        return 0.0;
+    /**
+     * Resolution percentiles in minutes per value of one dimension (priority, category or agent)
+     */
+    public Map<String, Map<String, Double>> getResolutionTimePercentilesBy(String dimension) {
+        Map<String, Map<String, Double>> breakdown = new TreeMap<>();
+        latencyService.getBreakdown(TicketLatencyService.RESOLUTION, dimension)
+                .forEach((value, histogram) -> breakdown.put(value, TicketLatencyService.percentilesInMinutes(histogram)));
+        return breakdown;
     }
 
+    /**
+     * Resolution SLA compliance rate from the SLA engine's outcome counters
+     */
     public double calculateSLAComplianceRate() {
-        long totalTickets = ticketRepository.count();
-        if (totalTickets == 0)
-            return 100.0;
-
-        // Simplified calculation - would need actual SLA breach tracking
-        long breachedTickets = 0; // Would need query for breached SLAs
+        return SLAEngine.getInstance().getComplianceRate();
+    }
 
-        return ((double) (totalTickets - breachedTickets) / totalTickets) * 100.0;
+    /**
+     * Per-agent assigned/resolved counts and resolution times in one grouped query
+     */
+    public List<AgentPerformance> getAgentPerformance() {
+        return ticketRepository.getAgentPerformance();
     }
 
+    /**
+     * Resolution rate (0-100) per agent, busiest agents first
+     */
     public Map<String, Double> getAgentPerformanceMetrics() {
-        Map<String, Double> performance = new HashMap<>();
-        // In a real implementation, this would aggregate across all agents
-        // For now, let's return some sample/aggregated data
-        performance.put("Agent Smith", 92.5);
-        performance.put("Agent Jones", 88.0);
-        performance.put("Agent Brown", 95.2);
+        Map<String, Double> performance = new LinkedHashMap<>();
+        for (AgentPerformance agent : getAgentPerformance()) {
+            performance.put(agent.getAgent(), agent.getResolutionRate());
+        }
         return performance;
     }
 
@@ -0,0 +1,418 @@
+package org.example.service;
+
+import org.example.config.AppConfig;
+import org.example.model.AuditLog;
+import org.example.model.Ticket;
+import org.example.model.TicketChangeEvent;
+import org.example.repository.AuditRepository;
+import org.example.repository.TicketRepository;
+import org.example.util.MappedJournal;
+import org.example.util.MpscRingBuffer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit writer. Callers append events to a lock-free ring and
+ * return at once; a single flusher thread drains the ring and writes the
+ * events in UNWIND batches once audit.batch.size are pending or the oldest
+ * has waited audit.flush.ms. When the ring is full the overflow policy
+ * decides between waiting briefly, dropping the event, or writing it on the
+ * caller's thread. Pending events are flushed on shutdown.
+ *
+ * With audit.journal.enabled each event is first appended to a local
+ * memory-mapped journal and the flusher ships it from there, acknowledging
+ * journal records only after Neo4j has stored them. Events then survive a
+ * crash or an outage of the database and are shipped on the next start.
+ *
+ * While started, every ticket create, update and delete is recorded. After
+ * shutdown, log() rejects events rather than starting a new flusher.
+ */
+public class AuditLogWriter implements TicketRepository.TicketChangeListener {
+
+    public enum OverflowPolicy {
+        /** Wait up to audit.overflow.block.ms for space, then drop */
+        BLOCK,
+        /** Drop the event and count it */
+        DROP,
+        /** Write the event synchronously on the caller's thread */
+        CALLER_RUNS
+    }
+
+    private static AuditLogWriter instance;
+
+    private static final long MAX_RETRY_BACKOFF_MS = 5000;
+
+    private final AuditRepository auditRepository;
+    private final MpscRingBuffer<AuditLog> ring;
+    private final int batchSize;
+    private final long flushNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockNanos;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final AtomicLong journaled = new AtomicLong();
+    private final MappedJournal journal;
+    private final AtomicBoolean legacyPartitioned = new AtomicBoolean();
+    private volatile Thread flusher;
+    private volatile boolean running;
+    private volatile boolean stopped;
+
+    private AuditLogWriter() {
+        AppConfig config = AppConfig.getInstance();
+        this.auditRepository = new AuditRepository();
+        this.ring = new MpscRingBuffer<>(Integer.parseInt(config.getProperty("audit.buffer.capacity", "8192")));
+        this.batchSize = Math.max(1, Integer.parseInt(config.getProperty("audit.batch.size", "500")));
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(
+                Long.parseLong(config.getProperty("audit.flush.ms", "200")));
+        this.overflowPolicy = OverflowPolicy.valueOf(config.getProperty("audit.overflow.policy", "BLOCK"));
+        this.blockNanos = TimeUnit.MILLISECONDS.toNanos(
+                Long.parseLong(config.getProperty("audit.overflow.block.ms", "50")));
+        this.journal = openJournal(config);
+    }
+
+    private static MappedJournal openJournal(AppConfig config) {
+        if (!Boolean.parseBoolean(config.getProperty("audit.journal.enabled", "true"))) {
+            return null;
+        }
+        try {
+            int segmentMb = Integer.parseInt(config.getProperty("audit.journal.segment.mb", "16"));
+            return new MappedJournal(Paths.get(config.getProperty("audit.journal.dir", "audit-journal")),
+                    segmentMb * 1024 * 1024);
+        } catch (IOException e) {
+            System.err.println("❌ Audit journal unavailable, buffering in memory only: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public static AuditLogWriter getInstance() {
+        if (instance == null) {
+            synchronized (AuditLogWriter.class) {
+                if (instance == null) {
+                    instance = new AuditLogWriter();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        stopped = false;
+        flusher = new Thread(this::flushLoop, "audit-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        TicketRepository.addChangeListener(this);
+
+        // Migrating a large legacy log takes a while; new events must not wait behind it
+        if (legacyPartitioned.compareAndSet(false, true)) {
+            Thread partitioner = new Thread(this::partitionLegacyLogs, "audit-partitioner");
+            partitioner.setDaemon(true);
+            partitioner.start();
+        }
+        System.out.println("✅ Audit writer started (batch " + batchSize + ", ring " + ring.getCapacity() + ")");
+    }
+
+    /**
+     * Write everything still pending and stop the flusher
+     */
+    public synchronized void shutdown() {
+        stopped = true;
+        if (!running) {
+            return;
+        }
+        TicketRepository.removeChangeListener(this);
+        running = false;
+        Thread thread = flusher;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flusher = null;
+        if (journal != null) {
+            journal.sync();
+        }
+        if (!ring.isEmpty()) {
+            System.err.println("❌ Audit writer stopped with " + ring.size() + " events unwritten");
+        }
+    }
+
+    /**
+     * Record an audit event without waiting for the database. Returns false
+     * if the event was dropped by the overflow policy or the writer has
+     * been shut down.
+     */
+    public boolean log(AuditLog log) {
+        if (stopped) {
+            dropped.increment();
+            return false;
+        }
+        if (log.getId() == null) {
+            log.setId(UUID.randomUUID().toString());
+        }
+        if (!running) {
+            start();
+        }
+
+        if (journal != null) {
+            try {
+                journal.append(encode(log));
+                if (journaled.incrementAndGet() % batchSize == 0) {
+                    LockSupport.unpark(flusher);
+                }
+                return true;
+            } catch (IOException e) {
+                System.err.println("❌ Error journaling audit log, buffering in memory: " + e.getMessage());
+            }
+        }
+
+        if (!ring.offer(log) && !overflow(log)) {
+            dropped.increment();
+            return false;
+        }
+        if (ring.size() >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+        return true;
+    }
+
+    /**
+     * Ticket changes carry no acting user; only a create names one, its author
+     */
+    @Override
+    public void onTicketChanged(TicketChangeEvent event) {
+        String action;
+        String user = "System";
+        switch (event.getType()) {
+            case CREATED:
+                action = "CREATE";
+                user = event.getCurrent().getCreatedBy();
+                break;
+            case DELETED:
+                action = "DELETE";
+                break;
+            default:
+                action = "UPDATE";
+                break;
+        }
+        AuditLog log = new AuditLog(action, user, "Ticket", event.getTicketId());
+        // The activity log shows and filters on username, not userId
+        log.setUsername(user);
+        log.setTimestamp(event.getOccurredAt());
+        log.setOldValue(describe(event.getPrevious()));
+        log.setNewValue(describe(event.getCurrent()));
+        log(log);
+    }
+
+    public long getWritten() { return written.sum(); }
+
+    public long getDropped() { return dropped.sum(); }
+
+    public long getFailedBatches() { return failedBatches.sum(); }
+
+    public int getPending() { return ring.size(); }
+
+    private static String describe(Ticket ticket) {
+        if (ticket == null) {
+            return null;
+        }
+        return "status=" + ticket.getStatus() + ", priority=" + ticket.getPriority()
+                + ", category=" + ticket.getCategory() + ", assignedTo=" + ticket.getAssignedTo();
+    }
+
+    private boolean overflow(AuditLog log) {
+        switch (overflowPolicy) {
+            case BLOCK:
+                LockSupport.unpark(flusher);
+                long deadline = System.nanoTime() + blockNanos;
+                while (System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                    if (ring.offer(log)) {
+                        return true;
+                    }
+                }
+                return false;
+            case CALLER_RUNS:
+                try {
+                    auditRepository.save(log);
+                    written.increment();
+                    return true;
+                } catch (Exception e) {
+                    System.err.println("❌ Error writing audit log: " + e.getMessage());
+                    return false;
+                }
+            default:
+                return false;
+        }
+    }
+
+    private void partitionLegacyLogs() {
+        try {
+            long migrated = auditRepository.partitionLegacyLogs();
+            if (migrated > 0) {
+                System.out.println("✅ Moved " + migrated + " audit logs into day partitions");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error partitioning audit logs: " + e.getMessage());
+        }
+    }
+
+    private void flushLoop() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        long oldestPending = 0;
+        long backoffMs = 100;
+        long synced = 0;
+        // Set once a poll made after shutdown finds the journal empty
+        boolean journalDrained = journal == null;
+
+        while (running || !ring.isEmpty() || !batch.isEmpty() || !journalDrained) {
+            boolean stopping = !running;
+            if (journal != null && journaled.get() != synced) {
+                // Group commit: one msync covers everything appended since the last pass
+                synced = journaled.get();
+                journal.sync();
+            }
+
+            if (batch.size() < batchSize) {
+                boolean wasEmpty = batch.isEmpty();
+                if (journal != null) {
+                    int polled = journal.poll(record -> {
+                        AuditLog log = decode(record);
+                        if (log != null) {
+                            batch.add(log);
+                        }
+                    }, batchSize - batch.size());
+                    journalDrained = stopping && polled == 0;
+                }
+                ring.drain(batch::add, batchSize - batch.size());
+                if (wasEmpty && !batch.isEmpty()) {
+                    oldestPending = System.nanoTime();
+                }
+            }
+
+            boolean due = batch.size() >= batchSize
+                    || (!batch.isEmpty() && (!running || System.nanoTime() - oldestPending >= flushNanos));
+            if (!due) {
+                if (running) {
+                    LockSupport.parkNanos(batch.isEmpty() ? flushNanos : flushNanos - (System.nanoTime() - oldestPending));
+                }
+                continue;
+            }
+
+            try {
+                auditRepository.saveAll(batch);
+                written.add(batch.size());
+                batch.clear();
+                backoffMs = 100;
+                if (journal != null) {
+                    acknowledgeJournal();
+                }
+            } catch (Exception e) {
+                // Keep the batch and retry; producers fall back on the overflow policy meanwhile
+                failedBatches.increment();
+                System.err.println("❌ Error writing audit batch of " + batch.size() + ": " + e.getMessage());
+                if (!running) {
+                    // Journaled events stay on disk and are shipped on the next start
+                    if (journal == null) {
+                        dropped.add(batch.size() + ring.size());
+                    }
+                    return;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoffMs));
+                backoffMs = Math.min(backoffMs * 2, MAX_RETRY_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void acknowledgeJournal() {
+        try {
+            journal.acknowledge();
+        } catch (IOException e) {
+            // Saves are idempotent by id, so a lost checkpoint only means shipping again
+            System.err.println("❌ Error checkpointing audit journal: " + e.getMessage());
+        }
+    }
+
+    private static byte[] encode(AuditLog log) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, log.getId());
+            writeString(out, log.getAction());
+            writeString(out, log.getUserId());
+            writeString(out, log.getUsername());
+            writeString(out, log.getEntityType());
+            writeString(out, log.getEntityId());
+            writeString(out, log.getOldValue());
+            writeString(out, log.getNewValue());
+            writeString(out, log.getResult());
+            writeString(out, log.getIpAddress());
+            writeString(out, log.getUserAgent());
+            out.writeLong(log.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(log.getTimestamp().getNano());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static AuditLog decode(byte[] record) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            AuditLog log = new AuditLog();
+            log.setId(readString(in));
+            log.setAction(readString(in));
+            log.setUserId(readString(in));
+            log.setUsername(readString(in));
+            log.setEntityType(readString(in));
+            log.setEntityId(readString(in));
+            log.setOldValue(readString(in));
+            log.setNewValue(readString(in));
+            log.setResult(readString(in));
+            log.setIpAddress(readString(in));
+            log.setUserAgent(readString(in));
+            log.setTimestamp(LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC));
+            return log;
+        } catch (IOException e) {
+            System.err.println("❌ Unreadable audit journal record: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
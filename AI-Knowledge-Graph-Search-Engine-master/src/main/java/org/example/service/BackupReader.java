@@ -0,0 +1,185 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.model.BackupManifest;
+import org.example.repository.BackupRepository;
+import org.example.util.ChunkStore;
+import org.example.util.GraphValueCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Backup Reader - Streams the records of a backup written by BackupWriter
+ * back out, part by part and line by line, without extracting the archive.
+ * Chunked backups are read from the chunk store next to the archive.
+ */
+public class BackupReader implements Closeable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final ZipFile zip;
+    private final BackupManifest manifest;
+    private final ChunkStore chunkStore;
+
+    public BackupReader(Path file) throws IOException {
+        this.zip = new ZipFile(file.toFile());
+        try {
+            Properties properties = readProperties(zip);
+            if (properties == null || !BackupManifest.isGraphBackup(properties)) {
+                throw new IOException("Not a streamed graph backup: " + file.getFileName());
+            }
+            this.manifest = BackupManifest.fromProperties(properties);
+            this.chunkStore = manifest.isChunked()
+                    ? new ChunkStore(file.resolveSibling(ChunkStore.DIRECTORY), Deflater.DEFAULT_COMPRESSION) : null;
+        } catch (IOException | RuntimeException e) {
+            zip.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Manifest properties of any backup archive, or null if it has none
+     */
+    public static Properties readProperties(ZipFile zip) throws IOException {
+        ZipEntry entry = zip.getEntry(BackupManifest.FILE_NAME);
+        if (entry == null) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = zip.getInputStream(entry)) {
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    public BackupManifest getManifest() {
+        return manifest;
+    }
+
+    public ChunkStore getChunkStore() {
+        return chunkStore;
+    }
+
+    /**
+     * Every chunk a chunked backup refers to, with its raw length
+     */
+    public Map<String, Long> getChunks() throws IOException {
+        Map<String, Long> chunks = new LinkedHashMap<>();
+        for (BackupManifest.Entry entry : manifest.getEntries()) {
+            if (entry.getParts() > 0) {
+                readChunkList(entry, new ArrayList<>(), chunks);
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Stream a node entry; tombstone entries read the same way, with no properties
+     */
+    public long forEachNode(BackupManifest.Entry entry, BackupRepository.NodeVisitor visitor) throws IOException {
+        return forEachRow(entry, row -> {
+            List<String> labels = new ArrayList<>();
+            for (JsonNode label : row.get("labels")) {
+                labels.add(label.asText());
+            }
+            JsonNode complete = row.get("complete");
+            visitor.visit(row.get("eid").asText(), labels, properties(row), complete != null && complete.asBoolean());
+        });
+    }
+
+    public long forEachRelationship(BackupManifest.Entry entry,
+                                    BackupRepository.RelationshipVisitor visitor) throws IOException {
+        return forEachRow(entry, row -> visitor.visit(row.get("eid").asText(), entry.getName(),
+                row.get("start").asText(), row.get("end").asText(), properties(row)));
+    }
+
+    @Override
+    public void close() throws IOException {
+        zip.close();
+    }
+
+    private long forEachRow(BackupManifest.Entry entry, RowVisitor visitor) throws IOException {
+        if (chunkStore != null) {
+            if (entry.getParts() == 0) {
+                return 0;
+            }
+            List<String> hashes = new ArrayList<>();
+            readChunkList(entry, hashes, new LinkedHashMap<>());
+            try (InputStream in = chunkStore.openAll(hashes)) {
+                return forEachLine(in, visitor);
+            }
+        }
+
+        long rows = 0;
+        for (int part = 0; part < entry.getParts(); part++) {
+            String name = entry.getPartName(part);
+            ZipEntry zipEntry = zip.getEntry(name);
+            if (zipEntry == null) {
+                throw new IOException("Backup part missing: " + name);
+            }
+            try (InputStream in = new GZIPInputStream(
+                    new BufferedInputStream(zip.getInputStream(zipEntry), 64 * 1024), 64 * 1024)) {
+                rows += forEachLine(in, visitor);
+            }
+        }
+        return rows;
+    }
+
+    private static long forEachLine(InputStream in, RowVisitor visitor) throws IOException {
+        long rows = 0;
+        try (MappingIterator<JsonNode> lines = MAPPER.readerFor(JsonNode.class).readValues(in)) {
+            while (lines.hasNext()) {
+                visitor.visit(lines.next());
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Chunk hashes of an entry in stream order, and their lengths
+     */
+    private void readChunkList(BackupManifest.Entry entry, List<String> hashes,
+                               Map<String, Long> lengths) throws IOException {
+        ZipEntry zipEntry = zip.getEntry(entry.getChunkListName());
+        if (zipEntry == null) {
+            throw new IOException("Chunk list missing: " + entry.getChunkListName());
+        }
+        try (BufferedReader lines = new BufferedReader(
+                new InputStreamReader(zip.getInputStream(zipEntry), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                int space = line.indexOf(' ');
+                String hash = line.substring(0, space);
+                hashes.add(hash);
+                lengths.put(hash, Long.parseLong(line.substring(space + 1)));
+            }
+        }
+    }
+
+    private static Map<String, Object> properties(JsonNode row) {
+        return GraphValueCodec.readProperties(row.get("props"));
+    }
+
+    private interface RowVisitor {
+        void visit(JsonNode row) throws IOException;
+    }
+}
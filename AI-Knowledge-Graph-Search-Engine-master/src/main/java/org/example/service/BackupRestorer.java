@@ -0,0 +1,254 @@
+package org.example.service;
+
+import org.example.model.BackupManifest;
+import org.example.repository.BackupRepository;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Backup Restorer - Replays a full backup and the incrementals taken after
+ * it, oldest first. Each backup applies its tombstones, then its nodes, then
+ * its relationships, streaming rows out of the archive into UNWIND batches
+ * of batchRows. Node labels own disjoint sets of nodes, so they load in
+ * parallel; relationships follow in a second phase once every endpoint
+ * exists and the lookup index is online. The full backup creates nodes on
+ * an emptied database; incrementals merge onto them by backup elementId.
+ */
+public class BackupRestorer {
+
+    private final BackupRepository repository;
+    private final int threads;
+    private final int batchRows;
+
+    public BackupRestorer(BackupRepository repository, int threads, int batchRows) {
+        this.repository = repository;
+        this.threads = Math.max(threads, 1);
+        this.batchRows = Math.max(batchRows, 1);
+    }
+
+    /**
+     * Replace every node without one of the kept labels with the contents of
+     * the chain, which must start with a full backup
+     */
+    public long restore(List<Path> chain, Collection<String> keptLabels,
+                        Consumer<Double> progress) throws IOException {
+        List<BackupReader> readers = new ArrayList<>();
+        try {
+            long totalRows = 0;
+            for (Path file : chain) {
+                BackupReader reader = new BackupReader(file);
+                readers.add(reader);
+                totalRows += reader.getManifest().getTotalRows();
+            }
+            if (readers.isEmpty() || readers.get(0).getManifest().isIncremental()) {
+                throw new IOException("Backup chain does not start with a full backup");
+            }
+
+            RestoreMeter meter = new RestoreMeter(totalRows, progress);
+            AtomicInteger counter = new AtomicInteger();
+            ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r, "restore-worker-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            repository.deleteAllNodes(keptLabels);
+            try {
+                // The full backup only creates nodes, so the index is built once after its bulk load
+                loadNodes(readers.get(0), workers, meter);
+                repository.prepareRestore();
+                loadRelationships(readers.get(0), meter);
+                for (BackupReader reader : readers.subList(1, readers.size())) {
+                    applyTombstones(reader, meter);
+                    loadNodes(reader, workers, meter);
+                    loadRelationships(reader, meter);
+                }
+            } finally {
+                workers.shutdownNow();
+                repository.finishRestore();
+            }
+            return meter.rows.get();
+        } finally {
+            for (BackupReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Delete the nodes a backup's tombstones name. Nodes with an id are
+     * found by label and id, since a deleted node's elementId can be reused
+     * by a later node; the rest fall back to the elementId.
+     */
+    private void applyTombstones(BackupReader reader, RestoreMeter meter) throws IOException {
+        for (BackupManifest.Entry entry : reader.getManifest().getEntries(BackupManifest.Kind.TOMBSTONES)) {
+            Map<String, List<Object>> idsByLabel = new LinkedHashMap<>();
+            List<String> eids = new ArrayList<>();
+            reader.forEachNode(entry, (eid, labels, properties, complete) -> {
+                Object id = properties.get("id");
+                if (id != null && !labels.isEmpty()) {
+                    List<Object> ids = idsByLabel.computeIfAbsent(labels.get(0), key -> new ArrayList<>());
+                    ids.add(id);
+                    if (ids.size() >= batchRows) {
+                        deleteNodesById(labels.get(0), ids, meter);
+                    }
+                } else {
+                    eids.add(eid);
+                    if (eids.size() >= batchRows) {
+                        deleteNodes(eids, meter);
+                    }
+                }
+            });
+            for (Map.Entry<String, List<Object>> ids : idsByLabel.entrySet()) {
+                deleteNodesById(ids.getKey(), ids.getValue(), meter);
+            }
+            deleteNodes(eids, meter);
+        }
+    }
+
+    /**
+     * Load every node entry of a backup, one label per worker
+     */
+    private void loadNodes(BackupReader reader, ExecutorService workers, RestoreMeter meter) throws IOException {
+        boolean merge = reader.getManifest().isIncremental();
+        List<Future<?>> tasks = new ArrayList<>();
+        for (BackupManifest.Entry entry : reader.getManifest().getEntries(BackupManifest.Kind.NODES)) {
+            tasks.add(workers.submit(() -> {
+                loadNodes(reader, entry, merge, meter);
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Restore interrupted");
+        } catch (ExecutionException e) {
+            System.err.println("❌ Restore worker failed: " + e.getCause().getMessage());
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        } finally {
+            for (Future<?> task : tasks) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    private void loadNodes(BackupReader reader, BackupManifest.Entry entry, boolean merge,
+                           RestoreMeter meter) throws IOException {
+        Map<List<String>, List<Map<String, Object>>> batches = new LinkedHashMap<>();
+        List<String> completeEids = new ArrayList<>();
+        reader.forEachNode(entry, (eid, labels, properties, complete) -> {
+            List<Map<String, Object>> batch = batches.computeIfAbsent(labels, key -> new ArrayList<>());
+            batch.add(Map.of("eid", eid, "props", properties));
+            if (batch.size() >= batchRows) {
+                writeNodes(labels, batch, merge, meter);
+            }
+            if (complete) {
+                completeEids.add(eid);
+                if (completeEids.size() >= batchRows) {
+                    repository.deleteRelationships(completeEids);
+                    completeEids.clear();
+                }
+            }
+        });
+        for (Map.Entry<List<String>, List<Map<String, Object>>> batch : batches.entrySet()) {
+            writeNodes(batch.getKey(), batch.getValue(), merge, meter);
+        }
+        if (!completeEids.isEmpty()) {
+            repository.deleteRelationships(completeEids);
+        }
+    }
+
+    /**
+     * Relationship types load one at a time: parallel types lock the same
+     * endpoints and would spend their time on deadlock retries
+     */
+    private void loadRelationships(BackupReader reader, RestoreMeter meter) throws IOException {
+        boolean merge = reader.getManifest().isIncremental();
+        for (BackupManifest.Entry entry : reader.getManifest().getEntries(BackupManifest.Kind.RELATIONSHIPS)) {
+            List<Map<String, Object>> batch = new ArrayList<>();
+            reader.forEachRelationship(entry, (eid, type, start, end, properties) -> {
+                batch.add(Map.of("eid", eid, "start", start, "end", end, "props", properties));
+                if (batch.size() >= batchRows) {
+                    writeRelationships(type, batch, merge, meter);
+                }
+            });
+            writeRelationships(entry.getName(), batch, merge, meter);
+        }
+    }
+
+    private void writeNodes(List<String> labels, List<Map<String, Object>> batch, boolean merge,
+                            RestoreMeter meter) {
+        if (!batch.isEmpty()) {
+            repository.writeNodes(labels, batch, merge);
+            meter.add(batch.size());
+            batch.clear();
+        }
+    }
+
+    private void deleteNodesById(String label, List<Object> ids, RestoreMeter meter) {
+        if (!ids.isEmpty()) {
+            repository.deleteNodesById(label, ids);
+            meter.add(ids.size());
+            ids.clear();
+        }
+    }
+
+    private void deleteNodes(List<String> eids, RestoreMeter meter) {
+        if (!eids.isEmpty()) {
+            repository.deleteNodes(eids);
+            meter.add(eids.size());
+            eids.clear();
+        }
+    }
+
+    private void writeRelationships(String type, List<Map<String, Object>> batch, boolean merge,
+                                    RestoreMeter meter) {
+        if (!batch.isEmpty()) {
+            repository.writeRelationships(type, batch, merge);
+            meter.add(batch.size());
+            batch.clear();
+        }
+    }
+
+    /**
+     * Rows committed so far across all workers, reported in steps of at least 1%
+     */
+    private static final class RestoreMeter {
+        private final long totalRows;
+        private final Consumer<Double> progress;
+        private final AtomicLong rows = new AtomicLong();
+        private double reported;
+
+        RestoreMeter(long totalRows, Consumer<Double> progress) {
+            this.totalRows = totalRows;
+            this.progress = progress;
+        }
+
+        void add(long count) {
+            long done = rows.addAndGet(count);
+            double fraction = totalRows > 0 ? Math.min(0.99, (double) done / totalRows) : 0.99;
+            synchronized (this) {
+                if (progress != null && fraction - reported >= 0.01) {
+                    reported = fraction;
+                    progress.accept(fraction);
+                }
+            }
+        }
+    }
+}
@@ -1,97 +1,129 @@
 package org.example.service;
 
-import org.example.repository.TicketRepository;
-import org.example.repository.CategoryRepository;
+import org.example.config.AppConfig;
+import org.example.model.BackupManifest;
+import org.example.model.BackupVerification;
+import org.example.repository.BackupRepository;
+import org.example.util.ChunkStore;
 
 import java.io.*;
 import java.nio.file.*;
 import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.prefs.Preferences;
 import java.util.zip.*;
 
 /**
- * Backup Service - Database backup and restore functionality
+ * Backup Service - Database backup and restore functionality. Backups
+ * stream every label and relationship type into a zip of gzipped JSON
+ * lines via BackupWriter. Incremental backups hold only what changed since
+ * the previous backup in the same directory; restoring one replays the
+ * full backup it starts from and every incremental up to it. With
+ * backup.dedup.enabled, backup data goes to a content-addressed chunk store
+ * shared by every backup in the directory, so unchanged data is stored once.
  */
 public class BackupService {
 
-    private final TicketRepository ticketRepository;
-    private final CategoryRepository categoryRepository;
+    private final BackupRepository backupRepository;
     private static final DateTimeFormatter TIMESTAMP_FORMAT =
             DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    /** Written next to the backups after a restore; element ids of earlier chains are void after it */
+    private static final String RESTORE_MARKER = "last_restore.properties";
+    /** Preference node listing every directory that holds graph backups */
+    private static final String DIRECTORIES_NODE = "backup-directories";
+    private static final String PURGED_BEFORE = "backup.tombstones.purgedBefore";
+
+    /** Backup option -> the label it switches on or off */
+    private static final Map<String, String> OPTION_LABELS = Map.of(
+            "tickets", "Ticket",
+            "users", "User",
+            "categories", "Category",
+            "comments", "Comment",
+            "logs", "AuditLog");
 
     public BackupService() {
-        this.ticketRepository = new TicketRepository();
-        this.categoryRepository = new CategoryRepository();
+        this.backupRepository = new BackupRepository();
     }
 
     /**
-     * Create a full backup
+     * Create a full backup by streaming the graph straight into the archive
      */
     public String createBackup(String directory, Map<String, Boolean> options,
                                Consumer<Double> progressCallback) throws IOException {
 
-        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
-        String backupName = "backup_" + timestamp;
-        String backupDir = directory + "/" + backupName;
+        BackupManifest manifest = new BackupManifest(LocalDateTime.now());
+        manifest.getOptions().putAll(options);
+        String timestamp = manifest.getBackupDate().format(TIMESTAMP_FORMAT);
 
-        // Create backup directory
-        Files.createDirectories(Paths.get(backupDir));
-
-        progressCallback.accept(0.1);
-
-        // Backup tickets
-        if (options.getOrDefault("tickets", true)) {
-            backupTickets(backupDir);
-            progressCallback.accept(0.3);
-        }
-
-        // Backup users
-        if (options.getOrDefault("users", true)) {
-            backupUsers(backupDir);
-            progressCallback.accept(0.5);
-        }
-
-        // Backup categories
-        if (options.getOrDefault("categories", true)) {
-            backupCategories(backupDir);
-            progressCallback.accept(0.7);
-        }
+        return writeBackup(directory, "backup_" + timestamp + ".zip", manifest, progressCallback);
+    }
 
-        // Backup comments
-        if (options.getOrDefault("comments", true)) {
-            backupComments(backupDir);
-            progressCallback.accept(0.8);
+    /**
+     * Create a backup of what changed since the latest backup in the
+     * directory. Falls back to a full backup when there is no usable parent:
+     * none yet, different options, a broken or too long chain, or a restore
+     * since the parent was taken.
+     */
+    public String createIncrementalBackup(String directory, Map<String, Boolean> options,
+                                          Consumer<Double> progressCallback) throws IOException {
+        AppConfig config = AppConfig.getInstance();
+        int fullEvery = Integer.parseInt(config.getProperty("backup.incremental.full.every", "7"));
+        long overlapSeconds = Long.parseLong(config.getProperty("backup.incremental.overlap.seconds", "60"));
+
+        String parentName = latestGraphBackup(directory);
+        BackupManifest parent = parentName == null ? null : readGraphManifest(Paths.get(directory, parentName));
+
+        LocalDateTime restoredAt = lastRestore(directory);
+        ZonedDateTime purgedBefore = tombstonesPurgedBefore();
+        String reason = null;
+        if (parent == null || parent.getWatermark() == null) {
+            reason = "no earlier backup";
+        } else if (!excludedLabels(parent.getOptions()).equals(excludedLabels(options))) {
+            reason = "backup options changed";
+        } else if (restoredAt != null && !restoredAt.isBefore(parent.getBackupDate())) {
+            reason = "database restored since the last backup";
+        } else if (purgedBefore != null && parent.getWatermark().minusSeconds(overlapSeconds).isBefore(purgedBefore)) {
+            reason = "deletes since the last backup were already purged";
+        } else {
+            try {
+                if (resolveChain(Paths.get(directory, parentName)).size() > fullEvery) {
+                    reason = "chain reached " + fullEvery + " incrementals";
+                }
+            } catch (IOException e) {
+                reason = e.getMessage();
+            }
         }
-
-        // Backup logs
-        if (options.getOrDefault("logs", false)) {
-            backupLogs(backupDir);
-            progressCallback.accept(0.9);
+        if (reason != null) {
+            System.out.println("Taking a full backup: " + reason);
+            return createBackup(directory, options, progressCallback);
         }
 
-        // Create backup manifest
-        createManifest(backupDir, options);
+        BackupManifest manifest = new BackupManifest(LocalDateTime.now());
+        manifest.getOptions().putAll(options);
+        // Overlap the window so writes that committed late around the watermark are not missed
+        manifest.setIncremental(parentName, parent.getWatermark().minusSeconds(overlapSeconds));
+        String timestamp = manifest.getBackupDate().format(TIMESTAMP_FORMAT);
 
-        // Compress backup
-        String zipFile = compressBackup(backupDir, directory + "/" + backupName + ".zip");
-
-        // Delete uncompressed backup
-        deleteDirectory(new File(backupDir));
-
-        progressCallback.accept(1.0);
-
-        System.out.println("✅ Backup created: " + zipFile);
-        return zipFile;
+        return writeBackup(directory, "backup_" + timestamp + "_incr.zip", manifest, progressCallback);
     }
 
     /**
-     * Restore from backup
+     * Restore from backup. An incremental backup is restored together with
+     * the full backup and incrementals it builds on. Every backup in the
+     * chain is verified before the database is touched, and the in-memory
+     * analytics are reseeded from the restored data.
      */
     public void restoreBackup(String backupFile, Consumer<Double> progressCallback)
             throws IOException {
 
+        if (readGraphManifest(Paths.get(backupFile)) != null) {
+            restoreGraphBackup(Paths.get(backupFile), progressCallback);
+            return;
+        }
+
         progressCallback.accept(0.1);
 
         // Extract backup
@@ -158,7 +190,8 @@ public class BackupService {
     }
 
     /**
-     * Verify backup integrity
+     * Verify backup integrity. Streamed backups are fully decoded and their
+     * record counts checked against the manifest.
      */
     public boolean verifyBackup(String backupFile) {
         try {
@@ -170,9 +203,13 @@ public class BackupService {
             // Try to open as zip
             try (ZipFile zipFile = new ZipFile(backupFile)) {
                 // Check for manifest
-                if (zipFile.getEntry("manifest.properties") == null) {
+                Properties properties = BackupReader.readProperties(zipFile);
+                if (properties == null) {
                     return false;
                 }
+                if (BackupManifest.isGraphBackup(properties)) {
+                    return verifyGraphBackup(Paths.get(backupFile));
+                }
 
                 // Verify all entries are readable
                 Enumeration<? extends ZipEntry> entries = zipFile.entries();
@@ -192,16 +229,39 @@ public class BackupService {
         }
     }
 
+    /**
+     * Verify a backup and report which entries failed and at what speed.
+     * Archives written before per-entry checksums fall back to
+     * verifyBackup(), with a single failure line if that rejects them.
+     */
+    public BackupVerification verifyBackupChecksums(String backupFile) throws IOException {
+        Path file = Paths.get(backupFile);
+        BackupManifest manifest = readGraphManifest(file);
+        if (manifest != null && hasChecksums(manifest)) {
+            BackupVerification report = newVerifier().verify(file);
+            logVerification(report);
+            return report;
+        }
+
+        long started = System.nanoTime();
+        boolean valid = verifyBackup(backupFile);
+        long bytes = Files.exists(file) ? Files.size(file) : 0;
+        return new BackupVerification(file.getFileName().toString(), 1, bytes, System.nanoTime() - started,
+                valid ? List.of() : List.of(file.getFileName() + ": failed full read verification"));
+    }
+
     /**
      * Delete backup file
      */
     public void deleteBackup(String backupFile) throws IOException {
         Files.deleteIfExists(Paths.get(backupFile));
         System.out.println("Backup deleted: " + backupFile);
+        sweepChunks(Paths.get(backupFile).toAbsolutePath().getParent());
     }
 
     /**
-     * Clean up old backups
+     * Clean up old backups. Expired backups that a retained incremental
+     * still builds on are kept until their chain expires too.
      */
     public int cleanupOldBackups(String directory, int retentionDays) throws IOException {
         List<String> backups = listBackups(directory);
@@ -209,16 +269,33 @@ public class BackupService {
 
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
 
+        List<String> expired = new ArrayList<>();
+        Set<String> needed = new HashSet<>();
         for (String backup : backups) {
-            // Extract date from filename (backup_yyyyMMdd_HHmmss.zip)
+            // Extract date from filename (backup_yyyyMMdd_HHmmss[_incr].zip)
             String dateStr = backup.substring(7, 22); // Extract yyyyMMdd_HHmmss
             LocalDateTime backupDate = LocalDateTime.parse(dateStr, TIMESTAMP_FORMAT);
 
             if (backupDate.isBefore(cutoffDate)) {
-                deleteBackup(directory + "/" + backup);
+                expired.add(backup);
+            } else {
+                BackupManifest manifest = readGraphManifest(Paths.get(directory, backup));
+                while (manifest != null && manifest.isIncremental() && needed.add(manifest.getParent())) {
+                    manifest = readGraphManifest(Paths.get(directory, manifest.getParent()));
+                }
+            }
+        }
+
+        for (String backup : expired) {
+            if (!needed.contains(backup)) {
+                Files.deleteIfExists(Paths.get(directory, backup));
+                System.out.println("Backup deleted: " + backup);
                 deleted++;
             }
         }
+        if (deleted > 0) {
+            sweepChunks(Paths.get(directory));
+        }
 
         System.out.println("Cleaned up " + deleted + " old backups");
         return deleted;
@@ -228,61 +305,370 @@ public class BackupService {
      * Export backup to another location
      */
     public void exportBackup(String sourceBackup, String destination) throws IOException {
-        Files.copy(Paths.get(sourceBackup), Paths.get(destination),
-                StandardCopyOption.REPLACE_EXISTING);
-        System.out.println("Backup exported to: " + destination);
+        Path source = Paths.get(sourceBackup);
+        Path target = Paths.get(destination).toAbsolutePath();
+
+        // An incremental only restores together with the backups it builds on,
+        // which it finds by file name next to itself; a broken chain is refused
+        BackupManifest manifest = readGraphManifest(source);
+        List<Path> chain = manifest != null && manifest.isIncremental() ? resolveChain(source) : List.of(source);
+        for (int i = 0; i < chain.size(); i++) {
+            Path backup = chain.get(i);
+            Path copy = i == chain.size() - 1 ? target : target.resolveSibling(backup.getFileName());
+            Files.copy(backup, copy, StandardCopyOption.REPLACE_EXISTING);
+            copyChunks(backup, copy);
+        }
+        System.out.println("Backup exported to: " + destination
+                + (chain.size() > 1 ? " with the " + (chain.size() - 1) + " backups it builds on" : ""));
+    }
+
+    /**
+     * A chunked backup needs its chunks next to it wherever it goes
+     */
+    private void copyChunks(Path backup, Path copy) throws IOException {
+        BackupManifest manifest = readGraphManifest(backup);
+        if (manifest == null || !manifest.isChunked()) {
+            return;
+        }
+        try (BackupReader reader = new BackupReader(backup)) {
+            ChunkStore source = reader.getChunkStore();
+            ChunkStore target = new ChunkStore(copy.resolveSibling(ChunkStore.DIRECTORY), Deflater.DEFAULT_COMPRESSION);
+            source.getLock().readLock().lock();
+            try {
+                for (String hash : reader.getChunks().keySet()) {
+                    source.copyTo(hash, target);
+                }
+            } finally {
+                source.getLock().readLock().unlock();
+            }
+        }
     }
 
     // Private helper methods
 
-    private void backupTickets(String dir) throws IOException {
-        StringBuilder csv = new StringBuilder();
-        csv.append("id,title,description,status,priority,category,createdAt\n");
+    private String writeBackup(String directory, String fileName, BackupManifest manifest,
+                               Consumer<Double> progressCallback) throws IOException {
+        Path zipFile = Paths.get(directory, fileName);
+
+        Files.createDirectories(Paths.get(directory));
+        progressCallback.accept(0.0);
+
+        ChunkStore chunkStore = Boolean.parseBoolean(
+                AppConfig.getInstance().getProperty("backup.dedup.enabled", "true"))
+                ? new ChunkStore(Paths.get(directory, ChunkStore.DIRECTORY),
+                        Integer.parseInt(AppConfig.getInstance().getProperty("backup.compression.level", "6")))
+                : null;
+        if (chunkStore != null) {
+            chunkStore.getLock().readLock().lock();
+        }
+        try {
+            newWriter(chunkStore).write(zipFile, manifest, excludedLabels(manifest.getOptions()), progressCallback);
+        } finally {
+            if (chunkStore != null) {
+                chunkStore.getLock().readLock().unlock();
+            }
+        }
+        purgeTombstones(directory);
 
-        ticketRepository.findAll().forEach(ticket -> {
-            csv.append(String.format("\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\"\n",
-                    ticket.getId(), ticket.getTitle(), ticket.getDescription(),
-                    ticket.getStatus(), ticket.getPriority(), ticket.getCategory(),
-                    ticket.getCreatedAt()));
-        });
+        progressCallback.accept(1.0);
 
-        Files.write(Paths.get(dir, "tickets.csv"), csv.toString().getBytes());
+        System.out.println("✅ Backup created: " + zipFile + " (" + manifest.getTotalRows() + " records)");
+        if (chunkStore != null) {
+            System.out.printf("   %d new chunks (%.1f MB written), %d unchanged%n",
+                    chunkStore.getChunksWritten(), chunkStore.getBytesWritten() / (1024.0 * 1024.0),
+                    chunkStore.getChunksReused());
+        }
+        return zipFile.toString();
     }
 
-    private void backupUsers(String dir) throws IOException {
-        Files.write(Paths.get(dir, "users.csv"), "id,username,email\n".getBytes());
+    /**
+     * Drop the tombstones no directory's next incremental can need. Every
+     * directory backed up from here is remembered, and tombstones are kept
+     * back to the window of the oldest of their latest backups; directories
+     * whose backups are gone are forgotten. The horizon is recorded before
+     * anything is deleted, so an incremental whose parent predates it falls
+     * back to a full backup instead of missing deletes.
+     */
+    private void purgeTombstones(String directory) {
+        long overlapSeconds = Long.parseLong(
+                AppConfig.getInstance().getProperty("backup.incremental.overlap.seconds", "60"));
+        try {
+            Preferences prefs = Preferences.userNodeForPackage(BackupService.class);
+            Preferences directories = prefs.node(DIRECTORIES_NODE);
+            String path = Paths.get(directory).toAbsolutePath().normalize().toString();
+            // Preference keys are limited to 80 characters, so the path is the value
+            directories.put(Integer.toHexString(path.hashCode()), path);
+
+            ZonedDateTime oldest = null;
+            for (String key : directories.keys()) {
+                String backedUp = directories.get(key, null);
+                String latest = backedUp == null ? null : latestGraphBackup(backedUp);
+                BackupManifest manifest = latest == null ? null : readGraphManifest(Paths.get(backedUp, latest));
+                if (manifest == null || manifest.getWatermark() == null) {
+                    directories.remove(key);
+                } else if (oldest == null || manifest.getWatermark().isBefore(oldest)) {
+                    oldest = manifest.getWatermark();
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+
+            ZonedDateTime before = oldest.minusSeconds(overlapSeconds);
+            ZonedDateTime purgedBefore = tombstonesPurgedBefore();
+            if (purgedBefore == null || purgedBefore.isBefore(before)) {
+                prefs.put(PURGED_BEFORE, before.toString());
+                prefs.flush();
+            }
+            long deleted = backupRepository.deleteTombstonesBefore(before);
+            System.out.println("Purged " + deleted + " tombstones older than " + before);
+        } catch (Exception e) {
+            System.err.println("❌ Error purging tombstones: " + e.getMessage());
+        }
     }
 
-    private void backupCategories(String dir) throws IOException {
-        StringBuilder csv = new StringBuilder();
-        csv.append("id,name,description,color\n");
+    /**
+     * Time before which tombstones may have been deleted, or null if none were
+     */
+    private ZonedDateTime tombstonesPurgedBefore() {
+        String value = Preferences.userNodeForPackage(BackupService.class).get(PURGED_BEFORE, null);
+        return value == null ? null : ZonedDateTime.parse(value);
+    }
 
-        categoryRepository.findAll().forEach(category -> {
-            csv.append(String.format("\"%s\",\"%s\",\"%s\",\"%s\"\n",
-                    category.getId(), category.getName(),
-                    category.getDescription(), category.getColor()));
-        });
+    /**
+     * Newest streamed graph backup in a directory, or null if there is none
+     */
+    private String latestGraphBackup(String directory) throws IOException {
+        for (String backup : listBackups(directory)) {
+            if (readGraphManifest(Paths.get(directory, backup)) != null) {
+                return backup;
+            }
+        }
+        return null;
+    }
 
-        Files.write(Paths.get(dir, "categories.csv"), csv.toString().getBytes());
+    private void restoreGraphBackup(Path backupFile, Consumer<Double> progressCallback) throws IOException {
+        progressCallback.accept(0.0);
+
+        List<Path> chain = resolveChain(backupFile);
+        BackupManifest full = readGraphManifest(chain.get(0));
+        AppConfig config = AppConfig.getInstance();
+        BackupRestorer restorer = new BackupRestorer(backupRepository,
+                Integer.parseInt(config.getProperty("backup.restore.threads", "4")),
+                Integer.parseInt(config.getProperty("backup.restore.batch.rows", "5000")));
+
+        // The restore starts by emptying the database, so every backup in the chain must check out first
+        for (Path backup : chain) {
+            if (!verifyGraphBackup(backup)) {
+                throw new IOException("Backup failed verification, database left unchanged: "
+                        + backup.getFileName());
+            }
+        }
+
+        // Labels left out of the backup are left alone in the database too
+        long rows;
+        stopAnalytics();
+        try {
+            rows = restorer.restore(chain, excludedLabels(full.getOptions()), progressCallback);
+        } finally {
+            // Reseed from whatever the database now holds
+            startAnalytics();
+        }
+
+        Properties marker = new Properties();
+        marker.setProperty("restoredAt", LocalDateTime.now().toString());
+        marker.setProperty("backup", backupFile.getFileName().toString());
+        try (OutputStream os = Files.newOutputStream(backupFile.resolveSibling(RESTORE_MARKER))) {
+            marker.store(os, "Last restore");
+        }
+
+        progressCallback.accept(1.0);
+
+        System.out.println("✅ Backup restored successfully: " + chain.size() + " backups, " + rows + " records");
     }
 
-    private void backupComments(String dir) throws IOException {
-        Files.write(Paths.get(dir, "comments.csv"), "id,ticketId,content,authorId\n".getBytes());
+    /**
+     * Stop the in-memory analytics so none of them writes stale state into
+     * the database being restored
+     */
+    private static void stopAnalytics() {
+        TicketCounterStore.getInstance().shutdown();
+        TicketRollupService.getInstance().shutdown();
+        TicketLatencyService.getInstance().shutdown();
+        CategoryAnalyticsService.getInstance().shutdown();
+        SLATimerService.getInstance().shutdown();
+        SLAEngine.getInstance().shutdown();
     }
 
-    private void backupLogs(String dir) throws IOException {
-        Files.write(Paths.get(dir, "logs.csv"), "id,action,userId,timestamp\n".getBytes());
+    private static void startAnalytics() {
+        TicketCounterStore.getInstance().start();
+        TicketRollupService.getInstance().start();
+        TicketLatencyService.getInstance().start();
+        CategoryAnalyticsService.getInstance().start();
+        SLAEngine.getInstance().start();
+        SLATimerService.getInstance().start();
     }
 
-    private void createManifest(String dir, Map<String, Boolean> options) throws IOException {
-        Properties props = new Properties();
-        props.setProperty("backupDate", LocalDateTime.now().toString());
-        props.setProperty("version", "1.0");
-        options.forEach((key, value) -> props.setProperty(key, value.toString()));
+    /**
+     * The full backup a backup builds on followed by every incremental up to
+     * and including it, oldest first
+     */
+    private List<Path> resolveChain(Path backupFile) throws IOException {
+        LinkedList<Path> chain = new LinkedList<>();
+        Path current = backupFile;
+        while (true) {
+            BackupManifest manifest = readGraphManifest(current);
+            if (manifest == null) {
+                throw new IOException("Backup missing from chain: " + current.getFileName());
+            }
+            chain.addFirst(current);
+            if (!manifest.isIncremental()) {
+                return chain;
+            }
+            current = current.resolveSibling(manifest.getParent());
+        }
+    }
 
-        try (OutputStream os = Files.newOutputStream(Paths.get(dir, "manifest.properties"))) {
-            props.store(os, "Backup Manifest");
+    /**
+     * Manifest of a streamed graph backup, or null for legacy, missing or unreadable files
+     */
+    private BackupManifest readGraphManifest(Path backupFile) {
+        if (!Files.exists(backupFile)) {
+            return null;
         }
+        try (ZipFile zipFile = new ZipFile(backupFile.toFile())) {
+            Properties properties = BackupReader.readProperties(zipFile);
+            return properties != null && BackupManifest.isGraphBackup(properties)
+                    ? BackupManifest.fromProperties(properties) : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private LocalDateTime lastRestore(String directory) {
+        Path markerFile = Paths.get(directory, RESTORE_MARKER);
+        if (!Files.exists(markerFile)) {
+            return null;
+        }
+        Properties marker = new Properties();
+        try (InputStream is = Files.newInputStream(markerFile)) {
+            marker.load(is);
+            return LocalDateTime.parse(marker.getProperty("restoredAt"));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("❌ Error reading restore marker: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private BackupWriter newWriter(ChunkStore chunkStore) {
+        AppConfig config = AppConfig.getInstance();
+        return new BackupWriter(backupRepository,
+                Integer.parseInt(config.getProperty("backup.threads", "4")),
+                Integer.parseInt(config.getProperty("backup.compression.level", "6")),
+                Integer.parseInt(config.getProperty("backup.part.mb", "8")) * 1024 * 1024,
+                chunkStore,
+                Integer.parseInt(config.getProperty("backup.chunk.kb", "64")) * 1024);
+    }
+
+    private BackupVerifier newVerifier() {
+        return new BackupVerifier(Integer.parseInt(
+                AppConfig.getInstance().getProperty("backup.verify.threads", "0")));
+    }
+
+    /**
+     * True for archives whose manifest can be checked without decoding them
+     */
+    private static boolean hasChecksums(BackupManifest manifest) {
+        if (manifest.isChunked()) {
+            return true;
+        }
+        for (BackupManifest.Entry entry : manifest.getEntries()) {
+            if (entry.getParts() > 0) {
+                return !entry.getChecksums().isEmpty();
+            }
+        }
+        return true;
+    }
+
+    private static void logVerification(BackupVerification report) {
+        if (report.isValid()) {
+            System.out.println("✅ Backup verified: " + report);
+        } else {
+            System.err.println("❌ Backup verification failed: " + report);
+            report.getFailures().forEach(failure -> System.err.println("   " + failure));
+        }
+    }
+
+    /**
+     * Delete chunks no backup in the directory refers to any more. Skipped
+     * if any graph backup cannot be read, since its chunks would look unused.
+     */
+    private void sweepChunks(Path directory) {
+        Path root = directory.resolve(ChunkStore.DIRECTORY);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        ChunkStore store = new ChunkStore(root, Deflater.DEFAULT_COMPRESSION);
+        // A running backup's chunks are not referenced until its manifest is written
+        if (!store.getLock().writeLock().tryLock()) {
+            System.out.println("Backup in progress, unused chunks are removed by the next cleanup");
+            return;
+        }
+        try {
+            Set<String> referenced = new HashSet<>();
+            for (String backup : listBackups(directory.toString())) {
+                try (ZipFile zipFile = new ZipFile(directory.resolve(backup).toFile())) {
+                    Properties properties = BackupReader.readProperties(zipFile);
+                    if (properties == null || !BackupManifest.isGraphBackup(properties)
+                            || !BackupManifest.fromProperties(properties).isChunked()) {
+                        continue;
+                    }
+                }
+                try (BackupReader reader = new BackupReader(directory.resolve(backup))) {
+                    referenced.addAll(reader.getChunks().keySet());
+                }
+            }
+            int deleted = store.sweep(referenced);
+            System.out.println("Removed " + deleted + " unused backup chunks");
+        } catch (IOException | RuntimeException e) {
+            System.err.println("❌ Error sweeping backup chunks: " + e.getMessage());
+        } finally {
+            store.getLock().writeLock().unlock();
+        }
+    }
+
+    /**
+     * Labels switched off in the backup options; every other label is included
+     */
+    private Set<String> excludedLabels(Map<String, Boolean> options) {
+        Set<String> excluded = new HashSet<>();
+        OPTION_LABELS.forEach((option, label) -> {
+            if (!options.getOrDefault(option, !"logs".equals(option))) {
+                excluded.add(label);
+            }
+        });
+        return excluded;
+    }
+
+    private boolean verifyGraphBackup(Path backupFile) throws IOException {
+        try (BackupReader reader = new BackupReader(backupFile)) {
+            if (hasChecksums(reader.getManifest())) {
+                BackupVerification report = newVerifier().verify(backupFile);
+                logVerification(report);
+                return report.isValid();
+            }
+            for (BackupManifest.Entry entry : reader.getManifest().getEntries()) {
+                long rows = entry.getKind() == BackupManifest.Kind.RELATIONSHIPS
+                        ? reader.forEachRelationship(entry, (eid, type, start, end, properties) -> { })
+                        : reader.forEachNode(entry, (eid, labels, properties, complete) -> { });
+                if (rows != entry.getRows()) {
+                    System.err.println("Backup verification failed: " + entry.getName() + " has "
+                            + rows + " records, manifest says " + entry.getRows());
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 
     private Map<String, Boolean> readManifest(String dir) throws IOException {
@@ -301,27 +687,6 @@ public class BackupService {
         return manifest;
     }
 
-    private String compressBackup(String sourceDir, String zipFile) throws IOException {
-        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(zipFile))) {
-            Path sourcePath = Paths.get(sourceDir);
-
-            Files.walk(sourcePath)
-                    .filter(path -> !Files.isDirectory(path))
-                    .forEach(path -> {
-                        try {
-                            String zipEntryName = sourcePath.relativize(path).toString();
-                            zos.putNextEntry(new ZipEntry(zipEntryName));
-                            Files.copy(path, zos);
-                            zos.closeEntry();
-                        } catch (IOException e) {
-                            throw new UncheckedIOException(e);
-                        }
-                    });
-        }
-
-        return zipFile;
-    }
-
     private void extractBackup(String zipFile, String destDir) throws IOException {
         Files.createDirectories(Paths.get(destDir));
 
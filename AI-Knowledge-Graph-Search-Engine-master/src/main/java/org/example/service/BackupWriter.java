@@ -0,0 +1,406 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.example.model.BackupManifest;
+import org.example.repository.BackupRepository;
+import org.example.util.ChunkStore;
+import org.example.util.ContentDefinedChunker;
+import org.example.util.GraphValueCodec;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Backup Writer - Streams every node label and relationship type into a zip
+ * archive. One worker per label or type reads records from Neo4j and
+ * gzips them as JSON lines into parts of about partBytes; finished parts
+ * pass through a small bounded queue to this thread, which stores them in
+ * the zip as-is. Heap use is bounded by the worker and queue count times
+ * the part size, whatever the graph size. The manifest is written last.
+ * An incremental manifest limits the dump to changes since its start time
+ * and adds the tombstones of nodes deleted since then. Given a chunk store,
+ * workers cut the JSON lines into content-defined chunks and store each
+ * new one there; the archive then only holds the chunk lists.
+ */
+public class BackupWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int ROWS_PER_SIZE_CHECK = 256;
+
+    private final BackupRepository repository;
+    private final int threads;
+    private final int compressionLevel;
+    private final int partBytes;
+    private final ChunkStore chunkStore;
+    private final int chunkBytes;
+
+    public BackupWriter(BackupRepository repository, int threads, int compressionLevel, int partBytes) {
+        this(repository, threads, compressionLevel, partBytes, null, 0);
+    }
+
+    public BackupWriter(BackupRepository repository, int threads, int compressionLevel, int partBytes,
+                        ChunkStore chunkStore, int chunkBytes) {
+        this.repository = repository;
+        this.threads = Math.max(threads, 1);
+        this.compressionLevel = compressionLevel;
+        this.partBytes = Math.max(partBytes, 64 * 1024);
+        this.chunkStore = chunkStore;
+        this.chunkBytes = chunkBytes;
+    }
+
+    /**
+     * Dump every label not in excludedLabels, the nodes without labels, and
+     * every relationship between included nodes, into zipFile, filling in
+     * the given manifest. A failed backup leaves no file behind.
+     */
+    public BackupManifest write(Path zipFile, BackupManifest manifest, Set<String> excludedLabels,
+                                Consumer<Double> progress) throws IOException {
+        manifest.setWatermark(repository.currentTime());
+        manifest.setChunked(chunkStore != null);
+        Set<String> excluded = new HashSet<>(excludedLabels);
+        excluded.add(BackupRepository.TOMBSTONE_LABEL);
+        LocalDateTime since = manifest.getSince() == null ? null
+                : manifest.getSince().withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+
+        List<String> labels = new ArrayList<>(repository.findLabels());
+        labels.removeAll(excluded);
+        List<String> types = repository.findRelationshipTypes();
+
+        // Store counts only bound a full dump; incrementals report progress per finished task
+        long expectedRows = 0;
+        if (since == null) {
+            for (String label : labels) {
+                expectedRows += repository.countNodes(label);
+            }
+            for (String type : types) {
+                expectedRows += repository.countRelationships(type);
+            }
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "backup-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        BlockingQueue<Part> parts = new ArrayBlockingQueue<>(threads);
+        AtomicBoolean aborted = new AtomicBoolean();
+        AtomicLong rowsDone = new AtomicLong();
+
+        List<Future<BackupManifest.Entry>> tasks = new ArrayList<>();
+        if (manifest.getSince() != null) {
+            tasks.add(workers.submit(task(parts, aborted, () -> {
+                PartEncoder encoder = new PartEncoder(BackupManifest.Kind.TOMBSTONES,
+                        BackupRepository.TOMBSTONE_LABEL, parts, aborted, rowsDone);
+                long rows = repository.streamTombstones(manifest.getSince(), excluded,
+                        (eid, nodeLabels, properties, complete) -> writeNode(encoder, eid, nodeLabels, properties, false));
+                return encoder.finish(rows);
+            })));
+        }
+        for (String label : labels) {
+            tasks.add(workers.submit(task(parts, aborted, () -> {
+                PartEncoder encoder = new PartEncoder(BackupManifest.Kind.NODES, label, parts, aborted, rowsDone);
+                long rows = repository.streamNodes(label, excluded, since, (eid, nodeLabels, properties, complete) ->
+                        writeNode(encoder, eid, nodeLabels, properties, complete));
+                return encoder.finish(rows);
+            })));
+        }
+        tasks.add(workers.submit(task(parts, aborted, () -> {
+            PartEncoder encoder = new PartEncoder(BackupManifest.Kind.NODES, BackupRepository.UNLABELLED,
+                    parts, aborted, rowsDone);
+            long rows = repository.streamUnlabelledNodes(since, (eid, nodeLabels, properties, complete) ->
+                    writeNode(encoder, eid, nodeLabels, properties, complete));
+            return encoder.finish(rows);
+        })));
+        for (String type : types) {
+            tasks.add(workers.submit(task(parts, aborted, () -> {
+                PartEncoder encoder = new PartEncoder(BackupManifest.Kind.RELATIONSHIPS, type, parts, aborted, rowsDone);
+                long rows = repository.streamRelationships(type, excluded, since, (eid, relType, start, end, properties) -> {
+                    JsonGenerator json = encoder.startRow();
+                    json.writeStartObject();
+                    json.writeStringField("eid", eid);
+                    json.writeStringField("start", start);
+                    json.writeStringField("end", end);
+                    json.writeFieldName("props");
+                    GraphValueCodec.writeProperties(json, properties);
+                    json.writeEndObject();
+                    encoder.endRow();
+                });
+                return encoder.finish(rows);
+            })));
+        }
+
+        boolean completed = false;
+        try (ZipOutputStream zip = new ZipOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(zipFile), 1024 * 1024))) {
+            zip.setLevel(compressionLevel);
+
+            int finished = 0;
+            double reported = 0;
+            while (finished < tasks.size()) {
+                Part part = parts.take();
+                if (part.error != null) {
+                    throw part.error instanceof IOException
+                            ? (IOException) part.error : new IOException(part.error);
+                }
+                if (part.data == null) {
+                    finished++;
+                } else {
+                    storePart(zip, part);
+                }
+                double fraction = expectedRows > 0
+                        ? Math.min(0.99, (double) rowsDone.get() / expectedRows)
+                        : 0.99 * finished / tasks.size();
+                if (progress != null && fraction - reported >= 0.01) {
+                    reported = fraction;
+                    progress.accept(fraction);
+                }
+            }
+
+            for (Future<BackupManifest.Entry> task : tasks) {
+                manifest.addEntry(task.get());
+            }
+            zip.putNextEntry(new ZipEntry(BackupManifest.FILE_NAME));
+            manifest.toProperties().store(zip, "Backup Manifest");
+            zip.closeEntry();
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Backup interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } finally {
+            aborted.set(true);
+            parts.clear();
+            workers.shutdownNow();
+            if (!completed) {
+                Files.deleteIfExists(zipFile);
+            }
+        }
+
+        return manifest;
+    }
+
+    /**
+     * One node or tombstone line; tombstones carry no properties
+     */
+    private static void writeNode(PartEncoder encoder, String eid, List<String> labels,
+                                  Map<String, Object> properties, boolean complete) throws IOException {
+        JsonGenerator json = encoder.startRow();
+        json.writeStartObject();
+        json.writeStringField("eid", eid);
+        json.writeArrayFieldStart("labels");
+        for (String label : labels) {
+            json.writeString(label);
+        }
+        json.writeEndArray();
+        if (properties != null) {
+            json.writeFieldName("props");
+            GraphValueCodec.writeProperties(json, properties);
+        }
+        if (complete) {
+            json.writeBooleanField("complete", true);
+        }
+        json.writeEndObject();
+        encoder.endRow();
+    }
+
+    /**
+     * Wrap a dump so that it always ends with a marker, carrying the error if it failed
+     */
+    private Callable<BackupManifest.Entry> task(BlockingQueue<Part> parts, AtomicBoolean aborted,
+                                                Callable<BackupManifest.Entry> dump) {
+        return () -> {
+            try {
+                BackupManifest.Entry entry = dump.call();
+                offer(parts, Part.end(null), aborted);
+                return entry;
+            } catch (Exception e) {
+                System.err.println("❌ Backup worker failed: " + e.getMessage());
+                offer(parts, Part.end(e), aborted);
+                throw e;
+            }
+        };
+    }
+
+    private static void storePart(ZipOutputStream zip, Part part) throws IOException {
+        // Parts are already gzipped, so they are stored rather than deflated again
+        ZipEntry entry = new ZipEntry(part.name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(part.length);
+        entry.setCompressedSize(part.length);
+        entry.setCrc(part.crc);
+        zip.putNextEntry(entry);
+        zip.write(part.data, 0, part.length);
+        zip.closeEntry();
+    }
+
+    private static void offer(BlockingQueue<Part> parts, Part part, AtomicBoolean aborted) throws IOException {
+        try {
+            while (!aborted.get()) {
+                if (parts.offer(part, 100, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+            throw new IOException("Backup aborted");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Backup interrupted");
+        }
+    }
+
+    /**
+     * Gzipped JSON lines for one label or type, cut into parts of about partBytes
+     */
+    private final class PartEncoder {
+        private final BackupManifest.Kind kind;
+        private final String name;
+        private final BlockingQueue<Part> parts;
+        private final AtomicBoolean aborted;
+        private final AtomicLong rowsDone;
+        private PartBuffer buffer;
+        private StringBuilder chunkList;
+        private JsonGenerator json;
+        private int partCount;
+        private long rowsInPart;
+        private final List<Long> checksums = new ArrayList<>();
+
+        PartEncoder(BackupManifest.Kind kind, String name, BlockingQueue<Part> parts,
+                    AtomicBoolean aborted, AtomicLong rowsDone) {
+            this.kind = kind;
+            this.name = name;
+            this.parts = parts;
+            this.aborted = aborted;
+            this.rowsDone = rowsDone;
+        }
+
+        JsonGenerator startRow() throws IOException {
+            if (json == null && chunkStore != null) {
+                chunkList = new StringBuilder();
+                json = JSON_FACTORY.createGenerator(new ContentDefinedChunker(chunkBytes, (data, length) ->
+                        chunkList.append(chunkStore.put(data, length)).append(' ').append(length).append('\n')));
+                json.setRootValueSeparator(null);
+            } else if (json == null) {
+                buffer = new PartBuffer(Math.min(partBytes + partBytes / 4, 16 * 1024 * 1024));
+                OutputStream gzip = new GZIPOutputStream(buffer, 64 * 1024) {
+                    {
+                        def.setLevel(compressionLevel == -1 ? Deflater.DEFAULT_COMPRESSION : compressionLevel);
+                    }
+                };
+                json = JSON_FACTORY.createGenerator(gzip);
+                json.setRootValueSeparator(null);
+            }
+            return json;
+        }
+
+        void endRow() throws IOException {
+            json.writeRaw('\n');
+            rowsDone.incrementAndGet();
+            if (chunkStore == null && ++rowsInPart % ROWS_PER_SIZE_CHECK == 0) {
+                json.flush();
+                if (buffer.size() >= partBytes) {
+                    flushPart();
+                }
+            }
+        }
+
+        BackupManifest.Entry finish(long rows) throws IOException {
+            if (json != null && chunkStore != null) {
+                json.close();
+                byte[] list = chunkList.toString().getBytes(StandardCharsets.UTF_8);
+                store(BackupManifest.Entry.chunkListName(kind, name), list, list.length);
+                partCount = 1;
+            } else if (json != null) {
+                flushPart();
+            }
+            return new BackupManifest.Entry(kind, name, rows, partCount, checksums);
+        }
+
+        private void flushPart() throws IOException {
+            json.close();
+            store(BackupManifest.Entry.partName(kind, name, partCount), buffer.array(), buffer.size());
+            partCount++;
+            rowsInPart = 0;
+            json = null;
+            buffer = null;
+        }
+
+        /**
+         * Hand a finished zip entry to the writer thread. The zip header
+         * needs its CRC32; the manifest records a CRC32C for fast verification.
+         */
+        private void store(String entryName, byte[] data, int length) throws IOException {
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, length);
+            CRC32C crc32c = new CRC32C();
+            crc32c.update(data, 0, length);
+            checksums.add(crc32c.getValue());
+            offer(parts, new Part(entryName, data, length, crc.getValue(), null), aborted);
+        }
+    }
+
+    private static final class PartBuffer extends ByteArrayOutputStream {
+        PartBuffer(int size) {
+            super(size);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+
+    /**
+     * A finished part, or an end-of-task marker when data is null
+     */
+    private static final class Part {
+        private final String name;
+        private final byte[] data;
+        private final int length;
+        private final long crc;
+        private final Throwable error;
+
+        Part(String name, byte[] data, int length, long crc, Throwable error) {
+            this.name = name;
+            this.data = data;
+            this.length = length;
+            this.crc = crc;
+            this.error = error;
+        }
+
+        static Part end(Throwable error) {
+            return new Part(null, null, 0, 0, error);
+        }
+    }
+}
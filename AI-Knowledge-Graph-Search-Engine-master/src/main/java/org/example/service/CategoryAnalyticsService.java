@@ -0,0 +1,362 @@
+package org.example.service;
+
+import org.example.config.AppConfig;
+import org.example.model.Category;
+import org.example.model.CategoryLink;
+import org.example.model.CategoryStats;
+import org.example.model.Ticket;
+import org.example.model.TicketChangeEvent;
+import org.example.repository.CategoryRepository;
+import org.example.repository.TicketRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Category Analytics - Per-category classification stats and the full
+ * category co-occurrence matrix (tickets linked to both categories), built
+ * from every BELONGS_TO link in one pass. Tickets touched by change events
+ * or reclassification are re-read in batches by a background job and their
+ * contribution swapped in place; a periodic full rebuild corrects drift.
+ * Reads go through an immutable view that is rebuilt only when the version
+ * has moved.
+ */
+public class CategoryAnalyticsService implements TicketRepository.TicketChangeListener {
+
+    private static CategoryAnalyticsService instance;
+
+    private final CategoryRepository categoryRepository;
+    private final long refreshSeconds;
+    private final long reconcileMinutes;
+    private final Set<String> dirtyTickets;
+    private volatile Map<String, Category> categories;
+
+    // Guarded by this
+    private Map<String, List<CategoryLink>> linksByTicket;
+    private Map<String, Accumulator> statsByCategory;
+    private Map<String, Map<String, Long>> coOccurrence;
+    private volatile long version;
+
+    private volatile View view;
+    private ScheduledExecutorService refresher;
+    private volatile boolean seeded;
+
+    private CategoryAnalyticsService() {
+        this.categoryRepository = new CategoryRepository();
+        AppConfig config = AppConfig.getInstance();
+        this.refreshSeconds = Long.parseLong(config.getProperty("analytics.categories.refresh.seconds", "15"));
+        this.reconcileMinutes = Long.parseLong(config.getProperty("analytics.categories.reconcile.minutes", "30"));
+        this.dirtyTickets = ConcurrentHashMap.newKeySet();
+        this.categories = Collections.emptyMap();
+        this.linksByTicket = new HashMap<>();
+        this.statsByCategory = new HashMap<>();
+        this.coOccurrence = new HashMap<>();
+    }
+
+    public static CategoryAnalyticsService getInstance() {
+        if (instance == null) {
+            synchronized (CategoryAnalyticsService.class) {
+                if (instance == null) {
+                    instance = new CategoryAnalyticsService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Build the matrix, subscribe to ticket changes and schedule the refresh jobs
+     */
+    public synchronized void start() {
+        if (refresher != null) {
+            return;
+        }
+        TicketRepository.addChangeListener(this);
+        seeded = rebuild();
+
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "category-analytics-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refreshDirty, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        refresher.scheduleWithFixedDelay(() -> {
+            if (rebuild()) {
+                seeded = true;
+            }
+        }, reconcileMinutes, reconcileMinutes, TimeUnit.MINUTES);
+
+        System.out.println("✅ Category analytics started (" + statsByCategory.size() + " categories)");
+    }
+
+    public synchronized void shutdown() {
+        TicketRepository.removeChangeListener(this);
+        if (refresher != null) {
+            refresher.shutdownNow();
+            refresher = null;
+        }
+    }
+
+    /**
+     * True once the matrix holds database-backed values
+     */
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    /**
+     * Counter bumped whenever any ticket's contribution changes
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void onTicketChanged(TicketChangeEvent event) {
+        // Updates recreate BELONGS_TO links, so any event may change them
+        Ticket ticket = event.getCurrent() != null ? event.getCurrent() : event.getPrevious();
+        if (ticket != null) {
+            markDirty(ticket.getId());
+        }
+    }
+
+    /**
+     * Queue a ticket whose category links changed outside TicketRepository,
+     * e.g. after ML classification or a manual override
+     */
+    public void markDirty(String ticketId) {
+        if (ticketId != null) {
+            dirtyTickets.add(ticketId);
+        }
+    }
+
+    public CategoryStats getCategoryStats(String categoryId) {
+        return getView().stats.getOrDefault(categoryId, CategoryStats.empty(categoryId));
+    }
+
+    public Map<String, CategoryStats> getAllCategoryStats() {
+        return getView().stats;
+    }
+
+    /**
+     * Symmetric matrix of shared ticket counts; the diagonal holds each
+     * category's own ticket count
+     */
+    public Map<String, Map<String, Long>> getCoOccurrenceMatrix() {
+        return getView().matrix;
+    }
+
+    /**
+     * Categories sharing the most tickets with the given one, most shared first
+     */
+    public List<String> getRelatedCategoryIds(String categoryId, int limit) {
+        View current = getView();
+        List<String> related = current.related.computeIfAbsent(categoryId, id -> {
+            Map<String, Long> row = current.matrix.getOrDefault(id, Collections.emptyMap());
+            List<String> ids = new ArrayList<>();
+            row.entrySet().stream()
+                    .filter(entry -> !entry.getKey().equals(id))
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .forEach(entry -> ids.add(entry.getKey()));
+            return Collections.unmodifiableList(ids);
+        });
+        return related.subList(0, Math.min(limit, related.size()));
+    }
+
+    /**
+     * Category metadata by id, reloaded once if the id is unknown
+     */
+    public Category getCategory(String categoryId) {
+        Category category = categories.get(categoryId);
+        if (category == null) {
+            loadCategories();
+            category = categories.get(categoryId);
+        }
+        return category;
+    }
+
+    /**
+     * Re-read the links of queued tickets in one query and swap their contribution
+     */
+    private void refreshDirty() {
+        if (dirtyTickets.isEmpty()) {
+            return;
+        }
+        Set<String> batch = new HashSet<>(dirtyTickets);
+        dirtyTickets.removeAll(batch);
+
+        Map<String, List<CategoryLink>> current;
+        try {
+            current = categoryRepository.findCategoryLinks(batch);
+        } catch (Exception e) {
+            System.err.println("❌ Error refreshing category analytics: " + e.getMessage());
+            dirtyTickets.addAll(batch);
+            return;
+        }
+
+        synchronized (this) {
+            boolean changed = false;
+            for (String ticketId : batch) {
+                List<CategoryLink> previous = linksByTicket.remove(ticketId);
+                List<CategoryLink> links = current.get(ticketId);
+                if (previous != null) {
+                    apply(statsByCategory, coOccurrence, previous, -1);
+                    changed = true;
+                }
+                if (links != null && !links.isEmpty()) {
+                    linksByTicket.put(ticketId, links);
+                    apply(statsByCategory, coOccurrence, links, 1);
+                    changed = true;
+                }
+            }
+            if (changed) {
+                version++;
+            }
+        }
+    }
+
+    /**
+     * Recompute everything from the database in one pass
+     */
+    private boolean rebuild() {
+        Map<String, List<CategoryLink>> allLinks;
+        try {
+            allLinks = categoryRepository.findAllCategoryLinks();
+        } catch (Exception e) {
+            System.err.println("❌ Error building category analytics: " + e.getMessage());
+            return false;
+        }
+
+        Map<String, Accumulator> stats = new HashMap<>();
+        Map<String, Map<String, Long>> matrix = new HashMap<>();
+        for (List<CategoryLink> links : allLinks.values()) {
+            apply(stats, matrix, links, 1);
+        }
+
+        synchronized (this) {
+            linksByTicket = allLinks;
+            statsByCategory = stats;
+            coOccurrence = matrix;
+            version++;
+        }
+        loadCategories();
+        return true;
+    }
+
+    private void loadCategories() {
+        try {
+            Map<String, Category> byId = new HashMap<>();
+            for (Category category : categoryRepository.findAll()) {
+                if (category.getId() != null) {
+                    byId.put(category.getId(), category);
+                }
+            }
+            categories = byId;
+        } catch (Exception e) {
+            System.err.println("❌ Error loading categories: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Add (sign 1) or remove (sign -1) one ticket's links
+     */
+    private static void apply(Map<String, Accumulator> stats, Map<String, Map<String, Long>> matrix,
+                              List<CategoryLink> links, int sign) {
+        // A ticket counts once per category even if linked twice
+        Map<String, CategoryLink> byCategory = new LinkedHashMap<>();
+        for (CategoryLink link : links) {
+            byCategory.putIfAbsent(link.getCategoryId(), link);
+        }
+
+        for (CategoryLink link : byCategory.values()) {
+            Accumulator accumulator = stats.computeIfAbsent(link.getCategoryId(), id -> new Accumulator());
+            accumulator.total += sign;
+            if (link.isAutoClassified()) {
+                accumulator.auto += sign;
+                if (link.getConfidence() != null) {
+                    accumulator.confidenceSum += sign * link.getConfidence();
+                    accumulator.confidenceCount += sign;
+                }
+            } else {
+                accumulator.manual += sign;
+            }
+            if (accumulator.total <= 0) {
+                stats.remove(link.getCategoryId());
+            }
+        }
+
+        for (String a : byCategory.keySet()) {
+            Map<String, Long> row = matrix.computeIfAbsent(a, id -> new HashMap<>());
+            for (String b : byCategory.keySet()) {
+                if (row.merge(b, (long) sign, Long::sum) <= 0) {
+                    row.remove(b);
+                }
+            }
+            if (row.isEmpty()) {
+                matrix.remove(a);
+            }
+        }
+    }
+
+    private View getView() {
+        View current = view;
+        if (current != null && current.version == version) {
+            return current;
+        }
+        synchronized (this) {
+            current = view;
+            if (current != null && current.version == version) {
+                return current;
+            }
+            Map<String, CategoryStats> stats = new HashMap<>();
+            statsByCategory.forEach((id, accumulator) -> stats.put(id, accumulator.toStats(id)));
+
+            Map<String, Map<String, Long>> matrix = new HashMap<>();
+            coOccurrence.forEach((id, row) -> matrix.put(id, Collections.unmodifiableMap(new HashMap<>(row))));
+
+            current = new View(version, Collections.unmodifiableMap(stats), Collections.unmodifiableMap(matrix));
+            view = current;
+            return current;
+        }
+    }
+
+    private static final class Accumulator {
+        private long total;
+        private long auto;
+        private long manual;
+        private double confidenceSum;
+        private long confidenceCount;
+
+        CategoryStats toStats(String categoryId) {
+            return new CategoryStats(categoryId, total, auto, manual,
+                    confidenceCount > 0 ? confidenceSum / confidenceCount : 0.0);
+        }
+    }
+
+    /**
+     * Immutable read view for one version; related lists are filled lazily
+     */
+    private static final class View {
+        private final long version;
+        private final Map<String, CategoryStats> stats;
+        private final Map<String, Map<String, Long>> matrix;
+        private final Map<String, List<String>> related = new ConcurrentHashMap<>();
+
+        View(long version, Map<String, CategoryStats> stats, Map<String, Map<String, Long>> matrix) {
+            this.version = version;
+            this.stats = stats;
+            this.matrix = matrix;
+        }
+    }
+}
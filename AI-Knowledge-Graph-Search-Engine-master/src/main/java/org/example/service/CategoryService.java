@@ -1,18 +1,24 @@
 package org.example.service;
 
 import org.example.model.Category;
+import org.example.model.CategoryStats;
 import org.example.model.Ticket;
 import org.example.repository.CategoryRepository;
 import org.example.repository.Neo4jConnection;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class CategoryService {
     private final CategoryRepository categoryRepository;
+    private final CategoryAnalyticsService categoryAnalytics;
 
     public CategoryService() {
         this.categoryRepository = new CategoryRepository();
+        this.categoryAnalytics = CategoryAnalyticsService.getInstance();
     }
 
     /**
@@ -27,7 +33,7 @@ public class CategoryService {
             var result = session.run(query,
                     org.neo4j.driver.Values.parameters("categoryId", categoryId));
 
-            List<Ticket> tickets = new java.util.ArrayList<>();
+            List<Ticket> tickets = new ArrayList<>();
             while (result.hasNext()) {
                 var record = result.next();
                 tickets.add(mapToTicket(record.get("t").asMap()));
@@ -40,8 +46,17 @@ public class CategoryService {
     /**
      * Get category statistics
      */
-    public java.util.Map<String, Object> getCategoryStats(String categoryId) {
-        java.util.Map<String, Object> stats = new java.util.HashMap<>();
+    public Map<String, Object> getCategoryStats(String categoryId) {
+        Map<String, Object> stats = new HashMap<>();
+
+        if (categoryAnalytics.isSeeded()) {
+            CategoryStats cached = categoryAnalytics.getCategoryStats(categoryId);
+            stats.put("totalTickets", cached.getTotalTickets());
+            stats.put("autoClassified", cached.getAutoClassified());
+            stats.put("manual", cached.getManual());
+            stats.put("averageConfidence", cached.getAverageConfidence());
+            return stats;
+        }
 
         try (var session = Neo4jConnection.getInstance().getSession()) {
             // Total tickets
@@ -96,6 +111,17 @@ public class CategoryService {
      * Get related categories (categories that share tickets)
      */
     public List<Category> getRelatedCategories(String categoryId, int limit) {
+        if (categoryAnalytics.isSeeded()) {
+            List<Category> categories = new ArrayList<>();
+            for (String relatedId : categoryAnalytics.getRelatedCategoryIds(categoryId, limit)) {
+                Category category = categoryAnalytics.getCategory(relatedId);
+                if (category != null) {
+                    categories.add(category);
+                }
+            }
+            return categories;
+        }
+
         try (var session = Neo4jConnection.getInstance().getSession()) {
             // Find categories that share similar tickets based on keywords
             String query =
@@ -112,7 +138,7 @@ public class CategoryService {
                             "limit", limit
                     ));
 
-            List<Category> categories = new java.util.ArrayList<>();
+            List<Category> categories = new ArrayList<>();
             while (result.hasNext()) {
                 var record = result.next();
                 categories.add(mapToCategory(record.get("c2").asMap()));
@@ -122,7 +148,7 @@ public class CategoryService {
         }
     }
 
-    private Ticket mapToTicket(java.util.Map<String, Object> map) {
+    private Ticket mapToTicket(Map<String, Object> map) {
         Ticket ticket = new Ticket();
         ticket.setId((String) map.get("id"));
         ticket.setTitle((String) map.get("title"));
@@ -135,7 +161,7 @@ public class CategoryService {
         return ticket;
     }
 
-    private Category mapToCategory(java.util.Map<String, Object> map) {
+    private Category mapToCategory(Map<String, Object> map) {
         Category category = new Category();
         category.setId((String) map.get("id"));
         category.setName((String) map.get("name"));
@@ -1,52 +1,118 @@
 package org.example.service;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.example.config.AppConfig;
 import org.example.model.Ticket;
+import org.example.repository.TicketCursor;
+import org.example.repository.TicketRepository;
+import org.example.util.ColumnarSnapshotWriter;
+import org.example.util.CsvEncoder;
 import org.example.util.DateUtils;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
 
 /**
- * Advanced Export Service supporting multiple formats
+ * Advanced Export Service supporting multiple formats. CSV and JSON are
+ * streamed from a ticket cursor into large buffered channels, reporting
+ * rows/sec and throughput as they go, or run as a pipelined parallel export
+ * that produces the same bytes. Snapshots for offline analytics use the
+ * columnar binary format.
  */
 public class ExportService {
 
     private static final DateTimeFormatter FILE_DATE_FORMAT =
             DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final DateTimeFormatter CSV_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String CSV_HEADER =
+            "ID,Title,Status,Priority,Category,Assigned To,Created By,Created At,Description\n";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int CHUNK_BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_GATHER = 64;
+    private static final CompletableFuture<FormattedChunk> END_OF_CHUNKS = new CompletableFuture<>();
+
+    private final TicketRepository ticketRepository;
+    private final int bufferBytes;
+    private final long progressRows;
+    private final int parallelThreads;
+    private final int chunkRows;
+    private final int columnarBlockRows;
+    private final int columnarCompressionLevel;
+
+    public ExportService() {
+        this.ticketRepository = new TicketRepository();
+        AppConfig config = AppConfig.getInstance();
+        this.bufferBytes = Integer.parseInt(config.getProperty("export.buffer.kb", "1024")) * 1024;
+        this.progressRows = Long.parseLong(config.getProperty("export.progress.rows", "5000"));
+        int threads = Integer.parseInt(config.getProperty("export.parallel.threads", "0"));
+        this.parallelThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.chunkRows = Integer.parseInt(config.getProperty("export.chunk.rows", "2000"));
+        this.columnarBlockRows = Integer.parseInt(config.getProperty("export.columnar.block.rows", "65536"));
+        this.columnarCompressionLevel = Integer.parseInt(
+                config.getProperty("export.columnar.compression.level", "1"));
+    }
 
     /**
      * Export tickets to CSV format
      */
     public String exportToCSV(List<Ticket> tickets, String directory) throws IOException {
+        return exportToCSV(tickets.iterator(), directory, null);
+    }
+
+    /**
+     * Stream every ticket in the database to CSV
+     */
+    public String exportAllToCSV(String directory, ExportProgressListener listener) throws IOException {
+        try (TicketCursor cursor = ticketRepository.openCursor()) {
+            return exportToCSV(cursor, directory, listener);
+        }
+    }
+
+    /**
+     * Stream tickets to CSV through a reused encoder; memory does not grow with the row count
+     */
+    public String exportToCSV(Iterator<Ticket> tickets, String directory,
+                              ExportProgressListener listener) throws IOException {
         String filename = generateFilename("tickets", "csv");
         Path filePath = Paths.get(directory, filename);
 
-        try (BufferedWriter writer = Files.newBufferedWriter(filePath)) {
-            // Write CSV header
-            writer.write("ID,Title,Status,Priority,Category,Assigned To,Created By,Created At,Description\n");
-
-            // Write data rows
-            for (Ticket ticket : tickets) {
-                writer.write(String.format("\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\"\n",
-                        escapeCSV(ticket.getId()),
-                        escapeCSV(ticket.getTitle()),
-                        escapeCSV(ticket.getStatus()),
-                        escapeCSV(ticket.getPriority()),
-                        escapeCSV(ticket.getCategory()),
-                        escapeCSV(ticket.getAssignedTo()),
-                        escapeCSV(ticket.getCreatedBy()),
-                        DateUtils.formatDateTime(ticket.getCreatedAt()),
-                        escapeCSV(truncate(ticket.getDescription(), 200))
-                ));
+        ExportMeter meter;
+        try (FileChannel channel = openForWrite(filePath)) {
+            CsvEncoder csv = new CsvEncoder(channel, bufferBytes);
+            meter = new ExportMeter(listener, progressRows, csv::getBytesWritten);
+            csv.raw(CSV_HEADER);
+            while (tickets.hasNext()) {
+                writeCSVRow(csv, tickets.next());
+                meter.row();
             }
+            csv.flush();
+            meter.finish();
         }
 
-        System.out.println("✅ Exported " + tickets.size() + " tickets to " + filePath);
+        System.out.println("✅ Exported " + meter.rows + " tickets to " + filePath);
         return filePath.toString();
     }
 
@@ -54,35 +120,234 @@ public class ExportService {
      * Export tickets to JSON format
      */
     public String exportToJSON(List<Ticket> tickets, String directory) throws IOException {
+        return exportToJSON(tickets.iterator(), directory, null);
+    }
+
+    /**
+     * Stream every ticket in the database to JSON
+     */
+    public String exportAllToJSON(String directory, ExportProgressListener listener) throws IOException {
+        try (TicketCursor cursor = ticketRepository.openCursor()) {
+            return exportToJSON(cursor, directory, listener);
+        }
+    }
+
+    /**
+     * Stream tickets to JSON, one compact object per line. The count is
+     * only known at the end, so it follows the tickets array.
+     */
+    public String exportToJSON(Iterator<Ticket> tickets, String directory,
+                               ExportProgressListener listener) throws IOException {
         String filename = generateFilename("tickets", "json");
         Path filePath = Paths.get(directory, filename);
 
-        try (BufferedWriter writer = Files.newBufferedWriter(filePath)) {
-            writer.write("{\n");
-            writer.write("  \"exportDate\": \"" + LocalDateTime.now().toString() + "\",\n");
-            writer.write("  \"count\": " + tickets.size() + ",\n");
-            writer.write("  \"tickets\": [\n");
+        ExportMeter meter;
+        try (FileChannel channel = openForWrite(filePath);
+             CountingOutputStream out = new CountingOutputStream(
+                     new BufferedOutputStream(Channels.newOutputStream(channel), bufferBytes));
+             JsonGenerator json = JSON_FACTORY.createGenerator(out)) {
+            json.setRootValueSeparator(null);
+            // Count from the encoder side so bytes still sitting in either buffer are included
+            meter = new ExportMeter(listener, progressRows, () -> out.getCount() + json.getOutputBuffered());
+
+            json.writeRaw(jsonHeader());
+            while (tickets.hasNext()) {
+                writeJSONRow(json, tickets.next(), meter.rows == 0);
+                meter.row();
+            }
+            json.writeRaw(jsonFooter(meter.rows));
+            json.flush();
+            meter.finish();
+        }
+
+        System.out.println("✅ Exported " + meter.rows + " tickets to " + filePath);
+        return filePath.toString();
+    }
+
+    /**
+     * Pipelined CSV export of every ticket: pages are fetched by id range,
+     * formatted in parallel and written in order. Output is byte-identical
+     * to exportAllToCSV.
+     */
+    public String exportAllToCSVParallel(String directory, ExportProgressListener listener) throws IOException {
+        return exportParallel("csv", CSV_HEADER, rows -> "", this::formatCSVChunk, directory, listener);
+    }
+
+    /**
+     * Pipelined JSON export of every ticket; byte-identical to exportAllToJSON
+     * apart from the export date
+     */
+    public String exportAllToJSONParallel(String directory, ExportProgressListener listener) throws IOException {
+        return exportParallel("json", jsonHeader(), this::jsonFooter, this::formatJSONChunk, directory, listener);
+    }
+
+    /**
+     * Three-stage export. A producer thread pages tickets by id range into a
+     * bounded queue of chunk futures, a fork-join pool formats each chunk into
+     * its own buffer, and this thread drains the queue in order, handing every
+     * run of finished chunks to the channel in one gathering write.
+     */
+    private String exportParallel(String extension, String header, LongFunction<String> footer,
+                                  ChunkFormatter formatter, String directory,
+                                  ExportProgressListener listener) throws IOException {
+        String filename = generateFilename("tickets", extension);
+        Path filePath = Paths.get(directory, filename);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelThreads);
+        BlockingQueue<CompletableFuture<FormattedChunk>> chunks = new ArrayBlockingQueue<>(parallelThreads * 2);
+        AtomicBoolean aborted = new AtomicBoolean();
+        Thread producer = new Thread(
+                () -> produceChunks(formatter, pool, chunks, aborted), "export-producer");
+        producer.setDaemon(true);
+
+        ExportMeter meter;
+        try (FileChannel channel = openForWrite(filePath)) {
+            meter = new ExportMeter(listener, progressRows, () -> position(channel));
+            producer.start();
+
+            writeFully(channel, new ByteBuffer[]{encode(header)}, 1);
+            ByteBuffer[] batch = new ByteBuffer[MAX_GATHER];
+            while (true) {
+                CompletableFuture<FormattedChunk> next = chunks.take();
+                if (next == END_OF_CHUNKS) {
+                    break;
+                }
+                int count = 0;
+                long rows = 0;
+                while (true) {
+                    FormattedChunk chunk = next.join();
+                    batch[count++] = chunk.bytes;
+                    rows += chunk.rows;
+                    next = chunks.peek();
+                    if (count == MAX_GATHER || next == null || next == END_OF_CHUNKS || !next.isDone()) {
+                        break;
+                    }
+                    chunks.poll();
+                }
+                writeFully(channel, batch, count);
+                Arrays.fill(batch, 0, count, null);
+                meter.addRows(rows);
+            }
+            writeFully(channel, new ByteBuffer[]{encode(footer.apply(meter.rows))}, 1);
+            meter.finish();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Export interrupted");
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException
+                    ? e.getCause().getCause() : e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        } finally {
+            aborted.set(true);
+            chunks.clear();
+            pool.shutdownNow();
+        }
+
+        System.out.println("✅ Exported " + meter.rows + " tickets to " + filePath);
+        return filePath.toString();
+    }
+
+    /**
+     * Producer stage: keyset-page through tickets and queue a format task per page
+     */
+    private void produceChunks(ChunkFormatter formatter, ForkJoinPool pool,
+                               BlockingQueue<CompletableFuture<FormattedChunk>> chunks, AtomicBoolean aborted) {
+        try {
+            String afterId = null;
+            boolean first = true;
+            while (!aborted.get()) {
+                TicketRepository.TicketPage result = ticketRepository.findPageAfter(afterId, chunkRows);
+                if (result.getRowsRead() == 0) {
+                    break;
+                }
+                afterId = result.getLastId();
+                List<Ticket> page = result.getTickets();
+                // A chunk is first until a row has been written, so skipped records never shift the JSON separators
+                boolean firstChunk = first;
+                first = first && page.isEmpty();
+                enqueue(chunks, CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return formatter.format(page, firstChunk);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, pool), aborted);
+                if (result.getRowsRead() < chunkRows) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error reading tickets for export: " + e.getMessage());
+            enqueue(chunks, CompletableFuture.failedFuture(e), aborted);
+        }
+        enqueue(chunks, END_OF_CHUNKS, aborted);
+    }
+
+    private static void enqueue(BlockingQueue<CompletableFuture<FormattedChunk>> chunks,
+                                CompletableFuture<FormattedChunk> chunk, AtomicBoolean aborted) {
+        try {
+            while (!aborted.get()) {
+                if (chunks.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private FormattedChunk formatCSVChunk(List<Ticket> tickets, boolean firstChunk) throws IOException {
+        ChunkOutputStream out = new ChunkOutputStream(tickets.size() * 256);
+        CsvEncoder csv = new CsvEncoder(Channels.newChannel(out), CHUNK_BUFFER_BYTES);
+        for (Ticket ticket : tickets) {
+            writeCSVRow(csv, ticket);
+        }
+        csv.flush();
+        return new FormattedChunk(out.toByteBuffer(), tickets.size());
+    }
 
+    private FormattedChunk formatJSONChunk(List<Ticket> tickets, boolean firstChunk) throws IOException {
+        ChunkOutputStream out = new ChunkOutputStream(tickets.size() * 384);
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(out)) {
+            json.setRootValueSeparator(null);
             for (int i = 0; i < tickets.size(); i++) {
-                Ticket ticket = tickets.get(i);
-                writer.write("    {\n");
-                writer.write("      \"id\": \"" + escapeJSON(ticket.getId()) + "\",\n");
-                writer.write("      \"title\": \"" + escapeJSON(ticket.getTitle()) + "\",\n");
-                writer.write("      \"status\": \"" + escapeJSON(ticket.getStatus()) + "\",\n");
-                writer.write("      \"priority\": \"" + escapeJSON(ticket.getPriority()) + "\",\n");
-                writer.write("      \"category\": \"" + escapeJSON(ticket.getCategory()) + "\",\n");
-                writer.write("      \"assignedTo\": \"" + escapeJSON(ticket.getAssignedTo()) + "\",\n");
-                writer.write("      \"createdBy\": \"" + escapeJSON(ticket.getCreatedBy()) + "\",\n");
-                writer.write("      \"createdAt\": \"" + ticket.getCreatedAt() + "\",\n");
-                writer.write("      \"description\": \"" + escapeJSON(ticket.getDescription()) + "\"\n");
-                writer.write("    }" + (i < tickets.size() - 1 ? "," : "") + "\n");
+                writeJSONRow(json, tickets.get(i), firstChunk && i == 0);
             }
+        }
+        return new FormattedChunk(out.toByteBuffer(), tickets.size());
+    }
 
-            writer.write("  ]\n");
-            writer.write("}\n");
+    /**
+     * Snapshot every ticket into the columnar binary format
+     */
+    public String exportAllToColumnar(String directory, ExportProgressListener listener) throws IOException {
+        try (TicketCursor cursor = ticketRepository.openCursor()) {
+            return exportToColumnar(cursor, directory, listener);
         }
+    }
 
-        System.out.println("✅ Exported " + tickets.size() + " tickets to " + filePath);
+    /**
+     * Write tickets as a columnar snapshot that ColumnarSnapshotReader can
+     * memory-map and scan one column at a time, for offline analytics
+     */
+    public String exportToColumnar(Iterator<Ticket> tickets, String directory,
+                                   ExportProgressListener listener) throws IOException {
+        String filename = generateFilename("tickets", "tkcol");
+        Path filePath = Paths.get(directory, filename);
+
+        ExportMeter meter;
+        try (ColumnarSnapshotWriter writer = new ColumnarSnapshotWriter(filePath, columnarBlockRows,
+                columnarCompressionLevel)) {
+            meter = new ExportMeter(listener, progressRows, writer::getBytesWritten);
+            while (tickets.hasNext()) {
+                writer.append(tickets.next());
+                meter.row();
+            }
+            writer.finish();
+            meter.finish();
+        }
+
+        System.out.println("✅ Exported " + meter.rows + " tickets to " + filePath);
         return filePath.toString();
     }
 
@@ -223,23 +488,83 @@ public class ExportService {
 
     // Helper Methods
 
-    private String generateFilename(String prefix, String extension) {
-        String timestamp = LocalDateTime.now().format(FILE_DATE_FORMAT);
-        return prefix + "_" + timestamp + "." + extension;
+    private void writeCSVRow(CsvEncoder csv, Ticket ticket) throws IOException {
+        csv.field(ticket.getId())
+                .field(ticket.getTitle())
+                .field(ticket.getStatus())
+                .field(ticket.getPriority())
+                .field(ticket.getCategory())
+                .field(ticket.getAssignedTo())
+                .field(ticket.getCreatedBy())
+                .field(ticket.getCreatedAt(), CSV_DATE_FORMAT)
+                .field(ticket.getDescription(), 200)
+                .endRow();
     }
 
-    private String escapeCSV(String value) {
-        if (value == null) return "";
-        return value.replace("\"", "\"\"");
+    private String jsonHeader() {
+        return "{\n  \"exportDate\": \"" + LocalDateTime.now() + "\",\n  \"tickets\": [";
     }
 
-    private String escapeJSON(String value) {
-        if (value == null) return "";
-        return value.replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
+    private String jsonFooter(long count) {
+        return "\n  ],\n  \"count\": " + count + "\n}\n";
+    }
+
+    /**
+     * One ticket object on its own line, written as a root value so the
+     * generator adds no separators of its own
+     */
+    private void writeJSONRow(JsonGenerator json, Ticket ticket, boolean firstRow) throws IOException {
+        json.writeRaw(firstRow ? "\n    " : ",\n    ");
+        json.writeStartObject();
+        json.writeStringField("id", nullToEmpty(ticket.getId()));
+        json.writeStringField("title", nullToEmpty(ticket.getTitle()));
+        json.writeStringField("status", nullToEmpty(ticket.getStatus()));
+        json.writeStringField("priority", nullToEmpty(ticket.getPriority()));
+        json.writeStringField("category", nullToEmpty(ticket.getCategory()));
+        json.writeStringField("assignedTo", nullToEmpty(ticket.getAssignedTo()));
+        json.writeStringField("createdBy", nullToEmpty(ticket.getCreatedBy()));
+        json.writeStringField("createdAt", String.valueOf(ticket.getCreatedAt()));
+        json.writeStringField("description", nullToEmpty(ticket.getDescription()));
+        json.writeEndObject();
+    }
+
+    private static FileChannel openForWrite(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+
+    private static ByteBuffer encode(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write all of buffers[0..count) with gathering writes
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer[] buffers, int count) throws IOException {
+        int offset = 0;
+        while (offset < count) {
+            channel.write(buffers, offset, count - offset);
+            while (offset < count && !buffers[offset].hasRemaining()) {
+                offset++;
+            }
+        }
+    }
+
+    private static long position(FileChannel channel) {
+        try {
+            return channel.position();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private String generateFilename(String prefix, String extension) {
+        String timestamp = LocalDateTime.now().format(FILE_DATE_FORMAT);
+        return prefix + "_" + timestamp + "." + extension;
     }
 
     private String escapeHTML(String value) {
@@ -337,4 +662,147 @@ public class ExportService {
                         java.util.stream.Collectors.counting()
                 ));
     }
-}
\ No newline at end of file
+
+    /**
+     * Counts rows and reports progress every intervalRows rows and once at the end
+     */
+    private static final class ExportMeter {
+        private final ExportProgressListener listener;
+        private final long intervalRows;
+        private final LongSupplier bytes;
+        private final long startNanos = System.nanoTime();
+        private long rows;
+
+        ExportMeter(ExportProgressListener listener, long intervalRows, LongSupplier bytes) {
+            this.listener = listener;
+            this.intervalRows = Math.max(1, intervalRows);
+            this.bytes = bytes;
+        }
+
+        void row() {
+            rows++;
+            if (listener != null && rows % intervalRows == 0) {
+                report(false);
+            }
+        }
+
+        void addRows(long count) {
+            long before = rows;
+            rows += count;
+            if (listener != null && before / intervalRows != rows / intervalRows) {
+                report(false);
+            }
+        }
+
+        void finish() {
+            if (listener != null) {
+                report(true);
+            }
+        }
+
+        private void report(boolean done) {
+            double seconds = Math.max((System.nanoTime() - startNanos) / 1_000_000_000.0, 1e-9);
+            long written = bytes.getAsLong();
+            listener.onProgress(new ExportProgress(rows, written, rows / seconds, written / seconds, done));
+        }
+    }
+
+    /**
+     * Formats one page of tickets; firstChunk marks the page holding the first row
+     */
+    private interface ChunkFormatter {
+        FormattedChunk format(List<Ticket> tickets, boolean firstChunk) throws IOException;
+    }
+
+    private static final class FormattedChunk {
+        private final ByteBuffer bytes;
+        private final int rows;
+
+        FormattedChunk(ByteBuffer bytes, int rows) {
+            this.bytes = bytes;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * Byte sink whose contents can be wrapped without copying
+     */
+    private static final class ChunkOutputStream extends ByteArrayOutputStream {
+        ChunkOutputStream(int size) {
+            super(size);
+        }
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+
+    /**
+     * Counts the bytes passed to the wrapped stream
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * Point-in-time export progress
+     */
+    public static final class ExportProgress {
+        private final long rows;
+        private final long bytes;
+        private final double rowsPerSecond;
+        private final double bytesPerSecond;
+        private final boolean done;
+
+        ExportProgress(long rows, long bytes, double rowsPerSecond, double bytesPerSecond, boolean done) {
+            this.rows = rows;
+            this.bytes = bytes;
+            this.rowsPerSecond = rowsPerSecond;
+            this.bytesPerSecond = bytesPerSecond;
+            this.done = done;
+        }
+
+        public long getRows() { return rows; }
+
+        /** Bytes handed to the file so far; exact once done */
+        public long getBytes() { return bytes; }
+
+        public double getRowsPerSecond() { return rowsPerSecond; }
+
+        public double getBytesPerSecond() { return bytesPerSecond; }
+
+        public double getMegabytesPerSecond() { return bytesPerSecond / (1024 * 1024); }
+
+        public boolean isDone() { return done; }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows, %.0f rows/s, %.1f MB/s", rows, rowsPerSecond, getMegabytesPerSecond());
+        }
+    }
+
+    // Listener Interface
+    public interface ExportProgressListener {
+        void onProgress(ExportProgress progress);
+    }
+}
@@ -209,6 +209,7 @@ public class MLClassificationService {
             ));
 
             System.out.println("✅ Created category relationship: " + ticketId + " -> " + categoryId);
+            CategoryAnalyticsService.getInstance().markDirty(ticketId);
 
         } catch (Exception e) {
             System.err.println("❌ Failed to create relationship: " + e.getMessage());
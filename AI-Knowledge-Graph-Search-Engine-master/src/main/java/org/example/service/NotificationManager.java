@@ -1,7 +1,10 @@
 package org.example.service;
 
+import org.example.config.AppConfig;
+import org.example.model.ListenerStats;
 import org.example.model.Notification;
 import org.example.model.Ticket;
+import org.example.repository.BackupRepository;
 import org.example.repository.Neo4jConnection;
 import org.example.util.SecurityUtils;
 import org.neo4j.driver.*;
@@ -9,27 +12,31 @@ import org.neo4j.driver.*;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import static org.neo4j.driver.Values.parameters;
 
 /**
- * Real-time Notification Manager with event-driven architecture
+ * Real-time Notification Manager with event-driven architecture. Every
+ * listener has its own bounded queue and delivery thread: creating a
+ * notification hands it to each queue, waking the delivery threads at once,
+ * so a slow listener only delays itself. When a listener falls a full queue
+ * behind, its oldest notifications are dropped.
  */
 public class NotificationManager {
 
     private static NotificationManager instance;
     private final Driver driver;
-    private final ScheduledExecutorService scheduler;
-    private final List<NotificationListener> listeners;
-    private final Queue<Notification> notificationQueue;
+    private final List<ListenerChannel> channels;
+    private final int queueCapacity;
+    private final AtomicInteger channelCounter = new AtomicInteger();
 
     private NotificationManager() {
         this.driver = Neo4jConnection.getInstance().getDriver();
-        this.scheduler = Executors.newScheduledThreadPool(2);
-        this.listeners = new CopyOnWriteArrayList<>();
-        this.notificationQueue = new ConcurrentLinkedQueue<>();
-
-        startNotificationProcessor();
+        this.channels = new CopyOnWriteArrayList<>();
+        this.queueCapacity = Integer.parseInt(
+                AppConfig.getInstance().getProperty("notification.listener.queue.capacity", "1024"));
     }
 
     public static NotificationManager getInstance() {
@@ -47,14 +54,33 @@ public class NotificationManager {
      * Add notification listener for real-time updates
      */
     public void addListener(NotificationListener listener) {
-        listeners.add(listener);
+        ListenerChannel channel = new ListenerChannel(listener,
+                "notification-listener-" + channelCounter.incrementAndGet(), queueCapacity);
+        channels.add(channel);
+        channel.start();
     }
 
     /**
-     * Remove notification listener
+     * Remove notification listener; notifications already queued for it are still delivered
      */
     public void removeListener(NotificationListener listener) {
-        listeners.remove(listener);
+        for (ListenerChannel channel : channels) {
+            if (channel.listener == listener) {
+                channels.remove(channel);
+                channel.stop();
+            }
+        }
+    }
+
+    /**
+     * Delivery counters and lag for every registered listener
+     */
+    public List<ListenerStats> getListenerStats() {
+        List<ListenerStats> stats = new ArrayList<>();
+        for (ListenerChannel channel : channels) {
+            stats.add(channel.stats());
+        }
+        return stats;
     }
 
     /**
@@ -83,8 +109,11 @@ public class NotificationManager {
         // Save to database
         saveNotification(notification);
 
-        // Add to queue for processing
-        notificationQueue.offer(notification);
+        // Hand to every listener's delivery thread
+        long enqueuedAt = System.nanoTime();
+        for (ListenerChannel channel : channels) {
+            channel.enqueue(notification, enqueuedAt);
+        }
 
         System.out.println("✅ Notification created: " + message);
     }
@@ -166,7 +195,7 @@ public class NotificationManager {
      */
     public void deleteNotification(String notificationId) {
         try (Session session = driver.session()) {
-            session.run("MATCH (n:Notification {id: $id}) DELETE n",
+            session.run(BackupRepository.deleteWithTombstone("MATCH (n:Notification {id: $id})", "n", false),
                     parameters("id", notificationId));
         }
     }
@@ -266,31 +295,6 @@ public class NotificationManager {
         }
     }
 
-    private void startNotificationProcessor() {
-        scheduler.scheduleAtFixedRate(() -> {
-            try {
-                while (!notificationQueue.isEmpty()) {
-                    Notification notification = notificationQueue.poll();
-                    if (notification != null) {
-                        broadcastToListeners(notification);
-                    }
-                }
-            } catch (Exception e) {
-                System.err.println("Error processing notifications: " + e.getMessage());
-            }
-        }, 0, 1, TimeUnit.SECONDS);
-    }
-
-    private void broadcastToListeners(Notification notification) {
-        for (NotificationListener listener : listeners) {
-            try {
-                listener.onNotificationReceived(notification);
-            } catch (Exception e) {
-                System.err.println("Error notifying listener: " + e.getMessage());
-            }
-        }
-    }
-
     private String getPriority(NotificationType type) {
         switch (type) {
             case SLA_BREACH:
@@ -326,13 +330,121 @@ public class NotificationManager {
     }
 
     public void shutdown() {
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
+        for (ListenerChannel channel : channels) {
+            channel.stop();
+        }
+        for (ListenerChannel channel : channels) {
+            channel.await(TimeUnit.SECONDS.toMillis(5));
+        }
+        channels.clear();
+    }
+
+    /**
+     * One listener's queue and the daemon thread that delivers from it
+     */
+    private static final class ListenerChannel {
+        private static final Delivery STOP = new Delivery(null, 0);
+
+        private final NotificationListener listener;
+        private final String name;
+        private final BlockingQueue<Delivery> queue;
+        private final Thread thread;
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        // Guarded by this; once set the stop marker is the last thing queued
+        private boolean stopped;
+        // Written only by the delivery thread
+        private volatile long lastLagNanos;
+        private volatile long maxLagNanos;
+
+        ListenerChannel(NotificationListener listener, String name, int capacity) {
+            this.listener = listener;
+            this.name = name;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.thread = new Thread(this::deliver, name);
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        synchronized void enqueue(Notification notification, long enqueuedAt) {
+            if (stopped) {
+                // Raced with stop; behind the marker it would never be delivered
+                dropped.increment();
+                return;
+            }
+            put(new Delivery(notification, enqueuedAt));
+        }
+
+        /**
+         * Deliver what is queued, then end the thread
+         */
+        synchronized void stop() {
+            if (!stopped) {
+                stopped = true;
+                put(STOP);
+            }
+        }
+
+        void await(long millis) {
+            try {
+                thread.join(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
+        }
+
+        ListenerStats stats() {
+            Delivery oldest = queue.peek();
+            long waiting = oldest == null || oldest == STOP ? 0 : System.nanoTime() - oldest.enqueuedAt;
+            return new ListenerStats(name, delivered.sum(), dropped.sum(), queue.size(),
+                    lastLagNanos, maxLagNanos, waiting);
+        }
+
+        private void put(Delivery delivery) {
+            while (!queue.offer(delivery)) {
+                // Full: make room by dropping the oldest. Nothing is queued after
+                // the stop marker, so it is never the one dropped.
+                if (queue.poll() != null) {
+                    dropped.increment();
+                }
+            }
+        }
+
+        private void deliver() {
+            try {
+                while (true) {
+                    Delivery delivery = queue.take();
+                    if (delivery == STOP) {
+                        return;
+                    }
+                    try {
+                        listener.onNotificationReceived(delivery.notification);
+                    } catch (Exception e) {
+                        System.err.println("Error notifying listener " + name + ": " + e.getMessage());
+                    }
+                    long lag = System.nanoTime() - delivery.enqueuedAt;
+                    lastLagNanos = lag;
+                    if (lag > maxLagNanos) {
+                        maxLagNanos = lag;
+                    }
+                    delivered.increment();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class Delivery {
+        private final Notification notification;
+        private final long enqueuedAt;
+
+        Delivery(Notification notification, long enqueuedAt) {
+            this.notification = notification;
+            this.enqueuedAt = enqueuedAt;
         }
     }
 
@@ -1,6 +1,7 @@
 package org.example.service;
 
 import org.example.model.Notification;
+import org.example.repository.BackupRepository;
 import org.example.repository.Neo4jConnection;
 import org.example.util.SecurityUtils;
 import org.neo4j.driver.*;
@@ -112,21 +113,24 @@ public class NotificationService {
 
     public void deleteNotification(String notificationId) {
         try (Session session = driver.session()) {
-            session.run("MATCH (n:Notification {id: $id}) DELETE n", parameters("id", notificationId));
+            session.run(BackupRepository.deleteWithTombstone("MATCH (n:Notification {id: $id})", "n", false),
+                    parameters("id", notificationId));
         }
     }
 
     public void deleteOldNotifications(String userId, int daysOld) {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysOld);
         try (Session session = driver.session()) {
-            String query = "MATCH (n:Notification {userId: $userId}) WHERE n.createdAt < $cutoffDate DELETE n";
+            String query = BackupRepository.deleteWithTombstone(
+                    "MATCH (n:Notification {userId: $userId}) WHERE n.createdAt < $cutoffDate", "n", false);
             session.run(query, parameters("userId", userId, "cutoffDate", cutoffDate.toString()));
         }
     }
 
     public void clearAll(String userId) {
         try (Session session = driver.session()) {
-            session.run("MATCH (n:Notification {userId: $userId}) DELETE n", parameters("userId", userId));
+            session.run(BackupRepository.deleteWithTombstone("MATCH (n:Notification {userId: $userId})", "n", false),
+                    parameters("userId", userId));
         }
     }
 
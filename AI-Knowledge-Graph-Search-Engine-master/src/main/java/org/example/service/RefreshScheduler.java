@@ -0,0 +1,235 @@
+package org.example.service;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Window;
+import javafx.stage.WindowEvent;
+import org.example.config.AppConfig;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Refresh Scheduler - Central refresh pipeline for the dashboard views.
+ * Each view subscribes a loader that builds an immutable snapshot off the FX
+ * thread and an applier that renders it in a single Platform.runLater.
+ * Requests for the same view are coalesced, and periodic refreshes are
+ * skipped while the view's change version has not moved.
+ */
+public class RefreshScheduler {
+
+    private static final int IDLE = 0;
+    private static final int RUNNING = 1;
+    private static final int RUNNING_DIRTY = 2;
+
+    private static RefreshScheduler instance;
+
+    private final ScheduledExecutorService executor;
+    private final long defaultPeriodSeconds;
+
+    private RefreshScheduler() {
+        AppConfig config = AppConfig.getInstance();
+        int threads = Integer.parseInt(config.getProperty("ui.refresh.threads", "2"));
+        this.defaultPeriodSeconds = Long.parseLong(config.getProperty("ui.refresh.seconds", "30"));
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "ui-refresh-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static RefreshScheduler getInstance() {
+        if (instance == null) {
+            synchronized (RefreshScheduler.class) {
+                if (instance == null) {
+                    instance = new RefreshScheduler();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Subscribe a view with the configured default period
+     */
+    public <T> Subscription<T> subscribe(String name, LongSupplier versionSource,
+                                         Supplier<T> loader, Consumer<T> applier) {
+        return subscribe(name, defaultPeriodSeconds, versionSource, loader, applier);
+    }
+
+    /**
+     * Subscribe a view. The loader then runs every periodSeconds, but only if
+     * versionSource returns a new value; call refreshNow() for the first load.
+     */
+    public <T> Subscription<T> subscribe(String name, long periodSeconds, LongSupplier versionSource,
+                                         Supplier<T> loader, Consumer<T> applier) {
+        Subscription<T> subscription = new Subscription<>(name, versionSource, loader, applier);
+        subscription.periodic = executor.scheduleWithFixedDelay(
+                () -> subscription.request(false), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+        return subscription;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Fold several counters into one version value
+     */
+    public static long version(long... parts) {
+        long result = 17;
+        for (long part : parts) {
+            result = 31 * result + part;
+        }
+        return result;
+    }
+
+    /**
+     * One view's refresh registration
+     */
+    public final class Subscription<T> {
+        private final String name;
+        private final LongSupplier versionSource;
+        private final Supplier<T> loader;
+        private final Consumer<T> applier;
+        private final AtomicInteger state = new AtomicInteger(IDLE);
+        private final AtomicBoolean forced = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile Consumer<Throwable> errorHandler;
+        private volatile ScheduledFuture<?> periodic;
+        private long appliedVersion;
+        private boolean loaded;
+
+        private Subscription(String name, LongSupplier versionSource, Supplier<T> loader, Consumer<T> applier) {
+            this.name = name;
+            this.versionSource = versionSource;
+            this.loader = loader;
+            this.applier = applier;
+        }
+
+        /** Refresh if the version moved; coalesced with any pending request */
+        public void requestRefresh() {
+            request(false);
+        }
+
+        /** Refresh regardless of the version, e.g. after a filter change */
+        public void refreshNow() {
+            request(true);
+        }
+
+        /** Handler run on the FX thread when a load fails */
+        public Subscription<T> onError(Consumer<Throwable> handler) {
+            this.errorHandler = handler;
+            return this;
+        }
+
+        /**
+         * Cancel this subscription once the window showing the node is closed
+         */
+        public Subscription<T> bindTo(Node node) {
+            if (node.getScene() != null) {
+                watch(node.getScene());
+            }
+            node.sceneProperty().addListener((obs, oldScene, scene) -> {
+                if (scene != null) {
+                    watch(scene);
+                }
+            });
+            return this;
+        }
+
+        public void cancel() {
+            cancelled = true;
+            ScheduledFuture<?> task = periodic;
+            if (task != null) {
+                task.cancel(false);
+            }
+        }
+
+        public boolean isCancelled() { return cancelled; }
+
+        private void watch(Scene scene) {
+            if (scene.getWindow() != null) {
+                watch(scene.getWindow());
+            }
+            scene.windowProperty().addListener((obs, oldWindow, window) -> {
+                if (window != null) {
+                    watch(window);
+                }
+            });
+        }
+
+        private void watch(Window window) {
+            window.addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> cancel());
+        }
+
+        private void request(boolean force) {
+            if (cancelled) {
+                return;
+            }
+            if (force) {
+                forced.set(true);
+            }
+            while (true) {
+                int current = state.get();
+                if (current == IDLE) {
+                    if (state.compareAndSet(IDLE, RUNNING)) {
+                        executor.execute(this::run);
+                        return;
+                    }
+                } else if (current == RUNNING_DIRTY || state.compareAndSet(RUNNING, RUNNING_DIRTY)) {
+                    // The running load will go round once more
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Load until no request arrived mid-run; never runs concurrently with itself
+         */
+        private void run() {
+            do {
+                state.set(RUNNING);
+                load();
+            } while (!state.compareAndSet(RUNNING, IDLE));
+        }
+
+        private void load() {
+            if (cancelled) {
+                return;
+            }
+            boolean force = forced.getAndSet(false);
+
+            try {
+                long version = versionSource.getAsLong();
+                if (!force && loaded && version == appliedVersion) {
+                    return;
+                }
+                T snapshot = loader.get();
+                appliedVersion = version;
+                loaded = true;
+                Platform.runLater(() -> {
+                    if (!cancelled) {
+                        applier.accept(snapshot);
+                    }
+                });
+            } catch (Exception e) {
+                System.err.println("❌ Error refreshing " + name + ": " + e.getMessage());
+                Consumer<Throwable> handler = errorHandler;
+                if (handler != null) {
+                    Platform.runLater(() -> handler.accept(e));
+                }
+            }
+        }
+    }
+}
@@ -1,177 +1,453 @@
 package org.example.service;
 
+import org.example.config.AppConfig;
+import org.example.model.AgentPerformance;
 import org.example.model.Report;
-import org.example.model.Ticket;
+import org.example.repository.ReportRepository;
 import org.example.repository.TicketRepository;
+import org.example.util.DateUtils;
+import org.example.util.LatencyHistogram;
 import org.example.util.SecurityUtils;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
- * Report Service - Generate and manage reports
+ * Report Service - Generate and manage reports. Reports are built as
+ * background jobs: each report type is split into independent sections that
+ * run in parallel on a shared executor, and finished results are cached by
+ * (type, range) until a ticket or SLA policy change invalidates them. Saved
+ * reports are persisted with a data snapshot and refreshed only when the
+ * ticket set has changed since.
  */
 public class ReportService {
 
+    private static final ExecutorService reportExecutor = createExecutor();
+    private static final Map<String, CachedReport> reportCache = createCache();
+    private static final long CACHE_TTL_MILLIS = Long.parseLong(
+            AppConfig.getInstance().getProperty("reports.cache.ttl.seconds", "300")) * 1000L;
+
     private final TicketRepository ticketRepository;
     private final AnalyticsService analyticsService;
-    private final Map<String, Report> savedReports;
+    private final ReportRepository reportRepository;
 
     public ReportService() {
         this.ticketRepository = new TicketRepository();
         this.analyticsService = new AnalyticsService();
-        this.savedReports = new HashMap<>();
+        this.reportRepository = new ReportRepository();
     }
 
     /**
-     * Generate comprehensive report
+     * Generate comprehensive report, blocking until it is ready
      */
     public Report generateReport(String type, LocalDateTime startDate, LocalDateTime endDate,
                                  boolean includeCharts, boolean includeSummary,
                                  boolean includeDetails) {
+        return generateReportAsync(type, startDate, endDate, includeCharts, includeSummary,
+                includeDetails, null).getResult().join();
+    }
+
+    /**
+     * Start generating a report in the background. Progress is reported per
+     * finished section on a worker thread; the returned job can be cancelled.
+     */
+    public ReportJob generateReportAsync(String type, LocalDateTime startDate, LocalDateTime endDate,
+                                         boolean includeCharts, boolean includeSummary,
+                                         boolean includeDetails, ReportProgressListener listener) {
+        Report definition = new Report(type, type);
+        definition.setStartDate(startDate);
+        definition.setEndDate(endDate);
+        definition.setIncludeCharts(includeCharts);
+        definition.setIncludeSummary(includeSummary);
+        definition.setIncludeDetails(includeDetails);
+
+        ReportJob job = new ReportJob();
+        run(job, definition, listener != null ? listener : (fraction, stage) -> { });
+        return job;
+    }
+
+    /**
+     * Bring a saved report up to date. If no ticket has changed since its
+     * snapshot (and the report does not depend on the clock) the snapshot is
+     * returned as is; otherwise it is regenerated and the stored snapshot
+     * replaced.
+     */
+    public ReportJob refreshReportAsync(Report saved, ReportProgressListener listener) {
+        ReportProgressListener progress = listener != null ? listener : (fraction, stage) -> { };
+        ReportJob job = new ReportJob();
+
+        progress.onProgress(0.0, "Checking for changes");
+        CompletableFuture<String> check = CompletableFuture.supplyAsync(
+                ticketRepository::getChangeFingerprint, reportExecutor);
+        job.sections.add(check);
+        check.whenComplete((fingerprint, error) -> {
+            if (job.isCancelled()) {
+                return;
+            }
+            if (fingerprint != null && fingerprint.equals(saved.getSourceFingerprint())
+                    && !isClockDependent(saved.getType())) {
+                progress.onProgress(1.0, "Snapshot is up to date");
+                job.result.complete(saved);
+                return;
+            }
+            run(job, saved, progress);
+        });
+
+        job.result.thenAcceptAsync(report -> {
+            if (report != saved) {
+                reportRepository.save(report);
+            }
+        }, reportExecutor);
+
+        return job;
+    }
+
+    private void run(ReportJob job, Report definition, ReportProgressListener progress) {
+        String type = definition.getType();
+        LocalDateTime startDate = definition.getStartDate();
+        LocalDateTime endDate = definition.getEndDate();
+
+        String cacheKey = type + "|" + startDate + "|" + endDate;
+        // Read versions before computing so a change made mid-run invalidates the result
+        long ticketVersion = TicketRepository.getChangeVersion();
+        long policyVersion = SLAEngine.getInstance().getPolicyVersion();
+
+        CachedReport cached = reportCache.get(cacheKey);
+        if (cached != null && cached.isValid(ticketVersion, policyVersion)) {
+            progress.onProgress(1.0, "Loaded from cache");
+            job.result.complete(buildReport(definition, cached.data, cached.generatedAt, cached.fingerprint));
+            return;
+        }
+
+        Map<String, Supplier<Map<String, Object>>> sections = sectionsFor(type, startDate, endDate);
+        int stages = sections.size() + 2;
+        AtomicInteger completed = new AtomicInteger();
+        progress.onProgress(0.0, "Queued " + sections.size() + " section(s)");
+
+        // The fingerprint is read before any section so a stored snapshot never looks newer than its data
+        CompletableFuture<String> fingerprint = CompletableFuture.supplyAsync(() -> {
+            if (job.isCancelled()) {
+                throw new CancellationException();
+            }
+            return ticketRepository.getChangeFingerprint();
+        }, reportExecutor);
+        job.sections.add(fingerprint);
+
+        fingerprint.whenComplete((sourceFingerprint, fingerprintError) -> {
+            if (job.isCancelled()) {
+                return;
+            }
+            if (fingerprintError != null) {
+                job.result.completeExceptionally(fingerprintError);
+                return;
+            }
+            progress.onProgress((double) completed.incrementAndGet() / stages, "Read ticket fingerprint");
+
+            List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>();
+            sections.forEach((name, section) -> {
+                CompletableFuture<Map<String, Object>> future = CompletableFuture.supplyAsync(() -> {
+                    if (job.isCancelled()) {
+                        throw new CancellationException();
+                    }
+                    return section.get();
+                }, reportExecutor);
+                future.thenRun(() -> progress.onProgress(
+                        (double) completed.incrementAndGet() / stages, "Computed " + name));
+                futures.add(future);
+            });
+            job.sections.addAll(futures);
+            if (job.isCancelled()) {
+                futures.forEach(future -> future.cancel(false));
+                return;
+            }
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) -> {
+                if (job.isCancelled()) {
+                    return;
+                }
+                if (error != null) {
+                    job.result.completeExceptionally(error instanceof java.util.concurrent.CompletionException
+                            && error.getCause() != null ? error.getCause() : error);
+                    return;
+                }
+                // Merge in declaration order so later sections win on shared keys
+                Map<String, Object> data = new HashMap<>();
+                futures.forEach(future -> data.putAll(future.join()));
+                LocalDateTime generatedAt = LocalDateTime.now();
+                reportCache.put(cacheKey,
+                        new CachedReport(data, generatedAt, sourceFingerprint, ticketVersion, policyVersion));
+
+                progress.onProgress(1.0, "Report ready");
+                job.result.complete(buildReport(definition, data, generatedAt, sourceFingerprint));
+            });
+        });
+    }
+
+    /**
+     * Drop all cached report results
+     */
+    public static void clearCache() {
+        reportCache.clear();
+    }
+
+    /** SLA reports include live at-risk data, so an unchanged ticket set does not make them current */
+    private static boolean isClockDependent(String type) {
+        return "SLA Compliance Report".equals(type);
+    }
+
+    private Report buildReport(Report definition, Map<String, Object> data, LocalDateTime generatedAt,
+                               String sourceFingerprint) {
         Report report = new Report();
         report.setId(SecurityUtils.generateId());
-        report.setName(type);
-        report.setType(type);
-        report.setStartDate(startDate);
-        report.setEndDate(endDate);
-        report.setIncludeCharts(includeCharts);
-        report.setIncludeSummary(includeSummary);
-        report.setIncludeDetails(includeDetails);
+        report.setName(definition.getName());
+        report.setType(definition.getType());
+        report.setGeneratedAt(generatedAt);
+        report.setStartDate(definition.getStartDate());
+        report.setEndDate(definition.getEndDate());
+        report.setIncludeCharts(definition.isIncludeCharts());
+        report.setIncludeSummary(definition.isIncludeSummary());
+        report.setIncludeDetails(definition.isIncludeDetails());
         report.setGeneratedBy("Current User");
+        report.setSourceFingerprint(sourceFingerprint);
+        report.setData(new HashMap<>(data));
+        report.setPreviewText(generatePreviewText(definition.getType(), data, generatedAt));
+        return report;
+    }
 
-        Map<String, Object> data = new HashMap<>();
+    /**
+     * Independent sections of each report type, keyed by progress stage name
+     */
+    private Map<String, Supplier<Map<String, Object>>> sectionsFor(String type, LocalDateTime start,
+                                                                   LocalDateTime end) {
+        Map<String, Supplier<Map<String, Object>>> sections = new LinkedHashMap<>();
 
         switch (type) {
-            case "Ticket Summary Report":
-                data = generateTicketSummary(startDate, endDate);
-                break;
             case "Agent Performance Report":
-                data = generateAgentPerformance(startDate, endDate);
+                sections.put("agent statistics", () -> generateAgentPerformance(start, end));
+                sections.put("agent percentiles", this::generateAgentPercentiles);
                 break;
             case "SLA Compliance Report":
-                data = generateSLACompliance(startDate, endDate);
+                sections.put("ticket totals", () -> generateTicketTotals(start, end));
+                sections.put("SLA outcomes", () -> generateSLAOutcomes(start, end));
+                sections.put("at-risk tickets", this::generateSLAAtRisk);
+                sections.put("resolution times", () -> generateAverageTimes(start, end));
                 break;
             case "Category Analysis Report":
-                data = generateCategoryAnalysis(startDate, endDate);
+                sections.put("category breakdown", () -> generateCategoryAnalysis(start, end));
                 break;
             case "Resolution Time Report":
-                data = generateResolutionTime(startDate, endDate);
+                sections.put("resolution statistics", () -> generateResolutionTime(start, end));
+                sections.put("first response", this::generateFirstResponse);
                 break;
+            case "Ticket Summary Report":
             default:
-                data = generateTicketSummary(startDate, endDate);
+                sections.put("status breakdown", () -> generateTicketSummary(start, end));
+                sections.put("resolution times", () -> generateAverageTimes(start, end));
         }
 
-        report.setData(data);
-        report.setPreviewText(generatePreviewText(type, data));
-
-        return report;
+        return sections;
     }
 
     private Map<String, Object> generateTicketSummary(LocalDateTime start, LocalDateTime end) {
-        List<Ticket> tickets = ticketRepository.findAll().stream()
-                .filter(t -> t.getCreatedAt().isAfter(start) && t.getCreatedAt().isBefore(end))
-                .collect(Collectors.toList());
+        Map<String, Map<String, Long>> distribution = ticketRepository.getDistributionCounts(start, end);
+        if (distribution == null) {
+            return new HashMap<>();
+        }
+        Map<String, Long> byStatus = distribution.get("status");
 
         Map<String, Object> data = new HashMap<>();
-        data.put("totalTickets", tickets.size());
-        data.put("openTickets", tickets.stream().filter(t -> "Open".equals(t.getStatus())).count());
-        data.put("resolvedTickets", tickets.stream().filter(t -> "Resolved".equals(t.getStatus())).count());
-        data.put("closedTickets", tickets.stream().filter(t -> "Closed".equals(t.getStatus())).count());
-
-        // Priority breakdown
-        Map<String, Long> priorityBreakdown = tickets.stream()
-                .collect(Collectors.groupingBy(Ticket::getPriority, Collectors.counting()));
-        data.put("priorityBreakdown", priorityBreakdown);
-
-        // Category breakdown
-        Map<String, Long> categoryBreakdown = tickets.stream()
-                .filter(t -> t.getCategory() != null)
-                .collect(Collectors.groupingBy(Ticket::getCategory, Collectors.counting()));
-        data.put("categoryBreakdown", categoryBreakdown);
+        data.put("totalTickets", byStatus.values().stream().mapToLong(Long::longValue).sum());
+        data.put("openTickets", byStatus.getOrDefault("OPEN", 0L));
+        data.put("inProgressTickets", byStatus.getOrDefault("IN_PROGRESS", 0L));
+        data.put("resolvedTickets", byStatus.getOrDefault("RESOLVED", 0L));
+        data.put("closedTickets", byStatus.getOrDefault("CLOSED", 0L));
+        data.put("priorityBreakdown", distribution.get("priority"));
+        data.put("categoryBreakdown", distribution.get("category"));
 
         return data;
     }
 
     private Map<String, Object> generateAgentPerformance(LocalDateTime start, LocalDateTime end) {
-        List<Ticket> tickets = ticketRepository.findAll();
+        List<AgentPerformance> agents = ticketRepository.getAgentPerformance(start, end);
 
         Map<String, Object> data = new HashMap<>();
+        Map<String, Long> ticketsPerAgent = new LinkedHashMap<>();
+        Map<String, Long> resolvedPerAgent = new LinkedHashMap<>();
+        Map<String, String> resolutionRate = new LinkedHashMap<>();
+        Map<String, String> averageResolutionTime = new LinkedHashMap<>();
+
+        for (AgentPerformance agent : agents) {
+            ticketsPerAgent.put(agent.getAgent(), agent.getAssigned());
+            resolvedPerAgent.put(agent.getAgent(), agent.getResolved());
+            resolutionRate.put(agent.getAgent(), String.format("%.1f%%", agent.getResolutionRate()));
+            if (agent.getResolved() > 0) {
+                averageResolutionTime.put(agent.getAgent(),
+                        DateUtils.formatDuration(agent.getAverageResolutionMinutes()));
+            }
+        }
 
-        // Tickets per agent
-        Map<String, Long> ticketsPerAgent = tickets.stream()
-                .filter(t -> t.getAssignedTo() != null)
-                .collect(Collectors.groupingBy(Ticket::getAssignedTo, Collectors.counting()));
         data.put("ticketsPerAgent", ticketsPerAgent);
-
-        // Resolution rate per agent
-        Map<String, Double> resolutionRate = new HashMap<>();
-        for (Map.Entry<String, Long> entry : ticketsPerAgent.entrySet()) {
-            long resolved = tickets.stream()
-                    .filter(t -> entry.getKey().equals(t.getAssignedTo()))
-                    .filter(t -> "Resolved".equals(t.getStatus()) || "Closed".equals(t.getStatus()))
-                    .count();
-            resolutionRate.put(entry.getKey(), (double) resolved / entry.getValue() * 100);
-        }
+        data.put("resolvedPerAgent", resolvedPerAgent);
         data.put("resolutionRate", resolutionRate);
+        data.put("averageResolutionTime", averageResolutionTime);
 
         return data;
     }
 
-    private Map<String, Object> generateSLACompliance(LocalDateTime start, LocalDateTime end) {
+    private Map<String, Object> generateAgentPercentiles() {
+        Map<String, String> resolutionPercentiles = new TreeMap<>();
+        TicketLatencyService.getInstance()
+                .getBreakdown(TicketLatencyService.RESOLUTION, TicketLatencyService.AGENT)
+                .forEach((agent, histogram) -> {
+                    if (histogram.getTotalCount() > 0) {
+                        resolutionPercentiles.put(agent, formatPercentiles(histogram));
+                    }
+                });
+
         Map<String, Object> data = new HashMap<>();
+        data.put("resolutionPercentiles", resolutionPercentiles);
+        return data;
+    }
 
-        // Simulated SLA data
-        data.put("totalTickets", 150);
-        data.put("slaCompliant", 135);
-        data.put("slaBreach", 15);
-        data.put("complianceRate", 90.0);
-        data.put("averageResponseTime", "2.5 hours");
-        data.put("averageResolutionTime", "24 hours");
+    private Map<String, Object> generateTicketTotals(LocalDateTime start, LocalDateTime end) {
+        Map<String, Map<String, Long>> distribution = ticketRepository.getDistributionCounts(start, end);
 
+        Map<String, Object> data = new HashMap<>();
+        data.put("totalTickets", distribution != null
+                ? distribution.get("status").values().stream().mapToLong(Long::longValue).sum() : 0L);
         return data;
     }
 
-    private Map<String, Object> generateCategoryAnalysis(LocalDateTime start, LocalDateTime end) {
-        List<Ticket> tickets = ticketRepository.findAll();
+    private Map<String, Object> generateSLAOutcomes(LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> data = new HashMap<>();
+        SLAEngine slaEngine = SLAEngine.getInstance();
+
+        long[] outcomes = slaEngine.getResolvedOutcomes(start, end);
+        long met = outcomes[0];
+        long missed = outcomes[1];
+        long openBreached = slaEngine.getBreachedOpen().stream()
+                .filter(deadline -> !deadline.getCreatedAt().isBefore(start) && !deadline.getCreatedAt().isAfter(end))
+                .count();
+        long decided = met + missed + openBreached;
+
+        data.put("slaCompliant", met);
+        data.put("slaBreach", missed + openBreached);
+        data.put("openBreached", openBreached);
+        data.put("complianceRate", String.format("%.1f%%", decided == 0 ? 100.0 : (double) met / decided * 100.0));
+
+        return data;
+    }
+
+    private Map<String, Object> generateSLAAtRisk() {
+        Map<String, Object> data = new HashMap<>();
+
+        // At-risk tickets are a live view regardless of the report window
+        List<String> atRisk = SLAEngine.getInstance().getAtRisk(java.time.Duration.ofHours(4)).stream()
+                .map(deadline -> deadline.getTicketId() + " (" + deadline.getPriority() + ", due "
+                        + DateUtils.formatDateTime(deadline.getResolutionDeadline()) + ")")
+                .collect(Collectors.toList());
+        data.put("atRiskNext4Hours", atRisk.size());
+        data.put("atRiskTickets", atRisk.stream().limit(10).collect(Collectors.toList()));
 
+        return data;
+    }
+
+    private Map<String, Object> generateAverageTimes(LocalDateTime start, LocalDateTime end) {
         Map<String, Object> data = new HashMap<>();
 
-        Map<String, Long> categoryCount = tickets.stream()
-                .filter(t -> t.getCategory() != null)
-                .collect(Collectors.groupingBy(Ticket::getCategory, Collectors.counting()));
-        data.put("categoryCount", categoryCount);
+        Map<String, Double> resolution = ticketRepository.getResolutionStats(start, end).get("ALL");
+        data.put("averageResolutionTime", DateUtils.formatDuration(resolution != null ? resolution.get("mean") : 0.0));
+        data.put("averageResponseTime", DateUtils.formatDuration(
+                TicketLatencyService.getInstance().getOverall(TicketLatencyService.RESPONSE).getMean() / 60.0));
+
+        return data;
+    }
+
+    private Map<String, Object> generateCategoryAnalysis(LocalDateTime start, LocalDateTime end) {
+        Map<String, Map<String, Long>> distribution = ticketRepository.getDistributionCounts(start, end);
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("categoryCount", distribution != null ? distribution.get("category") : new HashMap<>());
 
         return data;
     }
 
     private Map<String, Object> generateResolutionTime(LocalDateTime start, LocalDateTime end) {
         Map<String, Object> data = new HashMap<>();
+        Map<String, Map<String, Double>> stats = ticketRepository.getResolutionStats(start, end);
 
-        // Simulated resolution time data
-        data.put("averageTime", "18.5 hours");
-        data.put("medianTime", "12 hours");
-        data.put("fastestResolution", "30 minutes");
-        data.put("slowestResolution", "96 hours");
+        Map<String, Double> overall = stats.getOrDefault("ALL", Collections.emptyMap());
+        data.put("resolvedTickets", overall.getOrDefault("count", 0.0).longValue());
+        data.put("averageTime", DateUtils.formatDuration(overall.getOrDefault("mean", 0.0)));
+        data.put("medianTime", DateUtils.formatDuration(overall.getOrDefault("p50", 0.0)));
+        data.put("p90Time", DateUtils.formatDuration(overall.getOrDefault("p90", 0.0)));
+        data.put("p99Time", DateUtils.formatDuration(overall.getOrDefault("p99", 0.0)));
+        data.put("fastestResolution", DateUtils.formatDuration(overall.getOrDefault("min", 0.0)));
+        data.put("slowestResolution", DateUtils.formatDuration(overall.getOrDefault("max", 0.0)));
+
+        data.put("resolutionByPriority", formatBreakdown(stats));
+        data.put("resolutionByCategory", formatBreakdown(ticketRepository.getResolutionStatsByCategory(start, end)));
 
         return data;
     }
 
-    private String generatePreviewText(String type, Map<String, Object> data) {
+    /**
+     * "p50 / p90 / p99 (count)" per group, leaving out the "ALL" row
+     */
+    private static Map<String, String> formatBreakdown(Map<String, Map<String, Double>> stats) {
+        Map<String, String> breakdown = new TreeMap<>();
+        stats.forEach((group, row) -> {
+            if (!"ALL".equals(group)) {
+                breakdown.put(group, String.format("p50 %s / p90 %s / p99 %s (%d)",
+                        DateUtils.formatDuration(row.get("p50")),
+                        DateUtils.formatDuration(row.get("p90")),
+                        DateUtils.formatDuration(row.get("p99")),
+                        row.get("count").longValue()));
+            }
+        });
+        return breakdown;
+    }
+
+    private Map<String, Object> generateFirstResponse() {
+        Map<String, Object> data = new HashMap<>();
+
+        // First-response latency is only tracked in the all-time histograms
+        LatencyHistogram response = TicketLatencyService.getInstance().getOverall(TicketLatencyService.RESPONSE);
+        data.put("medianFirstResponse", DateUtils.formatDuration(response.getValueAtPercentile(50) / 60.0));
+        data.put("p90FirstResponse", DateUtils.formatDuration(response.getValueAtPercentile(90) / 60.0));
+
+        return data;
+    }
+
+    private String formatPercentiles(LatencyHistogram histogram) {
+        return String.format("p50 %s / p90 %s / p99 %s (%d)",
+                DateUtils.formatDuration(histogram.getValueAtPercentile(50) / 60.0),
+                DateUtils.formatDuration(histogram.getValueAtPercentile(90) / 60.0),
+                DateUtils.formatDuration(histogram.getValueAtPercentile(99) / 60.0),
+                histogram.getTotalCount());
+    }
+
+    private String generatePreviewText(String type, Map<String, Object> data, LocalDateTime generatedAt) {
         StringBuilder preview = new StringBuilder();
         preview.append("=".repeat(60)).append("\n");
         preview.append(type.toUpperCase()).append("\n");
         preview.append("=".repeat(60)).append("\n\n");
 
-        preview.append("Generated: ").append(LocalDateTime.now()
+        preview.append("Generated: ").append(generatedAt
                 .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))).append("\n\n");
 
         preview.append("SUMMARY:\n");
         preview.append("-".repeat(60)).append("\n");
 
-        data.forEach((key, value) -> {
+        new TreeMap<>(data).forEach((key, value) -> {
             preview.append(String.format("%-30s: %s\n",
                     key.replaceAll("([A-Z])", " $1").trim(), value));
         });
@@ -237,33 +513,123 @@ public class ReportService {
     }
 
     /**
-     * Save report template
+     * Save report definition and data snapshot under the given name
      */
-    public void saveReport(Report report, String name) {
+    public boolean saveReport(Report report, String name) {
         report.setName(name);
-        savedReports.put(name, report);
-        System.out.println("Report saved: " + name);
+        boolean saved = reportRepository.save(report);
+        if (saved) {
+            System.out.println("Report saved: " + name);
+        }
+        return saved;
     }
 
     /**
-     * Load saved report
+     * Load saved report with its stored snapshot; nothing is recomputed
      */
     public Report loadReport(String name) {
-        return savedReports.get(name);
+        return reportRepository.findByName(name);
     }
 
     /**
      * Delete saved report
      */
-    public void deleteReport(String name) {
-        savedReports.remove(name);
-        System.out.println("Report deleted: " + name);
+    public boolean deleteReport(String name) {
+        boolean deleted = reportRepository.delete(name);
+        if (deleted) {
+            System.out.println("Report deleted: " + name);
+        }
+        return deleted;
     }
 
     /**
      * Get list of saved report names
      */
     public List<String> getSavedReportNames() {
-        return new ArrayList<>(savedReports.keySet());
+        return reportRepository.findAllNames();
+    }
+
+    private static ExecutorService createExecutor() {
+        int threads = Integer.parseInt(AppConfig.getInstance().getProperty("reports.worker.threads", "4"));
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "report-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static Map<String, CachedReport> createCache() {
+        int capacity = Integer.parseInt(AppConfig.getInstance().getProperty("reports.cache.size", "32"));
+        return Collections.synchronizedMap(new LinkedHashMap<String, CachedReport>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedReport> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    /**
+     * Handle to a background report job
+     */
+    public static final class ReportJob {
+        private final CompletableFuture<Report> result = new CompletableFuture<>();
+        private final List<CompletableFuture<?>> sections = new java.util.concurrent.CopyOnWriteArrayList<>();
+        private volatile boolean cancelled;
+
+        private ReportJob() {
+        }
+
+        /** Completes with the report, or exceptionally on failure or cancellation */
+        public CompletableFuture<Report> getResult() { return result; }
+
+        public boolean isCancelled() { return cancelled; }
+
+        /**
+         * Cancel the job; sections not yet started are skipped and running
+         * queries are left to finish with their results discarded
+         */
+        public boolean cancel() {
+            if (result.isDone()) {
+                return false;
+            }
+            cancelled = true;
+            sections.forEach(section -> section.cancel(false));
+            return result.cancel(false);
+        }
+    }
+
+    /**
+     * Cached section results with the versions they were computed against
+     */
+    private static final class CachedReport {
+        private final Map<String, Object> data;
+        private final LocalDateTime generatedAt;
+        private final String fingerprint;
+        private final long ticketVersion;
+        private final long policyVersion;
+        private final long cachedAtMillis;
+
+        CachedReport(Map<String, Object> data, LocalDateTime generatedAt, String fingerprint,
+                     long ticketVersion, long policyVersion) {
+            this.data = Collections.unmodifiableMap(data);
+            this.generatedAt = generatedAt;
+            this.fingerprint = fingerprint;
+            this.ticketVersion = ticketVersion;
+            this.policyVersion = policyVersion;
+            this.cachedAtMillis = System.currentTimeMillis();
+        }
+
+        /** SLA views depend on the clock as well, hence the TTL */
+        boolean isValid(long currentTicketVersion, long currentPolicyVersion) {
+            return ticketVersion == currentTicketVersion && policyVersion == currentPolicyVersion
+                    && System.currentTimeMillis() - cachedAtMillis < CACHE_TTL_MILLIS;
+        }
+    }
+
+    // Listener Interface
+    public interface ReportProgressListener {
+        /** Called from a worker thread with progress in [0, 1] and the stage just finished */
+        void onProgress(double progress, String stage);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,471 @@
+package org.example.service;
+
+import org.example.config.AppConfig;
+import org.example.model.SLA;
+import org.example.model.SLADeadline;
+import org.example.model.Ticket;
+import org.example.model.TicketChangeEvent;
+import org.example.model.enums.Priority;
+import org.example.repository.SLARepository;
+import org.example.repository.TicketRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SLA Engine - Caches SLA policies by priority and keeps a deadline index of
+ * every open ticket ordered by resolution deadline. Breaches are moved out of
+ * the index as their deadline passes and resolved outcomes are counted as
+ * tickets close, so compliance rates and at-risk lists never iterate tickets.
+ */
+public class SLAEngine implements TicketRepository.TicketChangeListener {
+
+    public static final int DEFAULT_RESPONSE_MINUTES = 4 * 60;
+    public static final int DEFAULT_RESOLUTION_MINUTES = 24 * 60;
+
+    private static final Comparator<SLADeadline> BY_DEADLINE = Comparator
+            .comparing(SLADeadline::getResolutionDeadline)
+            .thenComparing(SLADeadline::getTicketId);
+
+    private static SLAEngine instance;
+
+    private final SLARepository slaRepository;
+    private final TicketRepository ticketRepository;
+    private final long sweepSeconds;
+    private volatile Map<Priority, SLA> policies;
+    private final AtomicLong policyVersion = new AtomicLong();
+
+    // Guarded by this
+    private final TreeSet<SLADeadline> pending;
+    private final Map<String, SLADeadline> openByTicket;
+    private final Map<String, SLADeadline> breachedOpen;
+    private long resolvedMet;
+    private long resolvedMissed;
+
+    private final List<PolicyChangeListener> policyListeners;
+    private ScheduledExecutorService sweeper;
+    private volatile boolean seeded;
+
+    private SLAEngine() {
+        this.slaRepository = new SLARepository();
+        this.ticketRepository = new TicketRepository();
+        this.sweepSeconds = Long.parseLong(
+                AppConfig.getInstance().getProperty("sla.engine.sweep.seconds", "30"));
+        this.pending = new TreeSet<>(BY_DEADLINE);
+        this.openByTicket = new HashMap<>();
+        this.breachedOpen = new HashMap<>();
+        this.policyListeners = new CopyOnWriteArrayList<>();
+    }
+
+    public static SLAEngine getInstance() {
+        if (instance == null) {
+            synchronized (SLAEngine.class) {
+                if (instance == null) {
+                    instance = new SLAEngine();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Index open tickets, count resolved outcomes, subscribe to ticket changes
+     * and schedule the breach sweep
+     */
+    public synchronized void start() {
+        if (sweeper != null) {
+            return;
+        }
+        // Restarted after a restore, the index still holds the old database's tickets
+        pending.clear();
+        openByTicket.clear();
+        breachedOpen.clear();
+        seeded = seed();
+        TicketRepository.addChangeListener(this);
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sla-engine-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(() -> {
+            int breached = sweep(LocalDateTime.now());
+            if (breached > 0) {
+                System.out.println("⚠️ " + breached + " ticket(s) breached their resolution SLA");
+            }
+        }, sweepSeconds, sweepSeconds, TimeUnit.SECONDS);
+
+        System.out.println("✅ SLA engine started (" + getOpenCount() + " open tickets indexed)");
+    }
+
+    public synchronized void shutdown() {
+        TicketRepository.removeChangeListener(this);
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    // ==================== POLICIES ====================
+
+    /**
+     * Active SLA policy for a priority, or null if none is defined
+     */
+    public SLA getPolicy(Priority priority) {
+        return policies().get(priority);
+    }
+
+    public int getResponseMinutes(Priority priority) {
+        SLA sla = getPolicy(priority);
+        return sla != null ? sla.getResponseTimeMinutes() : DEFAULT_RESPONSE_MINUTES;
+    }
+
+    public int getResolutionMinutes(Priority priority) {
+        SLA sla = getPolicy(priority);
+        return sla != null ? sla.getResolutionTimeMinutes() : DEFAULT_RESOLUTION_MINUTES;
+    }
+
+    /**
+     * Drop the cached policies after an SLA is created, updated or deleted,
+     * and re-derive the deadlines of every indexed ticket
+     */
+    public void invalidatePolicies() {
+        policies = null;
+        policyVersion.incrementAndGet();
+        if (seeded) {
+            reindex();
+        }
+        for (PolicyChangeListener listener : policyListeners) {
+            try {
+                listener.onPoliciesChanged();
+            } catch (Exception e) {
+                System.err.println("❌ SLA policy listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Counter bumped whenever the cached policies are invalidated
+     */
+    public long getPolicyVersion() {
+        return policyVersion.get();
+    }
+
+    public void addPolicyChangeListener(PolicyChangeListener listener) {
+        policyListeners.add(listener);
+    }
+
+    public void removePolicyChangeListener(PolicyChangeListener listener) {
+        policyListeners.remove(listener);
+    }
+
+    public LocalDateTime calculateResponseDeadline(Ticket ticket) {
+        return createdAt(ticket).plusMinutes(getResponseMinutes(priorityOf(ticket)));
+    }
+
+    public LocalDateTime calculateResolutionDeadline(Ticket ticket) {
+        return createdAt(ticket).plusMinutes(getResolutionMinutes(priorityOf(ticket)));
+    }
+
+    // ==================== INDEX QUERIES ====================
+
+    /**
+     * Indexed deadlines of an open ticket, or null if it is not open
+     */
+    public synchronized SLADeadline getDeadline(String ticketId) {
+        return openByTicket.get(ticketId);
+    }
+
+    /**
+     * Snapshot of every indexed open ticket
+     */
+    public synchronized List<SLADeadline> getOpenDeadlines() {
+        return new ArrayList<>(openByTicket.values());
+    }
+
+    public synchronized int getOpenCount() {
+        return openByTicket.size();
+    }
+
+    /**
+     * Open tickets already past their resolution deadline
+     */
+    public synchronized int getBreachedOpenCount() {
+        sweep(LocalDateTime.now());
+        return breachedOpen.size();
+    }
+
+    public synchronized long getResolvedMetCount() {
+        return resolvedMet;
+    }
+
+    public synchronized long getResolvedMissedCount() {
+        return resolvedMissed;
+    }
+
+    /**
+     * Percentage of decided tickets that met their resolution SLA. Resolved
+     * tickets count by outcome; open tickets count once they have breached.
+     */
+    public synchronized double getComplianceRate() {
+        sweep(LocalDateTime.now());
+        long decided = resolvedMet + resolvedMissed + breachedOpen.size();
+        return decided == 0 ? 100.0 : (double) resolvedMet / decided * 100.0;
+    }
+
+    /**
+     * Open tickets whose resolution deadline falls within the given window,
+     * soonest first
+     */
+    public synchronized List<SLADeadline> getAtRisk(Duration within) {
+        LocalDateTime now = LocalDateTime.now();
+        sweep(now);
+        SLADeadline probe = new SLADeadline("", null, now, now, now.plus(within), false);
+        return new ArrayList<>(pending.headSet(probe, false));
+    }
+
+    /**
+     * Resolved tickets created within [start, end] that met or missed their
+     * resolution SLA, counted in the database. Returns {met, missed}.
+     */
+    public long[] getResolvedOutcomes(LocalDateTime start, LocalDateTime end) {
+        try {
+            return slaRepository.countResolvedOutcomes(resolutionLimits(), DEFAULT_RESOLUTION_MINUTES, start, end);
+        } catch (Exception e) {
+            System.err.println("❌ Error counting SLA outcomes: " + e.getMessage());
+            return new long[] { 0, 0 };
+        }
+    }
+
+    /**
+     * Open tickets past their resolution deadline, most overdue first
+     */
+    public synchronized List<SLADeadline> getBreachedOpen() {
+        sweep(LocalDateTime.now());
+        List<SLADeadline> breached = new ArrayList<>(breachedOpen.values());
+        breached.sort(BY_DEADLINE);
+        return breached;
+    }
+
+    // ==================== CHANGE EVENTS ====================
+
+    @Override
+    public void onTicketChanged(TicketChangeEvent event) {
+        Ticket previous = event.getPrevious();
+        Ticket current = event.getCurrent();
+
+        switch (event.getType()) {
+            case CREATED:
+                if (!current.isResolved()) {
+                    index(current, null);
+                }
+                break;
+            case DELETED:
+                remove(previous.getId());
+                if (previous.isResolved()) {
+                    unresolve(previous);
+                }
+                break;
+            case UPDATED:
+                if (!previous.isResolved() && current.isResolved()) {
+                    resolve(current, current.getResolvedAt() != null
+                            ? current.getResolvedAt() : event.getOccurredAt());
+                } else if (!current.isResolved()) {
+                    if (previous.isResolved()) {
+                        unresolve(previous);
+                    }
+                    index(current, previous.isResolved() || event.isPriorityChanged() ? null : getDeadline(current.getId()));
+                }
+                break;
+        }
+    }
+
+    // ==================== INTERNALS ====================
+
+    private boolean seed() {
+        policies();
+        List<Ticket> open = ticketRepository.findUnresolved();
+        synchronized (this) {
+            for (Ticket ticket : open) {
+                put(toDeadline(ticket, false));
+            }
+        }
+        return recountOutcomes();
+    }
+
+    private boolean recountOutcomes() {
+        try {
+            long[] outcomes = slaRepository.countResolvedOutcomes(resolutionLimits(), DEFAULT_RESOLUTION_MINUTES);
+            synchronized (this) {
+                resolvedMet = outcomes[0];
+                resolvedMissed = outcomes[1];
+            }
+            return true;
+        } catch (Exception e) {
+            System.err.println("❌ Error counting SLA outcomes: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private Map<String, Object> resolutionLimits() {
+        Map<String, Object> limits = new HashMap<>();
+        for (Priority priority : Priority.values()) {
+            limits.put(priority.name(), (long) getResolutionMinutes(priority));
+        }
+        return limits;
+    }
+
+    private void reindex() {
+        policies();
+        synchronized (this) {
+            List<SLADeadline> existing = new ArrayList<>(openByTicket.values());
+            pending.clear();
+            openByTicket.clear();
+            breachedOpen.clear();
+            for (SLADeadline deadline : existing) {
+                int response = getResponseMinutes(deadline.getPriority());
+                int resolution = getResolutionMinutes(deadline.getPriority());
+                put(new SLADeadline(deadline.getTicketId(), deadline.getPriority(), deadline.getCreatedAt(),
+                        deadline.getCreatedAt().plusMinutes(response),
+                        deadline.getCreatedAt().plusMinutes(resolution), deadline.isResponded()));
+            }
+        }
+        recountOutcomes();
+    }
+
+    /**
+     * (Re)index an open ticket. When an existing entry is given its deadlines
+     * are kept and only the responded flag is updated.
+     */
+    private synchronized void index(Ticket ticket, SLADeadline existing) {
+        boolean responded = isResponded(ticket);
+        SLADeadline deadline = existing != null
+                ? (responded ? existing.withResponded() : existing)
+                : toDeadline(ticket, responded);
+        remove(ticket.getId());
+        put(deadline);
+    }
+
+    private synchronized void resolve(Ticket ticket, LocalDateTime resolvedAt) {
+        SLADeadline deadline = remove(ticket.getId());
+        LocalDateTime due = deadline != null ? deadline.getResolutionDeadline() : calculateResolutionDeadline(ticket);
+        if (resolvedAt.isAfter(due)) {
+            resolvedMissed++;
+        } else {
+            resolvedMet++;
+        }
+    }
+
+    /**
+     * Take back the outcome a resolved ticket was counted under, when it is
+     * reopened or deleted. Decided the way recountOutcomes decides it.
+     */
+    private synchronized void unresolve(Ticket ticket) {
+        LocalDateTime resolvedAt = ticket.getResolvedAt() != null ? ticket.getResolvedAt() : ticket.getUpdatedAt();
+        if (resolvedAt == null || ticket.getCreatedAt() == null) {
+            // Never counted
+            return;
+        }
+        if (resolvedAt.isAfter(calculateResolutionDeadline(ticket))) {
+            resolvedMissed = Math.max(0, resolvedMissed - 1);
+        } else {
+            resolvedMet = Math.max(0, resolvedMet - 1);
+        }
+    }
+
+    private synchronized SLADeadline remove(String ticketId) {
+        SLADeadline deadline = openByTicket.remove(ticketId);
+        if (deadline != null) {
+            pending.remove(deadline);
+            breachedOpen.remove(ticketId);
+        }
+        return deadline;
+    }
+
+    private synchronized void put(SLADeadline deadline) {
+        openByTicket.put(deadline.getTicketId(), deadline);
+        if (deadline.isResolutionOverdue(LocalDateTime.now())) {
+            breachedOpen.put(deadline.getTicketId(), deadline);
+        } else {
+            pending.add(deadline);
+        }
+    }
+
+    /**
+     * Move every entry whose deadline has passed from the index to the breached set
+     */
+    private synchronized int sweep(LocalDateTime now) {
+        int moved = 0;
+        while (!pending.isEmpty() && pending.first().isResolutionOverdue(now)) {
+            SLADeadline deadline = pending.pollFirst();
+            breachedOpen.put(deadline.getTicketId(), deadline);
+            moved++;
+        }
+        return moved;
+    }
+
+    private SLADeadline toDeadline(Ticket ticket, boolean responded) {
+        return new SLADeadline(ticket.getId(), priorityOf(ticket), createdAt(ticket),
+                calculateResponseDeadline(ticket), calculateResolutionDeadline(ticket),
+                responded || isResponded(ticket));
+    }
+
+    private Map<Priority, SLA> policies() {
+        Map<Priority, SLA> cached = policies;
+        if (cached != null) {
+            return cached;
+        }
+        Map<Priority, SLA> loaded = new EnumMap<>(Priority.class);
+        try {
+            for (SLA sla : slaRepository.findAll()) {
+                if (sla.isActive() && sla.getPriority() != null) {
+                    loaded.putIfAbsent(sla.getPriority(), sla);
+                }
+            }
+            policies = loaded;
+        } catch (Exception e) {
+            System.err.println("❌ Error loading SLA policies: " + e.getMessage());
+        }
+        return loaded;
+    }
+
+    static Priority priorityOf(Ticket ticket) {
+        try {
+            return Priority.valueOf(ticket.getPriorityKey());
+        } catch (IllegalArgumentException e) {
+            return Priority.MEDIUM;
+        }
+    }
+
+    private static LocalDateTime createdAt(Ticket ticket) {
+        return ticket.getCreatedAt() != null ? ticket.getCreatedAt() : LocalDateTime.now();
+    }
+
+    private static boolean isResponded(Ticket ticket) {
+        return !"OPEN".equals(ticket.getStatusKey())
+                || (ticket.getAssignedTo() != null && !ticket.getAssignedTo().isBlank());
+    }
+
+    /**
+     * Notified after SLA policies change and deadlines have been re-derived
+     */
+    public interface PolicyChangeListener {
+        void onPoliciesChanged();
+    }
+}
@@ -13,9 +13,11 @@ import java.util.List;
 
 public class SLAService {
     private final SLARepository slaRepository;
+    private final SLAEngine slaEngine;
 
     public SLAService() {
         this.slaRepository = new SLARepository();
+        this.slaEngine = SLAEngine.getInstance();
     }
 
     public SLA createSLA(String name, Priority priority, int responseTimeMinutes, int resolutionTimeMinutes) {
@@ -33,7 +35,9 @@ public class SLAService {
         sla.setActive(true);
         sla.setCreatedAt(LocalDateTime.now());
 
-        return slaRepository.save(sla);
+        SLA saved = slaRepository.save(sla);
+        slaEngine.invalidatePolicies();
+        return saved;
     }
 
     public SLA getSLAById(String id) {
@@ -49,7 +53,7 @@ public class SLAService {
     }
 
     public SLA getSLAByPriority(Priority priority) {
-        return slaRepository.findByPriority(priority);
+        return slaEngine.getPolicy(priority);
     }
 
     public SLA updateSLA(SLA sla) {
@@ -57,32 +61,23 @@ public class SLAService {
         ValidationUtils.validateNotNull(sla.getId(), "SLA ID");
 
         getSLAById(sla.getId()); // Verify exists
-        return slaRepository.save(sla);
+        SLA saved = slaRepository.save(sla);
+        slaEngine.invalidatePolicies();
+        return saved;
     }
 
     public void deleteSLA(String id) {
         getSLAById(id); // Verify exists
         slaRepository.delete(id);
+        slaEngine.invalidatePolicies();
     }
 
     public LocalDateTime calculateResponseDeadline(Ticket ticket) {
-        Priority priority = Priority.valueOf(ticket.getPriority());
-        SLA sla = getSLAByPriority(priority);
-        if (sla == null) {
-            // Default: 4 hours for response
-            return ticket.getCreatedAt().plusHours(4);
-        }
-        return ticket.getCreatedAt().plusMinutes(sla.getResponseTimeMinutes());
+        return slaEngine.calculateResponseDeadline(ticket);
     }
 
     public LocalDateTime calculateResolutionDeadline(Ticket ticket) {
-        Priority priority = Priority.valueOf(ticket.getPriority());
-        SLA sla = getSLAByPriority(priority);
-        if (sla == null) {
-            // Default: 24 hours for resolution
-            return ticket.getCreatedAt().plusHours(24);
-        }
-        return ticket.getCreatedAt().plusMinutes(sla.getResolutionTimeMinutes());
+        return slaEngine.calculateResolutionDeadline(ticket);
     }
 
     public boolean isResponseOverdue(Ticket ticket) {
@@ -0,0 +1,242 @@
+package org.example.service;
+
+import org.example.config.AppConfig;
+import org.example.model.SLADeadline;
+import org.example.model.Ticket;
+import org.example.model.TicketChangeEvent;
+import org.example.repository.TicketRepository;
+import org.example.util.HierarchicalTimingWheel;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SLA Timer Service - Schedules response and resolution warning/breach
+ * events for every open ticket on a hierarchical timing wheel and fires them
+ * into NotificationManager when they come due. Timers are rescheduled on
+ * priority or policy changes and cancelled once the ticket is handled.
+ */
+public class SLATimerService implements TicketRepository.TicketChangeListener, SLAEngine.PolicyChangeListener {
+
+    private enum TimerKind {
+        RESPONSE_WARNING,
+        RESPONSE_BREACH,
+        RESOLUTION_WARNING,
+        RESOLUTION_BREACH
+    }
+
+    private static SLATimerService instance;
+
+    private final TicketRepository ticketRepository;
+    private final SLAEngine slaEngine;
+    private final NotificationManager notificationManager;
+    private final double warningFraction;
+    private final Map<String, List<HierarchicalTimingWheel.Timeout>> responseTimers;
+    private final Map<String, List<HierarchicalTimingWheel.Timeout>> resolutionTimers;
+    private HierarchicalTimingWheel wheel;
+
+    private SLATimerService() {
+        this.ticketRepository = new TicketRepository();
+        this.slaEngine = SLAEngine.getInstance();
+        this.notificationManager = NotificationManager.getInstance();
+        this.warningFraction = Integer.parseInt(
+                AppConfig.getInstance().getProperty("sla.warning.percent", "80")) / 100.0;
+        this.responseTimers = new ConcurrentHashMap<>();
+        this.resolutionTimers = new ConcurrentHashMap<>();
+    }
+
+    public static SLATimerService getInstance() {
+        if (instance == null) {
+            synchronized (SLATimerService.class) {
+                if (instance == null) {
+                    instance = new SLATimerService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Schedule timers for every ticket in the SLA engine's index. The engine
+     * must be started first.
+     */
+    public synchronized void start() {
+        if (wheel != null) {
+            return;
+        }
+        // 1 ms ticks, 512 slots per level
+        wheel = new HierarchicalTimingWheel("sla-timer", 1, 512);
+        scheduleAll();
+        TicketRepository.addChangeListener(this);
+        slaEngine.addPolicyChangeListener(this);
+
+        System.out.println("✅ SLA timers started (" + wheel.size() + " pending)");
+    }
+
+    public synchronized void shutdown() {
+        TicketRepository.removeChangeListener(this);
+        slaEngine.removePolicyChangeListener(this);
+        if (wheel != null) {
+            wheel.shutdown();
+            wheel = null;
+        }
+        responseTimers.clear();
+        resolutionTimers.clear();
+    }
+
+    public int getPendingCount() {
+        HierarchicalTimingWheel current = wheel;
+        return current != null ? current.size() : 0;
+    }
+
+    @Override
+    public void onTicketChanged(TicketChangeEvent event) {
+        Ticket previous = event.getPrevious();
+        Ticket current = event.getCurrent();
+
+        switch (event.getType()) {
+            case CREATED:
+                if (!current.isResolved()) {
+                    schedule(current);
+                }
+                break;
+            case DELETED:
+                cancel(responseTimers, previous.getId());
+                cancel(resolutionTimers, previous.getId());
+                break;
+            case UPDATED:
+                if (current.isResolved()) {
+                    cancel(responseTimers, current.getId());
+                    cancel(resolutionTimers, current.getId());
+                } else if (previous.isResolved() || event.isPriorityChanged()) {
+                    schedule(current);
+                } else if (isResponded(current)) {
+                    cancel(responseTimers, current.getId());
+                }
+                break;
+        }
+    }
+
+    @Override
+    public void onPoliciesChanged() {
+        cancelAll(responseTimers);
+        cancelAll(resolutionTimers);
+        scheduleAll();
+    }
+
+    private void scheduleAll() {
+        for (SLADeadline deadline : slaEngine.getOpenDeadlines()) {
+            schedule(deadline);
+        }
+    }
+
+    private void schedule(Ticket ticket) {
+        schedule(new SLADeadline(ticket.getId(), SLAEngine.priorityOf(ticket),
+                ticket.getCreatedAt() != null ? ticket.getCreatedAt() : LocalDateTime.now(),
+                slaEngine.calculateResponseDeadline(ticket), slaEngine.calculateResolutionDeadline(ticket),
+                isResponded(ticket)));
+    }
+
+    private void schedule(SLADeadline deadline) {
+        String ticketId = deadline.getTicketId();
+        cancel(responseTimers, ticketId);
+        cancel(resolutionTimers, ticketId);
+
+        if (!deadline.isResponded()) {
+            List<HierarchicalTimingWheel.Timeout> timers = new ArrayList<>(2);
+            add(timers, ticketId, TimerKind.RESPONSE_WARNING,
+                    warningTime(deadline.getCreatedAt(), deadline.getResponseDeadline()));
+            add(timers, ticketId, TimerKind.RESPONSE_BREACH, deadline.getResponseDeadline());
+            if (!timers.isEmpty()) {
+                responseTimers.put(ticketId, timers);
+            }
+        }
+
+        List<HierarchicalTimingWheel.Timeout> timers = new ArrayList<>(2);
+        add(timers, ticketId, TimerKind.RESOLUTION_WARNING,
+                warningTime(deadline.getCreatedAt(), deadline.getResolutionDeadline()));
+        add(timers, ticketId, TimerKind.RESOLUTION_BREACH, deadline.getResolutionDeadline());
+        if (!timers.isEmpty()) {
+            resolutionTimers.put(ticketId, timers);
+        }
+    }
+
+    /**
+     * Schedule one timer; moments already in the past are not replayed
+     */
+    private void add(List<HierarchicalTimingWheel.Timeout> timers, String ticketId,
+                     TimerKind kind, LocalDateTime at) {
+        HierarchicalTimingWheel current = wheel;
+        long expirationMs = at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (current == null || expirationMs <= System.currentTimeMillis()) {
+            return;
+        }
+        timers.add(current.schedule(() -> fire(ticketId, kind), expirationMs));
+    }
+
+    private void fire(String ticketId, TimerKind kind) {
+        boolean responseTimer = kind == TimerKind.RESPONSE_WARNING || kind == TimerKind.RESPONSE_BREACH;
+        forgetFired(responseTimer ? responseTimers : resolutionTimers, ticketId);
+        try {
+            Ticket ticket = ticketRepository.findById(ticketId);
+            if (ticket == null || ticket.isResolved()) {
+                return;
+            }
+            if (responseTimer && isResponded(ticket)) {
+                return;
+            }
+
+            String recipient = !isBlank(ticket.getAssignedTo()) ? ticket.getAssignedTo() : ticket.getCreatedBy();
+            if (isBlank(recipient)) {
+                System.err.println("⚠️ No recipient for SLA " + kind + " on ticket " + ticketId);
+                return;
+            }
+
+            if (kind == TimerKind.RESPONSE_BREACH || kind == TimerKind.RESOLUTION_BREACH) {
+                notificationManager.notifySLABreach(ticket, recipient);
+            } else {
+                notificationManager.notifySLAWarning(ticket, recipient);
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error firing SLA timer for " + ticketId + ": " + e.getMessage());
+        }
+    }
+
+    private LocalDateTime warningTime(LocalDateTime createdAt, LocalDateTime deadline) {
+        long windowSeconds = java.time.Duration.between(createdAt, deadline).getSeconds();
+        return createdAt.plusSeconds((long) (windowSeconds * warningFraction));
+    }
+
+    private static void cancel(Map<String, List<HierarchicalTimingWheel.Timeout>> timers, String ticketId) {
+        List<HierarchicalTimingWheel.Timeout> existing = timers.remove(ticketId);
+        if (existing != null) {
+            existing.forEach(HierarchicalTimingWheel.Timeout::cancel);
+        }
+    }
+
+    /**
+     * Drop a ticket's entry once every timer in it has fired
+     */
+    private static void forgetFired(Map<String, List<HierarchicalTimingWheel.Timeout>> timers, String ticketId) {
+        timers.computeIfPresent(ticketId, (id, existing) ->
+                existing.stream().allMatch(HierarchicalTimingWheel.Timeout::isExpired) ? null : existing);
+    }
+
+    private static void cancelAll(Map<String, List<HierarchicalTimingWheel.Timeout>> timers) {
+        for (String ticketId : new ArrayList<>(timers.keySet())) {
+            cancel(timers, ticketId);
+        }
+    }
+
+    private static boolean isResponded(Ticket ticket) {
+        return !"OPEN".equals(ticket.getStatusKey()) || !isBlank(ticket.getAssignedTo());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,246 @@
+package org.example.service;
+
+import org.example.config.AppConfig;
+import org.example.model.Ticket;
+import org.example.model.TicketChangeEvent;
+import org.example.model.enums.Priority;
+import org.example.model.enums.TicketStatus;
+import org.example.repository.TicketRepository;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory ticket distribution counters (status, priority, category).
+ * Seeded once from the database, kept current by TicketRepository change
+ * events and periodically reconciled against the database, so analytics
+ * reads are O(1) instead of a label scan.
+ */
+public class TicketCounterStore implements TicketRepository.TicketChangeListener {
+
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private static TicketCounterStore instance;
+
+    private final TicketRepository ticketRepository;
+    private final Map<String, LongAdder> statusCounters;
+    private final Map<String, LongAdder> priorityCounters;
+    private final Map<String, LongAdder> categoryCounters;
+    private final LongAdder totalCounter;
+    private final long reconcileMinutes;
+    private ScheduledExecutorService reconciler;
+    private volatile boolean seeded;
+
+    private TicketCounterStore() {
+        this.ticketRepository = new TicketRepository();
+        this.statusCounters = new ConcurrentHashMap<>();
+        this.priorityCounters = new ConcurrentHashMap<>();
+        this.categoryCounters = new ConcurrentHashMap<>();
+        this.totalCounter = new LongAdder();
+        this.reconcileMinutes = Long.parseLong(
+                AppConfig.getInstance().getProperty("analytics.counters.reconcile.minutes", "10"));
+    }
+
+    public static TicketCounterStore getInstance() {
+        if (instance == null) {
+            synchronized (TicketCounterStore.class) {
+                if (instance == null) {
+                    instance = new TicketCounterStore();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Seed from the database, subscribe to ticket changes and schedule reconciliation
+     */
+    public synchronized void start() {
+        if (reconciler != null) {
+            return;
+        }
+        TicketRepository.addChangeListener(this);
+        seeded = reconcile();
+
+        reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ticket-counter-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconciler.scheduleAtFixedRate(() -> {
+            if (reconcile()) {
+                seeded = true;
+            }
+        }, reconcileMinutes, reconcileMinutes, TimeUnit.MINUTES);
+
+        System.out.println("✅ Ticket counters started (" + getTotal() + " tickets)");
+    }
+
+    public synchronized void shutdown() {
+        TicketRepository.removeChangeListener(this);
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+            reconciler = null;
+        }
+    }
+
+    /**
+     * True once the counters hold database-backed values
+     */
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    @Override
+    public void onTicketChanged(TicketChangeEvent event) {
+        switch (event.getType()) {
+            case CREATED:
+                apply(event.getCurrent(), 1);
+                break;
+            case DELETED:
+                apply(event.getPrevious(), -1);
+                break;
+            case UPDATED:
+                if (event.isStatusChanged()) {
+                    adder(statusCounters, event.getPrevious().getStatusKey()).decrement();
+                    adder(statusCounters, event.getCurrent().getStatusKey()).increment();
+                }
+                if (event.isPriorityChanged()) {
+                    adder(priorityCounters, event.getPrevious().getPriorityKey()).decrement();
+                    adder(priorityCounters, event.getCurrent().getPriorityKey()).increment();
+                }
+                if (event.isCategoryChanged()) {
+                    adder(categoryCounters, event.getPrevious().getCategoryKey()).decrement();
+                    adder(categoryCounters, event.getCurrent().getCategoryKey()).increment();
+                }
+                break;
+        }
+    }
+
+    public long getTotal() {
+        return totalCounter.sum();
+    }
+
+    public long getStatusCount(String status) {
+        LongAdder adder = statusCounters.get(status);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    public long getPriorityCount(String priority) {
+        LongAdder adder = priorityCounters.get(priority);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    /**
+     * Status distribution, always containing every TicketStatus value
+     */
+    public Map<String, Long> getStatusCounts() {
+        Map<String, Long> counts = snapshot(statusCounters);
+        for (TicketStatus status : TicketStatus.values()) {
+            counts.putIfAbsent(status.name(), 0L);
+        }
+        return counts;
+    }
+
+    /**
+     * Priority distribution, always containing every Priority value
+     */
+    public Map<String, Long> getPriorityCounts() {
+        Map<String, Long> counts = snapshot(priorityCounters);
+        for (Priority priority : Priority.values()) {
+            counts.putIfAbsent(priority.name(), 0L);
+        }
+        return counts;
+    }
+
+    public Map<String, Long> getCategoryCounts() {
+        return snapshot(categoryCounters);
+    }
+
+    /**
+     * Re-read the distribution from the database and correct any drift.
+     * A pass is only trusted if no ticket change was published while it ran;
+     * otherwise the read or the correction may have raced with a listener
+     * update, and it is retried. A change committed just before the read but
+     * published just after the correction can still be counted twice until
+     * the next reconcile.
+     */
+    public boolean reconcile() {
+        for (int attempt = 0; attempt < RECONCILE_ATTEMPTS; attempt++) {
+            long version = TicketRepository.getChangeVersion();
+            Map<String, Map<String, Long>> distribution = ticketRepository.getDistributionCounts();
+            if (distribution == null) {
+                return false;
+            }
+            if (TicketRepository.getChangeVersion() != version) {
+                continue;
+            }
+
+            long drift = 0;
+            drift += correct(statusCounters, distribution.get("status"));
+            drift += correct(priorityCounters, distribution.get("priority"));
+            drift += correct(categoryCounters, distribution.get("category"));
+
+            long total = distribution.get("status").values().stream().mapToLong(Long::longValue).sum();
+            totalCounter.add(total - totalCounter.sum());
+
+            if (TicketRepository.getChangeVersion() != version) {
+                continue;
+            }
+            if (seeded && drift > 0) {
+                System.out.println("🔄 Ticket counters reconciled (drift: " + drift + ")");
+            }
+            return true;
+        }
+        System.err.println("⚠️ Ticket counters not reconciled: tickets kept changing, retrying later");
+        return false;
+    }
+
+    private void apply(Ticket ticket, long delta) {
+        if (ticket == null) {
+            return;
+        }
+        totalCounter.add(delta);
+        adder(statusCounters, ticket.getStatusKey()).add(delta);
+        adder(priorityCounters, ticket.getPriorityKey()).add(delta);
+        adder(categoryCounters, ticket.getCategoryKey()).add(delta);
+    }
+
+    private long correct(Map<String, LongAdder> counters, Map<String, Long> actual) {
+        long drift = 0;
+        Set<String> keys = new HashSet<>(counters.keySet());
+        keys.addAll(actual.keySet());
+
+        for (String key : keys) {
+            LongAdder adder = adder(counters, key);
+            long delta = actual.getOrDefault(key, 0L) - adder.sum();
+            if (delta != 0) {
+                adder.add(delta);
+                drift += Math.abs(delta);
+            }
+        }
+        return drift;
+    }
+
+    private static LongAdder adder(Map<String, LongAdder> counters, String key) {
+        return counters.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+        Map<String, Long> counts = new HashMap<>();
+        counters.forEach((key, adder) -> {
+            long value = adder.sum();
+            if (value > 0) {
+                counts.put(key, value);
+            }
+        });
+        return counts;
+    }
+}
@@ -0,0 +1,324 @@
+package org.example.service;
+
+import org.example.config.AppConfig;
+import org.example.model.Ticket;
+import org.example.model.TicketChangeEvent;
+import org.example.repository.LatencyRepository;
+import org.example.repository.TicketRepository;
+import org.example.util.LatencyHistogram;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First-response and resolution latency histograms (in seconds), overall and
+ * per priority, category and agent. Latencies are captured from
+ * TicketRepository change events; histograms are persisted to
+ * :LatencyHistogram nodes so percentiles never require scanning tickets.
+ * A resolved ticket's resolution sample follows its current state, exactly
+ * as the backfill computes it, so reopening, editing or deleting it moves or
+ * removes the sample. First responses are counted once per ticket; the
+ * samples recorded since start are kept so a delete can take them back.
+ */
+public class TicketLatencyService implements TicketRepository.TicketChangeListener {
+
+    public static final String RESPONSE = "response";
+    public static final String RESOLUTION = "resolution";
+    public static final String ALL = "all";
+    public static final String PRIORITY = "priority";
+    public static final String CATEGORY = "category";
+    public static final String AGENT = "agent";
+
+    private static final String UNASSIGNED = "Unassigned";
+
+    private static TicketLatencyService instance;
+
+    private final LatencyRepository latencyRepository;
+    private final Map<String, LatencyHistogram> histograms;
+    private final Set<String> dirty;
+    // First-response samples recorded since start, by ticket id
+    private final Map<String, Sample> responded;
+    private final long flushSeconds;
+    private ScheduledExecutorService flusher;
+    private volatile boolean seeded;
+
+    private TicketLatencyService() {
+        this.latencyRepository = new LatencyRepository();
+        this.histograms = new ConcurrentHashMap<>();
+        this.dirty = ConcurrentHashMap.newKeySet();
+        this.responded = new ConcurrentHashMap<>();
+        this.flushSeconds = Long.parseLong(
+                AppConfig.getInstance().getProperty("analytics.latency.flush.seconds", "60"));
+    }
+
+    public static TicketLatencyService getInstance() {
+        if (instance == null) {
+            synchronized (TicketLatencyService.class) {
+                if (instance == null) {
+                    instance = new TicketLatencyService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Load persisted histograms (backfilling resolution latencies on first
+     * run), subscribe to ticket changes and schedule periodic flushes
+     */
+    public synchronized void start() {
+        if (flusher != null) {
+            return;
+        }
+        // Restarted after a restore, the histograms still describe the old database
+        histograms.clear();
+        dirty.clear();
+        responded.clear();
+        seeded = seed();
+        TicketRepository.addChangeListener(this);
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ticket-latency-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushSeconds, flushSeconds, TimeUnit.SECONDS);
+
+        System.out.println("✅ Ticket latency histograms started (" + histograms.size() + " series)");
+    }
+
+    public synchronized void shutdown() {
+        TicketRepository.removeChangeListener(this);
+        if (flusher != null) {
+            flusher.shutdownNow();
+            flusher = null;
+        }
+        flush();
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    @Override
+    public void onTicketChanged(TicketChangeEvent event) {
+        Ticket previous = event.getPrevious();
+        Ticket current = event.getCurrent();
+
+        switch (event.getType()) {
+            case CREATED:
+                apply(RESOLUTION, resolutionSample(current), 1);
+                break;
+            case DELETED:
+                apply(RESPONSE, responded.remove(previous.getId()), -1);
+                apply(RESOLUTION, resolutionSample(previous), -1);
+                break;
+            case UPDATED:
+                // First response: the ticket leaves the untouched OPEN/unassigned state.
+                // A reopened ticket can return to it; its response is not counted again.
+                if (isUntouched(previous) && !isUntouched(current) && current.getCreatedAt() != null
+                        && !responded.containsKey(current.getId())) {
+                    Sample sample = new Sample(current, seconds(current.getCreatedAt(), event.getOccurredAt()));
+                    responded.put(current.getId(), sample);
+                    apply(RESPONSE, sample, 1);
+                }
+
+                Sample before = resolutionSample(previous);
+                Sample after = resolutionSample(current);
+                if (before == null || !before.equals(after)) {
+                    apply(RESOLUTION, before, -1);
+                    apply(RESOLUTION, after, 1);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Copy of one histogram; empty if nothing has been recorded for it
+     */
+    public LatencyHistogram getHistogram(String metric, String dimension, String value) {
+        LatencyHistogram histogram = histograms.get(key(metric, dimension, value));
+        return histogram != null ? histogram.copy() : new LatencyHistogram();
+    }
+
+    public LatencyHistogram getOverall(String metric) {
+        return getHistogram(metric, ALL, ALL);
+    }
+
+    /**
+     * Copies of every histogram of a metric broken down by one dimension, keyed by dimension value
+     */
+    public Map<String, LatencyHistogram> getBreakdown(String metric, String dimension) {
+        String prefix = metric + "|" + dimension + "|";
+        Map<String, LatencyHistogram> breakdown = new HashMap<>();
+        histograms.forEach((key, histogram) -> {
+            if (key.startsWith(prefix)) {
+                breakdown.put(key.substring(prefix.length()), histogram.copy());
+            }
+        });
+        return breakdown;
+    }
+
+    /**
+     * p50/p90/p99 plus mean, min and max of a histogram, in minutes
+     */
+    public static Map<String, Double> percentilesInMinutes(LatencyHistogram histogram) {
+        Map<String, Double> summary = new LinkedHashMap<>();
+        summary.put("count", (double) histogram.getTotalCount());
+        summary.put("mean", histogram.getMean() / 60.0);
+        summary.put("p50", histogram.getValueAtPercentile(50) / 60.0);
+        summary.put("p90", histogram.getValueAtPercentile(90) / 60.0);
+        summary.put("p99", histogram.getValueAtPercentile(99) / 60.0);
+        summary.put("min", histogram.getMin() / 60.0);
+        summary.put("max", histogram.getMax() / 60.0);
+        return summary;
+    }
+
+    /**
+     * Persist every histogram touched since the last flush
+     */
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(dirty);
+        dirty.removeAll(keys);
+
+        Map<String, LatencyHistogram> changed = new HashMap<>();
+        for (String key : keys) {
+            changed.put(key, histograms.get(key));
+        }
+        if (!latencyRepository.saveAll(changed)) {
+            dirty.addAll(keys);
+        }
+    }
+
+    private boolean seed() {
+        Map<String, LatencyHistogram> persisted = latencyRepository.findAll();
+        if (persisted == null) {
+            return false;
+        }
+        if (!persisted.isEmpty()) {
+            histograms.putAll(persisted);
+            return true;
+        }
+
+        List<Map<String, Object>> samples = latencyRepository.findResolutionSamples();
+        if (samples == null) {
+            return false;
+        }
+        for (Map<String, Object> sample : samples) {
+            record(RESOLUTION, (String) sample.get("priority"), (String) sample.get("category"),
+                    (String) sample.get("agent"), (Long) sample.get("seconds"));
+        }
+        flush();
+        System.out.println("🔄 Resolution histograms backfilled (" + samples.size() + " tickets)");
+        return true;
+    }
+
+    /**
+     * Resolution sample of a resolved ticket as the backfill computes it, null otherwise
+     */
+    private static Sample resolutionSample(Ticket ticket) {
+        if (ticket == null || !ticket.isResolved() || ticket.getCreatedAt() == null) {
+            return null;
+        }
+        LocalDateTime resolvedAt = ticket.getResolvedAt() != null ? ticket.getResolvedAt() : ticket.getUpdatedAt();
+        return resolvedAt != null ? new Sample(ticket, seconds(ticket.getCreatedAt(), resolvedAt)) : null;
+    }
+
+    private void apply(String metric, Sample sample, int direction) {
+        if (sample == null) {
+            return;
+        }
+        if (direction > 0) {
+            record(metric, sample.priority, sample.category, sample.agent, sample.seconds);
+        } else {
+            for (String key : keys(metric, sample.priority, sample.category, sample.agent)) {
+                LatencyHistogram histogram = histograms.get(key);
+                if (histogram != null) {
+                    histogram.remove(sample.seconds);
+                    dirty.add(key);
+                }
+            }
+        }
+    }
+
+    private void record(String metric, String priority, String category, String agent, long seconds) {
+        if (seconds < 0) {
+            return;
+        }
+        for (String key : keys(metric, priority, category, agent)) {
+            recordInto(key, seconds);
+        }
+    }
+
+    private static List<String> keys(String metric, String priority, String category, String agent) {
+        return List.of(key(metric, ALL, ALL), key(metric, PRIORITY, priority), key(metric, CATEGORY, category),
+                key(metric, AGENT, isBlank(agent) ? UNASSIGNED : agent));
+    }
+
+    private void recordInto(String key, long seconds) {
+        histograms.computeIfAbsent(key, k -> new LatencyHistogram()).record(seconds);
+        dirty.add(key);
+    }
+
+    private static String key(String metric, String dimension, String value) {
+        return metric + "|" + dimension + "|" + value;
+    }
+
+    private static long seconds(LocalDateTime from, LocalDateTime to) {
+        return Duration.between(from, to).getSeconds();
+    }
+
+    private static boolean isUntouched(Ticket ticket) {
+        return "OPEN".equals(ticket.getStatusKey()) && isBlank(ticket.getAssignedTo());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * One latency sample and the dimensions it was recorded under
+     */
+    private static final class Sample {
+        private final String priority;
+        private final String category;
+        private final String agent;
+        private final long seconds;
+
+        private Sample(Ticket ticket, long seconds) {
+            this.priority = ticket.getPriorityKey();
+            this.category = ticket.getCategoryKey();
+            this.agent = isBlank(ticket.getAssignedTo()) ? UNASSIGNED : ticket.getAssignedTo();
+            this.seconds = seconds;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Sample)) {
+                return false;
+            }
+            Sample sample = (Sample) other;
+            return seconds == sample.seconds && priority.equals(sample.priority)
+                    && category.equals(sample.category) && agent.equals(sample.agent);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(priority, category, agent, seconds);
+        }
+    }
+}
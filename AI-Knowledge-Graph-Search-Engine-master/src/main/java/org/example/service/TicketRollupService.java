@@ -0,0 +1,371 @@
+package org.example.service;
+
+import org.example.config.AppConfig;
+import org.example.model.DailyRollup;
+import org.example.model.Ticket;
+import org.example.model.TicketChangeEvent;
+import org.example.model.enums.Priority;
+import org.example.repository.RollupRepository;
+import org.example.repository.TicketRepository;
+import org.example.util.BucketRing;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time-bucketed ticket trend rollups. Created and resolved counts are kept
+ * per day (with priority and category breakdowns) and per hour in long[]
+ * ring buffers, fed by TicketRepository change events and flushed to
+ * :DailyRollup nodes, so trend charts never scan tickets.
+ */
+public class TicketRollupService implements TicketRepository.TicketChangeListener {
+
+    private static final int CREATED = 0;
+    private static final int RESOLVED = 1;
+    private static final int PRIORITIES = Priority.values().length;
+
+    private static TicketRollupService instance;
+
+    private final RollupRepository rollupRepository;
+    private final int dailyCapacity;
+    private final int hourlyCapacity;
+    private final long flushSeconds;
+    private final BucketRing daily;
+    private final BucketRing hourly;
+    private final Map<String, BucketRing> categories;
+    private final Set<Long> dirtyDays;
+    private ScheduledExecutorService flusher;
+    private volatile boolean seeded;
+
+    private TicketRollupService() {
+        AppConfig config = AppConfig.getInstance();
+        this.rollupRepository = new RollupRepository();
+        this.dailyCapacity = Integer.parseInt(config.getProperty("analytics.rollups.days", "400"));
+        this.hourlyCapacity = 24 * Integer.parseInt(config.getProperty("analytics.rollups.hourly.days", "35"));
+        this.flushSeconds = Long.parseLong(config.getProperty("analytics.rollups.flush.seconds", "60"));
+        // created, resolved, created by priority, resolved by priority
+        this.daily = new BucketRing(dailyCapacity, 2 + 2 * PRIORITIES);
+        this.hourly = new BucketRing(hourlyCapacity, 2);
+        this.categories = new ConcurrentHashMap<>();
+        this.dirtyDays = ConcurrentHashMap.newKeySet();
+    }
+
+    public static TicketRollupService getInstance() {
+        if (instance == null) {
+            synchronized (TicketRollupService.class) {
+                if (instance == null) {
+                    instance = new TicketRollupService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Load persisted rollups (backfilling from tickets on first run),
+     * subscribe to ticket changes and schedule periodic flushes
+     */
+    public synchronized void start() {
+        if (flusher != null) {
+            return;
+        }
+        // Restarted after a restore, the buckets still describe the old database
+        daily.clear();
+        hourly.clear();
+        categories.clear();
+        dirtyDays.clear();
+        seeded = seed();
+        TicketRepository.addChangeListener(this);
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ticket-rollup-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushSeconds, flushSeconds, TimeUnit.SECONDS);
+
+        System.out.println("✅ Ticket rollups started (" + dailyCapacity + " days)");
+    }
+
+    public synchronized void shutdown() {
+        TicketRepository.removeChangeListener(this);
+        if (flusher != null) {
+            flusher.shutdownNow();
+            flusher = null;
+        }
+        flush();
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    @Override
+    public void onTicketChanged(TicketChangeEvent event) {
+        switch (event.getType()) {
+            case CREATED:
+                record(CREATED, event.getCurrent(), createdAt(event.getCurrent(), event), 1);
+                break;
+            case DELETED:
+                record(CREATED, event.getPrevious(), createdAt(event.getPrevious(), event), -1);
+                if (event.getPrevious().isResolved()) {
+                    record(RESOLVED, event.getPrevious(), resolvedAt(event.getPrevious(), event), -1);
+                }
+                break;
+            case UPDATED:
+                if (!event.getPrevious().isResolved() && event.getCurrent().isResolved()) {
+                    record(RESOLVED, event.getCurrent(), resolvedAt(event.getCurrent(), event), 1);
+                } else if (event.getPrevious().isResolved() && !event.getCurrent().isResolved()) {
+                    // Reopened: take back the resolution counted earlier
+                    record(RESOLVED, event.getPrevious(), resolvedAt(event.getPrevious(), event), -1);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Daily created/resolved counts for the last n days (today included), oldest first
+     */
+    public List<Map<String, Object>> getDailyTrend(int days) {
+        days = clampDays(days);
+        LocalDate today = LocalDate.now();
+        long to = today.toEpochDay();
+        long from = to - days + 1;
+        long[] created = daily.range(from, to, CREATED);
+        long[] resolved = daily.range(from, to, RESOLVED);
+
+        List<Map<String, Object>> trend = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            Map<String, Object> day = new HashMap<>();
+            day.put("date", LocalDate.ofEpochDay(from + i).toString());
+            day.put("created", created[i]);
+            day.put("resolved", resolved[i]);
+            trend.add(day);
+        }
+        return trend;
+    }
+
+    /**
+     * Hourly created/resolved counts for the last n hours (current hour included), oldest first
+     */
+    public List<Map<String, Object>> getHourlyTrend(int hours) {
+        hours = Math.max(1, Math.min(hours, hourlyCapacity));
+        long to = epochHour(LocalDateTime.now());
+        long from = to - hours + 1;
+        long[] created = hourly.range(from, to, CREATED);
+        long[] resolved = hourly.range(from, to, RESOLVED);
+
+        List<Map<String, Object>> trend = new ArrayList<>(hours);
+        for (int i = 0; i < hours; i++) {
+            long bucket = from + i;
+            Map<String, Object> hour = new HashMap<>();
+            hour.put("hour", LocalDate.ofEpochDay(Math.floorDiv(bucket, 24))
+                    .atTime(Math.floorMod(bucket, 24), 0).toString());
+            hour.put("created", created[i]);
+            hour.put("resolved", resolved[i]);
+            trend.add(hour);
+        }
+        return trend;
+    }
+
+    public long[] getCreatedSeries(int days) {
+        return series(days, CREATED);
+    }
+
+    public long[] getResolvedSeries(int days) {
+        return series(days, RESOLVED);
+    }
+
+    /**
+     * Tickets created per priority over the last n days
+     */
+    public Map<String, Long> getCreatedByPriority(int days) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Priority priority : Priority.values()) {
+            counts.put(priority.name(), sum(series(days, 2 + priority.ordinal())));
+        }
+        return counts;
+    }
+
+    /**
+     * Tickets resolved per priority over the last n days
+     */
+    public Map<String, Long> getResolvedByPriority(int days) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Priority priority : Priority.values()) {
+            counts.put(priority.name(), sum(series(days, 2 + PRIORITIES + priority.ordinal())));
+        }
+        return counts;
+    }
+
+    /**
+     * Tickets created per category over the last n days
+     */
+    public Map<String, Long> getCreatedByCategory(int days) {
+        days = clampDays(days);
+        long to = LocalDate.now().toEpochDay();
+        Map<String, Long> counts = new HashMap<>();
+        for (Map.Entry<String, BucketRing> entry : categories.entrySet()) {
+            long total = sum(entry.getValue().range(to - days + 1, to, CREATED));
+            if (total > 0) {
+                counts.put(entry.getKey(), total);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Persist every day touched since the last flush
+     */
+    public void flush() {
+        if (dirtyDays.isEmpty()) {
+            return;
+        }
+        List<Long> days = new ArrayList<>(dirtyDays);
+        dirtyDays.removeAll(days);
+
+        List<DailyRollup> rollups = new ArrayList<>(days.size());
+        for (long day : days) {
+            rollups.add(toRollup(day));
+        }
+        if (!rollupRepository.saveAll(rollups)) {
+            dirtyDays.addAll(days);
+        }
+    }
+
+    private boolean seed() {
+        LocalDate since = LocalDate.now().minusDays(dailyCapacity - 1);
+        List<DailyRollup> rollups = rollupRepository.findSince(since);
+
+        if (rollups.isEmpty()) {
+            rollups = rollupRepository.aggregateFromTickets(since);
+            if (rollups == null) {
+                return false;
+            }
+            load(rollups);
+            rollupRepository.saveAll(rollups);
+            System.out.println("🔄 Ticket rollups backfilled (" + rollups.size() + " days)");
+        } else {
+            load(rollups);
+        }
+        return true;
+    }
+
+    private void load(List<DailyRollup> rollups) {
+        for (DailyRollup rollup : rollups) {
+            long day = rollup.getDate().toEpochDay();
+            daily.set(day, CREATED, rollup.getCreated());
+            daily.set(day, RESOLVED, rollup.getResolved());
+            for (int p = 0; p < PRIORITIES; p++) {
+                daily.set(day, 2 + p, rollup.getCreatedByPriority()[p]);
+                daily.set(day, 2 + PRIORITIES + p, rollup.getResolvedByPriority()[p]);
+            }
+            for (int h = 0; h < 24; h++) {
+                hourly.set(day * 24 + h, CREATED, rollup.getCreatedByHour()[h]);
+                hourly.set(day * 24 + h, RESOLVED, rollup.getResolvedByHour()[h]);
+            }
+            rollup.getCreatedByCategory().forEach((category, count) ->
+                    categoryRing(category).set(day, CREATED, count));
+            rollup.getResolvedByCategory().forEach((category, count) ->
+                    categoryRing(category).set(day, RESOLVED, count));
+        }
+    }
+
+    private void record(int kind, Ticket ticket, LocalDateTime at, long delta) {
+        if (ticket == null) {
+            return;
+        }
+        long day = at.toLocalDate().toEpochDay();
+        if (!daily.covers(day)) {
+            return;
+        }
+        int priority = RollupRepository.priorityIndex(ticket.getPriorityKey());
+
+        daily.add(day, kind, delta);
+        daily.add(day, 2 + (kind == CREATED ? 0 : PRIORITIES) + priority, delta);
+        hourly.add(epochHour(at), kind, delta);
+        categoryRing(ticket.getCategoryKey()).add(day, kind, delta);
+        dirtyDays.add(day);
+    }
+
+    private DailyRollup toRollup(long day) {
+        DailyRollup rollup = new DailyRollup(LocalDate.ofEpochDay(day));
+        long[] counts = daily.bucket(day);
+        rollup.setCreated(counts[CREATED]);
+        rollup.setResolved(counts[RESOLVED]);
+        for (int p = 0; p < PRIORITIES; p++) {
+            rollup.getCreatedByPriority()[p] = counts[2 + p];
+            rollup.getResolvedByPriority()[p] = counts[2 + PRIORITIES + p];
+        }
+
+        if (hourly.covers(day * 24)) {
+            rollup.setCreatedByHour(hourly.range(day * 24, day * 24 + 23, CREATED));
+            rollup.setResolvedByHour(hourly.range(day * 24, day * 24 + 23, RESOLVED));
+        } else {
+            rollup.setCreatedByHour(null);
+            rollup.setResolvedByHour(null);
+        }
+
+        for (Map.Entry<String, BucketRing> entry : categories.entrySet()) {
+            long created = entry.getValue().get(day, CREATED);
+            long resolved = entry.getValue().get(day, RESOLVED);
+            if (created != 0) {
+                rollup.getCreatedByCategory().put(entry.getKey(), created);
+            }
+            if (resolved != 0) {
+                rollup.getResolvedByCategory().put(entry.getKey(), resolved);
+            }
+        }
+        return rollup;
+    }
+
+    private long[] series(int days, int series) {
+        days = clampDays(days);
+        long to = LocalDate.now().toEpochDay();
+        return daily.range(to - days + 1, to, series);
+    }
+
+    private int clampDays(int days) {
+        return Math.max(1, Math.min(days, dailyCapacity));
+    }
+
+    private BucketRing categoryRing(String category) {
+        return categories.computeIfAbsent(category, c -> new BucketRing(dailyCapacity, 2));
+    }
+
+    private static LocalDateTime createdAt(Ticket ticket, TicketChangeEvent event) {
+        return ticket != null && ticket.getCreatedAt() != null ? ticket.getCreatedAt() : event.getOccurredAt();
+    }
+
+    /**
+     * When a resolution is counted, matching the rollup query: resolvedAt, else updatedAt
+     */
+    private static LocalDateTime resolvedAt(Ticket ticket, TicketChangeEvent event) {
+        if (ticket.getResolvedAt() != null) {
+            return ticket.getResolvedAt();
+        }
+        return ticket.getUpdatedAt() != null ? ticket.getUpdatedAt() : event.getOccurredAt();
+    }
+
+    private static long epochHour(LocalDateTime at) {
+        return at.toLocalDate().toEpochDay() * 24 + at.getHour();
+    }
+
+    private static long sum(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total += value;
+        }
+        return total;
+    }
+}
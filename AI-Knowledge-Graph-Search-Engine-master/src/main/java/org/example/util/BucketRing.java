@@ -0,0 +1,115 @@
+package org.example.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-capacity ring of time buckets, each holding a fixed number of long
+ * counters ("series"). Bucket keys are monotonically increasing indexes such
+ * as an epoch day or epoch hour; a slot is recycled when a newer bucket maps
+ * onto it. All counters live in two flat long[] arrays.
+ */
+public class BucketRing {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final int capacity;
+    private final int width;
+    private final long[] keys;
+    private final long[] counts;
+    private long newest = EMPTY;
+
+    public BucketRing(int capacity, int width) {
+        this.capacity = capacity;
+        this.width = width;
+        this.keys = new long[capacity];
+        this.counts = new long[capacity * width];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    public int getCapacity() { return capacity; }
+
+    public int getWidth() { return width; }
+
+    /**
+     * Add delta to one series of a bucket. Buckets that have already
+     * fallen out of the window are ignored.
+     */
+    public synchronized void add(long bucket, int series, long delta) {
+        int slot = claim(bucket);
+        if (slot >= 0) {
+            counts[slot * width + series] += delta;
+        }
+    }
+
+    public synchronized void set(long bucket, int series, long value) {
+        int slot = claim(bucket);
+        if (slot >= 0) {
+            counts[slot * width + series] = value;
+        }
+    }
+
+    public synchronized long get(long bucket, int series) {
+        int slot = slot(bucket);
+        return keys[slot] == bucket ? counts[slot * width + series] : 0;
+    }
+
+    /**
+     * Copy one series for buckets [from, to] inclusive, oldest first
+     */
+    public synchronized long[] range(long from, long to, int series) {
+        long[] values = new long[(int) Math.max(0, to - from + 1)];
+        for (long bucket = from; bucket <= to; bucket++) {
+            int slot = slot(bucket);
+            if (keys[slot] == bucket) {
+                values[(int) (bucket - from)] = counts[slot * width + series];
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Copy every series of a single bucket
+     */
+    public synchronized long[] bucket(long bucket) {
+        int slot = slot(bucket);
+        if (keys[slot] != bucket) {
+            return new long[width];
+        }
+        return Arrays.copyOfRange(counts, slot * width, slot * width + width);
+    }
+
+    /**
+     * True if the bucket is still inside the ring window
+     */
+    public synchronized boolean covers(long bucket) {
+        return newest == EMPTY || bucket > newest - capacity;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(counts, 0);
+        newest = EMPTY;
+    }
+
+    private int claim(long bucket) {
+        if (newest != EMPTY && bucket <= newest - capacity) {
+            return -1;
+        }
+        int slot = slot(bucket);
+        if (keys[slot] != bucket) {
+            if (keys[slot] != EMPTY && keys[slot] > bucket) {
+                return -1;
+            }
+            keys[slot] = bucket;
+            Arrays.fill(counts, slot * width, slot * width + width, 0);
+        }
+        if (newest == EMPTY || bucket > newest) {
+            newest = bucket;
+        }
+        return slot;
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) capacity);
+    }
+}
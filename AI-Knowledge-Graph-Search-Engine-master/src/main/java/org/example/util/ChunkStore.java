@@ -0,0 +1,235 @@
+package org.example.util;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Chunk Store - Content-addressed storage for backup data. Each chunk is
+ * stored once, deflated, under the SHA-256 of its raw bytes
+ * (root/ab/abcdef...), so data shared by many backups takes space once.
+ * Writes go through a temporary file and an atomic rename, so a chunk file
+ * that exists is always complete. Safe for concurrent use; sweeps are kept
+ * apart from backups by a lock shared by every instance on the same
+ * directory within this process.
+ */
+public class ChunkStore {
+
+    /** Directory the store lives in, next to the backup archives */
+    public static final String DIRECTORY = "chunks";
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private static final Map<Path, ReadWriteLock> LOCKS = new ConcurrentHashMap<>();
+
+    private final Path root;
+    private final int compressionLevel;
+    private final ReadWriteLock lock;
+    private final AtomicLong chunksWritten = new AtomicLong();
+    private final AtomicLong chunksReused = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    public ChunkStore(Path root, int compressionLevel) {
+        this.root = root;
+        this.compressionLevel = compressionLevel;
+        this.lock = LOCKS.computeIfAbsent(root.toAbsolutePath().normalize(), key -> new ReentrantReadWriteLock());
+    }
+
+    public Path getRoot() { return root; }
+
+    /**
+     * Anything that stores or reads chunks for a backup holds the read side
+     * until the backup's manifest is complete; a sweep holds the write side
+     * from collecting the referenced chunks until it has deleted the rest
+     */
+    public ReadWriteLock getLock() { return lock; }
+
+    /**
+     * Store a chunk unless it is already present; returns its hash
+     */
+    public String put(byte[] data, int length) throws IOException {
+        String hash = hash(data, length);
+        Path file = path(hash);
+        if (Files.exists(file)) {
+            chunksReused.incrementAndGet();
+            return hash;
+        }
+
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), hash, ".tmp");
+        try {
+            Deflater deflater = new Deflater(compressionLevel);
+            try (OutputStream out = new DeflaterOutputStream(Files.newOutputStream(temp), deflater, 64 * 1024)) {
+                out.write(data, 0, length);
+            } finally {
+                deflater.end();
+            }
+            long size = Files.size(temp);
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file);
+            }
+            chunksWritten.incrementAndGet();
+            bytesWritten.addAndGet(size);
+        } catch (FileAlreadyExistsException e) {
+            // Another backup stored the same chunk first
+            chunksReused.incrementAndGet();
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return hash;
+    }
+
+    /**
+     * Raw bytes of a chunk
+     */
+    public InputStream open(String hash) throws IOException {
+        return new InflaterInputStream(new BufferedInputStream(Files.newInputStream(path(hash)), 64 * 1024));
+    }
+
+    /**
+     * The given chunks read back to back, each opened only when reached
+     */
+    public InputStream openAll(List<String> hashes) {
+        Iterator<String> next = hashes.iterator();
+        return new InputStream() {
+            private InputStream current;
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                while (true) {
+                    if (current == null) {
+                        if (!next.hasNext()) {
+                            return -1;
+                        }
+                        current = open(next.next());
+                    }
+                    int read = current.read(b, off, len);
+                    if (read >= 0) {
+                        return read;
+                    }
+                    current.close();
+                    current = null;
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (current != null) {
+                    current.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * Copy a chunk into another store that does not have it yet
+     */
+    public void copyTo(String hash, ChunkStore target) throws IOException {
+        Path destination = target.path(hash);
+        if (!Files.exists(destination)) {
+            Files.createDirectories(destination.getParent());
+            Files.copy(path(hash), destination);
+        }
+    }
+
+    /**
+     * True if the chunk exists, inflates, and has the expected length and hash
+     */
+    public boolean verify(String hash, long length) {
+        try (InputStream in = open(hash)) {
+            MessageDigest digest = sha256();
+            byte[] buffer = new byte[64 * 1024];
+            long total = 0;
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+                total += read;
+            }
+            return total == length && HEX.formatHex(digest.digest()).equals(hash);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Delete chunks no longer referenced. The caller holds the write side of
+     * getLock(), so no backup still being written can own them.
+     */
+    public int sweep(Set<String> referenced) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        int deleted = 0;
+        try (DirectoryStream<Path> prefixes = Files.newDirectoryStream(root)) {
+            for (Path prefix : prefixes) {
+                if (!Files.isDirectory(prefix)) {
+                    continue;
+                }
+                try (DirectoryStream<Path> chunks = Files.newDirectoryStream(prefix)) {
+                    for (Path chunk : chunks) {
+                        String name = chunk.getFileName().toString();
+                        if (!referenced.contains(name)) {
+                            Files.deleteIfExists(chunk);
+                            deleted++;
+                        }
+                    }
+                }
+            }
+        }
+        return deleted;
+    }
+
+    public long getChunksWritten() { return chunksWritten.get(); }
+
+    public long getChunksReused() { return chunksReused.get(); }
+
+    /** Compressed bytes of the chunks this instance stored */
+    public long getBytesWritten() { return bytesWritten.get(); }
+
+    private Path path(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static String hash(byte[] data, int length) {
+        MessageDigest digest = sha256();
+        digest.update(data, 0, length);
+        return HEX.formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
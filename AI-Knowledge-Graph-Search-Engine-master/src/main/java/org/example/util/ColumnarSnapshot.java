@@ -0,0 +1,141 @@
+package org.example.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Columnar Snapshot - Layout shared by ColumnarSnapshotWriter and
+ * ColumnarSnapshotReader.
+ *
+ * <pre>
+ * magic(8)
+ * block*          every column chunk of a block, in Column order
+ * footer          rowCount(8) columnCount(4)
+ *                 per DICTIONARY column: size(4) then len(4)+UTF-8 per entry
+ *                 blockCount(4), per block: rows(4) then offset(8)+length(4) per column
+ * trailer         footerOffset(8) magic(8)
+ * </pre>
+ *
+ * Chunk encodings: DICTIONARY is a 2-byte code per row; TIMESTAMP is a
+ * presence bitmap followed by zig-zag varint deltas of epoch millis (local
+ * time read as UTC) for present rows; TEXT is rawLength(4) followed by the
+ * deflated run of varint-length-prefixed UTF-8 values. Null text and
+ * dictionary values are stored as empty strings.
+ */
+public final class ColumnarSnapshot {
+
+    static final byte[] MAGIC = "TKCOL\u0000\u0000\u0001".getBytes(StandardCharsets.ISO_8859_1);
+    static final int TRAILER_BYTES = 16;
+    static final int MAX_DICTIONARY_SIZE = 0xFFFF;
+
+    public enum Kind {
+        DICTIONARY,
+        TIMESTAMP,
+        TEXT
+    }
+
+    public enum Column {
+        ID(Kind.TEXT),
+        TITLE(Kind.TEXT),
+        STATUS(Kind.DICTIONARY),
+        PRIORITY(Kind.DICTIONARY),
+        CATEGORY(Kind.DICTIONARY),
+        ASSIGNED_TO(Kind.TEXT),
+        CREATED_BY(Kind.TEXT),
+        CREATED_AT(Kind.TIMESTAMP),
+        UPDATED_AT(Kind.TIMESTAMP),
+        RESOLVED_AT(Kind.TIMESTAMP),
+        DESCRIPTION(Kind.TEXT);
+
+        private final Kind kind;
+
+        Column(Kind kind) {
+            this.kind = kind;
+        }
+
+        public Kind getKind() { return kind; }
+    }
+
+    private ColumnarSnapshot() {
+    }
+
+    static boolean isMagic(byte[] bytes) {
+        return Arrays.equals(bytes, MAGIC);
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long result = 0;
+        int shift = 0;
+        while (true) {
+            byte b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+            shift += 7;
+        }
+    }
+
+    /**
+     * Growable byte array reused across blocks
+     */
+    static final class Bytes {
+        byte[] data;
+        int size;
+
+        Bytes(int capacity) {
+            this.data = new byte[Math.max(capacity, 16)];
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        void ensure(int extra) {
+            if (size + extra > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + extra));
+            }
+        }
+
+        void put(byte b) {
+            ensure(1);
+            data[size++] = b;
+        }
+
+        void put(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, data, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void putInt(int value) {
+            ensure(4);
+            data[size++] = (byte) (value >>> 24);
+            data[size++] = (byte) (value >>> 16);
+            data[size++] = (byte) (value >>> 8);
+            data[size++] = (byte) value;
+        }
+
+        void putVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+
+        ByteBuffer wrap() {
+            return ByteBuffer.wrap(data, 0, size);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package org.example.util;
+
+import org.example.util.ColumnarSnapshot.Column;
+import org.example.util.ColumnarSnapshot.Kind;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Columnar Snapshot Reader - Memory-maps a snapshot written by
+ * ColumnarSnapshotWriter and scans single columns block by block, touching
+ * only the bytes of the requested column. Files up to 2 GB are mapped once;
+ * larger ones are mapped per chunk.
+ */
+public class ColumnarSnapshotReader implements AutoCloseable {
+
+    private static final int COLUMN_COUNT = Column.values().length;
+
+    private final FileChannel channel;
+    private final ByteBuffer mapped;
+    private final long rowCount;
+    private final Map<Column, List<String>> dictionaries;
+    private final int[] blockRows;
+    private final long[][] offsets;
+    private final int[][] lengths;
+
+    private ColumnarSnapshotReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if (size < ColumnarSnapshot.MAGIC.length + ColumnarSnapshot.TRAILER_BYTES) {
+            throw new IOException("Not a columnar snapshot: file too short");
+        }
+        this.mapped = size <= Integer.MAX_VALUE ? channel.map(FileChannel.MapMode.READ_ONLY, 0, size) : null;
+
+        ByteBuffer trailer = region(size - ColumnarSnapshot.TRAILER_BYTES, ColumnarSnapshot.TRAILER_BYTES);
+        long footerOffset = trailer.getLong();
+        byte[] magic = new byte[ColumnarSnapshot.MAGIC.length];
+        trailer.get(magic);
+        if (!ColumnarSnapshot.isMagic(magic) || footerOffset < 0
+                || footerOffset > size - ColumnarSnapshot.TRAILER_BYTES) {
+            throw new IOException("Not a columnar snapshot: bad trailer");
+        }
+
+        ByteBuffer footer = region(footerOffset, (int) (size - ColumnarSnapshot.TRAILER_BYTES - footerOffset));
+        this.rowCount = footer.getLong();
+        if (footer.getInt() != COLUMN_COUNT) {
+            throw new IOException("Unsupported columnar snapshot: column count mismatch");
+        }
+        Map<Column, List<String>> dictionaryMap = new EnumMap<>(Column.class);
+        for (Column column : Column.values()) {
+            if (column.getKind() == Kind.DICTIONARY) {
+                int entries = footer.getInt();
+                List<String> values = new ArrayList<>(entries);
+                for (int i = 0; i < entries; i++) {
+                    byte[] bytes = new byte[footer.getInt()];
+                    footer.get(bytes);
+                    values.add(new String(bytes, StandardCharsets.UTF_8));
+                }
+                dictionaryMap.put(column, Collections.unmodifiableList(values));
+            }
+        }
+        this.dictionaries = dictionaryMap;
+
+        int blocks = footer.getInt();
+        this.blockRows = new int[blocks];
+        this.offsets = new long[blocks][COLUMN_COUNT];
+        this.lengths = new int[blocks][COLUMN_COUNT];
+        for (int b = 0; b < blocks; b++) {
+            blockRows[b] = footer.getInt();
+            for (int i = 0; i < COLUMN_COUNT; i++) {
+                offsets[b][i] = footer.getLong();
+                lengths[b][i] = footer.getInt();
+            }
+        }
+    }
+
+    public static ColumnarSnapshotReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new ColumnarSnapshotReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public int getBlockCount() {
+        return blockRows.length;
+    }
+
+    /**
+     * Values of a dictionary column, indexed by code
+     */
+    public List<String> getDictionary(Column column) {
+        requireKind(column, Kind.DICTIONARY);
+        return dictionaries.get(column);
+    }
+
+    public void scanCodes(Column column, CodeVisitor visitor) throws IOException {
+        requireKind(column, Kind.DICTIONARY);
+        long row = 0;
+        for (int b = 0; b < blockRows.length; b++) {
+            ByteBuffer chunk = chunk(b, column);
+            for (int i = 0; i < blockRows[b]; i++) {
+                visitor.visit(row++, chunk.getChar(i * 2));
+            }
+        }
+    }
+
+    /**
+     * Visit present values only; null timestamps are skipped
+     */
+    public void scanTimestamps(Column column, TimestampVisitor visitor) throws IOException {
+        requireKind(column, Kind.TIMESTAMP);
+        long row = 0;
+        for (int b = 0; b < blockRows.length; b++) {
+            ByteBuffer chunk = chunk(b, column);
+            int rows = blockRows[b];
+            chunk.position((rows + 7) / 8);
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                if ((chunk.get(i >>> 3) & (1 << (i & 7))) != 0) {
+                    previous += ColumnarSnapshot.unZigZag(ColumnarSnapshot.readVarLong(chunk));
+                    visitor.visit(row, previous);
+                }
+                row++;
+            }
+        }
+    }
+
+    public void scanText(Column column, TextVisitor visitor) throws IOException {
+        requireKind(column, Kind.TEXT);
+        Inflater inflater = new Inflater();
+        byte[] raw = new byte[0];
+        long row = 0;
+        try {
+            for (int b = 0; b < blockRows.length; b++) {
+                ByteBuffer chunk = chunk(b, column);
+                int rawLength = chunk.getInt();
+                if (raw.length < rawLength) {
+                    raw = new byte[rawLength];
+                }
+                inflater.reset();
+                inflater.setInput(chunk);
+                int filled = 0;
+                while (filled < rawLength) {
+                    int n = inflater.inflate(raw, filled, rawLength - filled);
+                    if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                        throw new IOException("Truncated text block in " + column);
+                    }
+                    filled += n;
+                }
+
+                ByteBuffer values = ByteBuffer.wrap(raw, 0, rawLength);
+                for (int i = 0; i < blockRows[b]; i++) {
+                    int length = (int) ColumnarSnapshot.readVarLong(values);
+                    visitor.visit(row++, new String(raw, values.position(), length, StandardCharsets.UTF_8));
+                    values.position(values.position() + length);
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt text block in " + column, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Row count per value of a dictionary column, in dictionary order
+     */
+    public Map<String, Long> countBy(Column column) throws IOException {
+        List<String> dictionary = getDictionary(column);
+        long[] counts = new long[dictionary.size()];
+        scanCodes(column, (row, code) -> counts[code]++);
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            result.put(dictionary.get(code), counts[code]);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private ByteBuffer chunk(int block, Column column) throws IOException {
+        return region(offsets[block][column.ordinal()], lengths[block][column.ordinal()]);
+    }
+
+    private ByteBuffer region(long offset, int length) throws IOException {
+        if (mapped != null) {
+            return mapped.slice((int) offset, length);
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+    }
+
+    private static void requireKind(Column column, Kind kind) {
+        if (column.getKind() != kind) {
+            throw new IllegalArgumentException(column + " is not a " + kind + " column");
+        }
+    }
+
+    // Visitor Interfaces
+    public interface CodeVisitor {
+        void visit(long row, int code);
+    }
+
+    public interface TimestampVisitor {
+        void visit(long row, long epochMillis);
+    }
+
+    public interface TextVisitor {
+        void visit(long row, String value);
+    }
+}
@@ -0,0 +1,294 @@
+package org.example.util;
+
+import org.example.model.Ticket;
+import org.example.util.ColumnarSnapshot.Bytes;
+import org.example.util.ColumnarSnapshot.Column;
+import org.example.util.ColumnarSnapshot.Kind;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Columnar Snapshot Writer - Buffers tickets into blocks of blockRows rows
+ * and writes each block column by column. Column buffers are reused from
+ * block to block, so memory is bounded by the block size. The snapshot is
+ * complete only after finish(); closing an unfinished writer, e.g. after a
+ * failed append, deletes the partial file so it cannot pass for a complete
+ * snapshot. Not thread-safe.
+ */
+public class ColumnarSnapshotWriter implements AutoCloseable {
+
+    private static final Column[] COLUMNS = Column.values();
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int blockRows;
+    private final Deflater deflater;
+
+    // One slot per column; only the arrays matching the column kind are used
+    private final char[][] codes = new char[COLUMNS.length][];
+    private final long[][] times = new long[COLUMNS.length][];
+    private final boolean[][] present = new boolean[COLUMNS.length][];
+    private final Bytes[] text = new Bytes[COLUMNS.length];
+    private final Bytes[] chunks = new Bytes[COLUMNS.length];
+    private final Map<Column, Map<String, Integer>> dictionaries = new HashMap<>();
+    private final Map<Column, List<String>> dictionaryValues = new HashMap<>();
+    private final List<long[]> blockOffsets = new ArrayList<>();
+    private final List<int[]> blockLengths = new ArrayList<>();
+    private final List<Integer> blockRowCounts = new ArrayList<>();
+    private final byte[] deflateBuffer = new byte[64 * 1024];
+
+    private int rowsInBlock;
+    private long rowCount;
+    private long position;
+    private boolean finished;
+
+    public ColumnarSnapshotWriter(Path path, int blockRows, int compressionLevel) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        this.blockRows = Math.max(blockRows, 1);
+        this.deflater = new Deflater(compressionLevel);
+
+        for (Column column : COLUMNS) {
+            int i = column.ordinal();
+            chunks[i] = new Bytes(64 * 1024);
+            switch (column.getKind()) {
+                case DICTIONARY:
+                    codes[i] = new char[this.blockRows];
+                    dictionaries.put(column, new HashMap<>());
+                    dictionaryValues.put(column, new ArrayList<>());
+                    break;
+                case TIMESTAMP:
+                    times[i] = new long[this.blockRows];
+                    present[i] = new boolean[this.blockRows];
+                    break;
+                case TEXT:
+                    text[i] = new Bytes(64 * 1024);
+                    break;
+            }
+        }
+        try {
+            write(ByteBuffer.wrap(ColumnarSnapshot.MAGIC));
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    public void append(Ticket ticket) throws IOException {
+        int row = rowsInBlock;
+        text(Column.ID, ticket.getId());
+        text(Column.TITLE, ticket.getTitle());
+        code(Column.STATUS, row, ticket.getStatus());
+        code(Column.PRIORITY, row, ticket.getPriority());
+        code(Column.CATEGORY, row, ticket.getCategory());
+        text(Column.ASSIGNED_TO, ticket.getAssignedTo());
+        text(Column.CREATED_BY, ticket.getCreatedBy());
+        time(Column.CREATED_AT, row, ticket.getCreatedAt());
+        time(Column.UPDATED_AT, row, ticket.getUpdatedAt());
+        time(Column.RESOLVED_AT, row, ticket.getResolvedAt());
+        text(Column.DESCRIPTION, ticket.getDescription());
+
+        rowCount++;
+        if (++rowsInBlock == blockRows) {
+            flushBlock();
+        }
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /** Bytes written to the channel so far */
+    public long getBytesWritten() {
+        return position;
+    }
+
+    /**
+     * Write the last partial block, the footer and the trailer
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        flushBlock();
+
+        long footerOffset = position;
+        Bytes footer = chunks[0];
+        footer.reset();
+        putLong(footer, rowCount);
+        footer.putInt(COLUMNS.length);
+        for (Column column : COLUMNS) {
+            if (column.getKind() == Kind.DICTIONARY) {
+                List<String> values = dictionaryValues.get(column);
+                footer.putInt(values.size());
+                for (String value : values) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    footer.putInt(bytes.length);
+                    footer.put(bytes);
+                }
+            }
+        }
+        footer.putInt(blockRowCounts.size());
+        for (int b = 0; b < blockRowCounts.size(); b++) {
+            footer.putInt(blockRowCounts.get(b));
+            for (int i = 0; i < COLUMNS.length; i++) {
+                putLong(footer, blockOffsets.get(b)[i]);
+                footer.putInt(blockLengths.get(b)[i]);
+            }
+        }
+        putLong(footer, footerOffset);
+        footer.put(ColumnarSnapshot.MAGIC);
+        write(footer.wrap());
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            deflater.end();
+            if (!finished) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private void text(Column column, String value) {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        Bytes buffer = text[column.ordinal()];
+        buffer.putVarLong(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private void code(Column column, int row, String value) throws IOException {
+        String key = value != null ? value : "";
+        Integer code = dictionaries.get(column).get(key);
+        if (code == null) {
+            List<String> values = dictionaryValues.get(column);
+            if (values.size() >= ColumnarSnapshot.MAX_DICTIONARY_SIZE) {
+                throw new IOException("Too many distinct " + column + " values for a dictionary column");
+            }
+            code = values.size();
+            values.add(key);
+            dictionaries.get(column).put(key, code);
+        }
+        codes[column.ordinal()][row] = (char) code.intValue();
+    }
+
+    private void time(Column column, int row, LocalDateTime value) {
+        int i = column.ordinal();
+        present[i][row] = value != null;
+        if (value != null) {
+            times[i][row] = value.toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (rowsInBlock == 0) {
+            return;
+        }
+        long[] offsets = new long[COLUMNS.length];
+        int[] lengths = new int[COLUMNS.length];
+        ByteBuffer[] buffers = new ByteBuffer[COLUMNS.length];
+        long offset = position;
+
+        for (Column column : COLUMNS) {
+            int i = column.ordinal();
+            Bytes chunk = chunks[i];
+            chunk.reset();
+            switch (column.getKind()) {
+                case DICTIONARY:
+                    encodeCodes(codes[i], chunk);
+                    break;
+                case TIMESTAMP:
+                    encodeTimes(times[i], present[i], chunk);
+                    break;
+                case TEXT:
+                    encodeText(text[i], chunk);
+                    text[i].reset();
+                    break;
+            }
+            offsets[i] = offset;
+            lengths[i] = chunk.size;
+            offset += chunk.size;
+            buffers[i] = chunk.wrap();
+        }
+
+        // One gathering write per block
+        while (position < offset) {
+            position += channel.write(buffers);
+        }
+        blockOffsets.add(offsets);
+        blockLengths.add(lengths);
+        blockRowCounts.add(rowsInBlock);
+        rowsInBlock = 0;
+    }
+
+    private void encodeCodes(char[] values, Bytes chunk) {
+        chunk.ensure(rowsInBlock * 2);
+        for (int row = 0; row < rowsInBlock; row++) {
+            chunk.data[chunk.size++] = (byte) (values[row] >>> 8);
+            chunk.data[chunk.size++] = (byte) values[row];
+        }
+    }
+
+    private void encodeTimes(long[] values, boolean[] isPresent, Bytes chunk) {
+        int bitmapBytes = (rowsInBlock + 7) / 8;
+        chunk.ensure(bitmapBytes);
+        for (int row = 0; row < rowsInBlock; row += 8) {
+            int bits = 0;
+            for (int bit = 0; bit < 8 && row + bit < rowsInBlock; bit++) {
+                if (isPresent[row + bit]) {
+                    bits |= 1 << bit;
+                }
+            }
+            chunk.data[chunk.size++] = (byte) bits;
+        }
+        long previous = 0;
+        for (int row = 0; row < rowsInBlock; row++) {
+            if (isPresent[row]) {
+                chunk.putVarLong(ColumnarSnapshot.zigZag(values[row] - previous));
+                previous = values[row];
+            }
+        }
+    }
+
+    private void encodeText(Bytes raw, Bytes chunk) {
+        chunk.putInt(raw.size);
+        deflater.reset();
+        deflater.setInput(raw.data, 0, raw.size);
+        deflater.finish();
+        while (!deflater.finished()) {
+            int n = deflater.deflate(deflateBuffer);
+            chunk.ensure(n);
+            System.arraycopy(deflateBuffer, 0, chunk.data, chunk.size, n);
+            chunk.size += n;
+        }
+    }
+
+    private static void putLong(Bytes bytes, long value) {
+        bytes.putInt((int) (value >>> 32));
+        bytes.putInt((int) value);
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Content Defined Chunker - Cuts a byte stream into chunks whose boundaries
+ * depend only on nearby content (FastCDC-style gear hash with normalized
+ * chunking), so an insert or edit early in a stream changes the chunks
+ * around it and leaves the rest identical. Chunks are between minSize and
+ * maxSize bytes, averaging about avgSize, and are handed to a sink as they
+ * are cut.
+ */
+public class ContentDefinedChunker extends OutputStream {
+
+    private static final long[] GEAR = new long[256];
+
+    static {
+        // splitmix64 from a fixed seed: the table, and so every boundary, must never change
+        long seed = 0x5EEDC0DEL;
+        for (int i = 0; i < GEAR.length; i++) {
+            seed += 0x9E3779B97F4A7C15L;
+            long z = seed;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            GEAR[i] = z ^ (z >>> 31);
+        }
+    }
+
+    private final ChunkSink sink;
+    private final int minSize;
+    private final int avgSize;
+    private final byte[] buffer;
+    private final long strictMask;
+    private final long looseMask;
+    private int length;
+    private long hash;
+    private boolean closed;
+
+    public ContentDefinedChunker(int avgSize, ChunkSink sink) {
+        this.sink = sink;
+        this.avgSize = Integer.highestOneBit(Math.max(avgSize, 256));
+        this.minSize = this.avgSize / 4;
+        this.buffer = new byte[this.avgSize * 4];
+        int bits = Integer.numberOfTrailingZeros(this.avgSize);
+        // Harder to cut before the average size, easier after it
+        this.strictMask = mask(bits + 2);
+        this.looseMask = mask(bits - 2);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        buffer[length++] = (byte) b;
+        if (boundary(b)) {
+            cut();
+        }
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int count) throws IOException {
+        int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            byte b = data[i];
+            buffer[length++] = b;
+            if (boundary(b)) {
+                cut();
+            }
+        }
+    }
+
+    /**
+     * Emit the final, possibly short, chunk
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            if (length > 0) {
+                cut();
+            }
+        }
+    }
+
+    private boolean boundary(int b) {
+        hash = (hash << 1) + GEAR[b & 0xFF];
+        if (length < minSize) {
+            return false;
+        }
+        if (length >= buffer.length) {
+            return true;
+        }
+        return (hash & (length < avgSize ? strictMask : looseMask)) == 0;
+    }
+
+    private void cut() throws IOException {
+        sink.accept(buffer, length);
+        length = 0;
+        hash = 0;
+    }
+
+    /**
+     * Mask of the given number of bits spread over the upper half of the hash,
+     * where the gear hash has mixed in the most recent bytes
+     */
+    private static long mask(int bits) {
+        long mask = 0;
+        for (int i = 0; i < bits; i++) {
+            mask |= 1L << (63 - i * 2);
+        }
+        return mask;
+    }
+
+    // Sink Interface
+    public interface ChunkSink {
+        /** The buffer is reused once this returns */
+        void accept(byte[] data, int length) throws IOException;
+    }
+}
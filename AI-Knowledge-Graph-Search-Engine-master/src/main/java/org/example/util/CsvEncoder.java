@@ -0,0 +1,149 @@
+package org.example.util;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * CSV Encoder - Writes quoted CSV fields straight into a large byte buffer,
+ * encoding UTF-8 by hand so rows cost no intermediate Strings. The buffer is
+ * drained to the channel whenever it fills. One instance per output; not
+ * thread-safe.
+ */
+public class CsvEncoder implements Flushable {
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final StringBuilder scratch = new StringBuilder(32);
+    private long flushedBytes;
+    private boolean rowStarted;
+
+    public CsvEncoder(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(Math.max(bufferSize, 64));
+    }
+
+    /**
+     * Write text as-is, e.g. a header line
+     */
+    public CsvEncoder raw(CharSequence text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            i = encode(text, i, text.length());
+        }
+        return this;
+    }
+
+    /**
+     * Quoted field; embedded quotes are doubled and null is written empty
+     */
+    public CsvEncoder field(CharSequence value) throws IOException {
+        return field(value, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Quoted field cut to maxLength characters plus "..." when longer
+     */
+    public CsvEncoder field(CharSequence value, int maxLength) throws IOException {
+        startField();
+        if (value != null) {
+            int end = Math.min(value.length(), maxLength);
+            for (int i = 0; i < end; i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    put((byte) '"');
+                    put((byte) '"');
+                } else {
+                    i = encode(value, i, end);
+                }
+            }
+            if (value.length() > maxLength) {
+                put((byte) '.');
+                put((byte) '.');
+                put((byte) '.');
+            }
+        }
+        put((byte) '"');
+        return this;
+    }
+
+    /**
+     * Quoted date field formatted through a reused buffer; null is written empty
+     */
+    public CsvEncoder field(TemporalAccessor value, DateTimeFormatter formatter) throws IOException {
+        if (value == null) {
+            return field(null);
+        }
+        scratch.setLength(0);
+        formatter.formatTo(value, scratch);
+        return field(scratch);
+    }
+
+    public void endRow() throws IOException {
+        put((byte) '\n');
+        rowStarted = false;
+    }
+
+    /** Bytes encoded so far, including any still buffered */
+    public long getBytesWritten() {
+        return flushedBytes + buffer.position();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            flushedBytes += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void startField() throws IOException {
+        if (rowStarted) {
+            put((byte) ',');
+        }
+        rowStarted = true;
+        put((byte) '"');
+    }
+
+    /**
+     * UTF-8 encode the char at index; returns the last index consumed
+     */
+    private int encode(CharSequence text, int index, int end) throws IOException {
+        if (buffer.remaining() < 4) {
+            flush();
+        }
+        char c = text.charAt(index);
+        if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xC0 | (c >> 6)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isHighSurrogate(c) && index + 1 < end
+                && Character.isLowSurrogate(text.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, text.charAt(index + 1));
+            buffer.put((byte) (0xF0 | (codePoint >> 18)));
+            buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+            buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            return index + 1;
+        } else if (Character.isSurrogate(c)) {
+            // Unpaired surrogate
+            buffer.put((byte) '?');
+        } else {
+            buffer.put((byte) (0xE0 | (c >> 12)));
+            buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        }
+        return index;
+    }
+
+    private void put(byte b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put(b);
+    }
+}
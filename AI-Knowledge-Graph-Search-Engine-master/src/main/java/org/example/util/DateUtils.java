@@ -70,6 +70,17 @@ public class DateUtils {
         return years + " year" + (years > 1 ? "s" : "") + " ago";
     }
 
+    /**
+     * Human-readable duration such as "45 minutes", "18.5 hours" or "3.2 days"
+     */
+    public static String formatDuration(double minutes) {
+        if (minutes < 60)
+            return String.format("%.0f minutes", minutes);
+        if (minutes < 48 * 60)
+            return String.format("%.1f hours", minutes / 60);
+        return String.format("%.1f days", minutes / (24 * 60));
+    }
+
     public static boolean isOverdue(LocalDateTime deadline) {
         return deadline != null && LocalDateTime.now().isAfter(deadline);
     }
@@ -0,0 +1,200 @@
+package org.example.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.types.IsoDuration;
+import org.neo4j.driver.types.Point;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Graph Value Codec - JSON form of Neo4j property values that keeps their
+ * Cypher type. Plain JSON types are written as-is; temporal, spatial,
+ * duration and byte array values become one-key objects such as
+ * {"$datetime": "2024-01-02T03:04:05Z[UTC]"} so they restore to the same type.
+ */
+public final class GraphValueCodec {
+
+    private GraphValueCodec() {
+    }
+
+    public static void writeProperties(JsonGenerator json, Map<String, Object> properties) throws IOException {
+        json.writeStartObject();
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            json.writeFieldName(entry.getKey());
+            write(json, entry.getValue());
+        }
+        json.writeEndObject();
+    }
+
+    public static void write(JsonGenerator json, Object value) throws IOException {
+        if (value == null) {
+            json.writeNull();
+        } else if (value instanceof String) {
+            json.writeString((String) value);
+        } else if (value instanceof Boolean) {
+            json.writeBoolean((Boolean) value);
+        } else if (value instanceof Long || value instanceof Integer
+                || value instanceof Short || value instanceof Byte) {
+            json.writeNumber(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            if (Double.isFinite(number)) {
+                json.writeNumber(number);
+            } else {
+                typed(json, "$float", Double.toString(number));
+            }
+        } else if (value instanceof ZonedDateTime) {
+            typed(json, "$datetime", DateTimeFormatter.ISO_ZONED_DATE_TIME.format((ZonedDateTime) value));
+        } else if (value instanceof OffsetDateTime) {
+            typed(json, "$datetime", DateTimeFormatter.ISO_ZONED_DATE_TIME.format((OffsetDateTime) value));
+        } else if (value instanceof LocalDateTime) {
+            typed(json, "$localdatetime", value.toString());
+        } else if (value instanceof LocalDate) {
+            typed(json, "$date", value.toString());
+        } else if (value instanceof OffsetTime) {
+            typed(json, "$time", value.toString());
+        } else if (value instanceof LocalTime) {
+            typed(json, "$localtime", value.toString());
+        } else if (value instanceof IsoDuration) {
+            IsoDuration duration = (IsoDuration) value;
+            json.writeStartObject();
+            json.writeFieldName("$duration");
+            json.writeStartArray();
+            json.writeNumber(duration.months());
+            json.writeNumber(duration.days());
+            json.writeNumber(duration.seconds());
+            json.writeNumber(duration.nanoseconds());
+            json.writeEndArray();
+            json.writeEndObject();
+        } else if (value instanceof Point) {
+            Point point = (Point) value;
+            json.writeStartObject();
+            json.writeFieldName("$point");
+            json.writeStartArray();
+            json.writeNumber(point.srid());
+            json.writeNumber(point.x());
+            json.writeNumber(point.y());
+            if (!Double.isNaN(point.z())) {
+                json.writeNumber(point.z());
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        } else if (value instanceof byte[]) {
+            typed(json, "$bytes", Base64.getEncoder().encodeToString((byte[]) value));
+        } else if (value instanceof List) {
+            json.writeStartArray();
+            for (Object item : (List<?>) value) {
+                write(json, item);
+            }
+            json.writeEndArray();
+        } else if (value instanceof Map) {
+            json.writeStartObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                json.writeFieldName(String.valueOf(entry.getKey()));
+                write(json, entry.getValue());
+            }
+            json.writeEndObject();
+        } else {
+            json.writeString(value.toString());
+        }
+    }
+
+    /**
+     * Decode a property map written by writeProperties()
+     */
+    public static Map<String, Object> readProperties(JsonNode node) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        if (node != null) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                properties.put(field.getKey(), read(field.getValue()));
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Decode a value written by write(); the result can be passed straight
+     * back to the driver as a query parameter
+     */
+    public static Object read(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        if (node.isTextual()) {
+            return node.asText();
+        }
+        if (node.isBoolean()) {
+            return node.asBoolean();
+        }
+        if (node.isIntegralNumber()) {
+            return node.asLong();
+        }
+        if (node.isNumber()) {
+            return node.asDouble();
+        }
+        if (node.isArray()) {
+            List<Object> values = new ArrayList<>(node.size());
+            for (JsonNode item : node) {
+                values.add(read(item));
+            }
+            return values;
+        }
+
+        if (node.size() == 1) {
+            Map.Entry<String, JsonNode> only = node.fields().next();
+            JsonNode body = only.getValue();
+            switch (only.getKey()) {
+                case "$float":
+                    return Double.parseDouble(body.asText());
+                case "$datetime":
+                    return ZonedDateTime.parse(body.asText(), DateTimeFormatter.ISO_ZONED_DATE_TIME);
+                case "$localdatetime":
+                    return LocalDateTime.parse(body.asText());
+                case "$date":
+                    return LocalDate.parse(body.asText());
+                case "$time":
+                    return OffsetTime.parse(body.asText());
+                case "$localtime":
+                    return LocalTime.parse(body.asText());
+                case "$duration":
+                    return Values.isoDuration(body.get(0).asLong(), body.get(1).asLong(),
+                            body.get(2).asLong(), body.get(3).asInt()).asIsoDuration();
+                case "$point":
+                    return body.size() > 3
+                            ? Values.point(body.get(0).asInt(), body.get(1).asDouble(),
+                                    body.get(2).asDouble(), body.get(3).asDouble()).asPoint()
+                            : Values.point(body.get(0).asInt(), body.get(1).asDouble(),
+                                    body.get(2).asDouble()).asPoint();
+                case "$bytes":
+                    return Base64.getDecoder().decode(body.asText());
+                default:
+                    break;
+            }
+        }
+
+        return readProperties(node);
+    }
+
+    private static void typed(JsonGenerator json, String type, String value) throws IOException {
+        json.writeStartObject();
+        json.writeStringField(type, value);
+        json.writeEndObject();
+    }
+}
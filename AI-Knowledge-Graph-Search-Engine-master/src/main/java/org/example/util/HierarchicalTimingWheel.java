@@ -0,0 +1,301 @@
+package org.example.util;
+
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hierarchical timing wheel (as in Kafka's purgatory). Each level is a ring
+ * of buckets covering tickMs * wheelSize; timeouts beyond that overflow into
+ * a coarser level created on demand. Only non-empty buckets are placed in a
+ * DelayQueue, so the reaper thread sleeps until the next bucket expires and
+ * insert, cancel and expiry are all O(1). Expired tasks run on a separate
+ * executor so slow callbacks never delay the clock.
+ */
+public class HierarchicalTimingWheel {
+
+    private final DelayQueue<Bucket> delayQueue = new DelayQueue<>();
+    private final AtomicInteger taskCounter = new AtomicInteger();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Level root;
+    private final ExecutorService taskExecutor;
+    private final Thread reaper;
+    private volatile boolean running = true;
+
+    public HierarchicalTimingWheel(String name, long tickMs, int wheelSize) {
+        this.root = new Level(tickMs, wheelSize, System.currentTimeMillis());
+        this.taskExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, name + "-executor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.reaper = new Thread(this::reap, name + "-reaper");
+        this.reaper.setDaemon(true);
+        this.reaper.start();
+    }
+
+    /**
+     * Run the task at the given wall-clock time (epoch millis). Times already
+     * past run immediately.
+     */
+    public Timeout schedule(Runnable task, long expirationMs) {
+        Timeout timeout = new Timeout(task, expirationMs);
+        lock.readLock().lock();
+        try {
+            addOrRun(timeout);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return timeout;
+    }
+
+    public Timeout scheduleAfter(Runnable task, long delayMs) {
+        return schedule(task, System.currentTimeMillis() + delayMs);
+    }
+
+    /**
+     * Number of scheduled tasks that have neither run nor been cancelled
+     */
+    public int size() {
+        return taskCounter.get();
+    }
+
+    public void shutdown() {
+        running = false;
+        reaper.interrupt();
+        taskExecutor.shutdownNow();
+    }
+
+    private void addOrRun(Timeout timeout) {
+        if (!root.add(timeout) && timeout.expire()) {
+            taskExecutor.execute(timeout.task);
+        }
+    }
+
+    private void reap() {
+        while (running) {
+            try {
+                Bucket bucket = delayQueue.poll(200, TimeUnit.MILLISECONDS);
+                if (bucket == null) {
+                    continue;
+                }
+                lock.writeLock().lock();
+                try {
+                    while (bucket != null) {
+                        root.advanceClock(bucket.getExpiration());
+                        bucket.flush(this::addOrRun);
+                        bucket = delayQueue.poll();
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println("❌ Timing wheel error: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Handle to a scheduled task
+     */
+    public final class Timeout {
+        private static final int PENDING = 0;
+        private static final int EXPIRED = 1;
+        private static final int CANCELLED = 2;
+
+        private final Runnable task;
+        private final long expirationMs;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private volatile Bucket bucket;
+        private Timeout next;
+        private Timeout prev;
+
+        private Timeout(Runnable task, long expirationMs) {
+            this.task = task;
+            this.expirationMs = expirationMs;
+        }
+
+        public long getExpirationMs() { return expirationMs; }
+
+        public boolean isCancelled() { return state.get() == CANCELLED; }
+
+        /** True once the task has been handed to the executor */
+        public boolean isExpired() { return state.get() == EXPIRED; }
+
+        /**
+         * Cancel the task; returns false if it had already run or been cancelled
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            // The entry may move between buckets while the clock advances
+            Bucket current = bucket;
+            while (current != null) {
+                current.remove(this);
+                current = bucket;
+            }
+            return true;
+        }
+
+        /**
+         * Claim the task for execution; false if it was cancelled first
+         */
+        private boolean expire() {
+            return state.compareAndSet(PENDING, EXPIRED);
+        }
+    }
+
+    private final class Level {
+        private final long tickMs;
+        private final int wheelSize;
+        private final long interval;
+        private final Bucket[] buckets;
+        private long currentTime;
+        private volatile Level overflow;
+
+        Level(long tickMs, int wheelSize, long startMs) {
+            this.tickMs = tickMs;
+            this.wheelSize = wheelSize;
+            this.interval = tickMs * wheelSize;
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket();
+            }
+            this.currentTime = startMs - (startMs % tickMs);
+        }
+
+        /**
+         * Place the timeout in a bucket; false if it has already expired or been cancelled
+         */
+        boolean add(Timeout timeout) {
+            long expiration = timeout.expirationMs;
+            if (timeout.isCancelled()) {
+                return false;
+            }
+            if (expiration < currentTime + tickMs) {
+                return false;
+            }
+            if (expiration < currentTime + interval) {
+                long virtualId = expiration / tickMs;
+                Bucket bucket = buckets[(int) (virtualId % wheelSize)];
+                bucket.add(timeout);
+                if (bucket.setExpiration(virtualId * tickMs)) {
+                    delayQueue.offer(bucket);
+                }
+                return true;
+            }
+            return overflow().add(timeout);
+        }
+
+        void advanceClock(long timeMs) {
+            if (timeMs >= currentTime + tickMs) {
+                currentTime = timeMs - (timeMs % tickMs);
+                if (overflow != null) {
+                    overflow.advanceClock(currentTime);
+                }
+            }
+        }
+
+        private Level overflow() {
+            if (overflow == null) {
+                synchronized (this) {
+                    if (overflow == null) {
+                        overflow = new Level(interval, wheelSize, currentTime);
+                    }
+                }
+            }
+            return overflow;
+        }
+    }
+
+    private final class Bucket implements Delayed {
+        private final Timeout root = new Timeout(null, -1);
+        private final AtomicLong expiration = new AtomicLong(-1);
+
+        Bucket() {
+            root.next = root;
+            root.prev = root;
+        }
+
+        long getExpiration() {
+            return expiration.get();
+        }
+
+        /**
+         * True if the expiration changed, i.e. the bucket must be (re)queued
+         */
+        boolean setExpiration(long expirationMs) {
+            return expiration.getAndSet(expirationMs) != expirationMs;
+        }
+
+        void add(Timeout timeout) {
+            boolean done = false;
+            while (!done) {
+                // Detach from any previous bucket first
+                Bucket current = timeout.bucket;
+                if (current != null) {
+                    current.remove(timeout);
+                }
+                synchronized (this) {
+                    synchronized (timeout) {
+                        if (timeout.bucket == null) {
+                            Timeout tail = root.prev;
+                            timeout.next = root;
+                            timeout.prev = tail;
+                            timeout.bucket = this;
+                            tail.next = timeout;
+                            root.prev = timeout;
+                            taskCounter.incrementAndGet();
+                            done = true;
+                        }
+                    }
+                }
+            }
+        }
+
+        synchronized void remove(Timeout timeout) {
+            synchronized (timeout) {
+                if (timeout.bucket == this) {
+                    timeout.next.prev = timeout.prev;
+                    timeout.prev.next = timeout.next;
+                    timeout.next = null;
+                    timeout.prev = null;
+                    timeout.bucket = null;
+                    taskCounter.decrementAndGet();
+                }
+            }
+        }
+
+        /**
+         * Remove every entry and hand it back for re-insertion at a finer level or execution
+         */
+        synchronized void flush(java.util.function.Consumer<Timeout> consumer) {
+            Timeout head = root.next;
+            while (head != root) {
+                remove(head);
+                consumer.accept(head);
+                head = root.next;
+            }
+            expiration.set(-1);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Math.max(getExpiration() - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getExpiration(), ((Bucket) other).getExpiration());
+        }
+    }
+}
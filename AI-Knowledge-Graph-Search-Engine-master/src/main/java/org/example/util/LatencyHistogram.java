@@ -0,0 +1,217 @@
+package org.example.util;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Log-bucketed latency histogram in the style of HdrHistogram.
+ * Values below 128 are counted exactly; above that each power-of-two range
+ * is split into 64 linear sub-buckets, giving ~1.5% relative precision over
+ * the whole long range with a fixed 3.7k-slot counts array. Histograms are
+ * mergeable and serialize to a compact sparse byte form.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS / 2;
+    private static final int BUCKETS = 64 - SUB_BUCKET_BITS + 1;
+    private static final int LENGTH = SUB_BUCKETS + (BUCKETS - 1) * HALF;
+    private static final int MAGIC = 0x4C48_0001;
+
+    private final long[] counts = new long[LENGTH];
+    private long totalCount;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    public synchronized void record(long value) {
+        record(value, 1);
+    }
+
+    public synchronized void record(long value, long count) {
+        if (value < 0 || count <= 0) {
+            return;
+        }
+        counts[indexOf(value)] += count;
+        totalCount += count;
+        sum += value * count;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Take back one earlier record of value. When its bucket empties, min and
+     * max shrink to the edge of the nearest bucket still in use.
+     */
+    public synchronized void remove(long value) {
+        if (value < 0) {
+            return;
+        }
+        int index = indexOf(value);
+        if (counts[index] == 0) {
+            return;
+        }
+        counts[index]--;
+        totalCount--;
+        sum -= value;
+        if (totalCount == 0) {
+            min = Long.MAX_VALUE;
+            max = 0;
+            return;
+        }
+        if (value <= min) {
+            int first = 0;
+            while (counts[first] == 0) first++;
+            min = Math.max(min, lowestValueAt(first));
+        }
+        if (value >= max) {
+            int last = LENGTH - 1;
+            while (counts[last] == 0) last--;
+            max = Math.min(max, lowestValueAt(last) + bucketWidthAt(last) - 1);
+        }
+    }
+
+    /**
+     * Add every count of another histogram into this one
+     */
+    public void merge(LatencyHistogram other) {
+        LatencyHistogram source = other.copy();
+        synchronized (this) {
+            for (int i = 0; i < LENGTH; i++) {
+                counts[i] += source.counts[i];
+            }
+            totalCount += source.totalCount;
+            sum += source.sum;
+            if (source.totalCount > 0) {
+                min = Math.min(min, source.min);
+                max = Math.max(max, source.max);
+            }
+        }
+    }
+
+    public synchronized LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        System.arraycopy(counts, 0, copy.counts, 0, LENGTH);
+        copy.totalCount = totalCount;
+        copy.sum = sum;
+        copy.min = min;
+        copy.max = max;
+        return copy;
+    }
+
+    public synchronized void reset() {
+        java.util.Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    public synchronized long getTotalCount() { return totalCount; }
+
+    public synchronized long getMin() { return totalCount > 0 ? min : 0; }
+
+    public synchronized long getMax() { return max; }
+
+    public synchronized double getMean() {
+        return totalCount > 0 ? (double) sum / totalCount : 0.0;
+    }
+
+    /**
+     * Value at the given percentile (0-100), reported as the midpoint of its
+     * bucket and clamped to the recorded min/max
+     */
+    public synchronized long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        double clamped = Math.max(0.0, Math.min(100.0, percentile));
+        long target = Math.max(1, (long) Math.ceil(clamped / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                long value = lowestValueAt(i) + (bucketWidthAt(i) - 1) / 2;
+                return Math.max(min, Math.min(max, value));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Sparse binary form: header, then (index, count) pairs for non-empty slots
+     */
+    public synchronized byte[] toBytes() {
+        int used = 0;
+        for (long count : counts) {
+            if (count != 0) used++;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 8 * 4 + 4 + used * (4 + 8));
+        buffer.putInt(MAGIC);
+        buffer.putLong(totalCount);
+        buffer.putLong(sum);
+        buffer.putLong(min);
+        buffer.putLong(max);
+        buffer.putInt(used);
+        for (int i = 0; i < LENGTH; i++) {
+            if (counts[i] != 0) {
+                buffer.putInt(i);
+                buffer.putLong(counts[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    public static LatencyHistogram fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a serialized LatencyHistogram");
+        }
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.totalCount = buffer.getLong();
+        histogram.sum = buffer.getLong();
+        histogram.min = buffer.getLong();
+        histogram.max = buffer.getLong();
+        int used = buffer.getInt();
+        for (int i = 0; i < used; i++) {
+            int index = buffer.getInt();
+            histogram.counts[index] = buffer.getLong();
+        }
+        return histogram;
+    }
+
+    public String toBase64() {
+        return Base64.getEncoder().encodeToString(toBytes());
+    }
+
+    public static LatencyHistogram fromBase64(String encoded) {
+        return fromBytes(Base64.getDecoder().decode(encoded));
+    }
+
+    static int indexOf(long value) {
+        int bucket = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1));
+        int sub = (int) (value >>> bucket);
+        return bucket == 0 ? sub : SUB_BUCKETS + (bucket - 1) * HALF + (sub - HALF);
+    }
+
+    static long lowestValueAt(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int bucket = (index - SUB_BUCKETS) / HALF + 1;
+        int sub = (index - SUB_BUCKETS) % HALF + HALF;
+        return (long) sub << bucket;
+    }
+
+    static long bucketWidthAt(int index) {
+        return index < SUB_BUCKETS ? 1 : 1L << ((index - SUB_BUCKETS) / HALF + 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LatencyHistogram{count=%d, p50=%d, p90=%d, p99=%d, max=%d}",
+                getTotalCount(), getValueAtPercentile(50), getValueAtPercentile(90),
+                getValueAtPercentile(99), getMax());
+    }
+}
@@ -0,0 +1,330 @@
+package org.example.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Mapped Journal - Append-only log of binary records in fixed-size
+ * memory-mapped segment files (segment-00000000000000000042.log). Each
+ * record is framed as [length][CRC32C][payload], padded to 8 bytes.
+ * Appenders claim space with one atomic add and copy the payload straight
+ * into the mapping, then publish the length with release semantics, so any
+ * number of threads can append without a lock. A single reader polls
+ * records in order and acknowledges them once they are safely stored
+ * elsewhere; the position is checkpointed and fully acknowledged segments
+ * are deleted. Records survive a process crash as soon as append returns
+ * and a power loss once sync has run.
+ */
+public class MappedJournal implements Closeable {
+
+    private static final int MAGIC = 0x4C4E4A41; // "AJNL"
+    private static final int HEADER = 8;
+    private static final int FRAME_HEADER = 8;
+    private static final int END_OF_SEGMENT = -1;
+    private static final String CHECKPOINT = "checkpoint";
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final AtomicLong corruptRecords = new AtomicLong();
+    private volatile Segment active;
+
+    // Reader state, single thread
+    private Segment readSegment;
+    private int readOffset;
+
+    public MappedJournal(Path dir, int segmentBytes) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes & ~7;
+        Files.createDirectories(dir);
+        recover();
+    }
+
+    /**
+     * Append one record; safe from any thread
+     */
+    public void append(byte[] record) throws IOException {
+        int frame = align(FRAME_HEADER + record.length);
+        if (frame > segmentBytes - HEADER) {
+            throw new IOException("Journal record of " + record.length + " bytes exceeds the segment size");
+        }
+
+        while (true) {
+            Segment segment = active;
+            segment.writers.incrementAndGet();
+            try {
+                int start = segment.claimed.getAndAdd(frame);
+                if (start + frame <= segmentBytes) {
+                    segment.buffer.put(start + FRAME_HEADER, record);
+                    segment.buffer.putInt(start + 4, checksum(record));
+                    INT.setRelease(segment.buffer, start, record.length);
+                    return;
+                }
+                if (start + 4 <= segmentBytes) {
+                    // This claim straddles the end; tell the reader to move on
+                    INT.setRelease(segment.buffer, start, END_OF_SEGMENT);
+                }
+            } finally {
+                segment.writers.decrementAndGet();
+            }
+            rotate(segment);
+        }
+    }
+
+    /**
+     * Hand up to max records after the read position to the consumer, in
+     * append order. Only the single reader thread may call this.
+     */
+    public int poll(Consumer<byte[]> consumer, int max) {
+        int polled = 0;
+        while (polled < max) {
+            Segment segment = readSegment;
+            int capacity = segment.buffer.capacity();
+            if (readOffset + FRAME_HEADER > capacity) {
+                if (!advance()) {
+                    break;
+                }
+                continue;
+            }
+
+            int length = (int) INT.getAcquire(segment.buffer, readOffset);
+            if (length == 0) {
+                // Not written yet, or the unused tail of a finished segment
+                if (!isSealed(segment) || !advance()) {
+                    break;
+                }
+                continue;
+            }
+            if (length == END_OF_SEGMENT) {
+                if (!advance()) {
+                    break;
+                }
+                continue;
+            }
+            if (length < 0 || readOffset + FRAME_HEADER + length > capacity) {
+                corrupt(segment, "bad length " + length);
+                if (!advance()) {
+                    break;
+                }
+                continue;
+            }
+
+            byte[] record = new byte[length];
+            segment.buffer.get(readOffset + FRAME_HEADER, record);
+            if (segment.buffer.getInt(readOffset + 4) != checksum(record)) {
+                // Nothing after a torn record can be trusted
+                corrupt(segment, "checksum mismatch");
+                if (!advance()) {
+                    break;
+                }
+                continue;
+            }
+            readOffset += align(FRAME_HEADER + length);
+            polled++;
+            consumer.accept(record);
+        }
+        return polled;
+    }
+
+    /**
+     * Mark every polled record as stored: checkpoint the read position and
+     * delete the segments before it. Only the reader thread may call this.
+     */
+    public void acknowledge() throws IOException {
+        Path temp = dir.resolve(CHECKPOINT + ".tmp");
+        Files.writeString(temp, readSegment.index + " " + readOffset, StandardCharsets.UTF_8);
+        try {
+            Files.move(temp, dir.resolve(CHECKPOINT), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, dir.resolve(CHECKPOINT), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        for (Map.Entry<Long, Segment> entry : segments.headMap(readSegment.index).entrySet()) {
+            segments.remove(entry.getKey());
+            try {
+                Files.deleteIfExists(entry.getValue().path);
+            } catch (IOException e) {
+                // Still mapped on some platforms; recovery deletes it on the next start
+                System.err.println("❌ Could not delete journal segment " + entry.getValue().path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Force appended records to disk; cheap when nothing changed
+     */
+    public void sync() {
+        for (Segment segment : segments.values()) {
+            if (!segment.synced) {
+                boolean sealed = isSealed(segment);
+                segment.buffer.force();
+                segment.synced = sealed;
+            }
+        }
+    }
+
+    /** Segments on disk, including the one being written */
+    public int getSegmentCount() { return segments.size(); }
+
+    public long getCorruptRecords() { return corruptRecords.get(); }
+
+    @Override
+    public void close() {
+        sync();
+    }
+
+    private synchronized void rotate(Segment full) throws IOException {
+        if (active != full) {
+            return;
+        }
+        Segment next = Segment.create(dir, full.index + 1, segmentBytes);
+        segments.put(next.index, next);
+        active = next;
+    }
+
+    private boolean advance() {
+        Map.Entry<Long, Segment> next = segments.higherEntry(readSegment.index);
+        if (next == null) {
+            return false;
+        }
+        readSegment = next.getValue();
+        readOffset = HEADER;
+        return true;
+    }
+
+    /**
+     * No record can still appear in a segment once it has been replaced as
+     * the active one and every appender holding a claim in it has returned
+     */
+    private boolean isSealed(Segment segment) {
+        return segment != active && segment.writers.get() == 0;
+    }
+
+    private void corrupt(Segment segment, String reason) {
+        corruptRecords.incrementAndGet();
+        System.err.println("❌ Corrupt journal record in " + segment.path.getFileName()
+                + " at " + readOffset + " (" + reason + "), skipping the rest of the segment");
+    }
+
+    private void recover() throws IOException {
+        long checkpointSegment = -1;
+        int checkpointOffset = HEADER;
+        Path checkpoint = dir.resolve(CHECKPOINT);
+        if (Files.exists(checkpoint)) {
+            String[] parts = Files.readString(checkpoint, StandardCharsets.UTF_8).trim().split(" ");
+            checkpointSegment = Long.parseLong(parts[0]);
+            checkpointOffset = Integer.parseInt(parts[1]);
+        }
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "segment-*.log")) {
+            stream.forEach(files::add);
+        }
+        for (Path file : files) {
+            long index = Segment.indexOf(file);
+            if (index < checkpointSegment) {
+                Files.delete(file);
+            } else {
+                Segment segment = Segment.open(file, index);
+                if (segment == null) {
+                    System.err.println("❌ Ignoring journal segment with a bad header: " + file.getFileName());
+                } else {
+                    segments.put(index, segment);
+                }
+            }
+        }
+
+        long nextIndex = segments.isEmpty() ? Math.max(0, checkpointSegment) : segments.lastKey() + 1;
+        active = Segment.create(dir, nextIndex, segmentBytes);
+        segments.put(active.index, active);
+
+        // The checkpoint offset only means something in the segment it was taken
+        // in; a freshly created segment reusing that index starts empty
+        readSegment = segments.firstEntry().getValue();
+        readOffset = readSegment != active && readSegment.index == checkpointSegment ? checkpointOffset : HEADER;
+    }
+
+    private static int checksum(byte[] record) {
+        CRC32C crc = new CRC32C();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+
+    private static int align(int size) {
+        return (size + 7) & ~7;
+    }
+
+    private static final class Segment {
+        private final long index;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private final AtomicInteger claimed;
+        private final AtomicInteger writers = new AtomicInteger();
+        private volatile boolean synced;
+
+        private Segment(long index, Path path, MappedByteBuffer buffer, int claimed) {
+            this.index = index;
+            this.path = path;
+            this.buffer = buffer;
+            this.claimed = new AtomicInteger(claimed);
+        }
+
+        static Segment create(Path dir, long index, int size) throws IOException {
+            Path path = dir.resolve(String.format("segment-%020d.log", index));
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                buffer.putInt(0, MAGIC);
+                return new Segment(index, path, buffer, HEADER);
+            }
+        }
+
+        /**
+         * Map a segment left by an earlier run; it only takes no more appends
+         */
+        static Segment open(Path path, long index) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long size = channel.size();
+                if (size < HEADER || size > Integer.MAX_VALUE) {
+                    return null;
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                if (buffer.getInt(0) != MAGIC) {
+                    return null;
+                }
+                Segment segment = new Segment(index, path, buffer, (int) size);
+                segment.synced = true;
+                return segment;
+            }
+        }
+
+        static long indexOf(Path file) {
+            String name = file.getFileName().toString();
+            return Long.parseLong(name.substring("segment-".length(), name.length() - ".log".length()));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.example.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Zip Directory - Reads a zip file's central directory to find where each
+ * entry's data sits in the file, so stored entries can be memory-mapped and
+ * checked in place. Handles Zip64 archives.
+ */
+public final class ZipDirectory {
+
+    public static final int STORED = 0;
+
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int CENTRAL_SIGNATURE = 0x02014b50;
+    private static final int LOCAL_SIGNATURE = 0x04034b50;
+    private static final int END_SIZE = 22;
+    private static final int MAX_COMMENT = 0xFFFF;
+
+    private ZipDirectory() {
+    }
+
+    /**
+     * Every entry of the archive by name, in directory order
+     */
+    public static Map<String, Entry> read(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        int tailSize = (int) Math.min(fileSize, END_SIZE + MAX_COMMENT);
+        ByteBuffer tail = readFully(channel, fileSize - tailSize, tailSize);
+
+        int end = -1;
+        for (int i = tailSize - END_SIZE; i >= 0; i--) {
+            if (tail.getInt(i) == END_SIGNATURE) {
+                end = i;
+                break;
+            }
+        }
+        if (end < 0) {
+            throw new IOException("Not a zip file: end of central directory not found");
+        }
+
+        long entries = tail.getShort(end + 10) & 0xFFFF;
+        long directorySize = tail.getInt(end + 12) & 0xFFFFFFFFL;
+        long directoryOffset = tail.getInt(end + 16) & 0xFFFFFFFFL;
+        if (entries == 0xFFFF || directorySize == 0xFFFFFFFFL || directoryOffset == 0xFFFFFFFFL) {
+            long endPosition = fileSize - tailSize + end;
+            ByteBuffer locator = readFully(channel, endPosition - 20, 20);
+            if (locator.getInt(0) != ZIP64_LOCATOR_SIGNATURE) {
+                throw new IOException("Zip64 locator missing");
+            }
+            ByteBuffer zip64End = readFully(channel, locator.getLong(8), 56);
+            if (zip64End.getInt(0) != ZIP64_END_SIGNATURE) {
+                throw new IOException("Zip64 end of central directory missing");
+            }
+            entries = zip64End.getLong(32);
+            directorySize = zip64End.getLong(40);
+            directoryOffset = zip64End.getLong(48);
+        }
+        if (directorySize > Integer.MAX_VALUE) {
+            throw new IOException("Central directory too large: " + directorySize + " bytes");
+        }
+
+        ByteBuffer directory = readFully(channel, directoryOffset, (int) directorySize);
+        Map<String, Entry> result = new LinkedHashMap<>();
+        int position = 0;
+        for (long i = 0; i < entries; i++) {
+            if (directory.getInt(position) != CENTRAL_SIGNATURE) {
+                throw new IOException("Corrupt central directory at entry " + i);
+            }
+            int method = directory.getShort(position + 10) & 0xFFFF;
+            long compressedSize = directory.getInt(position + 20) & 0xFFFFFFFFL;
+            long size = directory.getInt(position + 24) & 0xFFFFFFFFL;
+            int nameLength = directory.getShort(position + 28) & 0xFFFF;
+            int extraLength = directory.getShort(position + 30) & 0xFFFF;
+            int commentLength = directory.getShort(position + 32) & 0xFFFF;
+            long localOffset = directory.getInt(position + 42) & 0xFFFFFFFFL;
+
+            byte[] nameBytes = new byte[nameLength];
+            directory.get(position + 46, nameBytes);
+            String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+            // Zip64 extra field: only the values saturated above are present, in this order
+            int extra = position + 46 + nameLength;
+            int extraEnd = extra + extraLength;
+            while (extra + 4 <= extraEnd) {
+                int id = directory.getShort(extra) & 0xFFFF;
+                int length = directory.getShort(extra + 2) & 0xFFFF;
+                if (id == 0x0001) {
+                    int field = extra + 4;
+                    if (size == 0xFFFFFFFFL) {
+                        size = directory.getLong(field);
+                        field += 8;
+                    }
+                    if (compressedSize == 0xFFFFFFFFL) {
+                        compressedSize = directory.getLong(field);
+                        field += 8;
+                    }
+                    if (localOffset == 0xFFFFFFFFL) {
+                        localOffset = directory.getLong(field);
+                    }
+                }
+                extra += 4 + length;
+            }
+
+            result.put(name, new Entry(channel, name, method, localOffset, compressedSize, size));
+            position += 46 + nameLength + extraLength + commentLength;
+        }
+        return result;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Zip file truncated");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * One entry. The data offset is resolved from the local header on demand.
+     */
+    public static final class Entry {
+        private final FileChannel channel;
+        private final String name;
+        private final int method;
+        private final long localOffset;
+        private final long compressedSize;
+        private final long size;
+
+        Entry(FileChannel channel, String name, int method, long localOffset, long compressedSize, long size) {
+            this.channel = channel;
+            this.name = name;
+            this.method = method;
+            this.localOffset = localOffset;
+            this.compressedSize = compressedSize;
+            this.size = size;
+        }
+
+        public String getName() { return name; }
+
+        public int getMethod() { return method; }
+
+        public long getCompressedSize() { return compressedSize; }
+
+        public long getSize() { return size; }
+
+        /**
+         * File position of the entry's first data byte
+         */
+        public long getDataOffset() throws IOException {
+            ByteBuffer header = readFully(channel, localOffset, 30);
+            if (header.getInt(0) != LOCAL_SIGNATURE) {
+                throw new IOException("Corrupt local header for " + name);
+            }
+            int nameLength = header.getShort(26) & 0xFFFF;
+            int extraLength = header.getShort(28) & 0xFFFF;
+            return localOffset + 30 + nameLength + extraLength;
+        }
+    }
+}
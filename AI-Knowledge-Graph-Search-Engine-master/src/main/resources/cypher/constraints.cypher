@@ -3,3 +3,6 @@ CREATE CONSTRAINT user_email_unique FOR (u:User) REQUIRE u.email IS UNIQUE;
 CREATE CONSTRAINT ticket_id_unique FOR (t:Ticket) REQUIRE t.id IS UNIQUE;
 CREATE CONSTRAINT team_id_unique FOR (t:Team) REQUIRE t.id IS UNIQUE;
 CREATE CONSTRAINT category_id_unique FOR (c:Category) REQUIRE c.id IS UNIQUE;
+CREATE CONSTRAINT daily_rollup_date FOR (r:DailyRollup) REQUIRE r.date IS UNIQUE;
+CREATE CONSTRAINT latency_histogram_id FOR (h:LatencyHistogram) REQUIRE h.id IS UNIQUE;
+CREATE CONSTRAINT saved_report_name FOR (r:SavedReport) REQUIRE r.name IS UNIQUE;
@@ -5,3 +5,5 @@ CREATE INDEX category_id_index FOR (c:Category) ON (c.id);
 CREATE INDEX team_id_index FOR (t:Team) ON (t.id);
 CREATE INDEX kb_id_index FOR (k:KnowledgeBaseArticle) ON (k.id);
 CREATE INDEX sla_id_index FOR (s:SLA) ON (s.id);
+CREATE INDEX ticket_created_at_index FOR (t:Ticket) ON (t.createdAt);
+CREATE INDEX ticket_updated_at_index FOR (t:Ticket) ON (t.updatedAt);